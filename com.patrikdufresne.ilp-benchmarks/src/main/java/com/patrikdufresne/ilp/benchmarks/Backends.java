@@ -0,0 +1,63 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.cbc.CbcSolverFactory;
+import com.patrikdufresne.ilp.glpk.GLPKSolverFactory;
+
+/**
+ * Create the solver of the backend identified by the benchmark parameter.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class Backends {
+
+    /**
+     * Parameter value for {@link CbcSolverFactory}.
+     */
+    static final String CBC = "cbc"; //$NON-NLS-1$
+
+    /**
+     * Parameter value for {@link GLPKSolverFactory}.
+     */
+    static final String GLPK = "glpk"; //$NON-NLS-1$
+
+    /**
+     * Create a new solver.
+     * 
+     * @param backend
+     *            one of {@link #GLPK} or {@link #CBC}
+     * @return the solver
+     */
+    static Solver createSolver(String backend) {
+        if (GLPK.equals(backend)) {
+            return GLPKSolverFactory.instance().createSolver();
+        } else if (CBC.equals(backend)) {
+            return CbcSolverFactory.instance().createSolver();
+        }
+        throw new IllegalArgumentException("unknown backend: " + backend); //$NON-NLS-1$
+    }
+
+    /**
+     * Private constructor for utility class.
+     */
+    private Backends() {
+        // Nothing to do
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.cbc.CbcSolverFactory;
+import com.patrikdufresne.ilp.cbc.CbcSolverOption;
+
+/**
+ * Compare the resolution time of CBC according to the number of threads. The instances are multi-dimensional knapsack
+ * problems, hard enough for the branch and cut to dominate the resolution time.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CbcThreadsBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean deterministic;
+
+    LinearProblem lp;
+
+    CbcSolverOption option;
+
+    /**
+     * The seed of the instance, changed for each invocation.
+     */
+    long seed;
+
+    @Param({ "80" })
+    public int size;
+
+    Solver solver;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    @TearDown(Level.Invocation)
+    public void dispose() {
+        this.lp.dispose();
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeSolver() {
+        this.solver.dispose();
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        this.lp = this.solver.createLinearProblem();
+        Models.knapsack(this.lp, this.size, this.seed++);
+    }
+
+    @Setup(Level.Trial)
+    public void setupSolver() {
+        this.solver = CbcSolverFactory.instance().createSolver();
+        this.option = (CbcSolverOption) this.solver.createSolverOption();
+        this.option.setThreads(this.threads);
+        this.option.setDeterministic(Boolean.valueOf(this.deterministic));
+    }
+
+    @Benchmark
+    public boolean solve() {
+        return this.solver.solve(this.lp, this.option);
+    }
+
+}
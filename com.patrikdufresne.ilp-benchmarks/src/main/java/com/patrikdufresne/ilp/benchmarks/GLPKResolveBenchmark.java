@@ -0,0 +1,162 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.gnu.glpk.GLPK;
+import org.gnu.glpk.GLPKConstants;
+import org.gnu.glpk.glp_prob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.Variable;
+import com.patrikdufresne.ilp.glpk.GLPKSolverFactory;
+import com.patrikdufresne.ilp.io.ModelFiles;
+
+/**
+ * Measure the time of repeated modify / solve cycles on a large MIP, and the time of the problem copy that used to be
+ * done before each <code>glp_intopt</code>. The instance is a set of independent knapsack rows over disjoint blocks of
+ * binary columns, easy to solve, so the copy is a significant part of each re-solve.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GLPKResolveBenchmark {
+
+    @Param({ "10" })
+    public int block;
+
+    /**
+     * Number of resolutions, used to modify the problem between each one.
+     */
+    int cycle;
+
+    /**
+     * The variable modified between each resolution.
+     */
+    Variable first;
+
+    LinearProblem lp;
+
+    SolverOption option;
+
+    /**
+     * GLPK problem of the same size as {@link #lp}, read from a file since the problem object of the backend is not
+     * accessible.
+     */
+    glp_prob prob;
+
+    @Param({ "300000" })
+    public int size;
+
+    Solver solver;
+
+    /**
+     * Create a problem with <code>size</code> binary columns and one knapsack row per block of columns.
+     */
+    private static void createProblem(LinearProblem lp, int size, int block) {
+        Random random = new Random(0);
+        Variable[] vars = new Variable[size];
+        int[] profits = new int[size];
+        for (int j = 0; j < size; j++) {
+            vars[j] = lp.addBinaryVariable("x" + j); //$NON-NLS-1$
+            profits[j] = 10 + random.nextInt(90);
+        }
+        lp.setObjectiveLinear(lp.createLinear(profits, vars));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        for (int i = 0; i < size / block; i++) {
+            Variable[] sub = new Variable[block];
+            int[] weights = new int[block];
+            int sum = 0;
+            for (int j = 0; j < block; j++) {
+                sub[j] = vars[i * block + j];
+                weights[j] = 1 + random.nextInt(100);
+                sum += weights[j];
+            }
+            lp.addConstraint("c" + i, weights, sub, null, Integer.valueOf(sum / 2)); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Copy the problem as done before each <code>glp_intopt</code>.
+     */
+    @Benchmark
+    public void copy() {
+        glp_prob copy = GLPK.glp_create_prob();
+        GLPK.glp_copy_prob(copy, this.prob, GLPKConstants.GLP_ON);
+        GLPK.glp_delete_prob(copy);
+    }
+
+    @TearDown(Level.Trial)
+    public void dispose() {
+        GLPK.glp_delete_prob(this.prob);
+        this.lp.dispose();
+        this.solver.dispose();
+    }
+
+    /**
+     * Modify the problem and solve it again.
+     */
+    @Benchmark
+    public boolean resolve() {
+        this.first.setUpperBound(Integer.valueOf(this.cycle++ % 2));
+        return this.solver.solve(this.lp, this.option);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.solver = GLPKSolverFactory.instance().createSolver();
+        this.option = this.solver.createSolverOption();
+        this.lp = this.solver.createLinearProblem();
+        createProblem(this.lp, this.size, this.block);
+        this.first = this.lp.getVariable(0);
+        File file = File.createTempFile("problem", ".mps"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            ModelFiles.write(this.lp, file);
+            this.prob = GLPK.glp_create_prob();
+            if (GLPK.glp_read_mps(this.prob, GLPKConstants.GLP_MPS_FILE, null, file.getAbsolutePath()) != 0) {
+                throw new IOException("can't read " + file); //$NON-NLS-1$
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+}
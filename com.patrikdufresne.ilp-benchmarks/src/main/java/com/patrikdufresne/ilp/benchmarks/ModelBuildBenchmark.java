@@ -0,0 +1,271 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.patrikdufresne.ilp.Linear;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Measure the throughput of the operations used to build a model. The additions are measured by batch of
+ * {@link #BATCH} operations on a new problem to avoid measuring an always growing problem.
+ * <p>
+ * GLPK problems are confined to the thread who created them, so every state is per thread.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBuildBenchmark {
+
+    /**
+     * State with an empty problem created before each invocation.
+     */
+    @State(Scope.Thread)
+    public static class EmptyProblem {
+
+        @Param({ Backends.GLPK, Backends.CBC })
+        public String backend;
+
+        LinearProblem lp;
+
+        String[] names;
+
+        Solver solver;
+
+        @TearDown(Level.Invocation)
+        public void dispose() {
+            this.lp.dispose();
+        }
+
+        @TearDown(Level.Trial)
+        public void disposeSolver() {
+            this.solver.dispose();
+        }
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            this.lp = this.solver.createLinearProblem();
+        }
+
+        @Setup(Level.Trial)
+        public void setupSolver() {
+            this.solver = Backends.createSolver(this.backend);
+            this.names = names();
+        }
+
+    }
+
+    /**
+     * State with a problem of {@link #COLUMNS} variables created before each invocation and the terms of
+     * {@link #BATCH} constraints.
+     */
+    @State(Scope.Thread)
+    public static class ProblemWithVariables {
+
+        @Param({ Backends.GLPK, Backends.CBC })
+        public String backend;
+
+        int[][] coefficients;
+
+        LinearProblem lp;
+
+        String[] names;
+
+        Solver solver;
+
+        Variable[][] terms;
+
+        @TearDown(Level.Invocation)
+        public void dispose() {
+            this.lp.dispose();
+        }
+
+        @TearDown(Level.Trial)
+        public void disposeSolver() {
+            this.solver.dispose();
+        }
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            this.lp = this.solver.createLinearProblem();
+            Variable[] vars = addVariables(this.lp, COLUMNS);
+            Random random = new Random(0);
+            this.coefficients = new int[BATCH][TERMS];
+            this.terms = new Variable[BATCH][TERMS];
+            for (int i = 0; i < BATCH; i++) {
+                for (int k = 0; k < TERMS; k++) {
+                    this.coefficients[i][k] = 1 + random.nextInt(100);
+                    // Distinct columns within a row.
+                    this.terms[i][k] = vars[(i + k * (COLUMNS / TERMS)) % COLUMNS];
+                }
+            }
+        }
+
+        @Setup(Level.Trial)
+        public void setupSolver() {
+            this.solver = Backends.createSolver(this.backend);
+            this.names = names();
+        }
+
+    }
+
+    /**
+     * State with a problem of {@link #COLUMNS} variables created once and the arrays of a linear expression.
+     */
+    @State(Scope.Thread)
+    public static class SharedProblem {
+
+        @Param({ Backends.GLPK, Backends.CBC })
+        public String backend;
+
+        int[] coefficients;
+
+        LinearProblem lp;
+
+        Linear objective;
+
+        Solver solver;
+
+        Variable[] terms;
+
+        @TearDown(Level.Trial)
+        public void dispose() {
+            this.lp.dispose();
+            this.solver.dispose();
+        }
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.solver = Backends.createSolver(this.backend);
+            this.lp = this.solver.createLinearProblem();
+            Variable[] vars = addVariables(this.lp, COLUMNS);
+            Random random = new Random(0);
+            this.coefficients = new int[TERMS];
+            this.terms = new Variable[TERMS];
+            for (int k = 0; k < TERMS; k++) {
+                this.coefficients[k] = 1 + random.nextInt(100);
+                this.terms[k] = vars[k * (COLUMNS / TERMS)];
+            }
+            int[] costs = new int[COLUMNS];
+            for (int j = 0; j < COLUMNS; j++) {
+                costs[j] = 1 + random.nextInt(100);
+            }
+            this.objective = this.lp.createLinear(costs, vars);
+        }
+
+    }
+
+    /**
+     * Number of operations per invocation of the additions.
+     */
+    static final int BATCH = 1000;
+
+    /**
+     * Number of variables of the problems.
+     */
+    static final int COLUMNS = 10000;
+
+    /**
+     * Number of terms of the linear expressions.
+     */
+    static final int TERMS = 20;
+
+    /**
+     * Add the given number of integer variables.
+     */
+    static Variable[] addVariables(LinearProblem lp, int count) {
+        Variable[] vars = new Variable[count];
+        for (int j = 0; j < count; j++) {
+            vars[j] = lp.addIntegerVariable("x" + j, Integer.valueOf(0), Integer.valueOf(10)); //$NON-NLS-1$
+        }
+        return vars;
+    }
+
+    /**
+     * Returns the names used by the additions.
+     */
+    static String[] names() {
+        String[] names = new String[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            names[i] = "n" + i; //$NON-NLS-1$
+        }
+        return names;
+    }
+
+    /**
+     * Add {@link #BATCH} constraints of {@link #TERMS} terms.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void addConstraint(ProblemWithVariables state) {
+        for (int i = 0; i < BATCH; i++) {
+            state.lp.addConstraint(state.names[i], state.coefficients[i], state.terms[i], null, Integer.valueOf(100));
+        }
+    }
+
+    /**
+     * Add {@link #BATCH} continuous variables.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void addVariable(EmptyProblem state) {
+        for (int i = 0; i < BATCH; i++) {
+            state.lp.addVariable(state.names[i], VarType.REAL);
+        }
+    }
+
+    /**
+     * Create a linear expression of {@link #TERMS} terms. Use the GC profiler to get the allocation rate.
+     */
+    @Benchmark
+    public Linear createLinear(SharedProblem state) {
+        return state.lp.createLinear(state.coefficients, state.terms);
+    }
+
+    /**
+     * Replace the objective by a linear expression of {@link #COLUMNS} terms.
+     */
+    @Benchmark
+    public void setObjectiveLinear(SharedProblem state) {
+        state.lp.setObjectiveLinear(state.objective);
+    }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.generator.Generators;
+import com.patrikdufresne.ilp.io.ModelFiles;
+
+/**
+ * Measure the time to load a model file into a new problem for each file format.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelFileBenchmark {
+
+    @Param({ Backends.GLPK, Backends.CBC })
+    public String backend;
+
+    File file;
+
+    /**
+     * The file extension.
+     */
+    @Param({ ".lp", ".mps", ".ilpb" })
+    public String format;
+
+    LinearProblem lp;
+
+    @Param({ "1000" })
+    public int size;
+
+    Solver solver;
+
+    @TearDown(Level.Invocation)
+    public void dispose() {
+        this.lp.dispose();
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeSolver() {
+        this.solver.dispose();
+        this.file.delete();
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        this.lp = this.solver.createLinearProblem();
+    }
+
+    @Setup(Level.Trial)
+    public void setupSolver() throws IOException {
+        this.solver = Backends.createSolver(this.backend);
+        this.file = File.createTempFile("model", this.format); //$NON-NLS-1$
+        LinearProblem model = this.solver.createLinearProblem();
+        Models.create(Generators.SET_COVERING, model, this.size, 0);
+        ModelFiles.write(model, this.file);
+        model.dispose();
+    }
+
+    @Benchmark
+    public LinearProblem load() throws IOException {
+        ModelFiles.read(this.file, this.lp);
+        return this.lp;
+    }
+
+}
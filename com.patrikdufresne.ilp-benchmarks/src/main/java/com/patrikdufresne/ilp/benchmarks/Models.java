@@ -0,0 +1,171 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.util.Random;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Variable;
+import com.patrikdufresne.ilp.generator.Generators;
+import com.patrikdufresne.ilp.generator.ModelGenerator;
+
+/**
+ * Generate the models solved by the benchmarks. Every model is built from a seed so the same instance is solved by
+ * every backend.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class Models {
+
+    /**
+     * Parameter value for {@link #assignment(LinearProblem, int, long)}.
+     */
+    static final String ASSIGNMENT = "assignment"; //$NON-NLS-1$
+
+    /**
+     * Parameter value for {@link #knapsack(LinearProblem, int, long)}.
+     */
+    static final String KNAPSACK = "knapsack"; //$NON-NLS-1$
+
+    /**
+     * Parameter value for {@link #scheduling(LinearProblem, int, long)}.
+     */
+    static final String SCHEDULING = "scheduling"; //$NON-NLS-1$
+
+    /**
+     * Assignment of <code>size</code> workers to <code>size</code> tasks minimizing the cost. The LP relaxation is
+     * integral.
+     */
+    static void assignment(LinearProblem lp, int size, long seed) {
+        Random random = new Random(seed);
+        Variable[][] x = new Variable[size][size];
+        int[] costs = new int[size * size];
+        Variable[] vars = new Variable[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                x[i][j] = lp.addBinaryVariable("x" + i + "_" + j); //$NON-NLS-1$ //$NON-NLS-2$
+                vars[i * size + j] = x[i][j];
+                costs[i * size + j] = 1 + random.nextInt(100);
+            }
+        }
+        lp.setObjectiveLinear(lp.createLinear(costs, vars));
+        lp.setObjectiveDirection(LinearProblem.MINIMIZE);
+        int[] ones = new int[size];
+        for (int k = 0; k < size; k++) {
+            ones[k] = 1;
+        }
+        for (int i = 0; i < size; i++) {
+            lp.addConstraint("worker" + i, ones, x[i], 1, 1); //$NON-NLS-1$
+        }
+        for (int j = 0; j < size; j++) {
+            Variable[] column = new Variable[size];
+            for (int i = 0; i < size; i++) {
+                column[i] = x[i][j];
+            }
+            lp.addConstraint("task" + j, ones, column, 1, 1); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Create the model identified by the benchmark parameter. Names other than the ones defined by this class are
+     * looked up in {@link Generators}.
+     */
+    static void create(String model, LinearProblem lp, int size, long seed) {
+        if (KNAPSACK.equals(model)) {
+            knapsack(lp, size, seed);
+        } else if (ASSIGNMENT.equals(model)) {
+            assignment(lp, size, seed);
+        } else if (SCHEDULING.equals(model)) {
+            scheduling(lp, size, seed);
+        } else {
+            ModelGenerator generator = Generators.create(model);
+            generator.setSize(size);
+            generator.setSeed(seed);
+            generator.generate(lp);
+        }
+    }
+
+    /**
+     * Multi-dimensional knapsack with <code>size</code> items and five capacity rows.
+     */
+    static void knapsack(LinearProblem lp, int size, long seed) {
+        Random random = new Random(seed);
+        Variable[] vars = new Variable[size];
+        int[] profits = new int[size];
+        for (int j = 0; j < size; j++) {
+            vars[j] = lp.addBinaryVariable("x" + j); //$NON-NLS-1$
+            profits[j] = 10 + random.nextInt(90);
+        }
+        lp.setObjectiveLinear(lp.createLinear(profits, vars));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        for (int i = 0; i < 5; i++) {
+            int[] weights = new int[size];
+            int sum = 0;
+            for (int j = 0; j < size; j++) {
+                weights[j] = 1 + random.nextInt(100);
+                sum += weights[j];
+            }
+            lp.addConstraint("capacity" + i, weights, vars, null, Integer.valueOf(sum / 2)); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Scheduling of <code>size</code> jobs on <code>size / 10</code> identical machines minimizing the makespan.
+     */
+    static void scheduling(LinearProblem lp, int size, long seed) {
+        Random random = new Random(seed);
+        int machines = Math.max(2, size / 10);
+        int[] durations = new int[size];
+        int total = 0;
+        for (int j = 0; j < size; j++) {
+            durations[j] = 1 + random.nextInt(20);
+            total += durations[j];
+        }
+        Variable makespan = lp.addIntegerVariable("makespan", Integer.valueOf(0), Integer.valueOf(total)); //$NON-NLS-1$
+        lp.setObjectiveLinear(lp.createLinear(1, makespan));
+        lp.setObjectiveDirection(LinearProblem.MINIMIZE);
+        Variable[][] x = new Variable[size][machines];
+        for (int j = 0; j < size; j++) {
+            int[] ones = new int[machines];
+            for (int m = 0; m < machines; m++) {
+                x[j][m] = lp.addBinaryVariable("x" + j + "_" + m); //$NON-NLS-1$ //$NON-NLS-2$
+                ones[m] = 1;
+            }
+            lp.addConstraint("job" + j, ones, x[j], 1, 1); //$NON-NLS-1$
+        }
+        for (int m = 0; m < machines; m++) {
+            // sum(duration * x) - makespan <= 0
+            int[] coefficients = new int[size + 1];
+            Variable[] vars = new Variable[size + 1];
+            for (int j = 0; j < size; j++) {
+                coefficients[j] = durations[j];
+                vars[j] = x[j][m];
+            }
+            coefficients[size] = -1;
+            vars[size] = makespan;
+            lp.addConstraint("machine" + m, coefficients, vars, null, Integer.valueOf(0)); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Private constructor for utility class.
+     */
+    private Models() {
+        // Nothing to do
+    }
+
+}
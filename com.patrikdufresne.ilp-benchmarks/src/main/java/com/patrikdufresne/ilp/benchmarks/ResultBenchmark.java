@@ -0,0 +1,91 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.patrikdufresne.ilp.ILPException;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Measure the extraction of the solution: the value of every variable of a solved assignment problem.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultBenchmark {
+
+    @Param({ Backends.GLPK, Backends.CBC })
+    public String backend;
+
+    LinearProblem lp;
+
+    /**
+     * Number of workers and tasks, the problem has <code>size * size</code> variables.
+     */
+    @Param({ "100", "300" })
+    public int size;
+
+    Solver solver;
+
+    @TearDown(Level.Trial)
+    public void dispose() {
+        this.lp.dispose();
+        this.solver.dispose();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.solver = Backends.createSolver(this.backend);
+        this.lp = this.solver.createLinearProblem();
+        Models.assignment(this.lp, this.size, 0);
+        if (!this.solver.solve(this.lp, this.solver.createSolverOption())) {
+            throw new ILPException("assignment problem not solved"); //$NON-NLS-1$
+        }
+    }
+
+    @Benchmark
+    public double getValue() {
+        double sum = 0;
+        for (Variable var : this.lp.getVariables()) {
+            sum += var.getValue().doubleValue();
+        }
+        return sum;
+    }
+
+}
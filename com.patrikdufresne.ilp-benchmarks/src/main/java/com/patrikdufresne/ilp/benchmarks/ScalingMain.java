@@ -0,0 +1,80 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.util.Locale;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.generator.Generators;
+import com.patrikdufresne.ilp.generator.ModelGenerator;
+
+/**
+ * Generate a model of increasing size and print the build and solve time as CSV to plot how each backend scales. Usage:
+ * <code>java -cp target/benchmarks.jar com.patrikdufresne.ilp.benchmarks.ScalingMain &lt;backend&gt; &lt;model&gt; [size...]</code>
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class ScalingMain {
+
+    /**
+     * Default sizes when none are given on the command line.
+     */
+    private static final int[] SIZES = new int[] { 10, 20, 50, 100, 200, 500 };
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("usage: ScalingMain <backend> <model> [size...]"); //$NON-NLS-1$
+            System.exit(1);
+        }
+        int[] sizes = SIZES;
+        if (args.length > 2) {
+            sizes = new int[args.length - 2];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = Integer.parseInt(args[i + 2]);
+            }
+        }
+        Solver solver = Backends.createSolver(args[0]);
+        System.out.println("backend,model,size,columns,rows,build_ms,solve_ms,status"); //$NON-NLS-1$
+        for (int size : sizes) {
+            ModelGenerator generator = Generators.create(args[1]);
+            generator.setSize(size);
+            LinearProblem lp = solver.createLinearProblem();
+            try {
+                long start = System.nanoTime();
+                generator.generate(lp);
+                long build = System.nanoTime() - start;
+                start = System.nanoTime();
+                solver.solve(lp, solver.createSolverOption());
+                long solve = System.nanoTime() - start;
+                System.out.println(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.3f,%.3f,%s", args[0], args[1], size, //$NON-NLS-1$
+                        lp.getVariables().size(), lp.getConstraints().size(), build / 1000000.0, solve / 1000000.0, lp.getStatus()));
+            } finally {
+                lp.dispose();
+            }
+        }
+        solver.dispose();
+    }
+
+    /**
+     * Private constructor for main class.
+     */
+    private ScalingMain() {
+        // Nothing to do
+    }
+
+}
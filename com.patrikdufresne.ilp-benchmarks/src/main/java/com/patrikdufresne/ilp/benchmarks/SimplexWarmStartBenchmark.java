@@ -0,0 +1,154 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.patrikdufresne.ilp.IWarmStart;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+import com.patrikdufresne.ilp.simplex.SimplexSolverFactory;
+
+/**
+ * Compare repeated resolutions of the simplex solver with and without warm start. The instance is a random LP problem;
+ * a few upper bounds are changed between each resolution. The number of simplex iterations is reported as a secondary
+ * result.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SimplexWarmStartBenchmark {
+
+    /**
+     * Count the simplex iterations of the resolutions.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Iterations {
+
+        public long iterations;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.iterations = 0;
+        }
+
+    }
+
+    @Param({ "400" })
+    public int columns;
+
+    LinearProblem lp;
+
+    SolverOption option;
+
+    /**
+     * Select the upper bounds changed between each resolution.
+     */
+    Random random;
+
+    @Param({ "200" })
+    public int rows;
+
+    Solver solver;
+
+    Variable[] vars;
+
+    @Param({ "false", "true" })
+    public boolean warmStart;
+
+    /**
+     * Create a random LP problem.
+     */
+    private static void createProblem(LinearProblem lp, int n, int m) {
+        Random random = new Random(0);
+        Variable[] vars = new Variable[n];
+        int[] profits = new int[n];
+        for (int j = 0; j < n; j++) {
+            vars[j] = lp.addVariable("x" + j, VarType.REAL); //$NON-NLS-1$
+            vars[j].setLowerBound(Integer.valueOf(0));
+            vars[j].setUpperBound(Integer.valueOf(10));
+            profits[j] = 1 + random.nextInt(100);
+        }
+        lp.setObjectiveLinear(lp.createLinear(profits, vars));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        for (int i = 0; i < m; i++) {
+            int[] weights = new int[n];
+            for (int j = 0; j < n; j++) {
+                weights[j] = random.nextInt(20) == 0 ? 1 + random.nextInt(50) : 0;
+            }
+            lp.addConstraint("c" + i, weights, vars, null, Integer.valueOf(100 + random.nextInt(100))); //$NON-NLS-1$
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dispose() {
+        this.lp.dispose();
+        this.solver.dispose();
+    }
+
+    /**
+     * Change a few upper bounds and solve the problem again.
+     */
+    @Benchmark
+    public boolean resolve(Iterations counter) {
+        for (int e = 0; e < 5; e++) {
+            this.vars[this.random.nextInt(this.columns)].setUpperBound(Integer.valueOf(this.random.nextInt(10)));
+        }
+        boolean feasible = this.solver.solve(this.lp, this.option);
+        counter.iterations += this.lp.getStatistics().getIterations();
+        return feasible;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.solver = SimplexSolverFactory.instance().createSolver();
+        this.option = this.solver.createSolverOption();
+        ((IWarmStart) this.option).setWarmStart(this.warmStart);
+        this.lp = this.solver.createLinearProblem();
+        createProblem(this.lp, this.columns, this.rows);
+        this.vars = this.lp.getVariables().toArray(new Variable[this.columns]);
+        this.random = new Random(1);
+        // The first resolution is always cold.
+        this.solver.solve(this.lp, this.option);
+    }
+
+}
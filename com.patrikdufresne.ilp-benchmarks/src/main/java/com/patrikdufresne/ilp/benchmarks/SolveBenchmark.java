@@ -0,0 +1,96 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.generator.Generators;
+
+/**
+ * Measure the latency of a cold resolution of the generated models. The problem is built before each invocation so
+ * the basis of the previous resolution is never reused.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolveBenchmark {
+
+    @Param({ Backends.GLPK, Backends.CBC })
+    public String backend;
+
+    LinearProblem lp;
+
+    @Param({ Models.KNAPSACK, Models.ASSIGNMENT, Models.SCHEDULING, Generators.SET_COVERING, Generators.FACILITY_LOCATION })
+    public String model;
+
+    SolverOption option;
+
+    @Param({ "20", "50" })
+    public int size;
+
+    Solver solver;
+
+    @TearDown(Level.Invocation)
+    public void dispose() {
+        this.lp.dispose();
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeSolver() {
+        this.solver.dispose();
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        this.lp = this.solver.createLinearProblem();
+        Models.create(this.model, this.lp, this.size, 0);
+    }
+
+    @Setup(Level.Trial)
+    public void setupSolver() {
+        this.solver = Backends.createSolver(this.backend);
+        this.option = this.solver.createSolverOption();
+    }
+
+    @Benchmark
+    public boolean solve() {
+        return this.solver.solve(this.lp, this.option);
+    }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.generator;
+
+import java.util.Random;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Bin packing: pack the items into the minimum number of bins.
+ * <ul>
+ * <li>size: the number of items,</li>
+ * <li>density: the average weight of an item as a fraction of the bin capacity.</li>
+ * </ul>
+ * The number of bins is the number of bins used by the first fit heuristic in the worst case, so the problem is
+ * feasible. The problem has one binary variable per bin, one binary variable per item and bin, one assignment row per
+ * item and one capacity row per bin.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class BinPackingGenerator extends ModelGenerator {
+
+    /**
+     * Capacity of the bins.
+     */
+    private static final int CAPACITY = 1000;
+
+    @Override
+    protected void generate(LinearProblem lp, Random random) {
+        int items = getSize();
+        int max = Math.max(1, Math.min(CAPACITY, (int) Math.round(2 * getDensity() * CAPACITY)));
+        int[] weights = new int[items];
+        long total = 0;
+        for (int i = 0; i < items; i++) {
+            weights[i] = 1 + random.nextInt(max);
+            total += weights[i];
+        }
+        // First fit leaves at most one bin half empty.
+        int count = (int) Math.min(items, (2 * total + CAPACITY - 1) / CAPACITY + 1);
+
+        Variable[] bins = new Variable[count];
+        int[] ones = new int[count];
+        for (int b = 0; b < count; b++) {
+            bins[b] = addBinaryVariable(lp, "bin" + b); //$NON-NLS-1$
+            ones[b] = 1;
+        }
+        lp.setObjectiveLinear(lp.createLinear(ones, bins));
+        lp.setObjectiveDirection(LinearProblem.MINIMIZE);
+
+        Variable[][] x = new Variable[count][items];
+        for (int i = 0; i < items; i++) {
+            Variable[] assignment = new Variable[count];
+            for (int b = 0; b < count; b++) {
+                x[b][i] = addBinaryVariable(lp, "x" + i + "_" + b); //$NON-NLS-1$ //$NON-NLS-2$
+                assignment[b] = x[b][i];
+            }
+            lp.addConstraint("item" + i, ones, assignment, 1, 1); //$NON-NLS-1$
+        }
+        for (int b = 0; b < count; b++) {
+            // sum(weight * x) - capacity * bin <= 0
+            int[] coefficients = new int[items + 1];
+            Variable[] vars = new Variable[items + 1];
+            System.arraycopy(weights, 0, coefficients, 0, items);
+            System.arraycopy(x[b], 0, vars, 0, items);
+            coefficients[items] = -CAPACITY;
+            vars[items] = bins[b];
+            lp.addConstraint("capacity" + b, coefficients, vars, null, Integer.valueOf(0)); //$NON-NLS-1$
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.generator;
+
+import java.util.Random;
+
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Uncapacitated facility location: open the facilities and serve every customer at minimum opening and service cost.
+ * <ul>
+ * <li>size: the number of customers, the number of facilities is a quarter of the number of customers,</li>
+ * <li>density: the probability of a facility to be able to serve a customer.</li>
+ * </ul>
+ * Every customer may be served by at least one facility so the problem is feasible. The problem has one binary
+ * variable per facility, one continuous variable per allowed customer and facility, one assignment row per customer
+ * and one linking row per allowed customer and facility.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class FacilityLocationGenerator extends ModelGenerator {
+
+    @Override
+    protected void generate(LinearProblem lp, Random random) {
+        int customers = getSize();
+        int facilities = Math.max(2, customers / 4);
+        ArrayLinear objective = new ArrayLinear();
+        Variable[] open = new Variable[facilities];
+        for (int f = 0; f < facilities; f++) {
+            open[f] = addBinaryVariable(lp, "open" + f); //$NON-NLS-1$
+            objective.add(100 + random.nextInt(900), open[f]);
+        }
+        for (int c = 0; c < customers; c++) {
+            ArrayLinear assignment = new ArrayLinear();
+            for (int f = 0; f < facilities; f++) {
+                if (f != c % facilities && random.nextDouble() >= getDensity()) {
+                    continue;
+                }
+                Variable x = addRealVariable(lp, "x" + c + "_" + f, Integer.valueOf(0), Integer.valueOf(1)); //$NON-NLS-1$ //$NON-NLS-2$
+                objective.add(1 + random.nextInt(100), x);
+                assignment.add(1, x);
+                // x - open <= 0
+                ArrayLinear linking = new ArrayLinear(2);
+                linking.add(1, x);
+                linking.add(-1, open[f]);
+                lp.addConstraint("link" + c + "_" + f, linking, null, Integer.valueOf(0)); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            lp.addConstraint("customer" + c, assignment, 1, 1); //$NON-NLS-1$
+        }
+        lp.setObjectiveLinear(objective);
+        lp.setObjectiveDirection(LinearProblem.MINIMIZE);
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.generator;
+
+/**
+ * Utility class to create the model generators by name, e.g. from the command line or a benchmark parameter.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class Generators {
+
+    /**
+     * Name of {@link BinPackingGenerator}.
+     */
+    public static final String BIN_PACKING = "bin-packing"; //$NON-NLS-1$
+
+    /**
+     * Name of {@link FacilityLocationGenerator}.
+     */
+    public static final String FACILITY_LOCATION = "facility-location"; //$NON-NLS-1$
+
+    /**
+     * Name of {@link MultiCommodityFlowGenerator}.
+     */
+    public static final String MULTI_COMMODITY_FLOW = "multi-commodity-flow"; //$NON-NLS-1$
+
+    /**
+     * Name of {@link SetCoveringGenerator}.
+     */
+    public static final String SET_COVERING = "set-covering"; //$NON-NLS-1$
+
+    /**
+     * Name of {@link ShiftSchedulingGenerator}.
+     */
+    public static final String SHIFT_SCHEDULING = "shift-scheduling"; //$NON-NLS-1$
+
+    /**
+     * Create a new generator.
+     * 
+     * @param name
+     *            the generator name
+     * @return the generator
+     * @throws IllegalArgumentException
+     *             if the name is unknown
+     */
+    public static ModelGenerator create(String name) {
+        if (SHIFT_SCHEDULING.equals(name)) {
+            return new ShiftSchedulingGenerator();
+        } else if (SET_COVERING.equals(name)) {
+            return new SetCoveringGenerator();
+        } else if (BIN_PACKING.equals(name)) {
+            return new BinPackingGenerator();
+        } else if (MULTI_COMMODITY_FLOW.equals(name)) {
+            return new MultiCommodityFlowGenerator();
+        } else if (FACILITY_LOCATION.equals(name)) {
+            return new FacilityLocationGenerator();
+        }
+        throw new IllegalArgumentException("unknown generator: " + name); //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the name of every generator.
+     */
+    public static String[] names() {
+        return new String[] { SHIFT_SCHEDULING, SET_COVERING, BIN_PACKING, MULTI_COMMODITY_FLOW, FACILITY_LOCATION };
+    }
+
+    /**
+     * Private constructor for utility class.
+     */
+    private Generators() {
+        // Nothing to do
+    }
+
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.generator;
+
+import java.util.Random;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Base class of the synthetic model generators. A generator builds a parameterised instance through the
+ * {@link LinearProblem} API so the same instance may be created for every solver:
+ * <ul>
+ * <li>the size, meaning depends on the model, see the generator documentation,</li>
+ * <li>the density of the constraint matrix, between 0 and 1,</li>
+ * <li>the integrality fraction, the fraction of the integer variables of the model declared integer, the other ones
+ * being relaxed to continuous,</li>
+ * <li>the seed of the random values.</li>
+ * </ul>
+ * The same parameters always generate the same instance. A generator is not thread safe.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public abstract class ModelGenerator {
+
+    private double density = 0.1;
+
+    private double integrality = 1;
+
+    /**
+     * Random values used to decide which variables are integer, separated from the random values of the model so
+     * the integrality fraction doesn't change the instance.
+     */
+    private Random kinds;
+
+    private long seed;
+
+    private int size = 10;
+
+    /**
+     * Create a new generator with the default parameters.
+     */
+    protected ModelGenerator() {
+        // Nothing to do
+    }
+
+    /**
+     * Add a binary variable, relaxed to a continuous variable between 0 and 1 according to the integrality fraction.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param name
+     *            the variable name
+     * @return the variable
+     */
+    protected Variable addBinaryVariable(LinearProblem lp, String name) {
+        if (isInteger()) {
+            return lp.addBinaryVariable(name);
+        }
+        Variable var = lp.addVariable(name, VarType.REAL);
+        var.setLowerBound(Integer.valueOf(0));
+        var.setUpperBound(Integer.valueOf(1));
+        return var;
+    }
+
+    /**
+     * Add an integer variable, relaxed to a continuous variable according to the integrality fraction.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param name
+     *            the variable name
+     * @param lowerBound
+     *            the lower bound or null
+     * @param upperBound
+     *            the upper bound or null
+     * @return the variable
+     */
+    protected Variable addIntegerVariable(LinearProblem lp, String name, Number lowerBound, Number upperBound) {
+        if (isInteger()) {
+            return lp.addIntegerVariable(name, lowerBound, upperBound);
+        }
+        return addRealVariable(lp, name, lowerBound, upperBound);
+    }
+
+    /**
+     * Add a continuous variable.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param name
+     *            the variable name
+     * @param lowerBound
+     *            the lower bound or null
+     * @param upperBound
+     *            the upper bound or null
+     * @return the variable
+     */
+    protected Variable addRealVariable(LinearProblem lp, String name, Number lowerBound, Number upperBound) {
+        Variable var = lp.addVariable(name, VarType.REAL);
+        var.setLowerBound(lowerBound);
+        var.setUpperBound(upperBound);
+        return var;
+    }
+
+    /**
+     * Generate the model into the given problem.
+     * 
+     * @param lp
+     *            an empty linear problem
+     */
+    public void generate(LinearProblem lp) {
+        if (lp == null) {
+            throw new NullPointerException();
+        }
+        this.kinds = new Random(~this.seed);
+        try {
+            generate(lp, new Random(this.seed));
+        } finally {
+            this.kinds = null;
+        }
+    }
+
+    /**
+     * Implemented by sub-classes to generate the model.
+     * 
+     * @param lp
+     *            an empty linear problem
+     * @param random
+     *            the random values of the model
+     */
+    protected abstract void generate(LinearProblem lp, Random random);
+
+    /**
+     * Returns the density of the constraint matrix.
+     */
+    public double getDensity() {
+        return this.density;
+    }
+
+    /**
+     * Returns the fraction of the integer variables declared integer.
+     */
+    public double getIntegrality() {
+        return this.integrality;
+    }
+
+    /**
+     * Returns the seed of the random values.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the size of the model.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Check if the next integer variable should be declared integer.
+     */
+    private boolean isInteger() {
+        return this.integrality >= 1 || this.kinds.nextDouble() < this.integrality;
+    }
+
+    /**
+     * Sets the density of the constraint matrix.
+     * 
+     * @param density
+     *            a value in ]0, 1]
+     */
+    public void setDensity(double density) {
+        if (!(density > 0 && density <= 1)) {
+            throw new IllegalArgumentException("density should be in ]0, 1]"); //$NON-NLS-1$
+        }
+        this.density = density;
+    }
+
+    /**
+     * Sets the fraction of the integer variables declared integer. The other integer variables are relaxed to
+     * continuous variables.
+     * 
+     * @param integrality
+     *            a value in [0, 1]
+     */
+    public void setIntegrality(double integrality) {
+        if (!(integrality >= 0 && integrality <= 1)) {
+            throw new IllegalArgumentException("integrality should be in [0, 1]"); //$NON-NLS-1$
+        }
+        this.integrality = integrality;
+    }
+
+    /**
+     * Sets the seed of the random values.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the size of the model.
+     * 
+     * @param size
+     *            a positive value
+     */
+    public void setSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size < 1"); //$NON-NLS-1$
+        }
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [size=" + this.size + ", density=" + this.density + ", integrality=" + this.integrality + ", seed=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                + this.seed + "]"; //$NON-NLS-1$
+    }
+
+}
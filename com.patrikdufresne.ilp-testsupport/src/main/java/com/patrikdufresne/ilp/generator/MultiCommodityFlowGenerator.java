@@ -0,0 +1,113 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Multi-commodity fixed charge network design: open the arcs and route the demand of every commodity at minimum
+ * fixed and flow cost.
+ * <ul>
+ * <li>size: the number of nodes, the number of commodities is a fifth of the number of nodes,</li>
+ * <li>density: the probability of an arc between two nodes.</li>
+ * </ul>
+ * The nodes are connected by a ring of arcs in both directions able to carry the total demand, so the problem is
+ * feasible. The problem has one binary variable per arc, one continuous flow variable per commodity and arc, one
+ * conservation row per commodity and node and one capacity row per arc.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class MultiCommodityFlowGenerator extends ModelGenerator {
+
+    @Override
+    protected void generate(LinearProblem lp, Random random) {
+        int nodes = Math.max(2, getSize());
+        int commodities = Math.max(1, nodes / 5);
+        int[] sources = new int[commodities];
+        int[] sinks = new int[commodities];
+        int[] demands = new int[commodities];
+        int total = 0;
+        for (int k = 0; k < commodities; k++) {
+            sources[k] = random.nextInt(nodes);
+            sinks[k] = (sources[k] + 1 + random.nextInt(nodes - 1)) % nodes;
+            demands[k] = 1 + random.nextInt(20);
+            total += demands[k];
+        }
+
+        // Create the arcs: the ring then the random arcs.
+        List<int[]> arcs = new ArrayList<int[]>();
+        for (int i = 0; i < nodes; i++) {
+            for (int j = 0; j < nodes; j++) {
+                boolean ring = j == (i + 1) % nodes || i == (j + 1) % nodes;
+                if (i != j && (ring || random.nextDouble() < getDensity())) {
+                    arcs.add(new int[] { i, j, ring ? total : 1 + random.nextInt(total) });
+                }
+            }
+        }
+
+        ArrayLinear objective = new ArrayLinear();
+        Variable[] open = new Variable[arcs.size()];
+        Variable[][] flows = new Variable[commodities][arcs.size()];
+        for (int a = 0; a < arcs.size(); a++) {
+            int[] arc = arcs.get(a);
+            open[a] = addBinaryVariable(lp, "open" + arc[0] + "_" + arc[1]); //$NON-NLS-1$ //$NON-NLS-2$
+            objective.add(10 + random.nextInt(90), open[a]);
+            int cost = 1 + random.nextInt(10);
+            for (int k = 0; k < commodities; k++) {
+                flows[k][a] = addRealVariable(lp, "flow" + k + "_" + arc[0] + "_" + arc[1], Integer.valueOf(0), null); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                objective.add(cost, flows[k][a]);
+            }
+        }
+        lp.setObjectiveLinear(objective);
+        lp.setObjectiveDirection(LinearProblem.MINIMIZE);
+
+        // Flow conservation: out - in = demand at the source, -demand at the sink.
+        for (int k = 0; k < commodities; k++) {
+            for (int n = 0; n < nodes; n++) {
+                ArrayLinear linear = new ArrayLinear();
+                for (int a = 0; a < arcs.size(); a++) {
+                    int[] arc = arcs.get(a);
+                    if (arc[0] == n) {
+                        linear.add(1, flows[k][a]);
+                    } else if (arc[1] == n) {
+                        linear.add(-1, flows[k][a]);
+                    }
+                }
+                int balance = n == sources[k] ? demands[k] : n == sinks[k] ? -demands[k] : 0;
+                lp.addConstraint("node" + k + "_" + n, linear, balance, balance); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+
+        // Capacity: sum(flow) - capacity * open <= 0
+        for (int a = 0; a < arcs.size(); a++) {
+            int[] arc = arcs.get(a);
+            ArrayLinear linear = new ArrayLinear();
+            for (int k = 0; k < commodities; k++) {
+                linear.add(1, flows[k][a]);
+            }
+            linear.add(-arc[2], open[a]);
+            lp.addConstraint("arc" + arc[0] + "_" + arc[1], linear, null, Integer.valueOf(0)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Set covering: select the sets of minimum cost covering every element.
+ * <ul>
+ * <li>size: the number of elements, the number of sets is twice the number of elements,</li>
+ * <li>density: the probability of a set to cover an element.</li>
+ * </ul>
+ * The problem has one binary variable per set and one covering row per element. Every element is covered by at least
+ * one set so the problem is feasible.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class SetCoveringGenerator extends ModelGenerator {
+
+    @Override
+    protected void generate(LinearProblem lp, Random random) {
+        int elements = getSize();
+        int count = 2 * elements;
+        Variable[] sets = new Variable[count];
+        int[] costs = new int[count];
+        for (int j = 0; j < count; j++) {
+            sets[j] = addBinaryVariable(lp, "set" + j); //$NON-NLS-1$
+            costs[j] = 1 + random.nextInt(100);
+        }
+        lp.setObjectiveLinear(lp.createLinear(costs, sets));
+        lp.setObjectiveDirection(LinearProblem.MINIMIZE);
+
+        List<Variable> covering = new ArrayList<Variable>();
+        for (int i = 0; i < elements; i++) {
+            covering.clear();
+            for (int j = 0; j < count; j++) {
+                if (random.nextDouble() < getDensity()) {
+                    covering.add(sets[j]);
+                }
+            }
+            if (covering.isEmpty()) {
+                covering.add(sets[random.nextInt(count)]);
+            }
+            int[] ones = new int[covering.size()];
+            for (int k = 0; k < ones.length; k++) {
+                ones[k] = 1;
+            }
+            lp.addConstraint("element" + i, ones, covering.toArray(new Variable[ones.length]), Integer.valueOf(1), null); //$NON-NLS-1$
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.generator;
+
+import java.util.Random;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Shift scheduling: staff the shifts covering a cyclic horizon to satisfy the demand of every period at minimum
+ * cost.
+ * <ul>
+ * <li>size: the number of periods, one shift starts at every period,</li>
+ * <li>density: the length of the shifts as a fraction of the horizon.</li>
+ * </ul>
+ * The problem has one integer variable per shift, the number of employees assigned to it, and one covering row per
+ * period.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class ShiftSchedulingGenerator extends ModelGenerator {
+
+    @Override
+    protected void generate(LinearProblem lp, Random random) {
+        int periods = getSize();
+        int length = Math.max(1, Math.min(periods, (int) Math.round(getDensity() * periods)));
+        Variable[] shifts = new Variable[periods];
+        int[] costs = new int[periods];
+        for (int s = 0; s < periods; s++) {
+            shifts[s] = addIntegerVariable(lp, "shift" + s, Integer.valueOf(0), null); //$NON-NLS-1$
+            costs[s] = length * (8 + random.nextInt(5));
+        }
+        lp.setObjectiveLinear(lp.createLinear(costs, shifts));
+        lp.setObjectiveDirection(LinearProblem.MINIMIZE);
+
+        // A period is covered by the shifts starting in the previous length periods.
+        int[] ones = new int[length];
+        for (int k = 0; k < length; k++) {
+            ones[k] = 1;
+        }
+        for (int t = 0; t < periods; t++) {
+            Variable[] covering = new Variable[length];
+            for (int k = 0; k < length; k++) {
+                covering[k] = shifts[(t - k + periods) % periods];
+            }
+            lp.addConstraint("period" + t, ones, covering, Integer.valueOf(1 + random.nextInt(10)), null); //$NON-NLS-1$
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.simplex.SimplexSolverFactory;
+
+/**
+ * Check the generated models using the pure Java solver.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class ModelGeneratorTest {
+
+    /**
+     * Generate and solve the model.
+     * 
+     * @return the objective value
+     */
+    private static double solve(ModelGenerator generator) {
+        Solver solver = SimplexSolverFactory.instance().createSolver();
+        LinearProblem lp = solver.createLinearProblem();
+        try {
+            generator.generate(lp);
+            assertTrue(generator.toString(), solver.solve(lp, solver.createSolverOption()));
+            return lp.getObjectiveValue().doubleValue();
+        } finally {
+            lp.dispose();
+        }
+    }
+
+    /**
+     * Check if every generator creates a feasible problem and the same instance for the same seed.
+     */
+    @Test
+    public void testGenerate_SameSeed_ExpectSameObjective() {
+        for (String name : Generators.names()) {
+            ModelGenerator generator = Generators.create(name);
+            generator.setSize(6);
+            generator.setDensity(0.3);
+            generator.setSeed(7);
+            assertEquals(name, solve(generator), solve(generator), 0.0001);
+        }
+    }
+
+    /**
+     * Check if the integrality fraction relaxes the integer variables.
+     */
+    @Test
+    public void testGenerate_WithoutIntegrality_ExpectLP() {
+        for (String name : Generators.names()) {
+            ModelGenerator generator = Generators.create(name);
+            generator.setIntegrality(0);
+            Solver solver = SimplexSolverFactory.instance().createSolver();
+            LinearProblem lp = solver.createLinearProblem();
+            generator.generate(lp);
+            assertFalse(name, lp.isMIP());
+            lp.dispose();
+        }
+    }
+
+    /**
+     * Check if the parameters are validated.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetDensity_WithZero_ExpectException() {
+        new SetCoveringGenerator().setDensity(0);
+    }
+
+}
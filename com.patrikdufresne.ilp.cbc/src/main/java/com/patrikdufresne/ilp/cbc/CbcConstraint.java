@@ -17,12 +17,11 @@ package com.patrikdufresne.ilp.cbc;
 
 import com.patrikdufresne.cbc4j.cbc4j;
 import com.patrikdufresne.ilp.AbstractLinearProblem;
-import com.patrikdufresne.ilp.ConcreteLinear;
+import com.patrikdufresne.ilp.ArrayLinear;
 import com.patrikdufresne.ilp.Constraint;
 import com.patrikdufresne.ilp.ILPException;
 import com.patrikdufresne.ilp.Linear;
 import com.patrikdufresne.ilp.Status;
-import com.patrikdufresne.ilp.Term;
 
 public class CbcConstraint implements Constraint {
 
@@ -53,7 +52,22 @@ public class CbcConstraint implements Constraint {
 
         // Call the parent function to complete the work
         parent.addRow(this, name, linear, lowerBound, upperBound);
-        setName(name);
+        if (name != null) {
+            setName(name);
+        }
+    }
+
+    /**
+     * Create a constraint for an existing row. Used when the rows are created in bulk by the parent problem.
+     * 
+     * @param parent
+     *            reference to the CBC problem
+     * @param row
+     *            the constraint row index
+     */
+    CbcConstraint(CbcLinearProblem parent, int row) {
+        this.parent = parent;
+        this.row = row;
     }
 
     /**
@@ -75,18 +89,20 @@ public class CbcConstraint implements Constraint {
     }
 
     /**
-     * Returns the constraint linear expression. Need to rebuild the Linear object.
+     * Returns the constraint linear expression. Need to rebuild the Linear object from the row-ordered copy of the
+     * matrix.
      */
     @Override
     public Linear getLinear() {
         checkConstraint();
         // Rebuild the Linear object
-        int colCount = this.parent.variables.size();
-        ConcreteLinear linear = new ConcreteLinear();
-        for (int col = 0; col < colCount; col++) {
-            double coef = cbc4j.getCoefficient(this.parent.lp, this.row, col);
-            if (coef != 0) {
-                linear.add(this.parent.createTerm(coef, this.parent.getCol(col)));
+        CbcMatrix matrix = this.parent.matrix();
+        int[] columns = matrix.getColumns(this.row);
+        double[] coefs = matrix.getCoefs(this.row);
+        ArrayLinear linear = new ArrayLinear(columns.length);
+        for (int k = 0; k < columns.length; k++) {
+            if (coefs[k] != 0) {
+                linear.add(coefs[k], this.parent.getCol(columns[k]));
             }
         }
         // Return the Linear object
@@ -128,12 +144,18 @@ public class CbcConstraint implements Constraint {
         return Double.valueOf(value);
     }
 
+    /**
+     * Returns the row activity of the best solution.
+     * 
+     * @throws IllegalStateException
+     *             if the row was added after the resolution
+     */
     @Override
     public Double getValue() {
         checkConstraint();
         this.parent.checkSolution();
-        // TODO implement this method.
-        throw new UnsupportedOperationException("don't know how to implement this");
+        this.parent.checkSolvedRow(this.row);
+        return Double.valueOf(CbcLinearProblem.round(this.parent.rowActivity(this.row)));
     }
 
     @Override
@@ -141,31 +163,34 @@ public class CbcConstraint implements Constraint {
         return this.parent == null || this.row < 0;
     }
 
+    /**
+     * This implementation check the row-ordered copy of the matrix without creating the Linear object.
+     */
     @Override
     public boolean isEmpty() {
-        return getLinear().isEmpty();
+        checkConstraint();
+        for (double coef : this.parent.matrix().getCoefs(this.row)) {
+            if (coef != 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public void setLinear(Linear linear) {
         checkConstraint();
         AbstractLinearProblem.checkLinear(linear);
-        int[] columns;
-        double[] coefs;
-        if (linear != null) {
-            columns = new int[linear.size()];
-            coefs = new double[linear.size()];
-            int i = 0;
-            for (Term t : linear) {
-                columns[i] = ((CbcVariable) t.getVariable()).col;
-                coefs[i] = t.getCoefficient().doubleValue();
-                i++;
-            }
-        } else {
-            columns = new int[0];
-            coefs = new double[0];
+        int size = linear != null ? linear.size() : 0;
+        int[] columns = new int[size];
+        double[] coefs = new double[size];
+        CbcLinearProblem.toArrays(linear, columns, coefs);
+        // Compute the activity of the solved row before its coefficients change.
+        if (this.parent.rowActivities != null && this.row < this.parent.rowActivities.length) {
+            this.parent.rowActivity(this.row);
         }
         cbc4j.setCoefficients(this.parent.lp, this.row, columns.length, columns, coefs);
+        this.parent.matrix = null;
     }
 
     @Override
@@ -15,36 +15,58 @@
  */
 package com.patrikdufresne.ilp.cbc;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import com.patrikdufresne.cbc4j.SWIGTYPE_p_OsiClpSolverInterface;
 import com.patrikdufresne.cbc4j.cbc4j;
 import com.patrikdufresne.ilp.AbstractLinearProblem;
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.Basis;
 import com.patrikdufresne.ilp.Constraint;
+import com.patrikdufresne.ilp.HandleList;
 import com.patrikdufresne.ilp.ILPException;
+import com.patrikdufresne.ilp.INamelessLinearProblem;
 import com.patrikdufresne.ilp.IPersistentLinearProblem;
 import com.patrikdufresne.ilp.Linear;
+import com.patrikdufresne.ilp.SolveStatistics;
+import com.patrikdufresne.ilp.SparseMatrix;
 import com.patrikdufresne.ilp.Status;
 import com.patrikdufresne.ilp.Term;
 import com.patrikdufresne.ilp.VarType;
 import com.patrikdufresne.ilp.Variable;
+import com.patrikdufresne.ilp.io.ModelFiles;
 
-public class CbcLinearProblem extends AbstractLinearProblem implements IPersistentLinearProblem {
+public class CbcLinearProblem extends AbstractLinearProblem implements IPersistentLinearProblem, INamelessLinearProblem {
 
     /**
      * The scale for the returned value.
      */
     private static final int SCALE = 9;
 
+    /**
+     * The factor matching {@link #SCALE}.
+     */
+    private static final double FACTOR = 1e9;
+
+    /**
+     * Scaled magnitude from which a double no longer has a fractional part (2^52).
+     */
+    private static final double EXACT_LIMIT = 4503599627370496.0;
+
     /**
      * Rounds the value,
      * Implemented to solve the problems where the value was not returning an rounded number for close values value
@@ -55,9 +77,33 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
      * @return The rounded value
      */
     public static Double round(Double value) {
-        return new BigDecimal(value).setScale(SCALE, RoundingMode.HALF_EVEN).doubleValue();
+        return Double.valueOf(round(value.doubleValue()));
     }
 
+    /**
+     * Rounds the value without allocation. Produce the same result as {@link #round(Double)}: the value is scaled and
+     * rounded in floating point, falling back to the exact decimal rounding only when the scaled value is too large or
+     * too close to a tie to be decided reliably.
+     * 
+     * @param value
+     *            The double to be rounded
+     * @return The rounded value
+     */
+    public static double round(double value) {
+        double scaled = value * FACTOR;
+        double rounded = Math.rint(scaled);
+        if (!(Math.abs(scaled) < EXACT_LIMIT) || Math.abs(Math.abs(scaled - rounded) - 0.5) <= Math.ulp(scaled)) {
+            return new BigDecimal(value).setScale(SCALE, RoundingMode.HALF_EVEN).doubleValue();
+        }
+        return rounded / FACTOR;
+    }
+
+    /**
+     * The basis written by the last resolution using warm start or loaded with {@link #loadBasis(File)}, null if not
+     * available.
+     */
+    Basis basis;
+
     /**
      * Used to keep the best solution previously computed by the solver.
      */
@@ -67,11 +113,26 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
      */
     Double objValue;
 
-    private Set<String> constraintNames;
     /**
-     * Need to keep reference on every constraint (row).
+     * The row activities of the best solution, one for each solved row. Each activity is NaN until computed by
+     * {@link #rowActivity(int)}.
      */
-    private List<CbcConstraint> constraints;
+    double[] rowActivities;
+
+    /**
+     * Row-ordered copy of the constraint matrix, null until read by {@link #matrix()}. Set to null when the matrix
+     * changes.
+     */
+    CbcMatrix matrix;
+
+    /**
+     * The row index of each named constraint.
+     */
+    private Map<String, Integer> constraintNames;
+    /**
+     * The constraints (rows). The constraint objects are only created when accessed.
+     */
+    private HandleList<CbcConstraint> constraints;
 
     final double infinity;
 
@@ -89,12 +150,25 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
      */
     Status status = Status.UNKNOWN;
 
-    private Set<String> variableNames;
+    /**
+     * The statistics of the last resolution, null if never solved.
+     */
+    SolveStatistics statistics;
+
+    /**
+     * True to ignore the names of the variables and constraints.
+     */
+    private boolean nameless;
+
+    /**
+     * The column index of each named variable.
+     */
+    private Map<String, Integer> variableNames;
 
     /**
-     * Need to keep reference on every variable (col).
+     * The variables (columns). The variable objects are only created when accessed.
      */
-    List<CbcVariable> variables;
+    HandleList<CbcVariable> variables;
 
     CbcLinearProblem() {
         // Create a new lp
@@ -110,29 +184,33 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
      */
     synchronized void addCol(CbcVariable var, String name) {
         if (this.variables == null) {
-            this.variables = new ArrayList<CbcVariable>();
+            this.variables = new VariableList();
         }
-        if (this.variableNames == null) {
-            this.variableNames = new HashSet<String>();
+        if (this.variableNames == null && !this.nameless) {
+            this.variableNames = new HashMap<String, Integer>();
         }
 
         // Create a new column using CBC API.
         var.parent = this;
         var.col = cbc4j.getNumCols(this.lp);
         cbc4j.addCol(this.lp, 0, new int[0], new double[0], -this.infinity, this.infinity, 0);
-        cbc4j.setColName(this.lp, var.col, name);
+        if (name != null) {
+            cbc4j.setColName(this.lp, var.col, name);
+        }
         if (var.col != this.variables.size()) {
             throw new RuntimeException("CbcVariable.col is not set properly."); //$NON-NLS-1$
         }
         this.variables.add(var);
-        this.variableNames.add(name);
+        if (name != null && this.variableNames != null) {
+            this.variableNames.put(name, Integer.valueOf(var.col));
+        }
     }
 
     @Override
     public Constraint addConstraint(String name) {
         checkProblem();
         checkConstraintName(name);
-        CbcConstraint c = new CbcConstraint(this, name, null, null, null);
+        CbcConstraint c = new CbcConstraint(this, this.nameless ? null : name, null, null, null);
         return c;
     }
 
@@ -144,10 +222,50 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         checkProblem();
         checkConstraintName(name);
         checkLinear(linear);
-        CbcConstraint c = new CbcConstraint(this, name, linear, lowerBound, upperBound);
+        CbcConstraint c = new CbcConstraint(this, this.nameless ? null : name, linear, lowerBound, upperBound);
         return c;
     }
 
+    /**
+     * This implementation create each row with a single call to <code>addRow</code> including the coefficients and
+     * the bounds. The rows are added one by one since cbc4j doesn't expose a bulk operation. The constraint objects
+     * are created when accessed.
+     */
+    @Override
+    public synchronized int addConstraints(String[] names, int[] starts, int[] columns, double[] coefficients, double[] lowerBounds, double[] upperBounds) {
+        checkProblem();
+        int count = checkConstraints(names, starts, columns, coefficients, lowerBounds, upperBounds, this.variables != null ? this.variables.size() : 0);
+        checkConstraintNames(names);
+        if (this.constraints == null) {
+            this.constraints = new ConstraintList();
+        }
+        if (this.constraintNames == null && !this.nameless) {
+            this.constraintNames = new HashMap<String, Integer>();
+        }
+        int index = this.constraints.size();
+        if (index != cbc4j.getNumRows(this.lp)) {
+            throw new RuntimeException("CbcConstraint.row is not set properly."); //$NON-NLS-1$
+        }
+        for (int i = 0; i < count; i++) {
+            int row = index + i;
+            int len = starts[i + 1] - starts[i];
+            int[] cols = new int[len];
+            double[] coefs = new double[len];
+            System.arraycopy(columns, starts[i], cols, 0, len);
+            System.arraycopy(coefficients, starts[i], coefs, 0, len);
+            double lb = lowerBounds != null && !Double.isInfinite(lowerBounds[i]) ? lowerBounds[i] : -this.infinity;
+            double ub = upperBounds != null && !Double.isInfinite(upperBounds[i]) ? upperBounds[i] : this.infinity;
+            cbc4j.addRow(this.lp, len, cols, coefs, lb, ub);
+            if (names != null && names[i] != null && !this.nameless) {
+                cbc4j.setRowName(this.lp, row, names[i]);
+                this.constraintNames.put(names[i], Integer.valueOf(row));
+            }
+        }
+        this.constraints.addEmpty(count);
+        this.matrix = null;
+        return index;
+    }
+
     /**
      * Should be called for every instance of CbcConstraint.
      * 
@@ -159,35 +277,27 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
      */
     synchronized void addRow(CbcConstraint constraint, String name, Linear linear, Number lowerBound, Number upperBound) {
         if (this.constraints == null) {
-            this.constraints = new ArrayList<CbcConstraint>();
+            this.constraints = new ConstraintList();
         }
-        if (this.constraintNames == null) {
-            this.constraintNames = new HashSet<String>();
+        if (this.constraintNames == null && !this.nameless) {
+            this.constraintNames = new HashMap<String, Integer>();
         }
         constraint.parent = this;
         constraint.row = cbc4j.getNumRows(this.lp);
-        int[] columns;
-        double[] coefs;
-        if (linear != null) {
-            columns = new int[linear.size()];
-            coefs = new double[linear.size()];
-            int i = 0;
-            for (Term t : linear) {
-                columns[i] = ((CbcVariable) t.getVariable()).col;
-                coefs[i] = t.getCoefficient().doubleValue();
-                i++;
-            }
-        } else {
-            columns = new int[0];
-            coefs = new double[0];
-        }
+        int size = linear != null ? linear.size() : 0;
+        int[] columns = new int[size];
+        double[] coefs = new double[size];
+        CbcLinearProblem.toArrays(linear, columns, coefs);
         cbc4j.addRow(this.lp, columns.length, columns, coefs, lowerBound != null ? lowerBound.doubleValue() : -this.infinity, upperBound != null ? upperBound
                 .doubleValue() : this.infinity);
+        this.matrix = null;
         if (constraint.row != this.constraints.size()) {
             throw new RuntimeException("CbcConstraint.row is not set properly."); //$NON-NLS-1$
         }
         this.constraints.add(constraint);
-        this.constraintNames.add(name);
+        if (name != null && this.constraintNames != null) {
+            this.constraintNames.put(name, Integer.valueOf(constraint.row));
+        }
     }
 
     /**
@@ -197,7 +307,7 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
     public Variable addVariable(String name, VarType type) {
         checkProblem();
         checkVariableName(name);
-        CbcVariable v = new CbcVariable(this, name);
+        CbcVariable v = new CbcVariable(this, this.nameless ? null : name);
         v.setType(type);
         if (VarType.INTEGER.equals(type) || VarType.REAL.equals(type)) {
             v.setLowerBound(null);
@@ -206,6 +316,153 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         return v;
     }
 
+    /**
+     * This implementation create each column with a single call to <code>addCol</code> including the bounds. The
+     * columns are added one by one since cbc4j doesn't expose a bulk operation. The variable objects are created when
+     * accessed.
+     */
+    @Override
+    public synchronized int addVariables(String[] names, VarType[] types, double[] lowerBounds, double[] upperBounds) {
+        checkProblem();
+        int count = checkVariables(names, types, lowerBounds, upperBounds);
+        checkVariableNames(names);
+        if (this.variables == null) {
+            this.variables = new VariableList();
+        }
+        if (this.variableNames == null && !this.nameless) {
+            this.variableNames = new HashMap<String, Integer>();
+        }
+        int index = this.variables.size();
+        if (index != cbc4j.getNumCols(this.lp)) {
+            throw new RuntimeException("CbcVariable.col is not set properly."); //$NON-NLS-1$
+        }
+        int[] rows = new int[0];
+        double[] values = new double[0];
+        for (int i = 0; i < count; i++) {
+            int col = index + i;
+            double lb;
+            double ub;
+            if (VarType.BOOL.equals(types[i])) {
+                lb = lowerBounds != null ? lowerBounds[i] : 0;
+                ub = upperBounds != null ? upperBounds[i] : 1;
+            } else {
+                lb = lowerBounds != null ? lowerBounds[i] : Double.NEGATIVE_INFINITY;
+                ub = upperBounds != null ? upperBounds[i] : Double.POSITIVE_INFINITY;
+            }
+            cbc4j.addCol(this.lp, 0, rows, values, Double.isInfinite(lb) ? -this.infinity : lb, Double.isInfinite(ub) ? this.infinity : ub, 0);
+            if (names != null && names[i] != null && !this.nameless) {
+                cbc4j.setColName(this.lp, col, names[i]);
+                this.variableNames.put(names[i], Integer.valueOf(col));
+            }
+            if (!VarType.REAL.equals(types[i])) {
+                cbc4j.setInteger(this.lp, col);
+            }
+        }
+        this.variables.addEmpty(count);
+        return index;
+    }
+
+    /**
+     * Write the basis in a temporary file read by CBC (basisIn) and overwritten with the final basis (basisOut).
+     * 
+     * @return the file, empty if no basis is available. The caller must delete the file.
+     */
+    File createBasisFile() {
+        File file = null;
+        try {
+            file = File.createTempFile("cbc", ".bas"); //$NON-NLS-1$ //$NON-NLS-2$
+            if (this.basis != null) {
+                this.basis.write(file, this.name);
+            }
+            return file;
+        } catch (IOException e) {
+            if (file != null) {
+                file.delete();
+            }
+            throw new ILPException("fail to create the basis file: " + e.getMessage()); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Write the initial solution in a temporary file read by CBC (mipStart). Each line contains the column index, the
+     * column name and the value. Columns with a name containing a whitespace are ignored.
+     * 
+     * @param values
+     *            the value of each variable or null
+     * @param reuse
+     *            true to start from the integer values of the previous solution, if any
+     * @return the file or null if no value is set. The caller must delete the file.
+     */
+    File createMIPStart(Map<Variable, Number> values, boolean reuse) {
+        if (this.variables == null || (values == null && (!reuse || this.bestSolution == null))) {
+            return null;
+        }
+        double[] start = new double[this.variables.size()];
+        Arrays.fill(start, Double.NaN);
+        boolean set = false;
+        if (reuse && this.bestSolution != null && (Status.FEASIBLE.equals(this.status) || Status.OPTIMAL.equals(this.status))) {
+            // The solution doesn't include the columns added since.
+            for (int col = 0; col < Math.min(start.length, this.bestSolution.length); col++) {
+                if (cbc4j.isInteger(this.lp, col)) {
+                    start[col] = this.bestSolution[col];
+                    set = true;
+                }
+            }
+        }
+        if (values != null) {
+            for (Entry<Variable, Number> e : values.entrySet()) {
+                if (e.getKey() instanceof CbcVariable && ((CbcVariable) e.getKey()).parent == this && e.getValue() != null) {
+                    start[((CbcVariable) e.getKey()).col] = e.getValue().doubleValue();
+                    set = true;
+                }
+            }
+        }
+        if (!set) {
+            return null;
+        }
+        File file = null;
+        try {
+            file = File.createTempFile("cbc", ".sol"); //$NON-NLS-1$ //$NON-NLS-2$
+            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+            try {
+                for (int col = 0; col < start.length; col++) {
+                    String colName = cbc4j.getColName(this.lp, col);
+                    if (Double.isNaN(start[col]) || colName == null || colName.matches(".*\\s.*")) { //$NON-NLS-1$
+                        continue;
+                    }
+                    writer.write(col + " " + colName + " " + start[col]); //$NON-NLS-1$ //$NON-NLS-2$
+                    writer.newLine();
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            if (file != null) {
+                file.delete();
+            }
+            throw new ILPException("fail to write the initial solution: " + e.getMessage()); //$NON-NLS-1$
+        }
+        return file;
+    }
+
+    /**
+     * Check if the constraint names are unique. Null names are ignored. Otherwise throw an exception.
+     * 
+     * @param names
+     *            the constraint names or null.
+     */
+    void checkConstraintNames(String[] names) {
+        if (names == null || this.nameless) {
+            return;
+        }
+        Set<String> set = new HashSet<String>();
+        for (String name : names) {
+            if (name != null && (!set.add(name) || (this.constraintNames != null && this.constraintNames.containsKey(name)))) {
+                throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate constraint name: " + name);
+            }
+        }
+    }
+
     /**
      * Check if the constraint name is unique. Otherwise throw an exception.
      * 
@@ -213,10 +470,13 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
      *            the constraint name.
      */
     void checkConstraintName(String name) {
+        if (this.nameless) {
+            return;
+        }
         if (name == null) {
             throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Undefined constraint name.");
         }
-        if (this.constraintNames != null && this.constraintNames.contains(name)) {
+        if (this.constraintNames != null && this.constraintNames.containsKey(name)) {
             throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate constraint name: " + name);
         }
     }
@@ -246,6 +506,30 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         }
     }
 
+    /**
+     * Check if the column is part of the best solution. Throw an exception if the column was added after the solve.
+     * 
+     * @param col
+     *            the column index
+     */
+    void checkSolvedCol(int col) {
+        if (col >= this.bestSolution.length) {
+            throw new IllegalStateException("column added after the resolution"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Check if the row is part of the best solution. Throw an exception if the row was added after the solve.
+     * 
+     * @param row
+     *            the row index
+     */
+    void checkSolvedRow(int row) {
+        if (row >= this.rowActivities.length) {
+            throw new IllegalStateException("row added after the resolution"); //$NON-NLS-1$
+        }
+    }
+
     /**
      * Check if the variable name is unique. Otherwise throw an exception.
      * 
@@ -253,14 +537,35 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
      *            the constraint name.
      */
     void checkVariableName(String name) {
+        if (this.nameless) {
+            return;
+        }
         if (name == null) {
             throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Undefined variable name.");
         }
-        if (this.variableNames != null && this.variableNames.contains(name)) {
+        if (this.variableNames != null && this.variableNames.containsKey(name)) {
             throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate variable name: " + name);
         }
     }
 
+    /**
+     * Check if the variable names are unique. Null names are ignored. Otherwise throw an exception.
+     * 
+     * @param names
+     *            the variable names or null.
+     */
+    void checkVariableNames(String[] names) {
+        if (names == null || this.nameless) {
+            return;
+        }
+        Set<String> set = new HashSet<String>();
+        for (String name : names) {
+            if (name != null && (!set.add(name) || (this.variableNames != null && this.variableNames.containsKey(name)))) {
+                throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate variable name: " + name);
+            }
+        }
+    }
+
     @Override
     public void dispose() {
         // Free the lp problem.
@@ -269,6 +574,51 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         }
         this.lp = null;
         this.bestSolution = null;
+        this.rowActivities = null;
+        this.matrix = null;
+        this.basis = null;
+    }
+
+    /**
+     * This implementation deletes all the rows with a single call to <code>deleteRows</code> and updates the index of
+     * the remaining constraints in a single pass.
+     */
+    @Override
+    public synchronized void disposeConstraints(Collection<? extends Constraint> constraints) {
+        checkProblem();
+        int[] indices = new int[constraints.size()];
+        int count = 0;
+        for (Constraint constraint : constraints) {
+            if (constraint.isDisposed()) {
+                continue;
+            }
+            if (!(constraint instanceof CbcConstraint) || ((CbcConstraint) constraint).parent != this) {
+                throw new IllegalArgumentException("constraint not part of this problem"); //$NON-NLS-1$
+            }
+            indices[count++] = ((CbcConstraint) constraint).row;
+        }
+        removeRows(indices, count);
+    }
+
+    /**
+     * This implementation deletes all the columns with a single call to <code>deleteCols</code> and updates the index
+     * of the remaining variables in a single pass.
+     */
+    @Override
+    public synchronized void disposeVariables(Collection<? extends Variable> variables) {
+        checkProblem();
+        int[] indices = new int[variables.size()];
+        int count = 0;
+        for (Variable var : variables) {
+            if (var.isDisposed()) {
+                continue;
+            }
+            if (!(var instanceof CbcVariable) || ((CbcVariable) var).parent != this) {
+                throw new IllegalArgumentException("variable not part of this problem"); //$NON-NLS-1$
+            }
+            indices[count++] = ((CbcVariable) var).col;
+        }
+        removeCols(indices, count);
     }
 
     /**
@@ -278,7 +628,7 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
      *            the column index.
      * @return the variable object
      */
-    Variable getCol(int col) {
+    CbcVariable getCol(int col) {
         CbcVariable var = this.variables.get(col);
         if (var.col != col) {
             throw new ILPException("Variables list corrupted"); //$NON-NLS-1$
@@ -286,6 +636,31 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         return var;
     }
 
+    /**
+     * Return the constraint object of the given row, creating it if required.
+     */
+    @Override
+    public Constraint getConstraint(int index) {
+        checkProblem();
+        if (this.constraints == null) {
+            return super.getConstraint(index);
+        }
+        return this.constraints.get(index);
+    }
+
+    /**
+     * This implementation search the constraint in the name index.
+     */
+    @Override
+    public Constraint getConstraint(String name) {
+        checkProblem();
+        Integer index;
+        if (name == null || this.constraintNames == null || (index = this.constraintNames.get(name)) == null) {
+            return null;
+        }
+        return this.constraints.get(index.intValue());
+    }
+
     /**
      * Return an unmodifiable collection of constraints.
      */
@@ -327,11 +702,11 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
     public Linear getObjectiveLinear() {
         checkProblem();
         // Get the coefficient of each column.
-        Linear linear = createLinear();
+        ArrayLinear linear = new ArrayLinear();
         double[] coefs = cbc4j.getObjCoefficients(this.lp);
         for (int col = 0; col < coefs.length; col++) {
             if (coefs[col] != 0) {
-                linear.add(createTerm(coefs[col], getCol(col)));
+                linear.add(coefs[col], getCol(col));
             }
         }
         if (linear.isEmpty()) {
@@ -351,6 +726,39 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         return round(this.objValue);
     }
 
+    /**
+     * This implementation copy the row-ordered copy of the matrix, reading the rows not already read.
+     */
+    @Override
+    public SparseMatrix getMatrix() {
+        checkProblem();
+        return matrix().toSparseMatrix();
+    }
+
+    /**
+     * This implementation copy the row activities computed from the best solution, rounding each value as
+     * {@link CbcConstraint#getValue()}.
+     * 
+     * @throws IllegalStateException
+     *             if a row was added after the resolution
+     */
+    @Override
+    public double[] getRowActivities(double[] activities) {
+        checkProblem();
+        checkSolution();
+        int count = this.constraints != null ? this.constraints.size() : 0;
+        if (count > 0) {
+            checkSolvedRow(count - 1);
+        }
+        if (activities == null || activities.length < count) {
+            activities = new double[count];
+        }
+        for (int row = 0; row < count; row++) {
+            activities[row] = round(rowActivity(row));
+        }
+        return activities;
+    }
+
     /**
      * Get the problem status
      */
@@ -363,6 +771,60 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         return this.status;
     }
 
+    @Override
+    public SolveStatistics getStatistics() {
+        checkProblem();
+        return this.statistics;
+    }
+
+    /**
+     * This implementation copy the best solution found by Cbc, rounding each value as {@link CbcVariable#getValue()}.
+     * 
+     * @throws IllegalStateException
+     *             if a column was added after the resolution
+     */
+    @Override
+    public double[] getValues(double[] values) {
+        checkProblem();
+        checkSolution();
+        int count = this.variables != null ? this.variables.size() : 0;
+        if (count > 0) {
+            checkSolvedCol(count - 1);
+        }
+        if (values == null || values.length < count) {
+            values = new double[count];
+        }
+        for (int col = 0; col < count; col++) {
+            values[col] = round(this.bestSolution[col]);
+        }
+        return values;
+    }
+
+    /**
+     * Return the variable object of the given column, creating it if required.
+     */
+    @Override
+    public Variable getVariable(int index) {
+        checkProblem();
+        if (this.variables == null) {
+            return super.getVariable(index);
+        }
+        return this.variables.get(index);
+    }
+
+    /**
+     * This implementation search the variable in the name index.
+     */
+    @Override
+    public Variable getVariable(String name) {
+        checkProblem();
+        Integer index;
+        if (name == null || this.variableNames == null || (index = this.variableNames.get(name)) == null) {
+            return null;
+        }
+        return this.variables.get(index.intValue());
+    }
+
     @Override
     public Collection<? extends Variable> getVariables() {
         if (this.variables == null) {
@@ -379,74 +841,246 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         return this.lp == null;
     }
 
+    @Override
+    public boolean isNameless() {
+        return this.nameless;
+    }
+
     /**
-     * Load the problem from Mps file.
+     * This implementation reads the file using {@link ModelFiles} and creates the variables and constraints using the
+     * bulk functions.
      */
     @Override
     public void load(File file) throws IOException {
         checkProblem();
-        cbc4j.readLp(this.lp, file.getAbsolutePath());
+        ModelFiles.read(file, this);
+    }
+
+    /**
+     * This implementation replaces the basis read by the next resolution using warm start (basisIn).
+     */
+    @Override
+    public void loadBasis(File file) throws IOException {
+        checkProblem();
+        this.basis = Basis.read(file);
+    }
+
+    /**
+     * Keep the basis written by CBC (basisOut) for the next resolution.
+     * 
+     * @param file
+     *            the file created by {@link #createBasisFile()}
+     */
+    void readBasisFile(File file) {
+        if (file.length() == 0) {
+            return;
+        }
+        try {
+            this.basis = Basis.read(file);
+        } catch (IOException e) {
+            throw new ILPException("fail to read the basis file: " + e.getMessage()); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Return the row-ordered copy of the matrix, creating it if required.
+     */
+    CbcMatrix matrix() {
+        if (this.matrix == null) {
+            this.matrix = new CbcMatrix(this.lp);
+        }
+        return this.matrix;
+    }
+
+    /**
+     * Remove the deleted rows or columns from the name index and shift the index of the following ones.
+     * 
+     * @param names
+     *            the name index or null
+     * @param indices
+     *            the index of the deleted rows or columns in ascending order
+     * @param count
+     *            the number of deleted rows or columns
+     */
+    private static void removeNames(Map<String, Integer> names, int[] indices, int count) {
+        if (names == null) {
+            return;
+        }
+        Iterator<Entry<String, Integer>> iter = names.entrySet().iterator();
+        while (iter.hasNext()) {
+            Entry<String, Integer> e = iter.next();
+            int pos = Arrays.binarySearch(indices, 0, count, e.getValue().intValue());
+            if (pos >= 0) {
+                iter.remove();
+            } else if (pos < -1) {
+                // Shift by the number of deleted rows or columns before this one.
+                e.setValue(Integer.valueOf(e.getValue().intValue() + pos + 1));
+            }
+        }
     }
 
     /**
      * Remove the column from the linear problem.
      * 
-     * @param col
+     * @param var
+     *            the variable
      */
     synchronized void removeCol(CbcVariable var) {
-        int index;
-        if (this.variables == null || (index = this.variables.indexOf(var)) < 0) {
+        int index = var.col;
+        if (this.variables == null || var.parent != this || index >= this.variables.size() || this.variables.peek(index) != var) {
             throw new RuntimeException("CbcVariable not in the variable list."); //$NON-NLS-1$
         }
+        removeCols(new int[] { index }, 1);
+    }
 
-        String varName = var.getName();
-        cbc4j.deleteCols(this.lp, 1, new int[] { var.col });
-        this.variables.remove(index);
-        this.variableNames.remove(varName);
+    /**
+     * Remove multiple columns from the linear problem using a single call to <code>deleteCols</code>.
+     * 
+     * @param indices
+     *            the index of the columns to remove, may contains duplicates
+     * @param count
+     *            the number of indices
+     */
+    private void removeCols(int[] indices, int count) {
+        count = sortUnique(indices, count);
+        if (count == 0) {
+            return;
+        }
+        CbcVariable[] removed = new CbcVariable[count];
+        for (int k = 0; k < count; k++) {
+            removed[k] = this.variables.peek(indices[k]);
+        }
+        // The coefficients of the deleted columns are required by the activities not computed yet.
+        if (this.rowActivities != null) {
+            for (int row = 0; row < this.rowActivities.length; row++) {
+                rowActivity(row);
+            }
+        }
+        cbc4j.deleteCols(this.lp, count, count == indices.length ? indices : Arrays.copyOf(indices, count));
+        this.variables.remove(indices, count);
+        this.matrix = null;
+        removeNames(this.variableNames, indices, count);
 
-        var.col = 0;
-        var.parent = null;
+        for (CbcVariable var : removed) {
+            if (var != null) {
+                var.col = 0;
+                var.parent = null;
+            }
+        }
 
         // Adjust the bestSolution
-        if (this.bestSolution != null && this.bestSolution.length > 1) {
-            double[] newSolution = new double[this.bestSolution.length - 1];
-            System.arraycopy(bestSolution, 0, newSolution, 0, index);
-            System.arraycopy(bestSolution, index + 1, newSolution, index, bestSolution.length - index - 1);
-            this.bestSolution = newSolution;
+        if (this.bestSolution != null) {
+            this.bestSolution = removeValues(this.bestSolution, indices, count);
+        }
+    }
+
+    synchronized void removeRow(CbcConstraint constraint) {
+        int index = constraint.row;
+        if (this.constraints == null || constraint.parent != this || index >= this.constraints.size() || this.constraints.peek(index) != constraint) {
+            throw new RuntimeException("CbcConstraint not in the constraint list."); //$NON-NLS-1$
+        }
+        removeRows(new int[] { index }, 1);
+    }
+
+    /**
+     * Remove multiple rows from the linear problem using a single call to <code>deleteRows</code>.
+     * 
+     * @param indices
+     *            the index of the rows to remove, may contains duplicates
+     * @param count
+     *            the number of indices
+     */
+    private void removeRows(int[] indices, int count) {
+        count = sortUnique(indices, count);
+        if (count == 0) {
+            return;
+        }
+        CbcConstraint[] removed = new CbcConstraint[count];
+        for (int k = 0; k < count; k++) {
+            removed[k] = this.constraints.peek(indices[k]);
         }
+        cbc4j.deleteRows(this.lp, count, count == indices.length ? indices : Arrays.copyOf(indices, count));
+        this.constraints.remove(indices, count);
+        this.matrix = null;
+        removeNames(this.constraintNames, indices, count);
 
-        for (; index < this.variables.size(); index++) {
-            CbcVariable sub = this.variables.get(index);
-            sub.col = index;
+        for (CbcConstraint constraint : removed) {
+            if (constraint != null) {
+                constraint.row = 0;
+                constraint.parent = null;
+            }
         }
 
+        // Adjust the row activities
+        if (this.rowActivities != null) {
+            this.rowActivities = removeValues(this.rowActivities, indices, count);
+        }
     }
 
-    synchronized void removeRow(CbcConstraint constraint) {
-        int index;
-        if (this.constraints == null || (index = this.constraints.indexOf(constraint)) < 0) {
-            throw new RuntimeException("CbcConstraint not in the constraint list."); //$NON-NLS-1$
+    /**
+     * Remove the values at the given indices.
+     * 
+     * @param values
+     *            the values
+     * @param indices
+     *            the sorted indices without duplicates
+     * @param count
+     *            the number of indices
+     * @return a new array without the removed values
+     */
+    private static double[] removeValues(double[] values, int[] indices, int count) {
+        double[] newValues = new double[values.length];
+        int length = 0;
+        int k = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (k < count && indices[k] == i) {
+                k++;
+            } else {
+                newValues[length++] = values[i];
+            }
         }
-        String constName = constraint.getName();
-        cbc4j.deleteRows(this.lp, 1, new int[] { constraint.row });
-        this.constraints.remove(index);
-        this.constraintNames.remove(constName);
-        constraint.row = 0;
-        constraint.parent = null;
-        for (; index < this.constraints.size(); index++) {
-            CbcConstraint sub = this.constraints.get(index);
-            sub.row = index;
+        return Arrays.copyOf(newValues, length);
+    }
+
+    /**
+     * Return the activity of a solved row, computing it from the best solution on first use.
+     * 
+     * @param row
+     *            the row index, lower than the length of {@link #rowActivities}
+     * @return the row activity
+     */
+    double rowActivity(int row) {
+        double activity = this.rowActivities[row];
+        if (Double.isNaN(activity)) {
+            // cbc4j doesn't expose the row activities, compute them from the solution.
+            activity = matrix().activity(row, this.bestSolution);
+            this.rowActivities[row] = activity;
         }
+        return activity;
     }
 
     /**
-     * This implementation write the lp into Mps.
+     * This implementation writes the file using {@link ModelFiles}.
      */
     @Override
     public void save(File file) throws IOException {
         checkProblem();
-        // Write the lp
-        cbc4j.writeLp(this.lp, file.getAbsolutePath());
+        ModelFiles.write(this, file);
+    }
+
+    /**
+     * This implementation copies the basis written by the last resolution using warm start (basisOut).
+     * 
+     * @throws ILPException
+     *             if the problem wasn't solved using warm start
+     */
+    @Override
+    public void saveBasis(File file) throws IOException {
+        checkProblem();
+        if (this.basis == null) {
+            throw new ILPException("basis not available, solve the problem using warm start"); //$NON-NLS-1$
+        }
+        this.basis.write(file, this.name);
     }
 
     /**
@@ -457,6 +1091,20 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
         this.name = name;
     }
 
+    /**
+     * This implementation doesn't set the names of the rows and columns in CBC.
+     */
+    @Override
+    public void setNameless(boolean nameless) {
+        checkProblem();
+        if ((this.variables != null && this.variables.size() > 0) || (this.constraints != null && this.constraints.size() > 0)) {
+            throw new IllegalStateException("problem not empty"); //$NON-NLS-1$
+        }
+        this.nameless = nameless;
+        this.variableNames = null;
+        this.constraintNames = null;
+    }
+
     /**
      * Sets the objective direction.
      */
@@ -482,22 +1130,93 @@ public class CbcLinearProblem extends AbstractLinearProblem implements IPersiste
     public void setObjectiveLinear(Linear linear) {
         checkProblem();
         checkLinear(linear);
-        int[] columns;
-        double[] coefs;
-        if (linear != null) {
-            columns = new int[linear.size()];
-            coefs = new double[linear.size()];
+        int size = linear != null ? linear.size() : 0;
+        int[] columns = new int[size];
+        double[] coefs = new double[size];
+        CbcLinearProblem.toArrays(linear, columns, coefs);
+        cbc4j.setObjCoefficients(this.lp, columns.length, columns, coefs);
+    }
+
+    /**
+     * Copy the terms of the linear expression into the given arrays. When the linear is an {@link ArrayLinear}, the
+     * coefficients are copied without creating any term.
+     * 
+     * @param linear
+     *            the linear expression or null
+     * @param columns
+     *            the columns index array, must be of size <code>linear.size()</code>
+     * @param coefs
+     *            the coefficients array, must be of size <code>linear.size()</code>
+     */
+    static void toArrays(Linear linear, int[] columns, double[] coefs) {
+        if (linear instanceof ArrayLinear) {
+            ArrayLinear array = (ArrayLinear) linear;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = ((CbcVariable) array.getVariable(i)).col;
+                coefs[i] = array.getCoefficient(i);
+            }
+        } else if (linear != null) {
             int i = 0;
             for (Term t : linear) {
                 columns[i] = ((CbcVariable) t.getVariable()).col;
                 coefs[i] = t.getCoefficient().doubleValue();
                 i++;
             }
-        } else {
-            columns = new int[0];
-            coefs = new double[0];
         }
-        cbc4j.setObjCoefficients(this.lp, columns.length, columns, coefs);
+    }
+
+    /**
+     * Sort the indices in ascending order and remove the duplicates.
+     * 
+     * @param indices
+     *            the indices
+     * @param count
+     *            the number of indices
+     * @return the number of unique indices
+     */
+    private static int sortUnique(int[] indices, int count) {
+        Arrays.sort(indices, 0, count);
+        int unique = 0;
+        for (int k = 0; k < count; k++) {
+            if (unique == 0 || indices[k] != indices[unique - 1]) {
+                indices[unique++] = indices[k];
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * List of constraints created on demand from the row index.
+     */
+    private class ConstraintList extends HandleList<CbcConstraint> {
+
+        @Override
+        protected CbcConstraint create(int index) {
+            return new CbcConstraint(CbcLinearProblem.this, index);
+        }
+
+        @Override
+        protected void setIndex(CbcConstraint handle, int index) {
+            handle.row = index;
+        }
+
+    }
+
+    /**
+     * List of variables created on demand from the column index.
+     */
+    private class VariableList extends HandleList<CbcVariable> {
+
+        @Override
+        protected CbcVariable create(int index) {
+            return new CbcVariable(CbcLinearProblem.this, index);
+        }
+
+        @Override
+        protected void setIndex(CbcVariable handle, int index) {
+            handle.col = index;
+        }
+
     }
 
 }
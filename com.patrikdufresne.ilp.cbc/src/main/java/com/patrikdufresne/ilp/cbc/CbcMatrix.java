@@ -0,0 +1,170 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.cbc;
+
+import java.util.Arrays;
+
+import com.patrikdufresne.cbc4j.SWIGTYPE_p_OsiClpSolverInterface;
+import com.patrikdufresne.cbc4j.cbc4j;
+import com.patrikdufresne.ilp.SparseMatrix;
+
+/**
+ * Row-ordered copy of the constraint matrix. cbc4j only give access to the matrix one coefficient at the time, so each
+ * row is read once when first accessed. The copy isn't updated: the problem drops it when the matrix changes.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+class CbcMatrix {
+
+    /**
+     * The coefficients of each row, null if not read.
+     */
+    private final double[][] coefs;
+
+    /**
+     * The number of columns.
+     */
+    private final int columnCount;
+
+    /**
+     * The column index of each row's coefficients, null if not read.
+     */
+    private final int[][] columns;
+
+    /**
+     * The problem.
+     */
+    private final SWIGTYPE_p_OsiClpSolverInterface lp;
+
+    /**
+     * Buffer used to read the coefficients of a row, null until a row is read.
+     */
+    private double[] rowCoefs;
+
+    /**
+     * Buffer used to read the column indices of a row, null until a row is read.
+     */
+    private int[] rowColumns;
+
+    /**
+     * Create a copy of the current matrix of the problem. The rows are read when accessed.
+     * 
+     * @param lp
+     *            the problem
+     */
+    CbcMatrix(SWIGTYPE_p_OsiClpSolverInterface lp) {
+        this.lp = lp;
+        this.columnCount = cbc4j.getNumCols(lp);
+        int rowCount = cbc4j.getNumRows(lp);
+        this.columns = new int[rowCount][];
+        this.coefs = new double[rowCount][];
+    }
+
+    /**
+     * Compute the activity of a row for the given column values.
+     * 
+     * @param row
+     *            the row index
+     * @param values
+     *            the value of each column
+     * @return the activity of the row
+     */
+    double activity(int row, double[] values) {
+        int[] cols = getColumns(row);
+        double[] rowCoefs = this.coefs[row];
+        double activity = 0;
+        for (int k = 0; k < cols.length; k++) {
+            activity += rowCoefs[k] * values[cols[k]];
+        }
+        return activity;
+    }
+
+    /**
+     * Returns the coefficients of a row. The returned array must not be modified.
+     * 
+     * @param row
+     *            the row index
+     * @return the coefficients
+     */
+    double[] getCoefs(int row) {
+        read(row);
+        return this.coefs[row];
+    }
+
+    /**
+     * Returns the column indices of a row. The returned array must not be modified.
+     * 
+     * @param row
+     *            the row index
+     * @return the column indices
+     */
+    int[] getColumns(int row) {
+        read(row);
+        return this.columns[row];
+    }
+
+    /**
+     * Read the non-zero coefficients of a row, if not already read.
+     * 
+     * @param row
+     *            the row index
+     */
+    private void read(int row) {
+        if (row < 0 || row >= this.columns.length) {
+            throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + this.columns.length); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (this.columns[row] != null) {
+            return;
+        }
+        if (this.rowColumns == null) {
+            this.rowColumns = new int[this.columnCount];
+            this.rowCoefs = new double[this.columnCount];
+        }
+        int length = 0;
+        for (int col = 0; col < this.columnCount; col++) {
+            double coef = cbc4j.getCoefficient(this.lp, row, col);
+            if (coef != 0) {
+                this.rowColumns[length] = col;
+                this.rowCoefs[length] = coef;
+                length++;
+            }
+        }
+        this.columns[row] = Arrays.copyOf(this.rowColumns, length);
+        this.coefs[row] = Arrays.copyOf(this.rowCoefs, length);
+    }
+
+    /**
+     * Create a copy of the matrix in compressed sparse row format.
+     * 
+     * @return the sparse matrix
+     */
+    SparseMatrix toSparseMatrix() {
+        int size = this.columns.length;
+        int[] starts = new int[size + 1];
+        for (int row = 0; row < size; row++) {
+            starts[row + 1] = starts[row] + getColumns(row).length;
+        }
+        int[] cols = new int[starts[size]];
+        double[] values = new double[starts[size]];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(this.columns[row], 0, cols, starts[row], this.columns[row].length);
+            System.arraycopy(this.coefs[row], 0, values, starts[row], this.coefs[row].length);
+        }
+        return new SparseMatrix(this.columnCount, starts, cols, values);
+    }
+
+}
@@ -15,8 +15,10 @@
  */
 package com.patrikdufresne.ilp.cbc;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.patrikdufresne.cbc4j.CBCLibrary;
 import com.patrikdufresne.cbc4j.SWIGTYPE_p_CbcModel;
@@ -24,12 +26,19 @@ import com.patrikdufresne.cbc4j.cbc4j;
 import com.patrikdufresne.ilp.ILPLogger;
 import com.patrikdufresne.ilp.ILPPolicy;
 import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.SolveStatistics;
 import com.patrikdufresne.ilp.Solver;
 import com.patrikdufresne.ilp.SolverOption;
 import com.patrikdufresne.ilp.Status;
 
 /**
  * Cbc solver
+ * <p>
+ * CbcMain keeps its parameters in static data, so callCbc0() and callCbc1() can't run concurrently and one JVM runs a
+ * single CBC resolution at a time. Concurrent calls to {@link #solve(LinearProblem, SolverOption)} copy their problem
+ * concurrently then wait for the running resolution. Use {@link CbcSolverOption#setThreads(int)} to use multiple cores
+ * within one resolution, or run the solver in worker processes (ProcessSolverFactory of the process module) to run
+ * concurrent resolutions.
  * 
  * @author Patrik Dufresne
  * 
@@ -40,6 +49,15 @@ public class CbcSolver implements Solver {
         CBCLibrary.load();
     }
 
+    /**
+     * Lock held by the running CBC resolution, see {@link #callCbcMain(SWIGTYPE_p_CbcModel, String[])}.
+     */
+    static final ReentrantLock CBC_MAIN_LOCK = new ReentrantLock();
+
+    private static final String BASIS_IN = "-basisIn"; //$NON-NLS-1$
+    private static final String BASIS_OUT = "-basisOut"; //$NON-NLS-1$
+    private static final String MIP_START = "-mipStart"; //$NON-NLS-1$
+
     /**
      * <pre>
      * 0 - none
@@ -115,11 +133,15 @@ public class CbcSolver implements Solver {
      *   8 stopped on iterations limit
      * </pre>
      * 
-     * @param status
-     * @param secondaryStatus
-     * @return
+     * A search stopped on a limit with an incumbent is feasible.
+     * 
+     * @param cbcModel
+     *            the model
+     * @param bestSolution
+     *            the best solution found or null
+     * @return the solution status
      */
-    Status checkStatus(SWIGTYPE_p_CbcModel cbcModel) {
+    Status checkStatus(SWIGTYPE_p_CbcModel cbcModel, double[] bestSolution) {
         int status = cbc4j.status(cbcModel);
         if (status == 0) {
             if (cbc4j.isProvenOptimal(cbcModel)) {
@@ -129,6 +151,9 @@ public class CbcSolver implements Solver {
             }
             throw new IllegalStateException("cbc solver finish without a known status");
         }
+        if (status == 1 && bestSolution != null) {
+            return Status.FEASIBLE;
+        }
         return Status.UNKNOWN;
     }
 
@@ -142,11 +167,37 @@ public class CbcSolver implements Solver {
         return new CbcSolverOption();
     }
 
+    /**
+     * Run CbcMain on the model. Wait for the resolution in progress in another thread, if any, since CbcMain isn't
+     * reentrant.
+     * 
+     * @param cbcModel
+     *            the model to solve
+     * @param args
+     *            the CbcMain arguments
+     */
+    static void callCbcMain(SWIGTYPE_p_CbcModel cbcModel, String[] args) {
+        CBC_MAIN_LOCK.lock();
+        try {
+            cbc4j.callCbc0(cbcModel);
+            cbc4j.callCbc1(args.length, args, cbcModel);
+        } finally {
+            CBC_MAIN_LOCK.unlock();
+        }
+    }
+
     @Override
     public void dispose() {
         // Nothing to do.
     }
 
+    /**
+     * This implementation solve a copy of the problem using CbcMain.
+     * <p>
+     * The statistics are available from {@link LinearProblem#getStatistics()}. The build time includes the copy of the
+     * problem into the CbcModel and the synchronization time is used to retrieve the solution. CbcMain doesn't report
+     * the search statistics.
+     */
     @Override
     public boolean solve(LinearProblem lp, SolverOption option) {
         // Check arguments value.
@@ -156,50 +207,101 @@ public class CbcSolver implements Solver {
         if (!(option instanceof CbcSolverOption)) {
             throw new IllegalArgumentException("invalid solver option");
         }
-        long start = 0;
-        boolean traceEnabled = ILPPolicy.getLog().getLevel() == ILPLogger.TRACE;
         CbcLinearProblem cbclp = (CbcLinearProblem) lp;
 
         // Start the time counter;
-        if (traceEnabled) {
-            start = System.currentTimeMillis();
+        SolveStatistics stats = new SolveStatistics();
+        long start = System.nanoTime();
+        try {
+            return solve(cbclp, (CbcSolverOption) option, stats, start);
+        } finally {
+            stats.setSolveTime(System.nanoTime() - start);
+            cbclp.statistics = stats;
+            ILPPolicy.getLog().log(ILPLogger.TRACE, "cbc solver took " + stats.getSolveTime() / 1000000 + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
         }
+    }
 
-        // Release the previous solution.
-        cbclp.bestSolution = null;
-        cbclp.objValue = null;
+    /**
+     * Solve the problem and fill the statistics.
+     */
+    private boolean solve(CbcLinearProblem cbclp, CbcSolverOption cbcopt, SolveStatistics stats, long start) {
+        // Write the initial solution before the previous one is released.
+        File mipStart = cbclp.createMIPStart(cbcopt.getMIPStart(), cbcopt.getReuseSolution());
+        File basis = null;
+        try {
+            // Release the previous solution.
+            cbclp.bestSolution = null;
+            cbclp.rowActivities = null;
+            cbclp.objValue = null;
 
-        // Flush java output.
-        System.out.flush();
+            // Check if the resolution was terminated before starting.
+            if (cbcopt.isTerminated()) {
+                cbclp.status = Status.UNKNOWN;
+                return false;
+            }
 
-        // Build solver arguments.
-        ((CbcSolverOption) option).setLogLevel(getCbcLogLevel());
-        ((CbcSolverOption) option).setSLogLevel(getCbcLogLevel());
-        List<String> list = ((CbcSolverOption) option).getArgs();
-        String args[] = list.toArray(new String[list.size()]);
-        // Print the arguments. Should be removed.
-        ILPPolicy.getLog().log(ILPLogger.TRACE, "arguments: " + list);
+            // Flush java output.
+            System.out.flush();
 
-        /* Call CBC solver. */
-        // Make of copy of the original Lp to avoid side effect when solving the problem.
-        SWIGTYPE_p_CbcModel cbcModel = cbc4j.newCbcModel(cbclp.lp);
-        try {
-            cbc4j.callCbc0(cbcModel);
-            cbc4j.callCbc1(args.length, args, cbcModel);
-
-            // Print the total time took to run CBC.
-            if (traceEnabled) {
-                ILPPolicy.getLog().log(ILPLogger.TRACE, "cbc solver took " + (System.currentTimeMillis() - start) + " ms");
+            // Build solver arguments.
+            cbcopt.setLogLevel(getCbcLogLevel());
+            cbcopt.setSLogLevel(getCbcLogLevel());
+            List<String> list = cbcopt.getArgs();
+            if (mipStart != null) {
+                list.addAll(list.size() - 1, Arrays.asList(MIP_START, mipStart.getAbsolutePath()));
+            }
+            if (cbcopt.getWarmStart()) {
+                // Read the basis of the previous resolution before solving and write the new one after.
+                basis = cbclp.createBasisFile();
+                if (basis.length() > 0) {
+                    list.addAll(list.size() - 1, Arrays.asList(BASIS_IN, basis.getAbsolutePath()));
+                }
+                list.addAll(Arrays.asList(BASIS_OUT, basis.getAbsolutePath()));
             }
+            String args[] = list.toArray(new String[list.size()]);
+            // Print the arguments. Should be removed.
+            ILPPolicy.getLog().log(ILPLogger.TRACE, "arguments: " + list);
 
-            // Check the status, retrieve the best solution, get the objective value.
-            cbclp.status = checkStatus(cbcModel);
-            cbclp.bestSolution = cbc4j.bestSolution(cbcModel);
-            cbclp.objValue = cbc4j.getObjValue(cbcModel);
+            /* Call CBC solver. */
+            // Make of copy of the original Lp to avoid side effect when solving the problem.
+            SWIGTYPE_p_CbcModel cbcModel = cbc4j.newCbcModel(cbclp.lp);
+            try {
+                stats.setBuildTime(System.nanoTime() - start);
+                callCbcMain(cbcModel, args);
+                if (basis != null) {
+                    cbclp.readBasisFile(basis);
+                }
 
+                // Check the status, retrieve the best solution, get the objective value.
+                long sync = System.nanoTime();
+                cbclp.bestSolution = cbc4j.bestSolution(cbcModel);
+                cbclp.status = checkStatus(cbcModel, cbclp.bestSolution);
+                if (cbclp.bestSolution != null) {
+                    // The row activities are computed when retrieved.
+                    cbclp.rowActivities = new double[cbc4j.getNumRows(cbclp.lp)];
+                    Arrays.fill(cbclp.rowActivities, Double.NaN);
+                }
+                cbclp.objValue = cbc4j.getObjValue(cbcModel);
+                stats.setSyncTime(System.nanoTime() - sync);
+                if (cbclp.bestSolution != null && cbclp.objValue != null) {
+                    stats.setObjectiveValue(cbclp.objValue.doubleValue());
+                    if (Status.OPTIMAL.equals(cbclp.status)) {
+                        stats.setBestBound(cbclp.objValue.doubleValue());
+                    }
+                }
+
+            } finally {
+                // Release the cbcModel
+                cbc4j.deleteCbcModel(cbcModel);
+            }
         } finally {
-            // Release the cbcModel
-            cbc4j.deleteCbcModel(cbcModel);
+            // Delete the temporary files.
+            if (mipStart != null) {
+                mipStart.delete();
+            }
+            if (basis != null) {
+                basis.delete();
+            }
         }
 
         return Status.FEASIBLE.equals(cbclp.status) || Status.OPTIMAL.equals(cbclp.status);
@@ -17,9 +17,21 @@ package com.patrikdufresne.ilp.cbc;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-
-import com.patrikdufresne.ilp.SolverOption;
+import java.util.Map;
+
+import com.patrikdufresne.ilp.IAbsoluteMIPGap;
+import com.patrikdufresne.ilp.IMIPStart;
+import com.patrikdufresne.ilp.INodeLimit;
+import com.patrikdufresne.ilp.IRelativeMIPGap;
+import com.patrikdufresne.ilp.ISolutionLimit;
+import com.patrikdufresne.ilp.ITerminable;
+import com.patrikdufresne.ilp.IThreads;
+import com.patrikdufresne.ilp.ITimeLimit;
+import com.patrikdufresne.ilp.IWarmStart;
+import com.patrikdufresne.ilp.Variable;
 
 /**
  * Cbc solver options.
@@ -27,16 +39,24 @@ import com.patrikdufresne.ilp.SolverOption;
  * @author Patrik Dufresne
  * 
  */
-public class CbcSolverOption implements SolverOption {
+public class CbcSolverOption implements ITerminable, ITimeLimit, IRelativeMIPGap, IAbsoluteMIPGap, INodeLimit, ISolutionLimit, IThreads, IWarmStart,
+        IMIPStart {
 
+    private static final String ALLOWABLE_GAP = "-allowableGap";
     private static final String COMBINE_SOLUTIONS = "-combineSolutions";
     private static final String COST_STRATEGY = "costStrategy";
     private static final String CUTSONOFF = "-cutsonoff";
+    /**
+     * Added to the number of threads to enable deterministic parallel mode.
+     */
+    private static final int DETERMINISTIC = 100;
     private static final String FEASIBILITY_PUMP = "-feasibilityPump";
     private static final String GMI_CUTS = "GMICuts";
     private static final String HEURISTICS_ON_OFF = "-heuristicsOnOff";
     private static final String LATWOMIR_CUTS = "latwomirCuts";
     private static final String LOGLEVEL = "-logLevel";
+    private static final String MAX_NODES = "-maxNodes";
+    private static final String MAX_SOLUTIONS = "-maxSolutions";
     private static final String OFF = "off";
     private static final String ON = "on";
     private static final String PERTURBATION = "perturbation";
@@ -44,30 +64,44 @@ public class CbcSolverOption implements SolverOption {
     private static final String PRESOLVE = "presolve";
     private static final String PROBING_CUTS = "probingCuts";
     private static final String PROBNAME = "problem-name";
+    private static final String RATIO_GAP = "-ratioGap";
     private static final String REDUCE_AND_SPLIT_CUTS = "reduceAndSplitCuts";
+    private static final String SECONDS = "-sec";
     private static final String SLOGLEVEL = "-slogLevel";
     private static final String SOLVE = "-solve";
     private static final String STRATEGY = "-strategy";
+    private static final String THREADS = "-threads";
     private static final String TRUST_PSEUDO_COST = "-trustPseudoCosts";
 
+    private Double allowableGap; // Base at 1e-10
     private Boolean combineSolutions; // Base at on
     private CostStrategy costStrategy; // Base at off.
     private Boolean cutsOnOff; // Base at on
+    private Boolean deterministic; // Base at off
     private Boolean feasibilityPump; // Base at on
     private GMICuts gmiCuts;
     private Boolean heuristicsOnOff; // Base at on.
     private LatwomirCuts latwomirCuts;
     private Integer logLevel = 0; // Base at 1
+    private Integer maxNodes; // Base at unlimited
+    private Integer maxSolutions; // Base at unlimited
+    private Map<Variable, Number> mipStart;
     private Boolean perturbation;
     private Preprocess preprocess; // Base at sos
     private Presolve presolve;
     private ProbingCuts probingCuts;
 
+    private Double ratioGap; // Base at 0
     private ReduceAndSplitCuts reduceAndSplitCuts;
+    private boolean reuseSolution; // Base at off
 
+    private Double seconds; // Base at unlimited
     private Integer sLogLevel; // Base at 1
     private Integer strategy; // Base at 1
+    private volatile boolean terminated;
+    private Integer threads; // Base at 0 (no threads)
     private Integer trustPseudoCost; // Base at 5
+    private boolean warmStart; // Base at off
 
     /**
      * Used to generate the list of argument to be passed to CbcMain.
@@ -121,14 +155,43 @@ public class CbcSolverOption implements SolverOption {
         }
         if (this.presolve != null) {
             args.addAll(Arrays.asList(PRESOLVE, this.presolve.toString()));
+        } else if (this.warmStart) {
+            args.addAll(Arrays.asList(PRESOLVE, Presolve.off.toString()));
         }
         if (this.perturbation != null) {
             args.addAll(Arrays.asList(PERTURBATION, this.perturbation ? ON : OFF));
         }
+        if (this.seconds != null) {
+            args.addAll(Arrays.asList(SECONDS, Double.toString(this.seconds)));
+        }
+        if (this.ratioGap != null) {
+            args.addAll(Arrays.asList(RATIO_GAP, Double.toString(this.ratioGap)));
+        }
+        if (this.allowableGap != null) {
+            args.addAll(Arrays.asList(ALLOWABLE_GAP, Double.toString(this.allowableGap)));
+        }
+        if (this.maxNodes != null) {
+            args.addAll(Arrays.asList(MAX_NODES, Integer.toString(this.maxNodes)));
+        }
+        if (this.maxSolutions != null) {
+            args.addAll(Arrays.asList(MAX_SOLUTIONS, Integer.toString(this.maxSolutions)));
+        }
+        if (this.threads != null) {
+            int value = Boolean.TRUE.equals(this.deterministic) ? this.threads + DETERMINISTIC : this.threads;
+            args.addAll(Arrays.asList(THREADS, Integer.toString(value)));
+        }
         args.add(SOLVE);
         return args;
     }
 
+    /**
+     * Return the absolute MIP gap (allowableGap). Base value at 1e-10.
+     */
+    @Override
+    public double getAbsoluteMIPGap() {
+        return this.allowableGap != null ? this.allowableGap : 1e-10;
+    }
+
     /**
      * Return the current cost strategy to be used or null to use default.
      * 
@@ -147,6 +210,15 @@ public class CbcSolverOption implements SolverOption {
         return this.cutsOnOff;
     }
 
+    /**
+     * Return the deterministic value or null if undefined. Base value at off.
+     * 
+     * @return deterministic value or null
+     */
+    public Boolean getDeterministic() {
+        return this.deterministic;
+    }
+
     /**
      * Return the <code>feas(ibilityPump)</code> value or null if undefined. Base value at on.
      * 
@@ -182,6 +254,19 @@ public class CbcSolverOption implements SolverOption {
         return this.logLevel;
     }
 
+    @Override
+    public Map<Variable, Number> getMIPStart() {
+        return this.mipStart;
+    }
+
+    /**
+     * Return the maximum number of nodes (maxNodes) or zero if unlimited.
+     */
+    @Override
+    public long getNodeLimit() {
+        return this.maxNodes != null ? this.maxNodes : 0;
+    }
+
     public Boolean getPerturbation() {
         return perturbation;
     }
@@ -203,10 +288,40 @@ public class CbcSolverOption implements SolverOption {
         return probingCuts;
     }
 
+    /**
+     * Return the relative MIP gap (ratioGap). Base value at 0.
+     */
+    @Override
+    public double getRelativeMIPGap() {
+        return this.ratioGap != null ? this.ratioGap : 0;
+    }
+
     public ReduceAndSplitCuts getReduceAndSplit() {
         return reduceAndSplitCuts;
     }
 
+    @Override
+    public boolean getReuseSolution() {
+        return this.reuseSolution;
+    }
+
+    /**
+     * Return the maximum number of seconds or null if unlimited.
+     * 
+     * @return seconds value or null
+     */
+    public Double getSeconds() {
+        return this.seconds;
+    }
+
+    /**
+     * Return the maximum number of solutions (maxSolutions) or zero if unlimited.
+     */
+    @Override
+    public long getSolutionLimit() {
+        return this.maxSolutions != null ? this.maxSolutions : 0;
+    }
+
     /**
      * Return the sLogLevel value or null if undefined. Base value at 1.
      * 
@@ -225,6 +340,22 @@ public class CbcSolverOption implements SolverOption {
         return this.strategy;
     }
 
+    /**
+     * Return the number of threads. Base value at 1.
+     */
+    @Override
+    public int getThreads() {
+        return this.threads != null ? this.threads : 1;
+    }
+
+    /**
+     * Return the time limit in milliseconds or zero if unlimited.
+     */
+    @Override
+    public long getTimeLimit() {
+        return this.seconds != null ? Math.round(this.seconds * 1000) : 0;
+    }
+
     /**
      * Return the trustPseudoCost value or null if undefined. Base value at 5.
      * 
@@ -234,6 +365,11 @@ public class CbcSolverOption implements SolverOption {
         return this.trustPseudoCost;
     }
 
+    @Override
+    public boolean getWarmStart() {
+        return this.warmStart;
+    }
+
     /**
      * Return the combineSolution value or null if undefined. Base value at on.
      * 
@@ -243,6 +379,28 @@ public class CbcSolverOption implements SolverOption {
         return this.combineSolutions;
     }
 
+    @Override
+    public boolean isTerminated() {
+        return this.terminated;
+    }
+
+    @Override
+    public void reset() {
+        this.terminated = false;
+    }
+
+    /**
+     * Sets the absolute MIP gap (allowableGap). CBC stops the search when the gap between the best known solution and
+     * the best possible solution is less than this value.
+     */
+    @Override
+    public void setAbsoluteMIPGap(double gap) {
+        if (gap < 0) {
+            throw new IllegalArgumentException("gap < 0"); //$NON-NLS-1$
+        }
+        this.allowableGap = gap;
+    }
+
     /**
      * Sets or unset the combineSolution value.
      * 
@@ -275,6 +433,18 @@ public class CbcSolverOption implements SolverOption {
         this.cutsOnOff = cutsOnOff;
     }
 
+    /**
+     * Sets whether the parallel branch and cut is deterministic. When enabled, the threads are synchronized so two
+     * runs with the same number of threads explore the same tree and return the same solution, at the cost of some
+     * idle time. Only used when the number of threads is greater than one. Default off.
+     * 
+     * @param deterministic
+     *            True to enable deterministic parallel mode, null to use default.
+     */
+    public void setDeterministic(Boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
     /**
      * Sets or unset the feasibilityPump value.
      * 
@@ -327,6 +497,26 @@ public class CbcSolverOption implements SolverOption {
         this.logLevel = logLevel;
     }
 
+    /**
+     * This implementation writes the initial solution in a file read by CBC (mipStart). CBC completes a partial
+     * solution. Variables with a name containing a whitespace are ignored.
+     */
+    @Override
+    public void setMIPStart(Map<? extends Variable, ? extends Number> values) {
+        this.mipStart = values != null ? Collections.unmodifiableMap(new HashMap<Variable, Number>(values)) : null;
+    }
+
+    /**
+     * Sets the maximum number of nodes (maxNodes) explored by the branch and bound.
+     */
+    @Override
+    public void setNodeLimit(long nodes) {
+        if (nodes < 0) {
+            throw new IllegalArgumentException("nodes < 0"); //$NON-NLS-1$
+        }
+        this.maxNodes = nodes > 0 ? Integer.valueOf((int) Math.min(nodes, Integer.MAX_VALUE)) : null;
+    }
+
     /**
      * Sets whether to perturb problem. Perturbation helps to stop cycling, but Clp uses other measures for this.
      * However large problems and especially ones with unit elements and unit rhs or costs benefit from perturbation.
@@ -381,6 +571,18 @@ public class CbcSolverOption implements SolverOption {
         this.probingCuts = probingCuts;
     }
 
+    /**
+     * Sets the relative MIP gap (ratioGap). CBC stops the search when the gap between the best known solution and the
+     * best possible solution is less than this fraction of the larger of the two.
+     */
+    @Override
+    public void setRelativeMIPGap(double gap) {
+        if (gap < 0) {
+            throw new IllegalArgumentException("gap < 0"); //$NON-NLS-1$
+        }
+        this.ratioGap = gap;
+    }
+
     /**
      * Sets whether to use Reduce-and-Split cuts. This switches on reduce and split cuts (either at root or in entire
      * tree). May be slow See branchAndCut for information on options. Default off.
@@ -391,6 +593,33 @@ public class CbcSolverOption implements SolverOption {
         this.reduceAndSplitCuts = reduceAndSplitCuts;
     }
 
+    @Override
+    public void setReuseSolution(boolean enabled) {
+        this.reuseSolution = enabled;
+    }
+
+    /**
+     * Sets the maximum number of seconds spent in the branch and bound. CBC stops the search and returns the best
+     * solution found so far. Default unlimited.
+     * 
+     * @param seconds
+     *            the number of seconds or null if unlimited
+     */
+    public void setSeconds(Double seconds) {
+        this.seconds = seconds;
+    }
+
+    /**
+     * Sets the maximum number of improving solutions (maxSolutions) found by the branch and bound.
+     */
+    @Override
+    public void setSolutionLimit(long solutions) {
+        if (solutions < 0) {
+            throw new IllegalArgumentException("solutions < 0"); //$NON-NLS-1$
+        }
+        this.maxSolutions = solutions > 0 ? Integer.valueOf((int) Math.min(solutions, Integer.MAX_VALUE)) : null;
+    }
+
     /**
      * Sets or unset the sLogLevel value.
      * 
@@ -411,6 +640,28 @@ public class CbcSolverOption implements SolverOption {
         this.strategy = strategy;
     }
 
+    /**
+     * Sets the number of threads used by the branch and bound. Requires CBC to be compiled with thread support.
+     */
+    @Override
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads < 1"); //$NON-NLS-1$
+        }
+        this.threads = threads > 1 ? Integer.valueOf(threads) : null;
+    }
+
+    /**
+     * Sets the time limit. Equivalent to {@link #setSeconds(Double)}.
+     */
+    @Override
+    public void setTimeLimit(long milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("milliseconds < 0"); //$NON-NLS-1$
+        }
+        this.seconds = milliseconds > 0 ? Double.valueOf(milliseconds / 1000.0) : null;
+    }
+
     /**
      * Sets or unset the trustPseudocost value.
      * 
@@ -420,4 +671,25 @@ public class CbcSolverOption implements SolverOption {
     public void setTrustPseudoCost(Integer trustPseudoCost) {
         this.trustPseudoCost = trustPseudoCost;
     }
+
+    /**
+     * This implementation reads the basis written by the previous resolution (basisIn) and writes the final basis
+     * (basisOut) in a temporary file deleted after the resolution, the basis itself being kept by the problem. Unless
+     * set explicitly, the presolve is disabled.
+     */
+    @Override
+    public void setWarmStart(boolean enabled) {
+        this.warmStart = enabled;
+    }
+
+    /**
+     * This implementation prevent the resolution from starting. The binding doesn't provide an event handler to stop a
+     * search in progress, use {@link #setSeconds(Double)} to bound the resolution time or run the solver in a worker
+     * process (ProcessSolverFactory of the process module) killed on termination.
+     */
+    @Override
+    public void terminate() {
+        this.terminated = true;
+    }
+
 }
@@ -47,6 +47,19 @@ public class CbcVariable implements Variable {
         parent.addCol(this, name);
     }
 
+    /**
+     * Create a variable for an existing column. Used when the columns are created in bulk by the parent problem.
+     * 
+     * @param parent
+     *            the parent problem.
+     * @param col
+     *            the column index.
+     */
+    CbcVariable(CbcLinearProblem parent, int col) {
+        this.parent = parent;
+        this.col = col;
+    }
+
     /**
      * Check if the variable is disposed.
      */
@@ -110,12 +123,16 @@ public class CbcVariable implements Variable {
 
     /**
      * Retrieve the column primal value.
+     * 
+     * @throws IllegalStateException
+     *             if the column was added after the resolution
      */
     @Override
     public Double getValue() {
         checkVariable();
         this.parent.checkSolution();
-        return CbcLinearProblem.round(this.parent.bestSolution[this.col]);
+        this.parent.checkSolvedCol(this.col);
+        return Double.valueOf(CbcLinearProblem.round(this.parent.bestSolution[this.col]));
     }
 
     /**
@@ -19,7 +19,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses( { CbcLinearProblemTest.class, CbcSolverTest.class, CbcVariableTest.class, CbcConstraintTest.class })
+@Suite.SuiteClasses( { CbcAsyncSolverTest.class, CbcLinearProblemTest.class, CbcSolverTest.class, CbcVariableTest.class, CbcConstraintTest.class, CbcSolverOptionTest.class })
 public class AllTests {
 
 }
@@ -15,8 +15,17 @@
  */
 package com.patrikdufresne.ilp.cbc;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.patrikdufresne.ilp.Constraint;
 import com.patrikdufresne.ilp.ConstraintTest;
+import com.patrikdufresne.ilp.LinearProblem;
 import com.patrikdufresne.ilp.SolverFactory;
+import com.patrikdufresne.ilp.Variable;
 
 public class CbcConstraintTest extends ConstraintTest {
 
@@ -25,4 +34,68 @@ public class CbcConstraintTest extends ConstraintTest {
         return CbcSolverFactory.instance();
     }
 
+    /**
+     * Check if the row activities of the solution are kept when the matrix changes after the resolution.
+     */
+    @Test
+    public void testGetValue_AfterMatrixChange_ExpectSolvedActivity() {
+        Variable x = lp.addIntegerVariable("x", Integer.valueOf(0), Integer.valueOf(10));
+        Variable y = lp.addIntegerVariable("y", Integer.valueOf(0), Integer.valueOf(10));
+        Constraint c1 = lp.addConstraint("c1", lp.createLinear(new int[] { 1, 1 }, new Variable[] { x, y }), null, Integer.valueOf(8));
+        Constraint c2 = lp.addConstraint("c2", lp.createLinear(1, x), null, Integer.valueOf(3));
+        lp.setObjectiveLinear(lp.createLinear(new int[] { 2, 1 }, new Variable[] { x, y }));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        assertTrue(solver.solve(lp, solver.createSolverOption()));
+
+        c1.setLinear(lp.createLinear(1, x));
+        assertEquals(1, c1.getLinear().size());
+        y.dispose();
+        assertEquals(8, c1.getValue().doubleValue(), 0.0001);
+        assertEquals(3, c2.getValue().doubleValue(), 0.0001);
+        double[] activities = lp.getRowActivities(null);
+        assertEquals(8, activities[0], 0.0001);
+        assertEquals(3, activities[1], 0.0001);
+    }
+
+    /**
+     * Check if reading the value of a row or column added after the resolution throws an exception instead of
+     * returning a value not computed by the solver.
+     */
+    @Test
+    public void testGetValue_AddedAfterSolve_ExpectException() {
+        Variable x = lp.addIntegerVariable("x", Integer.valueOf(0), Integer.valueOf(10));
+        lp.addConstraint("c1", lp.createLinear(1, x), null, Integer.valueOf(8));
+        lp.setObjectiveLinear(lp.createLinear(1, x));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        assertTrue(solver.solve(lp, solver.createSolverOption()));
+
+        Variable y = lp.addIntegerVariable("y", Integer.valueOf(0), Integer.valueOf(10));
+        Constraint c2 = lp.addConstraint("c2", lp.createLinear(1, x), null, Integer.valueOf(3));
+        assertEquals(8, x.getValue().doubleValue(), 0.0001);
+        try {
+            c2.getValue();
+            fail("Should throw an exception");
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+        try {
+            lp.getRowActivities(null);
+            fail("Should throw an exception");
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+        try {
+            y.getValue();
+            fail("Should throw an exception");
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+        try {
+            lp.getValues(null);
+            fail("Should throw an exception");
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+    }
+
 }
@@ -0,0 +1,74 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.cbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class CbcSolverOptionTest {
+
+    /**
+     * Returns the value following the given argument or null.
+     */
+    private static String arg(List<String> args, String name) {
+        int i = args.indexOf(name);
+        return i >= 0 && i + 1 < args.size() ? args.get(i + 1) : null;
+    }
+
+    @Test
+    public void testGetArgs_Default_ExpectNoThreads() {
+        CbcSolverOption option = new CbcSolverOption();
+        assertFalse(option.getArgs().contains("-threads"));
+        assertEquals(1, option.getThreads());
+    }
+
+    @Test
+    public void testGetArgs_WithDeterministic_ExpectThreadsPlus100() {
+        CbcSolverOption option = new CbcSolverOption();
+        option.setThreads(4);
+        option.setDeterministic(Boolean.TRUE);
+        assertEquals("104", arg(option.getArgs(), "-threads"));
+        assertEquals(4, option.getThreads());
+    }
+
+    @Test
+    public void testGetArgs_WithDeterministicSingleThread_ExpectNoThreads() {
+        CbcSolverOption option = new CbcSolverOption();
+        option.setDeterministic(Boolean.TRUE);
+        assertFalse(option.getArgs().contains("-threads"));
+    }
+
+    @Test
+    public void testGetArgs_WithThreads_ExpectThreads() {
+        CbcSolverOption option = new CbcSolverOption();
+        option.setThreads(8);
+        List<String> args = option.getArgs();
+        assertEquals("8", arg(args, "-threads"));
+        // The arguments must be set before the solve command.
+        assertTrue(args.indexOf("-threads") < args.indexOf("-solve"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetThreads_WithZero_ExpectException() {
+        new CbcSolverOption().setThreads(0);
+    }
+
+}
@@ -15,8 +15,23 @@
  */
 package com.patrikdufresne.ilp.cbc;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
 import com.patrikdufresne.ilp.SolverFactory;
 import com.patrikdufresne.ilp.SolverTest;
+import com.patrikdufresne.ilp.Variable;
 
 public class CbcSolverTest extends SolverTest {
 
@@ -25,4 +40,64 @@ public class CbcSolverTest extends SolverTest {
         return CbcSolverFactory.instance();
     }
 
+    /**
+     * Check if a resolution waits for the one running CbcMain in another thread, then completes.
+     */
+    @Test
+    public void testSolve_WhileCbcMainRunning_ExpectWaiting() throws Exception {
+        final Solver solver = doGetSolverFactory().createSolver();
+        final LinearProblem lp = solver.createLinearProblem();
+        Variable x = lp.addIntegerVariable("x", Integer.valueOf(0), Integer.valueOf(10));
+        lp.setObjectiveLinear(lp.createLinear(1, x));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> future;
+            // Act as the resolution in progress.
+            CbcSolver.CBC_MAIN_LOCK.lock();
+            try {
+                future = executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return Boolean.valueOf(solver.solve(lp, solver.createSolverOption()));
+                    }
+                });
+                Thread.sleep(500);
+                assertFalse(future.isDone());
+                assertTrue(CbcSolver.CBC_MAIN_LOCK.hasQueuedThreads());
+            } finally {
+                CbcSolver.CBC_MAIN_LOCK.unlock();
+            }
+            assertEquals(Boolean.TRUE, future.get(30, TimeUnit.SECONDS));
+            assertEquals(10, lp.getObjectiveValue().doubleValue(), 0.0001);
+        } finally {
+            executor.shutdownNow();
+            lp.dispose();
+            solver.dispose();
+        }
+    }
+
+    /**
+     * Check if a problem without variables is solved, with and without the previous solution as MIP start.
+     */
+    @Test
+    public void testSolve_WithoutVariables_ExpectOptimal() {
+        Solver solver = doGetSolverFactory().createSolver();
+        LinearProblem lp = solver.createLinearProblem();
+        try {
+            CbcSolverOption option = (CbcSolverOption) solver.createSolverOption();
+            assertTrue(solver.solve(lp, option));
+            assertEquals(0, lp.getObjectiveValue().doubleValue(), 0.0001);
+
+            lp.addConstraint("c", null, Integer.valueOf(0), null);
+            option.setReuseSolution(true);
+            assertTrue(solver.solve(lp, option));
+            assertTrue(solver.solve(lp, option));
+            assertEquals(0, lp.getObjectiveValue().doubleValue(), 0.0001);
+        } finally {
+            lp.dispose();
+            solver.dispose();
+        }
+    }
+
 }
@@ -0,0 +1,158 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.glpk;
+
+import org.gnu.glpk.GLPK;
+import org.gnu.glpk.SWIGTYPE_p_double;
+import org.gnu.glpk.SWIGTYPE_p_int;
+
+/**
+ * Native arrays reused by a problem to transfer the rows to and from GLPK.
+ * The arrays only grow and are freed when the problem is disposed, so editing
+ * a row doesn't allocate nor leak native memory. The arrays are 1-based as
+ * expected by GLPK.
+ * <p>
+ * The arena is not thread safe. Like the problem owning it, it may only be
+ * accessed by the thread who created the problem.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class GLPKArena {
+
+    /**
+     * The minimum capacity of the arrays.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * The double array or null if not allocated.
+     */
+    private SWIGTYPE_p_double doubles;
+
+    /**
+     * The capacity of the double array.
+     */
+    private int doubleCapacity;
+
+    /**
+     * The integer array or null if not allocated.
+     */
+    private SWIGTYPE_p_int ints;
+
+    /**
+     * The capacity of the integer array.
+     */
+    private int intCapacity;
+
+    /**
+     * Copy the values into the double array, starting at index 1.
+     * 
+     * @param values
+     *            the values to copy
+     * @param offset
+     *            the index of the first value
+     * @param length
+     *            the number of values
+     * @return the double array
+     */
+    SWIGTYPE_p_double copy(double[] values, int offset, int length) {
+        SWIGTYPE_p_double array = doubles(length);
+        for (int k = 0; k < length; k++) {
+            GLPK.doubleArray_setitem(array, k + 1, values[offset + k]);
+        }
+        return array;
+    }
+
+    /**
+     * Copy the 0-based indices into the integer array as 1-based indices,
+     * starting at index 1.
+     * 
+     * @param indices
+     *            the 0-based indices to copy
+     * @param offset
+     *            the index of the first value
+     * @param length
+     *            the number of values
+     * @return the integer array
+     */
+    SWIGTYPE_p_int copyIndices(int[] indices, int offset, int length) {
+        SWIGTYPE_p_int array = ints(length);
+        for (int k = 0; k < length; k++) {
+            GLPK.intArray_setitem(array, k + 1, indices[offset + k] + 1);
+        }
+        return array;
+    }
+
+    /**
+     * Free the native arrays.
+     */
+    void dispose() {
+        if (this.ints != null) {
+            GLPK.delete_intArray(this.ints);
+            this.ints = null;
+            this.intCapacity = 0;
+        }
+        if (this.doubles != null) {
+            GLPK.delete_doubleArray(this.doubles);
+            this.doubles = null;
+            this.doubleCapacity = 0;
+        }
+    }
+
+    /**
+     * Returns a double array for at least <code>length</code> values at index
+     * 1 to <code>length</code>. The content is undefined.
+     * 
+     * @param length
+     *            the number of values
+     * @return the double array
+     */
+    SWIGTYPE_p_double doubles(int length) {
+        if (this.doubles == null || length + 1 > this.doubleCapacity) {
+            int capacity = Math.max(Math.max(length + 1, this.doubleCapacity * 2), MIN_CAPACITY);
+            if (this.doubles != null) {
+                GLPK.delete_doubleArray(this.doubles);
+                this.doubles = null;
+            }
+            this.doubles = GLPK.new_doubleArray(capacity);
+            this.doubleCapacity = capacity;
+        }
+        return this.doubles;
+    }
+
+    /**
+     * Returns an integer array for at least <code>length</code> values at
+     * index 1 to <code>length</code>. The content is undefined.
+     * 
+     * @param length
+     *            the number of values
+     * @return the integer array
+     */
+    SWIGTYPE_p_int ints(int length) {
+        if (this.ints == null || length + 1 > this.intCapacity) {
+            int capacity = Math.max(Math.max(length + 1, this.intCapacity * 2), MIN_CAPACITY);
+            if (this.ints != null) {
+                GLPK.delete_intArray(this.ints);
+                this.ints = null;
+            }
+            this.ints = GLPK.new_intArray(capacity);
+            this.intCapacity = capacity;
+        }
+        return this.ints;
+    }
+
+}
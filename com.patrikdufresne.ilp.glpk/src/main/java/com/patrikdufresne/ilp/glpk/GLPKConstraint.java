@@ -20,7 +20,7 @@ import org.gnu.glpk.SWIGTYPE_p_double;
 import org.gnu.glpk.SWIGTYPE_p_int;
 
 import com.patrikdufresne.ilp.AbstractLinearProblem;
-import com.patrikdufresne.ilp.ConcreteLinear;
+import com.patrikdufresne.ilp.ArrayLinear;
 import com.patrikdufresne.ilp.Constraint;
 import com.patrikdufresne.ilp.ILPException;
 import com.patrikdufresne.ilp.Linear;
@@ -76,6 +76,20 @@ public class GLPKConstraint implements Constraint {
         setName(name);
     }
 
+    /**
+     * Create a constraint for an existing row. Used when the rows are created
+     * in bulk by the parent problem.
+     * 
+     * @param parent
+     *            reference to the glpk problem
+     * @param row
+     *            the constraint row index
+     */
+    GLPKConstraint(GLPKLinearProblem parent, int row) {
+        this.parent = parent;
+        this.row = row;
+    }
+
     /**
      * Check if the constraint is disposed.
      */
@@ -106,22 +120,22 @@ public class GLPKConstraint implements Constraint {
         int len = GLPK.glp_get_mat_row(this.parent.lp, this.row, null, null);
 
         if (len == 0) {
-            return new ConcreteLinear();
+            return new ArrayLinear(0);
         }
 
-        // Second call to get the array value
-        SWIGTYPE_p_double coefs = GLPK.new_doubleArray(len + 1);
-        SWIGTYPE_p_int cols = GLPK.new_intArray(len + 1);
+        // Second call to get the array value using the problem's arena
+        ArrayLinear linear = new ArrayLinear(len);
+        SWIGTYPE_p_double coefs = this.parent.arena.doubles(len);
+        SWIGTYPE_p_int cols = this.parent.arena.ints(len);
         GLPK.glp_get_mat_row(this.parent.lp, this.row, cols, coefs);
 
         // Rebuild the Linear object
-        ConcreteLinear linear = new ConcreteLinear();
         for (int i = 1; i <= len; i++) {
 
             int col = GLPK.intArray_getitem(cols, i);
             double coef = GLPK.doubleArray_getitem(coefs, i);
 
-            linear.add(this.parent.createTerm(Double.valueOf(coef), this.parent.getCol(col)));
+            linear.add(coef, this.parent.getCol(col));
         }
 
         // Return the Linear object
@@ -191,8 +205,9 @@ public class GLPKConstraint implements Constraint {
     }
 
     /**
-     * Sets the constraint linear expression. Since GLPK implementation is using
-     * ConcreteLinear object, the linear need to be converted into an array.
+     * Sets the constraint linear expression. The linear need to be converted
+     * into an array. When the linear is an {@link ArrayLinear}, the
+     * coefficients are copied without creating any term.
      */
     @Override
     public void setLinear(Linear linear) {
@@ -200,11 +215,19 @@ public class GLPKConstraint implements Constraint {
         AbstractLinearProblem.checkLinear(linear);
 
         int size = linear != null ? linear.size() : 0;
-        SWIGTYPE_p_double coefs = GLPK.new_doubleArray(size + 1);
-        SWIGTYPE_p_int cols = GLPK.new_intArray(size + 1);
+        // The arena's arrays are reused and freed with the problem.
+        SWIGTYPE_p_double coefs = this.parent.arena.doubles(size);
+        SWIGTYPE_p_int cols = this.parent.arena.ints(size);
 
         int idx = 0;
-        if (linear != null) {
+        if (linear instanceof ArrayLinear) {
+            ArrayLinear array = (ArrayLinear) linear;
+            for (int i = 0; i < size; i++) {
+                idx++;
+                GLPK.doubleArray_setitem(coefs, idx, array.getCoefficient(i));
+                GLPK.intArray_setitem(cols, idx, ((GLPKVariable) array.getVariable(i)).col);
+            }
+        } else if (linear != null) {
             for (Term term : linear) {
                 idx++;
                 // Sets the coefficient value
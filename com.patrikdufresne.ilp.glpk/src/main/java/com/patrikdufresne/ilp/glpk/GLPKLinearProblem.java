@@ -17,38 +17,52 @@ package com.patrikdufresne.ilp.glpk;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.logging.Logger;
 
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
+import org.gnu.glpk.SWIGTYPE_p_double;
 import org.gnu.glpk.SWIGTYPE_p_int;
 import org.gnu.glpk.glp_prob;
 
 import com.patrikdufresne.ilp.AbstractLinearProblem;
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.Basis;
 import com.patrikdufresne.ilp.Constraint;
+import com.patrikdufresne.ilp.HandleList;
 import com.patrikdufresne.ilp.ILPException;
 import com.patrikdufresne.ilp.ILPLogger;
 import com.patrikdufresne.ilp.ILPPolicy;
+import com.patrikdufresne.ilp.INamelessLinearProblem;
 import com.patrikdufresne.ilp.IPersistentLinearProblem;
+import com.patrikdufresne.ilp.IThreadConfinedLinearProblem;
 import com.patrikdufresne.ilp.Linear;
+import com.patrikdufresne.ilp.SolveStatistics;
 import com.patrikdufresne.ilp.Status;
 import com.patrikdufresne.ilp.Term;
 import com.patrikdufresne.ilp.VarType;
 import com.patrikdufresne.ilp.Variable;
+import com.patrikdufresne.ilp.io.ModelFiles;
 
 /**
  * This implementation represent a GLPK linear problem.
+ * <p>
+ * The problem isn't thread safe: it may only be accessed by the thread who created it, see
+ * {@link IThreadConfinedLinearProblem}.
  * 
  * @author Patrik Dufresne
  * 
  */
-public class GLPKLinearProblem extends AbstractLinearProblem implements IPersistentLinearProblem {
+public class GLPKLinearProblem extends AbstractLinearProblem implements IPersistentLinearProblem, INamelessLinearProblem, IThreadConfinedLinearProblem {
 
     /**
      * Value return by glp_get_row_ub, glp_get_row_lb, glp_get_col_ub and glp_get_col_lb when it's not bounded.
@@ -88,19 +102,96 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
     }
 
     /**
-     * Need to keep reference on every constraint (row).
+     * Determine the bounding type according to the bounding value given as primitive. Infinite values are considered
+     * unbounded.
+     * 
+     * @param lb
+     *            lower bound value
+     * @param ub
+     *            upper bound value
+     * 
+     * @return one of the GLP_DB, GLP_FX, GLP_LO, GLP_UP, GLP_FR
      */
-    private List<GLPKConstraint> constraints;
+    static int boundedType(double lb, double ub) {
+        boolean lower = !Double.isInfinite(lb);
+        boolean upper = !Double.isInfinite(ub);
+        if (lower && upper) {
+            return lb == ub ? GLPKConstants.GLP_FX : GLPKConstants.GLP_DB;
+        } else if (lower) {
+            return GLPKConstants.GLP_LO;
+        } else if (upper) {
+            return GLPKConstants.GLP_UP;
+        }
+        return GLPKConstants.GLP_FR;
+    }
 
-    private Set<String> constraintNames;
+    /**
+     * Convert a {@link Basis} status into a GLPK status.
+     */
+    static int stat(int status) {
+        if (status == Basis.BASIC) {
+            return GLPKConstants.GLP_BS;
+        } else if (status == Basis.UPPER) {
+            return GLPKConstants.GLP_NU;
+        }
+        return GLPKConstants.GLP_NL;
+    }
 
-    private Set<String> variableNames;
+    /**
+     * Convert a GLPK status into a {@link Basis} status. Free and fixed
+     * nonbasic variables are at lower bound.
+     */
+    static int basisStatus(int stat) {
+        if (stat == GLPKConstants.GLP_BS) {
+            return Basis.BASIC;
+        } else if (stat == GLPKConstants.GLP_NU) {
+            return Basis.UPPER;
+        }
+        return Basis.LOWER;
+    }
+
+    /**
+     * The constraints (rows). The constraint objects are only created when accessed.
+     */
+    private HandleList<GLPKConstraint> constraints;
+
+    /**
+     * The row index of each named constraint.
+     */
+    private Map<String, Integer> constraintNames;
+
+    /**
+     * True to ignore the names of the variables and constraints.
+     */
+    private boolean nameless;
+
+    /**
+     * The column index of each named variable.
+     */
+    private Map<String, Integer> variableNames;
+
+    /**
+     * Number of problems not yet disposed for each thread. Used to free the thread's GLPK environment with the last
+     * problem.
+     */
+    private static final ThreadLocal<int[]> PROBLEM_COUNT = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
 
     /**
      * Private reference on the glpk problem.
      */
     glp_prob lp;
 
+    /**
+     * Native arrays used to transfer the rows, freed when the problem is
+     * disposed.
+     */
+    final GLPKArena arena = new GLPKArena();
+
     /**
      * Cached value. True if the problem is a MIP.
      */
@@ -109,18 +200,31 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
     /**
      * The status of the problem. This value is sets the UNKNOWN when any variable or constraints is changed.
      */
-    Status status = Status.UNKNOWN;;
+    Status status = Status.UNKNOWN;
+
+    /**
+     * The statistics of the last resolution, null if never solved.
+     */
+    SolveStatistics statistics;
+
+    /**
+     * The variables (columns). The variable objects are only created when accessed.
+     */
+    private HandleList<GLPKVariable> variables;
 
     /**
-     * Need to keep reference on every variable (col).
+     * The thread owning this problem. GLPK environment is thread local, so the problem may only be accessed by the
+     * thread who created it.
      */
-    private List<GLPKVariable> variables;
+    final Thread thread;
 
     /**
-     * Create a new linear problem.
+     * Create a new problem owned by the current thread.
      */
     public GLPKLinearProblem() {
+        this.thread = Thread.currentThread();
         this.lp = GLPK.glp_create_prob();
+        PROBLEM_COUNT.get()[0]++;
     }
 
     /**
@@ -130,14 +234,41 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
      *            the constraint name.
      */
     void checkConstraintName(String name) {
+        if (this.nameless) {
+            return;
+        }
         if (name == null) {
             throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Undefined constraint name.");
         }
-        if (this.constraintNames != null && this.constraintNames.contains(name)) {
+        if (this.constraintNames != null && this.constraintNames.containsKey(name)) {
             throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate constraint name: " + name);
         }
     }
 
+    /**
+     * Check if the constraint names are unique. Null names are ignored. Otherwise throw an exception.
+     * 
+     * @param names
+     *            the constraint names or null.
+     */
+    void checkConstraintNames(String[] names) {
+        if (names == null || this.nameless) {
+            return;
+        }
+        Set<String> set = new HashSet<String>();
+        for (String name : names) {
+            if (name == null) {
+                continue;
+            }
+            if (name.length() > 255) {
+                throw new IllegalArgumentException("name > 255"); //$NON-NLS-1$
+            }
+            if (!set.add(name) || (this.constraintNames != null && this.constraintNames.containsKey(name))) {
+                throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate constraint name: " + name);
+            }
+        }
+    }
+
     /**
      * Check if the variable name is unique. Otherwise throw an exception.
      * 
@@ -145,27 +276,54 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
      *            the constraint name.
      */
     void checkVariableName(String name) {
+        if (this.nameless) {
+            return;
+        }
         if (name == null) {
             throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Undefined variable name.");
         }
-        if (this.variableNames != null && this.variableNames.contains(name)) {
+        if (this.variableNames != null && this.variableNames.containsKey(name)) {
             throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate variable name: " + name);
         }
     }
 
+    /**
+     * Check if the variable names are unique. Null names are ignored. Otherwise throw an exception.
+     * 
+     * @param names
+     *            the variable names or null.
+     */
+    void checkVariableNames(String[] names) {
+        if (names == null || this.nameless) {
+            return;
+        }
+        Set<String> set = new HashSet<String>();
+        for (String name : names) {
+            if (name == null) {
+                continue;
+            }
+            if (name.length() > 255) {
+                throw new IllegalArgumentException("name > 255"); //$NON-NLS-1$
+            }
+            if (!set.add(name) || (this.variableNames != null && this.variableNames.containsKey(name))) {
+                throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate variable name: " + name);
+            }
+        }
+    }
+
     /**
      * Should be called for every new instance of GLPKVariable
      * 
      * @param var
      *            the variable to be added to the problem.
      */
-    synchronized void addCol(GLPKVariable var, String name) {
+    void addCol(GLPKVariable var, String name) {
         this.mip = null;
         if (this.variables == null) {
-            this.variables = new ArrayList<GLPKVariable>();
+            this.variables = new VariableList();
         }
-        if (this.variableNames == null) {
-            this.variableNames = new HashSet<String>();
+        if (this.variableNames == null && !this.nameless) {
+            this.variableNames = new HashMap<String, Integer>();
         }
 
         // Create a new column using GLPK API.
@@ -176,29 +334,77 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
             throw new RuntimeException("GLPKVariable.col is not set properly."); //$NON-NLS-1$
         }
         this.variables.add(var);
-        this.variableNames.add(name);
+        if (name != null && this.variableNames != null) {
+            this.variableNames.put(name, Integer.valueOf(var.col - 1));
+        }
     }
 
     @Override
     public Constraint addConstraint(String name) {
         checkProblem();
         checkConstraintName(name);
-        GLPKConstraint c = new GLPKConstraint(this, name);
+        GLPKConstraint c = new GLPKConstraint(this, this.nameless ? null : name);
         return c;
     }
 
+    /**
+     * This implementation create all the rows with a single call to <code>glp_add_rows</code>. The coefficients are
+     * then set row by row using <code>glp_set_mat_row</code> with a pair of arrays allocated once for the whole
+     * operation. The constraint objects are created when accessed.
+     */
+    @Override
+    public int addConstraints(String[] names, int[] starts, int[] columns, double[] coefficients, double[] lowerBounds, double[] upperBounds) {
+        checkProblem();
+        int count = checkConstraints(names, starts, columns, coefficients, lowerBounds, upperBounds, this.variables != null ? this.variables.size() : 0);
+        checkConstraintNames(names);
+        if (this.constraints == null) {
+            this.constraints = new ConstraintList();
+        }
+        if (this.constraintNames == null && !this.nameless) {
+            this.constraintNames = new HashMap<String, Integer>();
+        }
+        int index = this.constraints.size();
+        if (count == 0) {
+            return index;
+        }
+
+        int first = GLPK.glp_add_rows(this.lp, count);
+        if (first != index + 1) {
+            throw new RuntimeException("GLPKConstraint.row is not set properly."); //$NON-NLS-1$
+        }
+        for (int i = 0; i < count; i++) {
+            int row = first + i;
+            if (names != null && names[i] != null && !this.nameless) {
+                GLPK.glp_set_row_name(this.lp, row, names[i]);
+                this.constraintNames.put(names[i], Integer.valueOf(index + i));
+            }
+            double lb = lowerBounds != null ? lowerBounds[i] : Double.NEGATIVE_INFINITY;
+            double ub = upperBounds != null ? upperBounds[i] : Double.POSITIVE_INFINITY;
+            GLPK.glp_set_row_bnds(this.lp, row, boundedType(lb, ub), Double.isInfinite(lb) ? 0 : lb, Double.isInfinite(ub) ? 0 : ub);
+            int len = starts[i + 1] - starts[i];
+            if (len > 0) {
+                // The arena arrays are reused for every row.
+                SWIGTYPE_p_int cols = this.arena.copyIndices(columns, starts[i], len);
+                SWIGTYPE_p_double coefs = this.arena.copy(coefficients, starts[i], len);
+                GLPK.glp_set_mat_row(this.lp, row, len, cols, coefs);
+            }
+        }
+        this.constraints.addEmpty(count);
+        return index;
+    }
+
     /**
      * Should be called for every instance of GLPKConstraint.
      * 
      * @param constraint
      *            the constraint to be added to the problem.
      */
-    synchronized void addRow(GLPKConstraint constraint, String name) {
+    void addRow(GLPKConstraint constraint, String name) {
         if (this.constraints == null) {
-            this.constraints = new ArrayList<GLPKConstraint>();
+            this.constraints = new ConstraintList();
         }
-        if (this.constraintNames == null) {
-            this.constraintNames = new HashSet<String>();
+        if (this.constraintNames == null && !this.nameless) {
+            this.constraintNames = new HashMap<String, Integer>();
         }
 
         constraint.parent = this;
@@ -208,7 +414,9 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
             throw new RuntimeException("GLPKConstraint.row is not set properly."); //$NON-NLS-1$
         }
         this.constraints.add(constraint);
-        this.constraintNames.add(name);
+        if (name != null && this.constraintNames != null) {
+            this.constraintNames.put(name, Integer.valueOf(constraint.row - 1));
+        }
     }
 
     /**
@@ -218,7 +426,7 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
     public Variable addVariable(String name, VarType type) {
         checkProblem();
         checkVariableName(name);
-        GLPKVariable v = new GLPKVariable(this, name);
+        GLPKVariable v = new GLPKVariable(this, this.nameless ? null : name);
         v.setType(type);
         if (VarType.INTEGER.equals(type) || VarType.REAL.equals(type)) {
             v.setLowerBound(null);
@@ -227,6 +435,56 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         return v;
     }
 
+    /**
+     * This implementation create all the columns with a single call to <code>glp_add_cols</code>. The variable objects
+     * are created when accessed.
+     */
+    @Override
+    public int addVariables(String[] names, VarType[] types, double[] lowerBounds, double[] upperBounds) {
+        checkProblem();
+        int count = checkVariables(names, types, lowerBounds, upperBounds);
+        checkVariableNames(names);
+        if (this.variables == null) {
+            this.variables = new VariableList();
+        }
+        if (this.variableNames == null && !this.nameless) {
+            this.variableNames = new HashMap<String, Integer>();
+        }
+        int index = this.variables.size();
+        if (count == 0) {
+            return index;
+        }
+        this.mip = null;
+
+        int first = GLPK.glp_add_cols(this.lp, count);
+        if (first != index + 1) {
+            throw new RuntimeException("GLPKVariable.col is not set properly."); //$NON-NLS-1$
+        }
+        for (int i = 0; i < count; i++) {
+            int col = first + i;
+            if (names != null && names[i] != null && !this.nameless) {
+                GLPK.glp_set_col_name(this.lp, col, names[i]);
+                this.variableNames.put(names[i], Integer.valueOf(index + i));
+            }
+            double lb;
+            double ub;
+            if (VarType.BOOL.equals(types[i])) {
+                GLPK.glp_set_col_kind(this.lp, col, GLPKConstants.GLP_IV);
+                lb = lowerBounds != null ? lowerBounds[i] : 0;
+                ub = upperBounds != null ? upperBounds[i] : 1;
+            } else {
+                if (VarType.INTEGER.equals(types[i])) {
+                    GLPK.glp_set_col_kind(this.lp, col, GLPKConstants.GLP_IV);
+                }
+                lb = lowerBounds != null ? lowerBounds[i] : Double.NEGATIVE_INFINITY;
+                ub = upperBounds != null ? upperBounds[i] : Double.POSITIVE_INFINITY;
+            }
+            GLPK.glp_set_col_bnds(this.lp, col, boundedType(lb, ub), Double.isInfinite(lb) ? 0 : lb, Double.isInfinite(ub) ? 0 : ub);
+        }
+        this.variables.addEmpty(count);
+        return index;
+    }
+
     /**
      * Check if the problem is disposed.
      */
@@ -234,6 +492,16 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         if (isDisposed()) {
             throw new ILPException(ILPException.ERROR_RESOURCE_DISPOSED);
         }
+        checkThread();
+    }
+
+    /**
+     * Check if the current thread is the one owning this problem.
+     */
+    void checkThread() {
+        if (this.thread != Thread.currentThread()) {
+            throw new ILPException(ILPException.ERROR_THREAD_INVALID_ACCESS);
+        }
     }
 
     /**
@@ -246,13 +514,98 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         }
     }
 
+    /**
+     * Create the initial solution of the branch and bound.
+     * 
+     * @param values
+     *            the value of each variable or null
+     * @param reuse
+     *            true to start from the integer values of the previous solution, if any
+     * @return the value of each column indexed from 1, NaN if not set, or null if no value is set
+     */
+    double[] createStart(Map<Variable, Number> values, boolean reuse) {
+        int n = GLPK.glp_get_num_cols(this.lp);
+        double[] start = new double[n + 1];
+        Arrays.fill(start, Double.NaN);
+        boolean set = false;
+        if (reuse && (Status.FEASIBLE.equals(this.status) || Status.OPTIMAL.equals(this.status))) {
+            for (int j = 1; j <= n; j++) {
+                if (GLPK.glp_get_col_kind(this.lp, j) != GLPKConstants.GLP_CV) {
+                    start[j] = GLPK.glp_mip_col_val(this.lp, j);
+                    set = true;
+                }
+            }
+        }
+        if (values != null) {
+            for (Entry<Variable, Number> e : values.entrySet()) {
+                if (e.getKey() instanceof GLPKVariable && ((GLPKVariable) e.getKey()).parent == this && e.getValue() != null) {
+                    start[((GLPKVariable) e.getKey()).col] = e.getValue().doubleValue();
+                    set = true;
+                }
+            }
+        }
+        return set ? start : null;
+    }
+
+    /**
+     * Free the problem. The GLPK environment of the thread is freed with the last problem of the thread.
+     */
     @Override
     public void dispose() {
         // Free the lp problem.
-        if (this.lp != null) {
-            GLPK.glp_delete_prob(this.lp);
+        if (this.lp == null) {
+            return;
         }
+        checkThread();
+        this.arena.dispose();
+        GLPK.glp_delete_prob(this.lp);
         this.lp = null;
+        int[] count = PROBLEM_COUNT.get();
+        if (--count[0] == 0) {
+            GLPK.glp_free_env();
+        }
+    }
+
+    /**
+     * This implementation deletes all the rows with a single call to <code>glp_del_rows</code> and updates the index
+     * of the remaining constraints in a single pass.
+     */
+    @Override
+    public void disposeConstraints(Collection<? extends Constraint> constraints) {
+        checkProblem();
+        int[] indices = new int[constraints.size()];
+        int count = 0;
+        for (Constraint constraint : constraints) {
+            if (constraint.isDisposed()) {
+                continue;
+            }
+            if (!(constraint instanceof GLPKConstraint) || ((GLPKConstraint) constraint).parent != this) {
+                throw new IllegalArgumentException("constraint not part of this problem"); //$NON-NLS-1$
+            }
+            indices[count++] = ((GLPKConstraint) constraint).row - 1;
+        }
+        removeRows(indices, count);
+    }
+
+    /**
+     * This implementation deletes all the columns with a single call to <code>glp_del_cols</code> and updates the
+     * index of the remaining variables in a single pass.
+     */
+    @Override
+    public void disposeVariables(Collection<? extends Variable> variables) {
+        checkProblem();
+        int[] indices = new int[variables.size()];
+        int count = 0;
+        for (Variable var : variables) {
+            if (var.isDisposed()) {
+                continue;
+            }
+            if (!(var instanceof GLPKVariable) || ((GLPKVariable) var).parent != this) {
+                throw new IllegalArgumentException("variable not part of this problem"); //$NON-NLS-1$
+            }
+            indices[count++] = ((GLPKVariable) var).col - 1;
+        }
+        removeCols(indices, count);
     }
 
     /**
@@ -262,7 +615,7 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
      *            the column index.
      * @return the variable object
      */
-    Variable getCol(int col) {
+    GLPKVariable getCol(int col) {
         GLPKVariable var = this.variables.get(col - 1);
         if (var.col != col) {
             throw new ILPException("Variables list corrupted"); //$NON-NLS-1$
@@ -270,6 +623,31 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         return var;
     }
 
+    /**
+     * Return the constraint object of the given row, creating it if required.
+     */
+    @Override
+    public Constraint getConstraint(int index) {
+        checkProblem();
+        if (this.constraints == null) {
+            return super.getConstraint(index);
+        }
+        return this.constraints.get(index);
+    }
+
+    /**
+     * This implementation search the constraint in the name index.
+     */
+    @Override
+    public Constraint getConstraint(String name) {
+        checkProblem();
+        Integer index;
+        if (name == null || this.constraintNames == null || (index = this.constraintNames.get(name)) == null) {
+            return null;
+        }
+        return this.constraints.get(index.intValue());
+    }
+
     /**
      * Return an unmodifiable collection of constraints.
      */
@@ -326,11 +704,11 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         }
 
         // Get the coefficient of each column.
-        Linear linear = createLinear();
+        ArrayLinear linear = new ArrayLinear();
         for (int col = 1; col < count + 1; col++) {
             double coef = GLPK.glp_get_obj_coef(this.lp, col);
             if (coef != 0) {
-                linear.add(createTerm(coef, getCol(col)));
+                linear.add(coef, getCol(col));
             }
         }
 
@@ -362,6 +740,30 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         return Double.valueOf(GLPK.glp_get_obj_val(this.lp));
     }
 
+    /**
+     * This implementation reads the value of every row using glp_mip_row_val() or glp_get_row_prim() without creating
+     * the constraint objects. GLPK doesn't provide a bulk function.
+     */
+    @Override
+    public double[] getRowActivities(double[] activities) {
+        checkProblem();
+        checkSolution();
+        int m = GLPK.glp_get_num_rows(this.lp);
+        if (activities == null || activities.length < m) {
+            activities = new double[m];
+        }
+        if (isMIP()) {
+            for (int i = 1; i <= m; i++) {
+                activities[i - 1] = GLPK.glp_mip_row_val(this.lp, i);
+            }
+        } else {
+            for (int i = 1; i <= m; i++) {
+                activities[i - 1] = GLPK.glp_get_row_prim(this.lp, i);
+            }
+        }
+        return activities;
+    }
+
     /**
      * Get the problem status
      */
@@ -374,6 +776,66 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         return this.status;
     }
 
+    @Override
+    public SolveStatistics getStatistics() {
+        checkProblem();
+        return this.statistics;
+    }
+
+    @Override
+    public Thread getThread() {
+        return this.thread;
+    }
+
+    /**
+     * This implementation reads the value of every column using glp_mip_col_val() or glp_get_col_prim() without
+     * creating the variable objects. GLPK doesn't provide a bulk function.
+     */
+    @Override
+    public double[] getValues(double[] values) {
+        checkProblem();
+        checkSolution();
+        int n = GLPK.glp_get_num_cols(this.lp);
+        if (values == null || values.length < n) {
+            values = new double[n];
+        }
+        if (isMIP()) {
+            for (int j = 1; j <= n; j++) {
+                values[j - 1] = GLPK.glp_mip_col_val(this.lp, j);
+            }
+        } else {
+            for (int j = 1; j <= n; j++) {
+                values[j - 1] = GLPK.glp_get_col_prim(this.lp, j);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Return the variable object of the given column, creating it if required.
+     */
+    @Override
+    public Variable getVariable(int index) {
+        checkProblem();
+        if (this.variables == null) {
+            return super.getVariable(index);
+        }
+        return this.variables.get(index);
+    }
+
+    /**
+     * This implementation search the variable in the name index.
+     */
+    @Override
+    public Variable getVariable(String name) {
+        checkProblem();
+        Integer index;
+        if (name == null || this.variableNames == null || (index = this.variableNames.get(name)) == null) {
+            return null;
+        }
+        return this.variables.get(index.intValue());
+    }
+
     @Override
     public Collection<? extends Variable> getVariables() {
         if (this.variables == null) {
@@ -403,93 +865,206 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
 
     }
 
+    @Override
+    public boolean isNameless() {
+        return this.nameless;
+    }
+
     /**
-     * This implementations read the file as CPLEX format using glp_read_lp() function.
+     * This implementation reads the file using {@link ModelFiles} and creates the variables and constraints using the
+     * bulk functions.
      */
     @Override
     public void load(File file) throws IOException {
         checkProblem();
+        ModelFiles.read(file, this);
+    }
 
-        if (file == null) {
-            throw new NullPointerException();
+    /**
+     * This implementation sets the status of the rows and columns using
+     * glp_set_row_stat() and glp_set_col_stat(). When the number of basic
+     * variables doesn't match the number of rows, the extra basic columns are
+     * made nonbasic and the missing ones are replaced by auxiliary variables.
+     */
+    @Override
+    public void loadBasis(File file) throws IOException {
+        checkProblem();
+        Basis basis = Basis.read(file);
+        int m = GLPK.glp_get_num_rows(this.lp);
+        int n = GLPK.glp_get_num_cols(this.lp);
+        int[] rowStat = new int[m + 1];
+        int[] colStat = new int[n + 1];
+        int count = 0;
+        for (int i = 1; i <= m; i++) {
+            int status = basis.getRowStatus(GLPK.glp_get_row_name(this.lp, i));
+            rowStat[i] = status < 0 ? GLPKConstants.GLP_BS : stat(status);
+            count += rowStat[i] == GLPKConstants.GLP_BS ? 1 : 0;
+        }
+        for (int j = 1; j <= n; j++) {
+            int status = basis.getColumnStatus(GLPK.glp_get_col_name(this.lp, j));
+            colStat[j] = status < 0 ? GLPKConstants.GLP_NL : stat(status);
+            count += colStat[j] == GLPKConstants.GLP_BS ? 1 : 0;
         }
 
-        if (GLPK.glp_read_lp(this.lp, null, file.getAbsolutePath()) != 0) {
-            // TODO retrieved the error message
-            throw new IOException("Error reading the problem from file."); //$NON-NLS-1$
+        // Balance the number of basic variables.
+        for (int j = n; j >= 1 && count > m; j--) {
+            if (colStat[j] == GLPKConstants.GLP_BS) {
+                colStat[j] = GLPKConstants.GLP_NL;
+                count--;
+            }
+        }
+        for (int i = 1; i <= m && count < m; i++) {
+            if (rowStat[i] != GLPKConstants.GLP_BS) {
+                rowStat[i] = GLPKConstants.GLP_BS;
+                count++;
+            }
         }
 
+        // GLPK replaces the nonbasic status not matching the bounds.
+        for (int i = 1; i <= m; i++) {
+            GLPK.glp_set_row_stat(this.lp, i, rowStat[i]);
+        }
+        for (int j = 1; j <= n; j++) {
+            GLPK.glp_set_col_stat(this.lp, j, colStat[j]);
+        }
     }
 
     /**
-     * Remove the column fr om the linear problem.
+     * Remove the deleted rows or columns from the name index and shift the index of the following ones.
      * 
-     * @param col
+     * @param names
+     *            the name index or null
+     * @param indices
+     *            the index of the deleted rows or columns in ascending order
+     * @param count
+     *            the number of deleted rows or columns
      */
-    synchronized void removeCol(GLPKVariable var) {
-        int index;
-        if (this.variables == null || (index = this.variables.indexOf(var)) < 0) {
-            throw new RuntimeException("GLPKVariable not in the variable list."); //$NON-NLS-1$
+    private static void removeNames(Map<String, Integer> names, int[] indices, int count) {
+        if (names == null) {
+            return;
+        }
+        Iterator<Entry<String, Integer>> iter = names.entrySet().iterator();
+        while (iter.hasNext()) {
+            Entry<String, Integer> e = iter.next();
+            int pos = Arrays.binarySearch(indices, 0, count, e.getValue().intValue());
+            if (pos >= 0) {
+                iter.remove();
+            } else if (pos < -1) {
+                // Shift by the number of deleted rows or columns before this one.
+                e.setValue(Integer.valueOf(e.getValue().intValue() + pos + 1));
+            }
         }
+    }
 
-        String name = var.getName();
-        SWIGTYPE_p_int cols = GLPK.new_intArray(2);
-        GLPK.intArray_setitem(cols, 1, var.col);
-        GLPK.glp_del_cols(this.lp, 1, cols);
+    /**
+     * Remove the column from the linear problem.
+     * 
+     * @param var
+     *            the variable
+     */
+    void removeCol(GLPKVariable var) {
+        int index = var.col - 1;
+        if (this.variables == null || var.parent != this || index >= this.variables.size() || this.variables.peek(index) != var) {
+            throw new RuntimeException("GLPKVariable not in the variable list."); //$NON-NLS-1$
+        }
+        removeCols(new int[] { index }, 1);
+    }
 
-        this.variables.remove(index);
-        this.variableNames.remove(name);
+    /**
+     * Remove multiple columns from the linear problem using a single call to <code>glp_del_cols</code>.
+     * 
+     * @param indices
+     *            the index of the columns to remove, may contains duplicates
+     * @param count
+     *            the number of indices
+     */
+    private void removeCols(int[] indices, int count) {
+        count = sortUnique(indices, count);
+        if (count == 0) {
+            return;
+        }
+        GLPKVariable[] removed = new GLPKVariable[count];
+        for (int k = 0; k < count; k++) {
+            removed[k] = this.variables.peek(indices[k]);
+        }
+        GLPK.glp_del_cols(this.lp, count, this.arena.copyIndices(indices, 0, count));
+        this.mip = null;
 
-        var.col = 0;
-        var.parent = null;
+        this.variables.remove(indices, count);
+        removeNames(this.variableNames, indices, count);
 
-        for (; index < this.variables.size(); index++) {
-            GLPKVariable sub = this.variables.get(index);
-            sub.col = index + 1;
+        for (GLPKVariable var : removed) {
+            if (var != null) {
+                var.col = 0;
+                var.parent = null;
+            }
         }
-
     }
 
-    synchronized void removeRow(GLPKConstraint constraint) {
-        int index;
-        if (this.constraints == null || (index = this.constraints.indexOf(constraint)) < 0) {
+    void removeRow(GLPKConstraint constraint) {
+        int index = constraint.row - 1;
+        if (this.constraints == null || constraint.parent != this || index >= this.constraints.size() || this.constraints.peek(index) != constraint) {
             throw new RuntimeException("GLPKConstraint not in the constraint list."); //$NON-NLS-1$
         }
+        removeRows(new int[] { index }, 1);
+    }
 
-        String name = constraint.getName();
-        SWIGTYPE_p_int rows = GLPK.new_intArray(2);
-        GLPK.intArray_setitem(rows, 1, constraint.row);
-        GLPK.glp_del_rows(this.lp, 1, rows);
-
-        this.constraints.remove(index);
-        this.constraintNames.remove(name);
+    /**
+     * Remove multiple rows from the linear problem using a single call to <code>glp_del_rows</code>.
+     * 
+     * @param indices
+     *            the index of the rows to remove, may contains duplicates
+     * @param count
+     *            the number of indices
+     */
+    private void removeRows(int[] indices, int count) {
+        count = sortUnique(indices, count);
+        if (count == 0) {
+            return;
+        }
+        GLPKConstraint[] removed = new GLPKConstraint[count];
+        for (int k = 0; k < count; k++) {
+            removed[k] = this.constraints.peek(indices[k]);
+        }
+        GLPK.glp_del_rows(this.lp, count, this.arena.copyIndices(indices, 0, count));
 
-        constraint.row = 0;
-        constraint.parent = null;
+        this.constraints.remove(indices, count);
+        removeNames(this.constraintNames, indices, count);
 
-        for (; index < this.constraints.size(); index++) {
-            GLPKConstraint sub = this.constraints.get(index);
-            sub.row = index + 1;
+        for (GLPKConstraint constraint : removed) {
+            if (constraint != null) {
+                constraint.row = 0;
+                constraint.parent = null;
+            }
         }
-
     }
 
     /**
-     * This implementation is writing the problem in GLPK LP/MIP format to text file.
+     * This implementation writes the file using {@link ModelFiles}.
      */
     @Override
     public void save(File file) throws IOException {
         checkProblem();
+        ModelFiles.write(this, file);
+    }
 
-        if (file == null) {
-            throw new NullPointerException();
+    /**
+     * This implementation reads the status of the rows and columns using
+     * glp_get_row_stat() and glp_get_col_stat().
+     */
+    @Override
+    public void saveBasis(File file) throws IOException {
+        checkProblem();
+        Basis basis = new Basis();
+        int m = GLPK.glp_get_num_rows(this.lp);
+        int n = GLPK.glp_get_num_cols(this.lp);
+        for (int j = 1; j <= n; j++) {
+            basis.setColumnStatus(GLPK.glp_get_col_name(this.lp, j), basisStatus(GLPK.glp_get_col_stat(this.lp, j)));
         }
-
-        if (GLPK.glp_write_lp(this.lp, null, file.getAbsolutePath()) != 0) {
-            // TODO retrieved the error message
-            throw new IOException("Error writing the problem to file."); //$NON-NLS-1$
+        for (int i = 1; i <= m; i++) {
+            basis.setRowStatus(GLPK.glp_get_row_name(this.lp, i), basisStatus(GLPK.glp_get_row_stat(this.lp, i)));
         }
-
+        basis.write(file, GLPK.glp_get_prob_name(this.lp));
     }
 
     /**
@@ -505,6 +1080,20 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         GLPK.glp_set_prob_name(this.lp, name);
     }
 
+    /**
+     * This implementation doesn't set the names of the rows and columns in GLPK.
+     */
+    @Override
+    public void setNameless(boolean nameless) {
+        checkProblem();
+        if ((this.variables != null && this.variables.size() > 0) || (this.constraints != null && this.constraints.size() > 0)) {
+            throw new IllegalStateException("problem not empty"); //$NON-NLS-1$
+        }
+        this.nameless = nameless;
+        this.variableNames = null;
+        this.constraintNames = null;
+    }
+
     /**
      * Sets the objective direction.
      */
@@ -543,6 +1132,13 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         }
 
         // Then sets the real coef value
+        if (objective instanceof ArrayLinear) {
+            ArrayLinear array = (ArrayLinear) objective;
+            for (int i = 0; i < array.size(); i++) {
+                GLPK.glp_set_obj_coef(this.lp, ((GLPKVariable) array.getVariable(i)).col, array.getCoefficient(i));
+            }
+            return;
+        }
         for (Term term : objective) {
             GLPK.glp_set_obj_coef(this.lp, ((GLPKVariable) term.getVariable()).col, term.getCoefficient().doubleValue());
         }
@@ -561,4 +1157,58 @@ public class GLPKLinearProblem extends AbstractLinearProblem implements IPersist
         GLPK.glp_set_obj_name(this.lp, name);
     }
 
+    /**
+     * Sort the indices in ascending order and remove the duplicates.
+     * 
+     * @param indices
+     *            the indices
+     * @param count
+     *            the number of indices
+     * @return the number of unique indices
+     */
+    private static int sortUnique(int[] indices, int count) {
+        Arrays.sort(indices, 0, count);
+        int unique = 0;
+        for (int k = 0; k < count; k++) {
+            if (unique == 0 || indices[k] != indices[unique - 1]) {
+                indices[unique++] = indices[k];
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * List of constraints created on demand from the row index.
+     */
+    private class ConstraintList extends HandleList<GLPKConstraint> {
+
+        @Override
+        protected GLPKConstraint create(int index) {
+            return new GLPKConstraint(GLPKLinearProblem.this, index + 1);
+        }
+
+        @Override
+        protected void setIndex(GLPKConstraint handle, int index) {
+            handle.row = index + 1;
+        }
+
+    }
+
+    /**
+     * List of variables created on demand from the column index.
+     */
+    private class VariableList extends HandleList<GLPKVariable> {
+
+        @Override
+        protected GLPKVariable create(int index) {
+            return new GLPKVariable(GLPKLinearProblem.this, index + 1);
+        }
+
+        @Override
+        protected void setIndex(GLPKVariable handle, int index) {
+            handle.col = index + 1;
+        }
+
+    }
+
 }
@@ -0,0 +1,143 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.glpk;
+
+import org.gnu.glpk.GLPK;
+import org.gnu.glpk.GLPKConstants;
+import org.gnu.glpk.GlpkCallbackListener;
+import org.gnu.glpk.SWIGTYPE_p_double;
+import org.gnu.glpk.glp_tree;
+
+import com.patrikdufresne.ilp.SolveStatistics;
+
+/**
+ * Callback listener attached to every branch and bound. It stops the search
+ * when the termination is requested or when the node or solution limit is
+ * reached, then provides the initial solution and call the custom branching
+ * heuristic if any. The search statistics are collected on the way.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class GLPKSearchListener implements GlpkCallbackListener {
+
+    /**
+     * Time at which the resolution started, see {@link System#nanoTime()}.
+     */
+    private final long begin;
+
+    /**
+     * Bound of the best active subproblem, NaN if unknown.
+     */
+    private double bound = Double.NaN;
+
+    /**
+     * Time at which the first integer solution was found, zero if not found.
+     */
+    private long firstSolution;
+
+    /**
+     * The custom branching heuristic or null.
+     */
+    private final GlpkCallbackListener heuristic;
+
+    /**
+     * Number of subproblems selected.
+     */
+    private long nodes;
+
+    private final GLPKSolverOption option;
+
+    /**
+     * Number of improving integer solutions found.
+     */
+    private long solutions;
+
+    /**
+     * The initial solution indexed from 1 or null if already provided.
+     */
+    private double[] start;
+
+    /**
+     * Create a new listener.
+     * 
+     * @param option
+     *            the solver option
+     * @param start
+     *            the complete initial solution or null
+     * @param begin
+     *            the time at which the resolution started
+     */
+    GLPKSearchListener(GLPKSolverOption option, double[] start, long begin) {
+        this.option = option;
+        this.begin = begin;
+        this.start = start;
+        this.heuristic = option.brTech instanceof GlpkCallbackListener ? (GlpkCallbackListener) option.brTech : null;
+    }
+
+    @Override
+    public void callback(glp_tree tree) {
+        int reason = GLPK.glp_ios_reason(tree);
+        if (reason == GLPKConstants.GLP_ISELECT) {
+            this.nodes++;
+            int best = GLPK.glp_ios_best_node(tree);
+            if (best != 0) {
+                this.bound = GLPK.glp_ios_node_bound(tree, best);
+            }
+        } else if (reason == GLPKConstants.GLP_IBINGO) {
+            if (this.solutions++ == 0) {
+                this.firstSolution = System.nanoTime();
+            }
+        }
+        if (this.option.terminated || (this.option.nodeLimit > 0 && this.nodes >= this.option.nodeLimit)
+                || (this.option.solutionLimit > 0 && this.solutions >= this.option.solutionLimit)) {
+            GLPK.glp_ios_terminate(tree);
+            return;
+        }
+        if (reason == GLPKConstants.GLP_IHEUR && this.start != null) {
+            // GLPK ignores the solution if it's not better than the incumbent.
+            SWIGTYPE_p_double x = GLPK.new_doubleArray(this.start.length);
+            try {
+                for (int j = 1; j < this.start.length; j++) {
+                    GLPK.doubleArray_setitem(x, j, this.start[j]);
+                }
+                GLPK.glp_ios_heur_sol(tree, x);
+            } finally {
+                GLPK.delete_doubleArray(x);
+            }
+            this.start = null;
+        }
+        if (this.heuristic != null) {
+            this.heuristic.callback(tree);
+        }
+    }
+
+    /**
+     * Copy the statistics of the search.
+     * 
+     * @param stats
+     *            the statistics to be updated
+     */
+    void getStatistics(SolveStatistics stats) {
+        stats.setNodes(this.nodes);
+        stats.setIncumbents(this.solutions);
+        if (this.solutions > 0) {
+            stats.setTimeToFirstIncumbent(this.firstSolution - this.begin);
+        }
+        stats.setBestBound(this.bound);
+    }
+
+}
@@ -15,29 +15,32 @@
  */
 package com.patrikdufresne.ilp.glpk;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
 import org.gnu.glpk.GlpkCallback;
 import org.gnu.glpk.GlpkCallbackListener;
 import org.gnu.glpk.GlpkTerminal;
 import org.gnu.glpk.GlpkTerminalListener;
+import org.gnu.glpk.SWIGTYPE_p_size_t;
 import org.gnu.glpk.glp_iocp;
 import org.gnu.glpk.glp_prob;
 import org.gnu.glpk.glp_smcp;
+import org.gnu.glpk.glp_tree;
 
 import com.patrikdufresne.ilp.ILPException;
 import com.patrikdufresne.ilp.ILPLogger;
 import com.patrikdufresne.ilp.ILPPolicy;
 import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.SolveStatistics;
 import com.patrikdufresne.ilp.Solver;
 import com.patrikdufresne.ilp.SolverOption;
 import com.patrikdufresne.ilp.Status;
 
 /**
  * This class may be used to create new instance of glpk problems.
+ * <p>
+ * A GLPK problem may only be accessed by the thread who created it. Different
+ * problems may be solved by different threads at the same time.
  * 
  * @author Patrik Dufresne
  * 
@@ -48,6 +51,17 @@ public class GLPKSolver implements Solver {
         GLPKLibrary.load();
     }
 
+    /**
+     * Callback listener of the current thread, if any.
+     */
+    private static final ThreadLocal<GlpkCallbackListener> callbackListener = new ThreadLocal<GlpkCallbackListener>();
+
+    /**
+     * Private listener dispatching the GLPK callback to the listener of the current thread. GLPK callback listeners
+     * are global, this listener is used to avoid calling the listener of a solve running in another thread.
+     */
+    private static GlpkCallbackListener callbackDispatcher;
+
     /**
      * Private listener to send message trough Policy logger.
      */
@@ -90,25 +104,27 @@ public class GLPKSolver implements Solver {
         // the callback function for every thread access.
         GLPK.glp_term_hook(null, null);
 
-        // Check if the listener already exists.
-        if (terminalListener != null) return;
-
-        // Create a new terminal listener to redirect the terminal output into
-        // the ILogger framework.
-        terminalListener = new GlpkTerminalListener() {
-            @Override
-            public boolean output(String str) {
-                String message = str;
-                if (message.endsWith("\n")) { //$NON-NLS-1$
-                    message = message.substring(0, str.length() - 1);
+        synchronized (GLPKSolver.class) {
+            // Check if the listener already exists.
+            if (terminalListener != null) return;
+
+            // Create a new terminal listener to redirect the terminal output into
+            // the ILogger framework.
+            terminalListener = new GlpkTerminalListener() {
+                @Override
+                public boolean output(String str) {
+                    String message = str;
+                    if (message.endsWith("\n")) { //$NON-NLS-1$
+                        message = message.substring(0, str.length() - 1);
+                    }
+                    ILPPolicy.log(ILPPolicy.getLog().getLevel(), message);
+                    return false;
                 }
-                ILPPolicy.log(ILPPolicy.getLog().getLevel(), message);
-                return false;
-            }
-        };
+            };
 
-        // Add the listener
-        GlpkTerminal.addListener(terminalListener);
+            // Add the listener
+            GlpkTerminal.addListener(terminalListener);
+        }
 
     }
 
@@ -166,8 +182,6 @@ public class GLPKSolver implements Solver {
 
     }
 
-    private List<GlpkCallbackListener> listeners;
-
     /**
      * Default constructor.
      */
@@ -176,18 +190,28 @@ public class GLPKSolver implements Solver {
     }
 
     /**
-     * This function is used to add a callback listener to GLPK. This function
-     * also make sure to keep track of every listeners attached to all of them
-     * can be detach after the solving process.
+     * This function is used to add a callback listener to GLPK for the current
+     * thread. The listener is only called for the problem solved by the
+     * current thread and must be removed after the solving process.
      * 
      * @param listener
      */
-    private void addCallbackListener(GlpkCallbackListener listener) {
-        if (this.listeners == null) {
-            this.listeners = new ArrayList<GlpkCallbackListener>();
+    private static void addCallbackListener(GlpkCallbackListener listener) {
+        synchronized (GLPKSolver.class) {
+            if (callbackDispatcher == null) {
+                callbackDispatcher = new GlpkCallbackListener() {
+                    @Override
+                    public void callback(glp_tree tree) {
+                        GlpkCallbackListener l = callbackListener.get();
+                        if (l != null) {
+                            l.callback(tree);
+                        }
+                    }
+                };
+                GlpkCallback.addListener(callbackDispatcher);
+            }
         }
-        this.listeners.add(listener);
-        GlpkCallback.addListener(listener);
+        callbackListener.set(listener);
     }
 
     /**
@@ -212,6 +236,91 @@ public class GLPKSolver implements Solver {
         // Nothing to dispose.
     }
 
+    /**
+     * Complete the initial solution by solving the LP relaxation with the
+     * given values fixed. The bounds of the columns are restored.
+     * 
+     * @param start
+     *            the value of each column indexed from 1, NaN if not set
+     * @return the complete solution or null if the given values are out of
+     *         bounds or the relaxation has no optimal solution
+     */
+    private static double[] completeStart(glp_prob lp, double[] start, GLPKSolverOption glpkopt) {
+        int n = GLPK.glp_get_num_cols(lp);
+        int[] type = new int[n + 1];
+        double[] lb = new double[n + 1];
+        double[] ub = new double[n + 1];
+        try {
+            for (int j = 1; j <= n; j++) {
+                double value = start[j];
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                if (GLPK.glp_get_col_kind(lp, j) != GLPKConstants.GLP_CV) {
+                    value = Math.rint(value);
+                }
+                lb[j] = GLPK.glp_get_col_lb(lp, j);
+                ub[j] = GLPK.glp_get_col_ub(lp, j);
+                type[j] = GLPK.glp_get_col_type(lp, j);
+                if ((type[j] != GLPKConstants.GLP_FR && type[j] != GLPKConstants.GLP_UP && value < lb[j])
+                        || (type[j] != GLPKConstants.GLP_FR && type[j] != GLPKConstants.GLP_LO && value > ub[j])) {
+                    return null;
+                }
+                GLPK.glp_set_col_bnds(lp, j, GLPKConstants.GLP_FX, value, value);
+            }
+            glp_smcp parm = createSmcp(glpkopt);
+            parm.setMsg_lev(GLPKConstants.GLP_MSG_OFF);
+            if (GLPK.glp_simplex(lp, parm) != 0 || GLPK.glp_get_status(lp) != GLPKConstants.GLP_OPT) {
+                return null;
+            }
+            double[] x = new double[n + 1];
+            for (int j = 1; j <= n; j++) {
+                x[j] = GLPK.glp_get_col_prim(lp, j);
+                if (GLPK.glp_get_col_kind(lp, j) != GLPKConstants.GLP_CV) {
+                    x[j] = Math.rint(x[j]);
+                }
+            }
+            return x;
+        } finally {
+            for (int j = 1; j <= n; j++) {
+                if (type[j] != 0) {
+                    GLPK.glp_set_col_bnds(lp, j, type[j], lb[j], ub[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the status of each row followed by the status of each column in
+     * the current basis.
+     */
+    private static int[] getBasis(glp_prob lp) {
+        int m = GLPK.glp_get_num_rows(lp);
+        int n = GLPK.glp_get_num_cols(lp);
+        int[] stat = new int[m + n];
+        for (int i = 1; i <= m; i++) {
+            stat[i - 1] = GLPK.glp_get_row_stat(lp, i);
+        }
+        for (int j = 1; j <= n; j++) {
+            stat[m + j - 1] = GLPK.glp_get_col_stat(lp, j);
+        }
+        return stat;
+    }
+
+    /**
+     * Returns the peak memory allocated by the GLPK environment of the current
+     * thread using glp_mem_usage().
+     */
+    private static long getPeakMemory() {
+        SWIGTYPE_p_size_t tpeak = GLPK.new_size_tArray(1);
+        try {
+            GLPK.glp_mem_usage(null, null, null, tpeak);
+            return GLPK.size_tArray_getitem(tpeak, 0);
+        } finally {
+            GLPK.delete_size_tArray(tpeak);
+        }
+    }
+
     /**
      * Return the log level according to the ILPLogger log level.
      * 
@@ -234,17 +343,57 @@ public class GLPKSolver implements Solver {
     }
 
     /**
-     * This function is used to remove any previously added listener from GLPK.
+     * Convert the time limit into a tm_lim value.
+     */
+    private static int timeLimit(long milliseconds) {
+        return (int) Math.min(milliseconds, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create the simplex parameters according to the solver option.
+     */
+    private static glp_smcp createSmcp(GLPKSolverOption glpkopt) {
+        glp_smcp parm = new glp_smcp();
+        GLPK.glp_init_smcp(parm);
+        if (glpkopt.timeLimit > 0) {
+            parm.setTm_lim(timeLimit(glpkopt.timeLimit));
+        }
+        return parm;
+    }
+
+    /**
+     * This function is used to remove the listener of the current thread.
      * Does nothing it there wasn't any listener added using
      * {@link #addCallbackListener(GlpkCallbackListener)}.
      * 
      */
-    private void removeAllCallbackListener() {
-        if (this.listeners == null) {
-            return;
+    private static void removeAllCallbackListener() {
+        callbackListener.remove();
+    }
+
+    /**
+     * Restore the basis returned by {@link #getBasis(glp_prob)}.
+     */
+    private static void setBasis(glp_prob lp, int[] stat) {
+        int m = GLPK.glp_get_num_rows(lp);
+        int n = GLPK.glp_get_num_cols(lp);
+        for (int i = 1; i <= m; i++) {
+            GLPK.glp_set_row_stat(lp, i, stat[i - 1]);
+        }
+        for (int j = 1; j <= n; j++) {
+            GLPK.glp_set_col_stat(lp, j, stat[m + j - 1]);
         }
-        for (GlpkCallbackListener listener : this.listeners) {
-            GlpkCallback.removeListener(listener);
+    }
+
+    /**
+     * Make sure the problem has a valid basis to start the simplex. GLPK keeps
+     * the basis of the previous resolution in the problem object, but it
+     * become invalid when a basic row or column is removed. In such case, an
+     * advanced basis is computed.
+     */
+    private static void warmUp(glp_prob lp) {
+        if (GLPK.glp_bf_exists(lp) == 0 && GLPK.glp_factorize(lp) != 0) {
+            GLPK.glp_adv_basis(lp, 0);
         }
     }
 
@@ -254,6 +403,20 @@ public class GLPKSolver implements Solver {
      * If the problem is identified as MIP, using the function
      * {@link LinearProblem#isMIP()}, the function glp_intopt() is used instead
      * of glp_simplex() to solve the problem.
+     * <p>
+     * With warm start, the simplex starts from the basis kept in the problem
+     * object. For a MIP problem, the presolver is disabled and the root
+     * relaxation is solved with glp_simplex() before glp_intopt(). The basis of
+     * the root relaxation is restored after the search for the next
+     * resolution.
+     * <p>
+     * An initial solution is completed before the root relaxation is solved
+     * and provided to the branch and bound by {@link GLPKSearchListener}. The
+     * presolver is disabled as well.
+     * <p>
+     * The statistics are available from {@link LinearProblem#getStatistics()}.
+     * GLPK doesn't report the number of simplex iterations nor the number of
+     * cuts. The peak memory is the one of the GLPK environment of the thread.
      */
     @Override
     public boolean solve(LinearProblem lp, SolverOption option) {
@@ -266,85 +429,169 @@ public class GLPKSolver implements Solver {
         GLPKLinearProblem glpklp = (GLPKLinearProblem) lp;
         GLPKSolverOption glpkopt = (GLPKSolverOption) option;
 
-        // Since GLPK is not thread safe, make sure only one thread is accessing
-        // the solver.
-        synchronized (GLPKSolverFactory.instance()) {
-
-            // Check the problem
-            if (lp.isDisposed()) {
-                throw new ILPException(ILPException.ERROR_RESOURCE_DISPOSED);
-            }
+        // GLPK environment is thread local. The problem may only be solved by
+        // the thread owning it, so no lock is required.
+        glpklp.checkProblem();
+
+        SolveStatistics stats = new SolveStatistics();
+        long begin = System.nanoTime();
+        try {
+            return solve(glpklp, glpkopt, stats, begin);
+        } finally {
+            stats.setSolveTime(System.nanoTime() - begin);
+            stats.setPeakMemory(getPeakMemory());
+            glpklp.statistics = stats;
+        }
+    }
 
-            // Make the problem as clear if a solution was found
-            glpklp.status = null;
+    /**
+     * Solve the problem and fill the statistics.
+     */
+    private boolean solve(GLPKLinearProblem glpklp, GLPKSolverOption glpkopt, SolveStatistics stats, long begin) {
+        // Create the initial solution before the previous one is cleared.
+        double[] start = null;
+        if (glpklp.isMIP()) {
+            start = glpklp.createStart(glpkopt.mipStart, glpkopt.reuseSolution);
+        }
+        // The problem is solved in place, there is nothing else to build
+        // nor to synchronize.
+        stats.setBuildTime(System.nanoTime() - begin);
+        stats.setSyncTime(0);
+
+        // Make the problem as clear if a solution was found
+        glpklp.status = null;
+
+        // Check if the resolution was terminated before starting.
+        if (glpkopt.terminated) {
+            glpklp.status = Status.UNKNOWN;
+            return false;
+        }
 
-            // Attach a terminal listener.
-            attachTerminalListener();
+        // Attach a terminal listener.
+        attachTerminalListener();
+
+        int returns;
+        if (glpklp.isMIP()) {
+
+            glp_iocp iocp = new glp_iocp();
+            GLPK.glp_init_iocp(iocp);
+            // The callback works on the presolved problem, so the initial
+            // solution requires the presolver to be disabled.
+            boolean presolve = !glpkopt.warmStart && start == null;
+            iocp.setPresolve(presolve ? GLPKConstants.GLP_ON : GLPKConstants.GLP_OFF);
+            iocp.setMsg_lev(logLevel());
+            iocp.setMip_gap(glpkopt.mipGap);
+
+            // Without presolver, glp_intopt() requires the optimal basis of
+            // the root relaxation.
+            int[] rootBasis = null;
+            if (!presolve) {
+                warmUp(glpklp.lp);
+                if (start != null) {
+                    start = completeStart(glpklp.lp, start, glpkopt);
+                }
+                returns = GLPK.glp_simplex(glpklp.lp, createSmcp(glpkopt));
+                if (returns != GLPKConstants.GLP_ETMLIM) {
+                    checkSolverReturnCode(returns);
+                }
+                int lpStatus = GLPK.glp_get_status(glpklp.lp);
+                if (lpStatus != GLPKConstants.GLP_OPT) {
+                    // A feasible relaxation is not an integer solution.
+                    glpklp.status = lpStatus == GLPKConstants.GLP_FEAS ? Status.UNKNOWN : status(lpStatus);
+                    return false;
+                }
+                rootBasis = getBasis(glpklp.lp);
+            }
 
-            int returns;
-            if (glpklp.isMIP()) {
+            // The time spent on the root relaxation counts against the time
+            // limit of the resolution.
+            if (glpkopt.timeLimit > 0) {
+                long elapsed = (System.nanoTime() - begin) / 1000000L;
+                iocp.setTm_lim(timeLimit(Math.max(1, glpkopt.timeLimit - elapsed)));
+            }
 
-                glp_iocp iocp = new glp_iocp();
-                GLPK.glp_init_iocp(iocp);
-                iocp.setPresolve(GLPKConstants.GLP_ON);
-                iocp.setMsg_lev(logLevel());
+            // Set the branching technique
+            if (glpkopt.brTech != null) {
+                iocp.setBr_tech(GLPKSolverOption.brTech(glpkopt.brTech));
+            }
 
-                // Set the branching technique
-                if (glpkopt.brTech != null) {
-                    iocp.setBr_tech(GLPKSolverOption.brTech(glpkopt.brTech));
+            try {
+                // Attach listener to stop the search and to call the custom
+                // heuristic if provided
+                GLPKSearchListener listener = new GLPKSearchListener(glpkopt, start, begin);
+                addCallbackListener(listener);
+
+                // Enable/disable feasibility pump heuristic according to
+                // fpump value
+                iocp.setFp_heur(glpkopt.fpump ? GLPKConstants.GLP_ON : GLPKConstants.GLP_OFF);
+
+                // Solve the problem in place. The problem used to be copied
+                // first to avoid a data corruption: the problem memory
+                // belongs to the GLPK environment of the thread who created
+                // it and the presolver was allocating into the environment
+                // of the solving thread. Since the problem is confined to its
+                // thread (see checkProblem()), both environments are the same.
+                returns = GLPK.glp_intopt(glpklp.lp, iocp);
+                if (returns == GLPKConstants.GLP_ENOPFS) {
+                    glpklp.status = Status.INFEASIBLE;
+                } else if (returns == GLPKConstants.GLP_ESTOP || returns == GLPKConstants.GLP_ETMLIM || returns == GLPKConstants.GLP_EMIPGAP) {
+                    // Search stopped by a limit, keep the best solution found.
+                    glpklp.status = status(GLPK.glp_mip_status(glpklp.lp));
+                } else {
+                    // Generate exception according to return code
+                    checkSolverReturnCode(returns);
+                    // Get the MIP status
+                    glpklp.status = status(GLPK.glp_mip_status(glpklp.lp));
                 }
+                listener.getStatistics(stats);
 
-                try {
-                    // Attach listener if a custom heuristic is provided
-                    if (glpkopt.brTech instanceof GlpkCallbackListener) {
-                        addCallbackListener((GlpkCallbackListener) glpkopt.brTech);
-                    }
+            } finally {
+                // Remove listeners, otherwise listener keep referencing
+                // this solver.
+                removeAllCallbackListener();
+            }
 
-                    // Enable/disable feasibility pump heuristic according to
-                    // fpump value
-                    iocp.setFp_heur(glpkopt.fpump ? GLPKConstants.GLP_ON : GLPKConstants.GLP_OFF);
-
-                    // Copy the problem, and solve it. Otherwise, their is a
-                    // data corruption.
-                    glp_prob copy = GLPK.glp_create_prob();
-                    GLPK.glp_copy_prob(copy, glpklp.lp, GLPKConstants.GLP_ON);
-                    GLPK.glp_delete_prob(glpklp.lp);
-                    glpklp.lp = copy;
-                    returns = GLPK.glp_intopt(glpklp.lp, iocp);
-                    if (returns == GLPKConstants.GLP_ENOPFS) {
-                        glpklp.status = Status.INFEASIBLE;
-                    } else {
-                        // Generate exception according to return code
-                        checkSolverReturnCode(returns);
-                        // Get the MIP status
-                        glpklp.status = status(GLPK.glp_mip_status(glpklp.lp));
-                    }
+            // Restore the basis of the root relaxation, the search leaves
+            // the basis of the last subproblem.
+            if (rootBasis != null) {
+                setBasis(glpklp.lp, rootBasis);
+            }
 
-                } finally {
-                    // Remove listeners, otherwise listener keep referencing
-                    // this solver.
-                    removeAllCallbackListener();
+            if (glpklp.status.equals(Status.FEASIBLE) || glpklp.status.equals(Status.OPTIMAL)) {
+                stats.setObjectiveValue(GLPK.glp_mip_obj_val(glpklp.lp));
+                if (glpklp.status.equals(Status.OPTIMAL)) {
+                    stats.setBestBound(stats.getObjectiveValue());
                 }
+            }
 
+        } else {
+            // glp_simplex() starts from the basis kept in the problem object,
+            // replace it by the standard basis for a cold start.
+            if (glpkopt.warmStart) {
+                warmUp(glpklp.lp);
             } else {
-                glp_smcp parm = new glp_smcp();
-                GLPK.glp_init_smcp(parm);
+                GLPK.glp_std_basis(glpklp.lp);
+            }
 
-                // Run the simplex algorithm
-                returns = GLPK.glp_simplex(glpklp.lp, parm);
+            // Run the simplex algorithm
+            returns = GLPK.glp_simplex(glpklp.lp, createSmcp(glpkopt));
 
-                // Generate exception according to return code
+            // Generate exception according to return code
+            if (returns != GLPKConstants.GLP_ETMLIM) {
                 checkSolverReturnCode(returns);
-
-                // Get the solver status.
-                glpklp.status = status(GLPK.glp_get_status(glpklp.lp));
-
             }
 
-            return glpklp.status.equals(Status.FEASIBLE) || glpklp.status.equals(Status.OPTIMAL);
+            // Get the solver status.
+            glpklp.status = status(GLPK.glp_get_status(glpklp.lp));
+            if (glpklp.status.equals(Status.OPTIMAL)) {
+                stats.setObjectiveValue(GLPK.glp_get_obj_val(glpklp.lp));
+                stats.setBestBound(stats.getObjectiveValue());
+            }
 
         }
 
+        return glpklp.status.equals(Status.FEASIBLE) || glpklp.status.equals(Status.OPTIMAL);
+
     }
 
 }
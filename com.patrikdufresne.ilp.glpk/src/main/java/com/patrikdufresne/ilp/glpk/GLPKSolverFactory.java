@@ -40,7 +40,7 @@ public class GLPKSolverFactory implements SolverFactory {
      * 
      * @return
      */
-    public static GLPKSolverFactory instance() {
+    public static synchronized GLPKSolverFactory instance() {
         if (instance == null) {
             instance = new GLPKSolverFactory();
         }
@@ -15,6 +15,10 @@
  */
 package com.patrikdufresne.ilp.glpk;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
 import org.gnu.glpk.GlpkCallbackListener;
@@ -23,7 +27,15 @@ import org.gnu.glpk.glp_tree;
 import com.patrikdufresne.ilp.IBranchingTechniqueLast;
 import com.patrikdufresne.ilp.IBranchingTechniqueLastAlwaysDown;
 import com.patrikdufresne.ilp.IFeasibilityPumpHeuristic;
+import com.patrikdufresne.ilp.IMIPStart;
+import com.patrikdufresne.ilp.INodeLimit;
+import com.patrikdufresne.ilp.IRelativeMIPGap;
+import com.patrikdufresne.ilp.ISolutionLimit;
+import com.patrikdufresne.ilp.ITerminable;
+import com.patrikdufresne.ilp.ITimeLimit;
+import com.patrikdufresne.ilp.IWarmStart;
 import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.Variable;
 
 /**
  * This implementation of {@link SolverOption} may be used with GLPK solver.
@@ -31,7 +43,8 @@ import com.patrikdufresne.ilp.SolverOption;
  * @author Patrik Dufresne
  * 
  */
-public class GLPKSolverOption implements IFeasibilityPumpHeuristic, IBranchingTechniqueLast, IBranchingTechniqueLastAlwaysDown {
+public class GLPKSolverOption implements IFeasibilityPumpHeuristic, IBranchingTechniqueLast, IBranchingTechniqueLastAlwaysDown, ITerminable,
+        ITimeLimit, IRelativeMIPGap, INodeLimit, ISolutionLimit, IWarmStart, IMIPStart {
 
     /**
      * Constant value for branching last.
@@ -84,6 +97,47 @@ public class GLPKSolverOption implements IFeasibilityPumpHeuristic, IBranchingTe
      */
     boolean fpump;
 
+    /**
+     * Relative MIP gap tolerance (mip_gap).
+     */
+    double mipGap;
+
+    /**
+     * The initial solution or null if not set.
+     */
+    Map<Variable, Number> mipStart;
+
+    /**
+     * Maximum number of subproblems selected by the branch and bound, zero if
+     * unlimited.
+     */
+    long nodeLimit;
+
+    /**
+     * True to use the previous solution as initial solution.
+     */
+    boolean reuseSolution;
+
+    /**
+     * Maximum number of improving integer solutions, zero if unlimited.
+     */
+    long solutionLimit;
+
+    /**
+     * True when the termination is requested by another thread.
+     */
+    volatile boolean terminated;
+
+    /**
+     * Time limit in milliseconds (tm_lim), zero if unlimited.
+     */
+    long timeLimit;
+
+    /**
+     * True to start from the basis of the previous resolution.
+     */
+    boolean warmStart;
+
     /**
      * This implementation check if the constant value matchs the technique.
      */
@@ -102,6 +156,51 @@ public class GLPKSolverOption implements IFeasibilityPumpHeuristic, IBranchingTe
         return this.fpump;
     }
 
+    @Override
+    public Map<Variable, Number> getMIPStart() {
+        return this.mipStart;
+    }
+
+    @Override
+    public long getNodeLimit() {
+        return this.nodeLimit;
+    }
+
+    @Override
+    public double getRelativeMIPGap() {
+        return this.mipGap;
+    }
+
+    @Override
+    public boolean getReuseSolution() {
+        return this.reuseSolution;
+    }
+
+    @Override
+    public long getSolutionLimit() {
+        return this.solutionLimit;
+    }
+
+    @Override
+    public long getTimeLimit() {
+        return this.timeLimit;
+    }
+
+    @Override
+    public boolean getWarmStart() {
+        return this.warmStart;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.terminated;
+    }
+
+    @Override
+    public void reset() {
+        this.terminated = false;
+    }
+
     /**
      * This implementation sets the interval variable to a constant value.
      */
@@ -123,4 +222,86 @@ public class GLPKSolverOption implements IFeasibilityPumpHeuristic, IBranchingTe
         this.fpump = enabled;
     }
 
+    /**
+     * This implementation completes the initial solution by solving the LP
+     * relaxation with the given values fixed, then provides it to the branch
+     * and bound using glp_ios_heur_sol(). The presolver is disabled.
+     */
+    @Override
+    public void setMIPStart(Map<? extends Variable, ? extends Number> values) {
+        this.mipStart = values != null ? Collections.unmodifiableMap(new HashMap<Variable, Number>(values)) : null;
+    }
+
+    /**
+     * This implementation stops the branch and bound from the callback when
+     * the number of selected subproblems reach the limit.
+     */
+    @Override
+    public void setNodeLimit(long nodes) {
+        if (nodes < 0) {
+            throw new IllegalArgumentException("nodes < 0"); //$NON-NLS-1$
+        }
+        this.nodeLimit = nodes;
+    }
+
+    @Override
+    public void setReuseSolution(boolean enabled) {
+        this.reuseSolution = enabled;
+    }
+
+    /**
+     * This implementation sets the mip_gap parameter.
+     */
+    @Override
+    public void setRelativeMIPGap(double gap) {
+        if (gap < 0) {
+            throw new IllegalArgumentException("gap < 0"); //$NON-NLS-1$
+        }
+        this.mipGap = gap;
+    }
+
+    /**
+     * This implementation stops the branch and bound from the callback when
+     * the number of integer solutions reach the limit.
+     */
+    @Override
+    public void setSolutionLimit(long solutions) {
+        if (solutions < 0) {
+            throw new IllegalArgumentException("solutions < 0"); //$NON-NLS-1$
+        }
+        this.solutionLimit = solutions;
+    }
+
+    /**
+     * This implementation sets the tm_lim parameter of both the simplex and
+     * the branch and bound.
+     */
+    @Override
+    public void setTimeLimit(long milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("milliseconds < 0"); //$NON-NLS-1$
+        }
+        this.timeLimit = milliseconds;
+    }
+
+    /**
+     * This implementation reuses the basis kept by GLPK in the problem object.
+     * When disabled, a LP problem is solved from the standard basis
+     * (glp_std_basis). For a MIP problem, the presolver is disabled.
+     */
+    @Override
+    public void setWarmStart(boolean enabled) {
+        this.warmStart = enabled;
+    }
+
+    /**
+     * This implementation stops the branch and bound on the next call to the
+     * callback using glp_ios_terminate(). The simplex of a LP problem can't be
+     * stopped once started.
+     */
+    @Override
+    public void terminate() {
+        this.terminated = true;
+    }
+
 }
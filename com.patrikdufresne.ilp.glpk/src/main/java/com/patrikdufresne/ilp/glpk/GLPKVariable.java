@@ -55,6 +55,19 @@ public class GLPKVariable implements Variable {
         setName(name);
     }
 
+    /**
+     * Create a variable for an existing column. Used when the columns are created in bulk by the parent problem.
+     * 
+     * @param parent
+     *            the parent problem.
+     * @param col
+     *            the column index.
+     */
+    GLPKVariable(GLPKLinearProblem parent, int col) {
+        this.parent = parent;
+        this.col = col;
+    }
+
     /**
      * Check if the variable is disposed.
      */
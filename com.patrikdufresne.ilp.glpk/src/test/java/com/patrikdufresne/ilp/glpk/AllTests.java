@@ -19,7 +19,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses( { GLPKLinearProblemTest.class, GLPKSolverTest.class, GLPKVariableTest.class, GLPKConstraintTest.class })
+@Suite.SuiteClasses( { GLPKAsyncSolverTest.class, GLPKLinearProblemTest.class, GLPKSolverTest.class, GLPKVariableTest.class, GLPKConstraintTest.class })
 public class AllTests {
 
 }
@@ -15,6 +15,11 @@
  */
 package com.patrikdufresne.ilp.glpk;
 
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.patrikdufresne.ilp.ILPException;
 import com.patrikdufresne.ilp.LinearProblemTest;
 import com.patrikdufresne.ilp.SolverFactory;
 
@@ -25,4 +30,25 @@ public class GLPKLinearProblemTest extends LinearProblemTest {
         return GLPKSolverFactory.instance();
     }
 
+    /**
+     * Check if accessing the problem from another thread is refused.
+     */
+    @Test
+    public void testAddVariable_FromOtherThread() throws InterruptedException {
+        final ILPException[] error = new ILPException[1];
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    lp.addBinaryVariable("x");
+                } catch (ILPException e) {
+                    error[0] = e;
+                }
+            }
+        });
+        t.start();
+        t.join();
+        assertEquals(ILPException.ERROR_THREAD_INVALID_ACCESS, error[0].code);
+    }
+
 }
@@ -0,0 +1,445 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.Constraint;
+import com.patrikdufresne.ilp.IBranchingTechniqueLast;
+import com.patrikdufresne.ilp.IBranchingTechniqueLastAlwaysDown;
+import com.patrikdufresne.ilp.IFeasibilityPumpHeuristic;
+import com.patrikdufresne.ilp.ILPException;
+import com.patrikdufresne.ilp.Linear;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.SolveStatistics;
+import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.Status;
+import com.patrikdufresne.ilp.Term;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Compact binary encoding of the linear problem, the solver option and the solution exchanged with the worker
+ * processes. The names are not sent, the variables and constraints are identified by their index.
+ * <p>
+ * The problem is encoded as:
+ * 
+ * <pre>
+ * int     magic
+ * byte    version
+ * byte    objective direction
+ * int     n, the number of columns
+ * n x     byte type, double lower bound, double upper bound, double objective coefficient
+ * int     m, the number of rows
+ * int     nnz, the number of coefficients
+ * m+1 x   int row start
+ * nnz x   int column, double coefficient
+ * m x     double lower bound, double upper bound
+ * </pre>
+ * 
+ * Unbounded values are sent as infinity. The solution is followed by the statistics of the worker resolution, if
+ * any.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class ProblemCodec {
+
+    /**
+     * Option flag for the feasibility pump heuristic.
+     */
+    private static final int FLAG_FPUMP = 1;
+
+    /**
+     * Option flag for the branching technique "last".
+     */
+    private static final int FLAG_BRANCHING_LAST = 2;
+
+    /**
+     * Option flag for the branching technique "last always down".
+     */
+    private static final int FLAG_BRANCHING_LAST_ALWAYS_DOWN = 4;
+
+    /**
+     * Magic number identifying the encoding: "ILPW".
+     */
+    private static final int MAGIC = 0x494C5057;
+
+    /**
+     * Status code used to send an error message instead of a solution.
+     */
+    private static final int STATUS_ERROR = -1;
+
+    /**
+     * Encoding version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The variable types by code.
+     */
+    private static final VarType[] TYPES = new VarType[] { VarType.BOOL, VarType.INTEGER, VarType.REAL };
+
+    /**
+     * Private constructor for utility class.
+     */
+    private ProblemCodec() {
+        // Nothing to do
+    }
+
+    /**
+     * Convert the bound into a primitive value.
+     */
+    private static double bound(Double value, double unbounded) {
+        return value != null ? value.doubleValue() : unbounded;
+    }
+
+    /**
+     * Read the option flags and apply them to the given solver option.
+     * 
+     * @param in
+     *            the input
+     * @param option
+     *            the solver option to be updated
+     * @throws IOException
+     */
+    static void readOption(DataInput in, SolverOption option) throws IOException {
+        int flags = in.readByte();
+        if ((flags & FLAG_FPUMP) != 0 && option instanceof IFeasibilityPumpHeuristic) {
+            ((IFeasibilityPumpHeuristic) option).setFeasibilityPumpHeuristic(true);
+        }
+        if ((flags & FLAG_BRANCHING_LAST) != 0 && option instanceof IBranchingTechniqueLast) {
+            ((IBranchingTechniqueLast) option).setBranchingLast(true);
+        }
+        if ((flags & FLAG_BRANCHING_LAST_ALWAYS_DOWN) != 0 && option instanceof IBranchingTechniqueLastAlwaysDown) {
+            ((IBranchingTechniqueLastAlwaysDown) option).setBranchingLastAlwaysDown(true);
+        }
+    }
+
+    /**
+     * Read the problem and create it into the given linear problem using the bulk functions
+     * {@link LinearProblem#addVariables(String[], VarType[], double[], double[])} and
+     * {@link LinearProblem#addConstraints(String[], int[], int[], double[], double[], double[])}.
+     * 
+     * @param in
+     *            the input
+     * @param lp
+     *            an empty linear problem
+     * @throws IOException
+     */
+    static void readProblem(DataInput in, LinearProblem lp) throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("invalid problem encoding"); //$NON-NLS-1$
+        }
+        lp.setObjectiveDirection(in.readByte());
+
+        // Read the columns.
+        int n = in.readInt();
+        VarType[] types = new VarType[n];
+        double[] lower = new double[n];
+        double[] upper = new double[n];
+        double[] objective = new double[n];
+        for (int j = 0; j < n; j++) {
+            types[j] = TYPES[in.readByte()];
+            lower[j] = in.readDouble();
+            upper[j] = in.readDouble();
+            objective[j] = in.readDouble();
+        }
+        lp.addVariables(null, types, lower, upper);
+        Collection<? extends Variable> list = lp.getVariables();
+        lp.setObjectiveLinear(lp.createLinear(objective, list.toArray(new Variable[list.size()])));
+
+        // Read the rows.
+        int m = in.readInt();
+        int nnz = in.readInt();
+        int[] starts = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            starts[i] = in.readInt();
+        }
+        int[] columns = new int[nnz];
+        double[] coefficients = new double[nnz];
+        for (int k = 0; k < nnz; k++) {
+            columns[k] = in.readInt();
+            coefficients[k] = in.readDouble();
+        }
+        double[] rowLower = new double[m];
+        double[] rowUpper = new double[m];
+        for (int i = 0; i < m; i++) {
+            rowLower[i] = in.readDouble();
+            rowUpper[i] = in.readDouble();
+        }
+        if (m > 0) {
+            lp.addConstraints(null, starts, columns, coefficients, rowLower, rowUpper);
+        }
+    }
+
+    /**
+     * Read the solution and sets it into the given problem.
+     * 
+     * @param in
+     *            the input
+     * @param lp
+     *            the problem to update
+     * @throws IOException
+     * @throws ILPException
+     *             if the worker failed to solve the problem
+     */
+    static void readSolution(DataInput in, ProcessLinearProblem lp) throws IOException {
+        int code = in.readByte();
+        if (code == STATUS_ERROR) {
+            throw new ILPException(in.readUTF());
+        }
+        Status status = Status.values()[code];
+        double[] values = null;
+        if (in.readBoolean()) {
+            int n = in.readInt();
+            values = new double[n];
+            for (int j = 0; j < n; j++) {
+                values[j] = in.readDouble();
+            }
+        }
+        lp.setSolution(status, values);
+        lp.setStatistics(readStatistics(in));
+    }
+
+    /**
+     * Read the statistics of the worker resolution. The times are not read since they are measured by the parent.
+     * 
+     * @return the statistics or null if not available
+     */
+    private static SolveStatistics readStatistics(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        SolveStatistics stats = new SolveStatistics();
+        stats.setPresolveTime(in.readLong());
+        stats.setIterations(in.readLong());
+        stats.setNodes(in.readLong());
+        stats.setCuts(in.readLong());
+        stats.setBestBound(in.readDouble());
+        stats.setObjectiveValue(in.readDouble());
+        stats.setIncumbents(in.readLong());
+        stats.setTimeToFirstIncumbent(in.readLong());
+        stats.setPeakMemory(in.readLong());
+        return stats;
+    }
+
+    /**
+     * Write an error message instead of a solution.
+     * 
+     * @param out
+     *            the output
+     * @param message
+     *            the error message
+     * @throws IOException
+     */
+    static void writeError(DataOutput out, String message) throws IOException {
+        out.writeByte(STATUS_ERROR);
+        out.writeUTF(message != null ? message : ""); //$NON-NLS-1$
+    }
+
+    /**
+     * Write the option flags supported by the worker.
+     * 
+     * @param out
+     *            the output
+     * @param option
+     *            the solver option
+     * @throws IOException
+     */
+    static void writeOption(DataOutput out, SolverOption option) throws IOException {
+        int flags = 0;
+        if (option instanceof IFeasibilityPumpHeuristic && ((IFeasibilityPumpHeuristic) option).getFeasibilityPumpHeuristic()) {
+            flags |= FLAG_FPUMP;
+        }
+        if (option instanceof IBranchingTechniqueLast && ((IBranchingTechniqueLast) option).getBranchingLast()) {
+            flags |= FLAG_BRANCHING_LAST;
+        }
+        if (option instanceof IBranchingTechniqueLastAlwaysDown && ((IBranchingTechniqueLastAlwaysDown) option).getBranchingLastAlwaysDown()) {
+            flags |= FLAG_BRANCHING_LAST_ALWAYS_DOWN;
+        }
+        out.writeByte(flags);
+    }
+
+    /**
+     * Write the given linear problem. The terms of the same variable are merged.
+     * 
+     * @param out
+     *            the output
+     * @param lp
+     *            the linear problem
+     * @throws IOException
+     */
+    static void writeProblem(DataOutput out, LinearProblem lp) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(lp.getObjectiveDirection());
+
+        // Write the columns.
+        List<Variable> variables = new ArrayList<Variable>(lp.getVariables());
+        int n = variables.size();
+        Map<Variable, Integer> index = new IdentityHashMap<Variable, Integer>(n);
+        for (int j = 0; j < n; j++) {
+            index.put(variables.get(j), Integer.valueOf(j));
+        }
+        double[] objective = new double[n];
+        ArrayLinear linear = toArray(lp.getObjectiveLinear());
+        for (int k = 0; k < linear.size(); k++) {
+            objective[column(index, linear.getVariable(k))] = linear.getCoefficient(k);
+        }
+        out.writeInt(n);
+        for (int j = 0; j < n; j++) {
+            Variable var = variables.get(j);
+            out.writeByte(type(var.getType()));
+            out.writeDouble(bound(var.getLowerBound(), Double.NEGATIVE_INFINITY));
+            out.writeDouble(bound(var.getUpperBound(), Double.POSITIVE_INFINITY));
+            out.writeDouble(objective[j]);
+        }
+
+        // Collect the terms of each row.
+        List<Constraint> constraints = new ArrayList<Constraint>(lp.getConstraints());
+        int m = constraints.size();
+        int[] starts = new int[m + 1];
+        int capacity = 16;
+        int[] columns = new int[capacity];
+        double[] coefficients = new double[capacity];
+        int nnz = 0;
+        for (int i = 0; i < m; i++) {
+            starts[i] = nnz;
+            linear = toArray(constraints.get(i).getLinear());
+            for (int k = 0; k < linear.size(); k++) {
+                if (nnz == capacity) {
+                    capacity *= 2;
+                    int[] c = new int[capacity];
+                    double[] v = new double[capacity];
+                    System.arraycopy(columns, 0, c, 0, nnz);
+                    System.arraycopy(coefficients, 0, v, 0, nnz);
+                    columns = c;
+                    coefficients = v;
+                }
+                columns[nnz] = column(index, linear.getVariable(k));
+                coefficients[nnz] = linear.getCoefficient(k);
+                nnz++;
+            }
+        }
+        starts[m] = nnz;
+
+        // Write the rows.
+        out.writeInt(m);
+        out.writeInt(nnz);
+        for (int i = 0; i <= m; i++) {
+            out.writeInt(starts[i]);
+        }
+        for (int k = 0; k < nnz; k++) {
+            out.writeInt(columns[k]);
+            out.writeDouble(coefficients[k]);
+        }
+        for (Constraint c : constraints) {
+            out.writeDouble(bound(c.getLowerBound(), Double.NEGATIVE_INFINITY));
+            out.writeDouble(bound(c.getUpperBound(), Double.POSITIVE_INFINITY));
+        }
+    }
+
+    /**
+     * Write the solution of the given problem.
+     * 
+     * @param out
+     *            the output
+     * @param lp
+     *            the solved linear problem
+     * @throws IOException
+     */
+    static void writeSolution(DataOutput out, LinearProblem lp) throws IOException {
+        out.writeByte(lp.getStatus().ordinal());
+        boolean feasible = lp.isFeasible();
+        out.writeBoolean(feasible);
+        if (feasible) {
+            Collection<? extends Variable> variables = lp.getVariables();
+            out.writeInt(variables.size());
+            for (Variable var : variables) {
+                out.writeDouble(var.getValue().doubleValue());
+            }
+        }
+        writeStatistics(out, lp.getStatistics());
+    }
+
+    /**
+     * Write the statistics of the worker resolution.
+     */
+    private static void writeStatistics(DataOutput out, SolveStatistics stats) throws IOException {
+        out.writeBoolean(stats != null);
+        if (stats == null) {
+            return;
+        }
+        out.writeLong(stats.getPresolveTime());
+        out.writeLong(stats.getIterations());
+        out.writeLong(stats.getNodes());
+        out.writeLong(stats.getCuts());
+        out.writeDouble(stats.getBestBound());
+        out.writeDouble(stats.getObjectiveValue());
+        out.writeLong(stats.getIncumbents());
+        out.writeLong(stats.getTimeToFirstIncumbent());
+        out.writeLong(stats.getPeakMemory());
+    }
+
+    /**
+     * Returns the column index of the variable.
+     */
+    private static int column(Map<Variable, Integer> index, Variable var) {
+        Integer col = index.get(var);
+        if (col == null) {
+            throw new IllegalArgumentException("variable is not part of this problem"); //$NON-NLS-1$
+        }
+        return col.intValue();
+    }
+
+    /**
+     * Convert the linear expression into an {@link ArrayLinear} to merge the terms of the same variable.
+     */
+    private static ArrayLinear toArray(Linear linear) {
+        if (linear instanceof ArrayLinear) {
+            return (ArrayLinear) linear;
+        }
+        ArrayLinear array = new ArrayLinear(linear != null ? linear.size() : 0);
+        if (linear != null) {
+            for (Term term : linear) {
+                array.add(term);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Returns the code of the variable type.
+     */
+    private static int type(VarType type) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i].equals(type)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("unknown type: " + type); //$NON-NLS-1$
+    }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import com.patrikdufresne.ilp.MemoryLinearProblem;
+import com.patrikdufresne.ilp.SolveStatistics;
+import com.patrikdufresne.ilp.Status;
+
+/**
+ * Linear problem of the process solver. The whole model is kept in memory by this object and sent to a worker process
+ * when solved.
+ *
+ * @author Patrik Dufresne
+ *
+ */
+public class ProcessLinearProblem extends MemoryLinearProblem {
+
+    /**
+     * Create a new linear problem. Use {@link ProcessSolver#createLinearProblem()}.
+     */
+    ProcessLinearProblem() {
+        // Nothing to do
+    }
+
+    /**
+     * This implementation makes the solution available to {@link ProcessSolver} and {@link ProblemCodec}.
+     */
+    @Override
+    protected void setSolution(Status status, double[] values) {
+        super.setSolution(status, values);
+    }
+
+    /**
+     * This implementation makes the statistics available to {@link ProcessSolver} and {@link ProblemCodec}.
+     */
+    @Override
+    protected void setStatistics(SolveStatistics statistics) {
+        super.setStatistics(statistics);
+    }
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.patrikdufresne.ilp.ILPException;
+import com.patrikdufresne.ilp.ILPLogger;
+import com.patrikdufresne.ilp.ILPPolicy;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.SolveStatistics;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.Status;
+
+/**
+ * Solver delegating the resolution to a worker process. The problem is kept in memory and sent to an idle worker of
+ * the factory pool on every call to {@link #solve(LinearProblem, SolverOption)}. A crash of the native library only
+ * terminate the worker process.
+ * <p>
+ * If the time budget of the factory is exceeded, the worker is killed, the solution status is {@link Status#UNKNOWN}
+ * and the worker is replaced by a new process.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class ProcessSolver implements Solver {
+
+    private ProcessSolverFactory factory;
+
+    /**
+     * Create a new solver. Use {@link ProcessSolverFactory#createSolver()}.
+     */
+    ProcessSolver(ProcessSolverFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public LinearProblem createLinearProblem() {
+        return new ProcessLinearProblem();
+    }
+
+    @Override
+    public SolverOption createSolverOption() {
+        return new ProcessSolverOption();
+    }
+
+    /**
+     * This implementation doesn't dispose the worker processes. Use {@link ProcessSolverFactory#dispose()}.
+     */
+    @Override
+    public void dispose() {
+        // Nothing to dispose.
+    }
+
+    /**
+     * This implementation sends the problem to a worker process.
+     * <p>
+     * The statistics are available from {@link LinearProblem#getStatistics()}. The search statistics are reported by
+     * the worker while the build time is used to encode the problem and the synchronization time to decode the
+     * solution. The time to first incumbent is measured by the worker.
+     */
+    @Override
+    public boolean solve(LinearProblem lp, SolverOption option) {
+        if (!(lp instanceof ProcessLinearProblem)) {
+            throw new IllegalArgumentException("lp should be a ProcessLinearProblem"); //$NON-NLS-1$
+        }
+        if (!(option instanceof ProcessSolverOption)) {
+            throw new IllegalArgumentException("option should be a ProcessSolverOption"); //$NON-NLS-1$
+        }
+        ProcessLinearProblem processlp = (ProcessLinearProblem) lp;
+        ProcessSolverOption processopt = (ProcessSolverOption) option;
+
+        // Check the problem
+        if (lp.isDisposed()) {
+            throw new ILPException(ILPException.ERROR_RESOURCE_DISPOSED);
+        }
+
+        // Make the problem as clear if a solution was found
+        processlp.setSolution(Status.UNKNOWN, null);
+        processlp.setStatistics(null);
+        long begin = System.nanoTime();
+
+        // Check if the resolution was terminated before starting.
+        if (processopt.isTerminated()) {
+            processlp.setSolution(Status.UNKNOWN, null);
+            return false;
+        }
+
+        try {
+            // Encode the request.
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buf);
+            ProblemCodec.writeProblem(out, processlp);
+            ProblemCodec.writeOption(out, option);
+            out.flush();
+            long build = System.nanoTime() - begin;
+
+            // Send it to a worker.
+            byte[] response = this.factory.getPool().execute(buf.toByteArray(), this.factory.getTimeout(), processopt);
+            if (response == null) {
+                if (!processopt.isTerminated()) {
+                    ILPPolicy.log(ILPLogger.WARNING, "worker process killed: time budget exceeded"); //$NON-NLS-1$
+                }
+                processlp.setSolution(Status.UNKNOWN, null);
+                return false;
+            }
+
+            // Decode the solution.
+            long sync = System.nanoTime();
+            ProblemCodec.readSolution(new DataInputStream(new ByteArrayInputStream(response)), processlp);
+            SolveStatistics stats = processlp.getStatistics() != null ? processlp.getStatistics() : new SolveStatistics();
+            stats.setBuildTime(build);
+            stats.setSyncTime(System.nanoTime() - sync);
+            stats.setSolveTime(System.nanoTime() - begin);
+            processlp.setStatistics(stats);
+        } catch (IOException e) {
+            throw new ILPException("worker process failed: " + e); //$NON-NLS-1$
+        }
+
+        Status status = processlp.getStatus();
+        return status.equals(Status.FEASIBLE) || status.equals(Status.OPTIMAL);
+    }
+
+}
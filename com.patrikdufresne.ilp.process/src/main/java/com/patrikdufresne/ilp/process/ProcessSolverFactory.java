@@ -0,0 +1,183 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverFactory;
+
+/**
+ * This implementation create solvers running the resolution in a pool of worker processes. Each worker uses the
+ * solver created by another factory, given by class name, so a crash or a memory leak of a native library doesn't
+ * affect the calling JVM.
+ * <p>
+ * The worker processes are started on demand and reused between resolutions. Use {@link #dispose()} to terminate them.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class ProcessSolverFactory implements SolverFactory {
+
+    /**
+     * The classpath of the worker processes.
+     */
+    private String classpath = System.getProperty("java.class.path"); //$NON-NLS-1$
+
+    /**
+     * The factory class name used by the worker processes.
+     */
+    private final String factoryClassName;
+
+    /**
+     * The worker pool, created on demand.
+     */
+    private WorkerPool pool;
+
+    /**
+     * Time budget of a resolution in milliseconds.
+     */
+    private volatile long timeout;
+
+    /**
+     * Maximum number of worker processes.
+     */
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Create a new factory.
+     * 
+     * @param factoryClassName
+     *            the class name of the {@link SolverFactory} used by the worker processes. The class should provide a
+     *            static <code>instance()</code> method or a public default constructor.
+     */
+    public ProcessSolverFactory(String factoryClassName) {
+        if (factoryClassName == null) {
+            throw new NullPointerException();
+        }
+        this.factoryClassName = factoryClassName;
+    }
+
+    /**
+     * Check if the pool is not started.
+     */
+    private void checkNotStarted() {
+        if (this.pool != null) {
+            throw new IllegalStateException("worker processes already started"); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public Solver createSolver() {
+        return new ProcessSolver(this);
+    }
+
+    /**
+     * Terminate every worker processes. The processes are started again on the next resolution.
+     */
+    public synchronized void dispose() {
+        if (this.pool != null) {
+            this.pool.dispose();
+            this.pool = null;
+        }
+    }
+
+    /**
+     * Returns the classpath of the worker processes.
+     */
+    public synchronized String getClasspath() {
+        return this.classpath;
+    }
+
+    /**
+     * Returns the worker pool. Start it if required.
+     */
+    synchronized WorkerPool getPool() {
+        if (this.pool == null) {
+            List<String> command = new ArrayList<String>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            command.add("-cp"); //$NON-NLS-1$
+            command.add(this.classpath);
+            command.add(ProcessWorker.class.getName());
+            command.add(this.factoryClassName);
+            this.pool = new WorkerPool(command, this.workers);
+        }
+        return this.pool;
+    }
+
+    /**
+     * Returns the time budget of a resolution.
+     * 
+     * @return the time budget in milliseconds or zero if unlimited
+     */
+    public long getTimeout() {
+        return this.timeout;
+    }
+
+    /**
+     * Returns the maximum number of worker processes.
+     */
+    public synchronized int getWorkers() {
+        return this.workers;
+    }
+
+    /**
+     * Sets the classpath of the worker processes. Default to the classpath of the current JVM. Must be called before
+     * the first resolution.
+     * 
+     * @param classpath
+     *            the classpath
+     */
+    public synchronized void setClasspath(String classpath) {
+        if (classpath == null) {
+            throw new NullPointerException();
+        }
+        checkNotStarted();
+        this.classpath = classpath;
+    }
+
+    /**
+     * Sets the time budget of a resolution. When exceeded, the worker process is killed and the resolution returns
+     * with an {@link com.patrikdufresne.ilp.Status#UNKNOWN} status.
+     * 
+     * @param timeout
+     *            the time budget in milliseconds or zero if unlimited
+     */
+    public void setTimeout(long timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout < 0"); //$NON-NLS-1$
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets the maximum number of worker processes. Default to the number of available processors. Must be called
+     * before the first resolution.
+     * 
+     * @param workers
+     *            the number of workers, at least one
+     */
+    public synchronized void setWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers < 1"); //$NON-NLS-1$
+        }
+        checkNotStarted();
+        this.workers = workers;
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import com.patrikdufresne.ilp.IBranchingTechniqueLast;
+import com.patrikdufresne.ilp.IBranchingTechniqueLastAlwaysDown;
+import com.patrikdufresne.ilp.IFeasibilityPumpHeuristic;
+import com.patrikdufresne.ilp.ITerminable;
+import com.patrikdufresne.ilp.SolverOption;
+
+/**
+ * This implementation of {@link SolverOption} is sent to the worker process with the problem. The options not
+ * supported by the worker solver are ignored.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class ProcessSolverOption implements IFeasibilityPumpHeuristic, IBranchingTechniqueLast, IBranchingTechniqueLastAlwaysDown, ITerminable {
+
+    boolean branchingLast;
+
+    boolean branchingLastAlwaysDown;
+
+    boolean fpump;
+
+    /**
+     * True when the termination is requested, guarded by this object.
+     */
+    private boolean terminated;
+
+    /**
+     * The worker running the resolution, guarded by this object.
+     */
+    private WorkerProcess worker;
+
+    /**
+     * Create a new option with default values. Use {@link ProcessSolver#createSolverOption()}.
+     */
+    ProcessSolverOption() {
+        // Nothing to do
+    }
+
+    /**
+     * Sets the worker running the resolution.
+     * 
+     * @return false if the resolution is already terminated
+     */
+    synchronized boolean attach(WorkerProcess worker) {
+        if (this.terminated) {
+            return false;
+        }
+        this.worker = worker;
+        return true;
+    }
+
+    /**
+     * Unset the worker running the resolution.
+     */
+    synchronized void detach() {
+        this.worker = null;
+    }
+
+    @Override
+    public boolean getBranchingLast() {
+        return this.branchingLast;
+    }
+
+    @Override
+    public boolean getBranchingLastAlwaysDown() {
+        return this.branchingLastAlwaysDown;
+    }
+
+    @Override
+    public boolean getFeasibilityPumpHeuristic() {
+        return this.fpump;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+        return this.terminated;
+    }
+
+    @Override
+    public synchronized void reset() {
+        this.terminated = false;
+    }
+
+    @Override
+    public void setBranchingLast(boolean enabled) {
+        this.branchingLast = enabled;
+    }
+
+    @Override
+    public void setBranchingLastAlwaysDown(boolean enabled) {
+        this.branchingLastAlwaysDown = enabled;
+    }
+
+    @Override
+    public void setFeasibilityPumpHeuristic(boolean enabled) {
+        this.fpump = enabled;
+    }
+
+    /**
+     * This implementation kills the worker process running the resolution. The worker is replaced by a new process.
+     */
+    @Override
+    public synchronized void terminate() {
+        this.terminated = true;
+        if (this.worker != null) {
+            this.worker.kill();
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.Socket;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverFactory;
+import com.patrikdufresne.ilp.SolverOption;
+
+/**
+ * Entry point of a worker process. The worker connects to the parent process and solves the received problems until
+ * the connection is closed.
+ * <p>
+ * Arguments: the solver factory class name, the parent port and the authentication token.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public final class ProcessWorker {
+
+    /**
+     * Create the solver factory from it's class name.
+     */
+    private static SolverFactory createFactory(String className) throws Exception {
+        Class<?> cls = Class.forName(className);
+        try {
+            Method instance = cls.getMethod("instance"); //$NON-NLS-1$
+            return (SolverFactory) instance.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return cls.asSubclass(SolverFactory.class).getConstructor().newInstance();
+        }
+    }
+
+    /**
+     * Run the worker.
+     * 
+     * @param args
+     *            the factory class name, the port and the token
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("usage: ProcessWorker <factory> <port> <token>"); //$NON-NLS-1$
+            System.exit(2);
+        }
+        Solver solver = createFactory(args[0]).createSolver();
+        Socket socket = new Socket("127.0.0.1", Integer.parseInt(args[1])); //$NON-NLS-1$
+        try {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeLong(Long.parseLong(args[2]));
+            out.flush();
+            while (true) {
+                byte[] request;
+                try {
+                    request = new byte[in.readInt()];
+                } catch (EOFException e) {
+                    // Parent closed the connection.
+                    break;
+                }
+                in.readFully(request);
+                byte[] response = solve(solver, request);
+                out.writeInt(response.length);
+                out.write(response);
+                out.flush();
+            }
+        } finally {
+            socket.close();
+            solver.dispose();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Solve the problem of the given request.
+     * 
+     * @return the response
+     */
+    private static byte[] solve(Solver solver, byte[] request) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        LinearProblem lp = null;
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(request));
+            lp = solver.createLinearProblem();
+            ProblemCodec.readProblem(in, lp);
+            SolverOption option = solver.createSolverOption();
+            ProblemCodec.readOption(in, option);
+            solver.solve(lp, option);
+            DataOutputStream out = new DataOutputStream(buf);
+            ProblemCodec.writeSolution(out, lp);
+            out.flush();
+        } catch (RuntimeException e) {
+            buf.reset();
+            DataOutputStream out = new DataOutputStream(buf);
+            ProblemCodec.writeError(out, e.toString());
+            out.flush();
+        } finally {
+            if (lp != null) {
+                lp.dispose();
+            }
+        }
+        return buf.toByteArray();
+    }
+
+    /**
+     * Private constructor for main class.
+     */
+    private ProcessWorker() {
+        // Nothing to do.
+    }
+
+}
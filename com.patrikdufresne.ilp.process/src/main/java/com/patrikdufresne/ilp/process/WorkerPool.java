@@ -0,0 +1,164 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.patrikdufresne.ilp.ILPException;
+
+/**
+ * Pool of worker processes. The number of concurrent requests is limited to the pool size. A watchdog kills the
+ * workers exceeding the time budget; dead workers are replaced by new processes on the next request.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class WorkerPool {
+
+    /**
+     * The worker command line.
+     */
+    private final List<String> command;
+
+    private volatile boolean disposed;
+
+    /**
+     * The idle workers.
+     */
+    private final ConcurrentLinkedQueue<WorkerProcess> idle = new ConcurrentLinkedQueue<WorkerProcess>();
+
+    /**
+     * Limit the number of running workers.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Thread used to kill the workers exceeding their time budget.
+     */
+    private final ScheduledExecutorService watchdog;
+
+    /**
+     * Create a new pool.
+     * 
+     * @param command
+     *            the worker command line
+     * @param size
+     *            the maximum number of workers
+     */
+    WorkerPool(List<String> command, int size) {
+        this.command = command;
+        this.permits = new Semaphore(size, true);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ilp-worker-watchdog"); //$NON-NLS-1$
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Kill every idle worker and refuse new requests.
+     */
+    void dispose() {
+        this.disposed = true;
+        WorkerProcess worker;
+        while ((worker = this.idle.poll()) != null) {
+            worker.kill();
+        }
+        this.watchdog.shutdownNow();
+    }
+
+    /**
+     * Execute the request on a worker.
+     * 
+     * @param request
+     *            the request
+     * @param timeout
+     *            the time budget in milliseconds or zero if unlimited
+     * @param option
+     *            the option used to terminate the resolution
+     * @return the response or null if the worker was killed because the time budget was exceeded or the resolution
+     *         was terminated
+     * @throws IOException
+     *             if the worker terminated unexpectedly
+     */
+    byte[] execute(byte[] request, long timeout, ProcessSolverOption option) throws IOException {
+        this.permits.acquireUninterruptibly();
+        WorkerProcess worker = null;
+        boolean reusable = false;
+        try {
+            if (this.disposed) {
+                throw new ILPException(ILPException.ERROR_RESOURCE_DISPOSED);
+            }
+            // Find a running worker or start a new one.
+            while ((worker = this.idle.poll()) != null && !worker.isAlive()) {
+                worker.kill();
+            }
+            if (worker == null) {
+                worker = WorkerProcess.start(this.command);
+            }
+            if (!option.attach(worker)) {
+                reusable = true;
+                return null;
+            }
+            final WorkerProcess w = worker;
+            ScheduledFuture<?> kill = null;
+            if (timeout > 0) {
+                kill = this.watchdog.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        w.kill();
+                    }
+                }, timeout, TimeUnit.MILLISECONDS);
+            }
+            try {
+                byte[] response = worker.execute(request);
+                reusable = true;
+                return response;
+            } catch (IOException e) {
+                if (worker.isKilled()) {
+                    return null;
+                }
+                throw e;
+            } finally {
+                option.detach();
+                if (kill != null) {
+                    kill.cancel(false);
+                }
+            }
+        } finally {
+            if (worker != null) {
+                if (reusable && !this.disposed && worker.isAlive()) {
+                    this.idle.offer(worker);
+                } else {
+                    worker.kill();
+                }
+            }
+            this.permits.release();
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.patrikdufresne.ilp.ILPLogger;
+import com.patrikdufresne.ilp.ILPPolicy;
+
+/**
+ * Handle of a worker process. The worker connects back to a loopback socket opened by this class, so the worker
+ * standard output may be freely used by native libraries. The worker output is forwarded to the {@link ILPPolicy}
+ * logger.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class WorkerProcess {
+
+    /**
+     * Time given to a new worker to connect back (milliseconds).
+     */
+    private static final int START_TIMEOUT = 30000;
+
+    /**
+     * Start a new worker process.
+     * 
+     * @param command
+     *            the command line, the port and token are added to it
+     * @return the worker handle
+     * @throws IOException
+     *             if the worker can't be started
+     */
+    static WorkerProcess start(List<String> command) throws IOException {
+        ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1")); //$NON-NLS-1$
+        try {
+            server.setSoTimeout(START_TIMEOUT);
+            long token = new SecureRandom().nextLong();
+            List<String> cmd = new ArrayList<String>(command);
+            cmd.add(Integer.toString(server.getLocalPort()));
+            cmd.add(Long.toString(token));
+            ProcessBuilder builder = new ProcessBuilder(cmd);
+            builder.redirectErrorStream(true);
+            final Process process = builder.start();
+
+            // Always read the worker output, otherwise the worker may block.
+            Thread drain = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                    try {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            int level = ILPPolicy.getLog().getLevel();
+                            if (level == ILPLogger.DEBUG || level == ILPLogger.TRACE) {
+                                ILPPolicy.log(ILPLogger.DEBUG, line);
+                            }
+                        }
+                    } catch (IOException e) {
+                        // Process terminated.
+                    }
+                }
+            }, "ilp-worker-output"); //$NON-NLS-1$
+            drain.setDaemon(true);
+            drain.start();
+
+            // Wait for the worker to connect.
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (SocketTimeoutException e) {
+                process.destroy();
+                throw new IOException("worker process didn't start"); //$NON-NLS-1$
+            }
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readLong() != token) {
+                socket.close();
+                process.destroy();
+                throw new IOException("invalid worker token"); //$NON-NLS-1$
+            }
+            return new WorkerProcess(process, socket, in, out);
+        } finally {
+            server.close();
+        }
+    }
+
+    private final DataInputStream in;
+
+    /**
+     * True if the worker was killed.
+     */
+    private volatile boolean killed;
+
+    private final DataOutputStream out;
+
+    private final Process process;
+
+    private final Socket socket;
+
+    private WorkerProcess(Process process, Socket socket, DataInputStream in, DataOutputStream out) {
+        this.process = process;
+        this.socket = socket;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Send a request to the worker and wait for the response.
+     * 
+     * @param request
+     *            the request
+     * @return the response
+     * @throws IOException
+     *             if the worker terminated or was killed
+     */
+    byte[] execute(byte[] request) throws IOException {
+        this.out.writeInt(request.length);
+        this.out.write(request);
+        this.out.flush();
+        int length = this.in.readInt();
+        byte[] response = new byte[length];
+        this.in.readFully(response);
+        return response;
+    }
+
+    /**
+     * Check if the worker process is still running.
+     */
+    boolean isAlive() {
+        if (this.killed) {
+            return false;
+        }
+        try {
+            this.process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Check if the worker was killed using {@link #kill()}.
+     */
+    boolean isKilled() {
+        return this.killed;
+    }
+
+    /**
+     * Kill the worker process. May be called from any thread, a thread waiting for a response receive an IOException.
+     */
+    void kill() {
+        this.killed = true;
+        try {
+            this.socket.close();
+        } catch (IOException e) {
+            // Swallow
+        }
+        this.process.destroy();
+    }
+
+}
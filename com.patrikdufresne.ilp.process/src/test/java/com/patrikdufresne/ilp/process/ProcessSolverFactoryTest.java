@@ -0,0 +1,90 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.Status;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+
+public class ProcessSolverFactoryTest {
+
+    ProcessSolverFactory factory;
+
+    @Before
+    public void createFactory() {
+        factory = new ProcessSolverFactory(SlowSolverFactory.class.getName());
+        factory.setWorkers(1);
+    }
+
+    @After
+    public void disposeFactory() {
+        factory.dispose();
+    }
+
+    /**
+     * Create a problem. Max x + y subject to x + 2y <= 4.
+     */
+    private LinearProblem createProblem(Solver solver, boolean integer) {
+        LinearProblem lp = solver.createLinearProblem();
+        Variable x = lp.addVariable("x", integer ? VarType.INTEGER : VarType.REAL); //$NON-NLS-1$
+        x.setLowerBound(Integer.valueOf(0));
+        x.setUpperBound(Integer.valueOf(3));
+        Variable y = lp.addVariable("y", VarType.REAL); //$NON-NLS-1$
+        y.setLowerBound(Integer.valueOf(0));
+        lp.addConstraint("c", new int[] { 1, 2 }, new Variable[] { x, y }, null, Integer.valueOf(4)); //$NON-NLS-1$
+        lp.setObjectiveLinear(lp.createLinear(new int[] { 1, 1 }, new Variable[] { x, y }));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        return lp;
+    }
+
+    /**
+     * Check if the worker exceeding the time budget is killed and replaced by a new worker.
+     */
+    @Test
+    public void testSolve_WithTimeoutExceeded_ExpectWorkerKilled() {
+        factory.setTimeout(500);
+        Solver solver = factory.createSolver();
+
+        LinearProblem mip = createProblem(solver, true);
+        assertFalse(solver.solve(mip, solver.createSolverOption()));
+        assertEquals(Status.UNKNOWN, mip.getStatus());
+
+        // Next resolution use a new worker.
+        LinearProblem lp = createProblem(solver, false);
+        assertTrue(solver.solve(lp, solver.createSolverOption()));
+        assertEquals(Status.OPTIMAL, lp.getStatus());
+        assertEquals(3.5, lp.getObjectiveValue().doubleValue(), 0.0001);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSetWorkers_AfterSolve_ExpectException() {
+        Solver solver = factory.createSolver();
+        LinearProblem lp = createProblem(solver, false);
+        assertTrue(solver.solve(lp, solver.createSolverOption()));
+        factory.setWorkers(2);
+    }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.process;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverFactory;
+import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.simplex.SimplexSolverFactory;
+
+/**
+ * Factory used by the worker processes during the tests. The solver never returns when solving a MIP problem.
+ */
+public class SlowSolverFactory implements SolverFactory {
+
+    @Override
+    public Solver createSolver() {
+        final Solver solver = SimplexSolverFactory.instance().createSolver();
+        return new Solver() {
+
+            @Override
+            public LinearProblem createLinearProblem() {
+                return solver.createLinearProblem();
+            }
+
+            @Override
+            public SolverOption createSolverOption() {
+                return solver.createSolverOption();
+            }
+
+            @Override
+            public void dispose() {
+                solver.dispose();
+            }
+
+            @Override
+            public boolean solve(LinearProblem lp, SolverOption option) {
+                while (lp.isMIP()) {
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException e) {
+                        // Ignore
+                    }
+                }
+                return solver.solve(lp, option);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,650 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.patrikdufresne.ilp.Status;
+
+/**
+ * Parallel branch and bound using the {@link RevisedSimplex} to solve the LP relaxation of each node.
+ * <p>
+ * The open nodes are kept in a queue sorted by bound (best-bound first). Each worker takes the best open node and dives
+ * from it: the preferred child is solved right away by the same worker while the other child is added to the queue.
+ * Every worker owns a copy of the simplex, so the basis of the previous node is used to warm start the next one. The
+ * incumbent objective value is shared between the workers using an atomic variable.
+ * <p>
+ * The calling thread runs the first worker, the other workers run in a pool of daemon threads shared by every search.
+ * The workers wait for open nodes, so they don't run in a {@link java.util.concurrent.ForkJoinPool}.
+ *
+ * @author Patrik Dufresne
+ *
+ */
+final class BranchAndBound {
+
+    /**
+     * A node of the search tree. Only the bound change is stored, the bounds of a node are the bounds of the root
+     * tightened by every node up to the root.
+     */
+    static final class Node implements Comparable<Node> {
+
+        /**
+         * The objective value of the parent relaxation, a lower bound for this node.
+         */
+        final double bound;
+
+        /**
+         * The node depth, used to break ties.
+         */
+        final int depth;
+
+        final double lower;
+
+        final Node parent;
+
+        final double upper;
+
+        final int var;
+
+        Node(Node parent, int var, double lower, double upper, double bound) {
+            this.parent = parent;
+            this.var = var;
+            this.lower = lower;
+            this.upper = upper;
+            this.bound = bound;
+            this.depth = parent != null ? parent.depth + 1 : 0;
+        }
+
+        /**
+         * Best bound first, then deepest first.
+         */
+        @Override
+        public int compareTo(Node o) {
+            int c = Double.compare(this.bound, o.bound);
+            if (c != 0) {
+                return c;
+            }
+            return o.depth - this.depth;
+        }
+
+    }
+
+    /**
+     * Worker processing the open nodes until the search is completed.
+     */
+    private final class Worker implements Runnable {
+
+        private final RevisedSimplex simplex;
+
+        Worker(RevisedSimplex simplex) {
+            this.simplex = simplex;
+        }
+
+        @Override
+        public void run() {
+            Node node;
+            while ((node = take()) != null) {
+                try {
+                    dive(this.simplex, node);
+                } finally {
+                    done();
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Thread of the shared pool.
+     */
+    private static final class WorkerThread extends Thread {
+
+        WorkerThread(Runnable target, String name) {
+            super(target, name);
+            setDaemon(true);
+        }
+
+    }
+
+    /**
+     * Branching technique: select the last fractional variable and round it to the nearest integer value.
+     */
+    static final int BRANCH_LAST = 1;
+
+    /**
+     * Branching technique: select the last fractional variable and round it down.
+     */
+    static final int BRANCH_LAST_DOWN = 2;
+
+    /**
+     * Branching technique: select the most fractional variable and round it to the nearest integer value.
+     */
+    static final int BRANCH_MOST_FRACTIONAL = 0;
+
+    /**
+     * Tolerance used to determine if a value is integer.
+     */
+    static final double INTEGER_TOLERANCE = 1e-6;
+
+    /**
+     * Minimum improvement of the objective value.
+     */
+    static final double OBJECTIVE_TOLERANCE = 1e-9;
+
+    /**
+     * Pool running the additional workers of every search, created on first use. Idle threads are stopped.
+     */
+    private static ExecutorService pool;
+
+    /**
+     * Number of workers processing nodes.
+     */
+    private int active;
+
+    /**
+     * True if a node was not solved.
+     */
+    private volatile boolean aborted;
+
+    /**
+     * The branching technique.
+     */
+    final int branching;
+
+    /**
+     * Time at which the first integer solution was found, see {@link System#nanoTime()}. Zero if not found.
+     */
+    volatile long firstSolution;
+
+    /**
+     * Time at which the search is stopped, see {@link System#nanoTime()}.
+     */
+    private long deadline;
+
+    /**
+     * True once the search is completed, the workers started late don't take any node. Guarded by this object.
+     */
+    private boolean finished;
+
+    /**
+     * True to run the feasibility pump before the search.
+     */
+    boolean fpump;
+
+    /**
+     * The objective value of the best integer solution, stored as raw long bits.
+     */
+    private final AtomicLong incumbent = new AtomicLong(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+
+    /**
+     * True for integer columns.
+     */
+    final boolean[] integer;
+
+    /**
+     * Number of simplex iterations of every node.
+     */
+    final AtomicLong iterations = new AtomicLong();
+
+    /**
+     * Maximum number of nodes, zero if unlimited.
+     */
+    long nodeLimit;
+
+    /**
+     * Number of nodes solved.
+     */
+    final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * The open nodes, guarded by this object.
+     */
+    private final PriorityQueue<Node> open = new PriorityQueue<Node>();
+
+    /**
+     * Status of the variables in the optimal basis of the root relaxation, null if not solved.
+     */
+    int[] rootBasis;
+
+    /**
+     * Bounds of the root node.
+     */
+    final double[] rootLower;
+    final double[] rootUpper;
+
+    /**
+     * The simplex used to solve the root relaxation.
+     */
+    final RevisedSimplex simplex;
+
+    /**
+     * The best integer solution or null if not found, guarded by this object.
+     */
+    private double[] solution;
+
+    /**
+     * Maximum number of improving solutions, zero if unlimited.
+     */
+    long solutionLimit;
+
+    /**
+     * Number of improving solutions found, updated by {@link #offer(double, double[])}.
+     */
+    volatile long solutions;
+
+    /**
+     * The initial solution offered once the root is solved, NaN for the columns to be completed. May be null.
+     */
+    double[] start;
+
+    /**
+     * Number of workers.
+     */
+    final int threads;
+
+    /**
+     * Time limit in milliseconds, zero if unlimited.
+     */
+    long timeLimit;
+
+    /**
+     * Create a new branch and bound.
+     *
+     * @param simplex
+     *            the simplex with the root problem
+     * @param integer
+     *            true for each integer column
+     * @param branching
+     *            the branching technique
+     * @param threads
+     *            the number of workers
+     */
+    BranchAndBound(RevisedSimplex simplex, boolean[] integer, int branching, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads < 1"); //$NON-NLS-1$
+        }
+        this.simplex = simplex;
+        this.integer = integer;
+        this.branching = branching;
+        this.threads = threads;
+        int n = simplex.n;
+        this.rootLower = new double[n];
+        this.rootUpper = new double[n];
+        for (int j = 0; j < n; j++) {
+            double lb = simplex.lower[j];
+            double ub = simplex.upper[j];
+            if (integer[j]) {
+                // Round the bounds toward the inside.
+                lb = Math.ceil(lb - INTEGER_TOLERANCE);
+                ub = Math.floor(ub + INTEGER_TOLERANCE);
+            }
+            this.rootLower[j] = lb;
+            this.rootUpper[j] = ub;
+        }
+    }
+
+    /**
+     * Apply the bounds of the given node to the simplex.
+     */
+    private void apply(RevisedSimplex lp, Node node) {
+        for (int j = 0; j < lp.n; j++) {
+            lp.setBounds(j, this.rootLower[j], this.rootUpper[j]);
+        }
+        for (Node cur = node; cur != null && cur.parent != null; cur = cur.parent) {
+            int j = cur.var;
+            lp.setBounds(j, Math.max(lp.lower[j], cur.lower), Math.min(lp.upper[j], cur.upper));
+        }
+    }
+
+    /**
+     * Returns the fractional integer column to branch on according to the branching technique.
+     *
+     * @return the column index or -1 if the solution is integer
+     */
+    int branchingVariable(RevisedSimplex lp) {
+        int best = -1;
+        double max = INTEGER_TOLERANCE;
+        for (int j = 0; j < lp.n; j++) {
+            if (!this.integer[j]) {
+                continue;
+            }
+            double value = lp.x[j];
+            double frac = Math.abs(value - Math.rint(value));
+            if (frac > INTEGER_TOLERANCE && this.branching != BRANCH_MOST_FRACTIONAL) {
+                best = j;
+            } else if (frac > max) {
+                max = frac;
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Solve the given node and dive into the preferred child until the node is pruned.
+     */
+    void dive(RevisedSimplex lp, Node node) {
+        Node cur = node;
+        while (cur != null && cur.bound < incumbent() - OBJECTIVE_TOLERANCE) {
+            if (isStopped()) {
+                // Keep the node open to compute the best bound.
+                this.aborted = true;
+                push(cur);
+                return;
+            }
+            apply(lp, cur);
+            int result = solve(lp);
+            this.nodes.incrementAndGet();
+            if (result == RevisedSimplex.ABORTED || result == RevisedSimplex.UNBOUNDED) {
+                this.aborted = true;
+                push(cur);
+                return;
+            } else if (result == RevisedSimplex.INFEASIBLE) {
+                return;
+            }
+            double objective = lp.objective();
+            if (objective >= incumbent() - OBJECTIVE_TOLERANCE) {
+                return;
+            }
+            int j = branchingVariable(lp);
+            if (j < 0) {
+                offer(objective, lp.x);
+                return;
+            }
+            double value = lp.x[j];
+            double floor = Math.floor(value);
+            Node down = new Node(cur, j, Double.NEGATIVE_INFINITY, floor, objective);
+            Node up = new Node(cur, j, floor + 1, Double.POSITIVE_INFINITY, objective);
+            if (this.branching == BRANCH_LAST_DOWN || value - floor < 0.5) {
+                push(up);
+                cur = down;
+            } else {
+                push(down);
+                cur = up;
+            }
+        }
+    }
+
+    /**
+     * Returns the best bound of the objective value: the smallest bound of the open nodes or the incumbent objective
+     * value if no node is open.
+     */
+    synchronized double bound() {
+        Node node = this.open.peek();
+        if (node != null) {
+            return Math.min(node.bound, incumbent());
+        }
+        return incumbent();
+    }
+
+    /**
+     * Called by a worker when it's done with a node.
+     */
+    synchronized void done() {
+        this.active--;
+        notifyAll();
+    }
+
+    /**
+     * Mark the search as completed and wait until every worker is done with its node.
+     */
+    synchronized void finish() {
+        this.finished = true;
+        boolean interrupted = false;
+        while (this.active > 0) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the objective value of the best integer solution.
+     */
+    double incumbent() {
+        return Double.longBitsToDouble(this.incumbent.get());
+    }
+
+    /**
+     * Check if the current thread is a thread of a pool: a {@link ForkJoinWorkerThread} or a worker of a branch and
+     * bound. Used to run one worker per search when many searches run concurrently.
+     *
+     * @return true if the current thread is a thread of a pool
+     */
+    static boolean isPoolThread() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof ForkJoinWorkerThread || thread instanceof WorkerThread;
+    }
+
+    /**
+     * Check if the search should be stopped because it was terminated or a limit is reached.
+     */
+    boolean isStopped() {
+        if (this.simplex.terminated.get()) {
+            return true;
+        } else if (this.nodeLimit > 0 && this.nodes.get() >= this.nodeLimit) {
+            return true;
+        } else if (this.timeLimit > 0 && System.nanoTime() - this.deadline >= 0) {
+            return true;
+        }
+        return this.solutionLimit > 0 && this.solutions >= this.solutionLimit;
+    }
+
+    /**
+     * Offer a new integer solution. The solution is kept if it's better than the incumbent.
+     *
+     * @param objective
+     *            the objective value
+     * @param x
+     *            the solution
+     */
+    synchronized void offer(double objective, double[] x) {
+        if (objective >= incumbent() - OBJECTIVE_TOLERANCE) {
+            return;
+        }
+        double[] copy = new double[this.integer.length];
+        for (int k = 0; k < copy.length; k++) {
+            copy[k] = this.integer[k] ? Math.rint(x[k]) : x[k];
+        }
+        this.solution = copy;
+        if (this.solutions++ == 0) {
+            this.firstSolution = System.nanoTime();
+        }
+        this.incumbent.set(Double.doubleToLongBits(objective));
+    }
+
+    /**
+     * Fix the columns of the initial solution and solve the remaining problem. The fractional columns are rounded
+     * and fixed one at a time until the solution is integer, then the solution is offered. An initial solution out of
+     * the root bounds or leading to an infeasible problem is ignored.
+     */
+    void offerStart() {
+        RevisedSimplex lp = new RevisedSimplex(this.simplex);
+        for (int j = 0; j < lp.n; j++) {
+            double value = this.start[j];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            if (this.integer[j]) {
+                value = Math.rint(value);
+            }
+            if (value < this.rootLower[j] - INTEGER_TOLERANCE || value > this.rootUpper[j] + INTEGER_TOLERANCE) {
+                return;
+            }
+            lp.setBounds(j, value, value);
+        }
+        while (lp.solve() == RevisedSimplex.OPTIMAL) {
+            int j = branchingVariable(lp);
+            if (j < 0) {
+                offer(lp.objective(), lp.x);
+                return;
+            }
+            double value = Math.rint(lp.x[j]);
+            lp.setBounds(j, value, value);
+        }
+    }
+
+    /**
+     * Returns the pool shared by every search.
+     */
+    private static synchronized ExecutorService pool() {
+        if (pool == null) {
+            pool = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    return new WorkerThread(r, "branch-and-bound-" + this.count.incrementAndGet()); //$NON-NLS-1$
+                }
+            });
+        }
+        return pool;
+    }
+
+    /**
+     * Add a node to the open queue.
+     */
+    synchronized void push(Node node) {
+        this.open.add(node);
+        notifyAll();
+    }
+
+    /**
+     * Returns the best integer solution.
+     *
+     * @return the solution or null if not found
+     */
+    synchronized double[] getSolution() {
+        return this.solution;
+    }
+
+    /**
+     * Run the search.
+     *
+     * @return the status of the search
+     */
+    Status solve() {
+        this.deadline = System.nanoTime() + this.timeLimit * 1000000L;
+
+        // Solve the root node.
+        Node root = new Node(null, -1, 0, 0, Double.NEGATIVE_INFINITY);
+        apply(this.simplex, root);
+        int result = solve(this.simplex);
+        this.nodes.incrementAndGet();
+        if (result == RevisedSimplex.UNBOUNDED) {
+            return Status.UNBOUNDED;
+        } else if (result == RevisedSimplex.INFEASIBLE) {
+            return Status.INFEASIBLE;
+        } else if (result == RevisedSimplex.ABORTED) {
+            return Status.UNKNOWN;
+        }
+        this.rootBasis = this.simplex.status.clone();
+
+        // Complete the initial solution.
+        if (this.start != null) {
+            offerStart();
+        }
+
+        // Find a first integer solution.
+        if (this.fpump && branchingVariable(this.simplex) >= 0) {
+            double[] x = new FeasibilityPump(this.simplex, this.integer).run();
+            if (x != null) {
+                double objective = 0;
+                for (int j = 0; j < x.length; j++) {
+                    objective += this.simplex.cost[j] * x[j];
+                }
+                offer(objective, x);
+            }
+        }
+
+        // Explore the tree.
+        push(root);
+        List<Future<?>> workers = new ArrayList<Future<?>>(this.threads - 1);
+        try {
+            for (int i = 1; i < this.threads; i++) {
+                // Each worker start with the optimal basis of the root.
+                workers.add(pool().submit(new Worker(new RevisedSimplex(this.simplex))));
+            }
+            new Worker(this.simplex).run();
+        } finally {
+            // Drop the workers not yet started and wait for the others.
+            for (Future<?> worker : workers) {
+                worker.cancel(false);
+            }
+            finish();
+        }
+
+        if (getSolution() != null) {
+            return this.aborted ? Status.FEASIBLE : Status.OPTIMAL;
+        }
+        return this.aborted ? Status.UNKNOWN : Status.INFEASIBLE;
+    }
+
+    /**
+     * Solve the relaxation and count the iterations.
+     */
+    private int solve(RevisedSimplex lp) {
+        long iterations = lp.iterations;
+        int result = lp.solve();
+        this.iterations.addAndGet(lp.iterations - iterations);
+        return result;
+    }
+
+    /**
+     * Wait for the next open node.
+     *
+     * @return the next node or null if the search is completed
+     */
+    synchronized Node take() {
+        while (true) {
+            if (this.finished) {
+                return null;
+            } else if (isStopped()) {
+                this.aborted = true;
+                return null;
+            }
+            Node node = this.open.poll();
+            if (node != null) {
+                this.active++;
+                return node;
+            } else if (this.active == 0) {
+                return null;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.aborted = true;
+                return null;
+            }
+        }
+    }
+
+}
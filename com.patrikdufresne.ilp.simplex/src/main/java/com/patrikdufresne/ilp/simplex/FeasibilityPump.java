@@ -0,0 +1,131 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Feasibility pump heuristic used to find a first integer solution. The LP solution is rounded, then the LP closest to
+ * the rounded point is solved. This is repeated until the LP solution is integer.
+ * <p>
+ * The distance is only measured for the integer variables rounded to one of their bounds, which is exact for binary
+ * variables.
+ *
+ * @author Patrik Dufresne
+ *
+ */
+final class FeasibilityPump {
+
+    /**
+     * Maximum number of rounding.
+     */
+    private static final int MAX_ITERATIONS = 50;
+
+    /**
+     * Number of variables flipped when cycling.
+     */
+    private static final int PERTURBATION = 10;
+
+    /**
+     * True for integer columns.
+     */
+    private final boolean[] integer;
+
+    /**
+     * The simplex used to solve the distance LP, sharing the matrix of the root.
+     */
+    private final RevisedSimplex simplex;
+
+    /**
+     * Create a new feasibility pump.
+     *
+     * @param root
+     *            the simplex with an optimal solution of the root relaxation
+     * @param integer
+     *            true for each integer column
+     */
+    FeasibilityPump(RevisedSimplex root, boolean[] integer) {
+        this.simplex = new RevisedSimplex(root);
+        this.integer = integer;
+    }
+
+    /**
+     * Check if the integer columns of the given solution are integer.
+     */
+    private boolean isInteger(double[] x) {
+        for (int j = 0; j < this.integer.length; j++) {
+            if (this.integer[j] && Math.abs(x[j] - Math.rint(x[j])) > BranchAndBound.INTEGER_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Run the heuristic.
+     *
+     * @return an integer solution or null if not found
+     */
+    double[] run() {
+        RevisedSimplex lp = this.simplex;
+        int n = lp.n;
+        Random random = new Random(0);
+        double[] rounded = new double[n];
+        double[] previous = null;
+        for (int it = 0; it < MAX_ITERATIONS; it++) {
+            // Round the LP solution.
+            for (int j = 0; j < n; j++) {
+                rounded[j] = this.integer[j] ? Math.min(lp.upper[j], Math.max(lp.lower[j], Math.rint(lp.x[j]))) : lp.x[j];
+            }
+            if (previous != null && Arrays.equals(previous, rounded)) {
+                // Cycling: flip some of the integer columns.
+                for (int k = 0; k < PERTURBATION; k++) {
+                    int j = random.nextInt(n);
+                    if (!this.integer[j]) {
+                        continue;
+                    }
+                    if (rounded[j] + 1 <= lp.upper[j] && (rounded[j] - 1 < lp.lower[j] || random.nextBoolean())) {
+                        rounded[j] += 1;
+                    } else if (rounded[j] - 1 >= lp.lower[j]) {
+                        rounded[j] -= 1;
+                    }
+                }
+            }
+            previous = rounded.clone();
+
+            // Minimize the distance to the rounded point.
+            Arrays.fill(lp.cost, 0);
+            for (int j = 0; j < n; j++) {
+                if (!this.integer[j]) {
+                    continue;
+                } else if (rounded[j] <= lp.lower[j]) {
+                    lp.cost[j] = 1;
+                } else if (rounded[j] >= lp.upper[j]) {
+                    lp.cost[j] = -1;
+                }
+            }
+            if (lp.solve() != RevisedSimplex.OPTIMAL) {
+                return null;
+            }
+            if (isInteger(lp.x)) {
+                return Arrays.copyOf(lp.x, n);
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,837 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded revised simplex working on the problem
+ *
+ * <pre>
+ * minimize    c x
+ * subject to  A x - r = 0
+ *             l &lt;= (x, r) &lt;= u
+ * </pre>
+ *
+ * where <code>x</code> are the <code>n</code> structural variables and <code>r</code> are the <code>m</code> logical
+ * variables (one per row). The basis is factorized with {@link SparseLU}.
+ * <p>
+ * The primal simplex uses a composite phase 1 (minimizing the sum of infeasibilities), Dantzig pricing and a Harris
+ * two-pass ratio test. Bland's rule is used when too many degenerate iterations are done in a row. The dual simplex is
+ * used when the current basis is dual feasible but not primal feasible, which is the case after changing the bounds
+ * of a variable of an optimal basis (e.g.: branch and bound).
+ * <p>
+ * This class is not thread safe, but the constraint matrix is never modified so it may be shared between multiple
+ * instances created with {@link #RevisedSimplex(RevisedSimplex)}.
+ *
+ * @author Patrik Dufresne
+ *
+ */
+final class RevisedSimplex {
+
+    /**
+     * Solve status: the iteration limit is reached or a numerical problem occurred.
+     */
+    static final int ABORTED = 3;
+
+    /**
+     * Variable status: nonbasic at lower bound.
+     */
+    static final int AT_LOWER = 1;
+
+    /**
+     * Variable status: nonbasic at upper bound.
+     */
+    static final int AT_UPPER = 2;
+
+    /**
+     * Variable status: nonbasic free variable at zero.
+     */
+    static final int AT_ZERO = 3;
+
+    /**
+     * Variable status: basic.
+     */
+    static final int BASIC = 0;
+
+    /**
+     * Number of degenerate iterations before switching to Bland's rule.
+     */
+    private static final int DEGENERATE_LIMIT = 50;
+
+    /**
+     * Tolerance on the reduced costs.
+     */
+    private static final double DUAL_TOLERANCE = 1e-7;
+
+    /**
+     * Solve status: the problem is infeasible.
+     */
+    static final int INFEASIBLE = 1;
+
+    /**
+     * Solve status: an optimal solution is found.
+     */
+    static final int OPTIMAL = 0;
+
+    /**
+     * Minimum absolute value of a pivot.
+     */
+    private static final double PIVOT_TOLERANCE = 1e-9;
+
+    /**
+     * Tolerance on the bounds.
+     */
+    private static final double PRIMAL_TOLERANCE = 1e-7;
+
+    /**
+     * Number of basis updates before refactorization.
+     */
+    private static final int REFACTORIZATION = 100;
+
+    /**
+     * Solve status: the problem is unbounded.
+     */
+    static final int UNBOUNDED = 2;
+
+    /**
+     * Work vector indexed by basis position.
+     */
+    private final double[] alpha;
+
+    /**
+     * Work arrays used to build the basis matrix.
+     */
+    private int[] basisIndex;
+    private final int[] basisStart;
+    private double[] basisValue;
+
+    /**
+     * Work vector indexed by basis position.
+     */
+    private final double[] cb;
+
+    /**
+     * Structural columns in compressed column form.
+     */
+    private final int[] colIndex;
+    private final int[] colStart;
+    private final double[] colValue;
+
+    /**
+     * Cost of each variable (structural and logical).
+     */
+    final double[] cost;
+
+    /**
+     * Basic variable of each basis position.
+     */
+    final int[] head;
+
+    /**
+     * Total number of iterations.
+     */
+    long iterations;
+
+    /**
+     * Maximum number of iterations for one call to {@link #solve()}.
+     */
+    long iterationLimit = Long.MAX_VALUE;
+
+    /**
+     * Lower bound of each variable (structural and logical).
+     */
+    final double[] lower;
+
+    /**
+     * Flag set by another thread to abort the resolution. Shared with the copies.
+     */
+    AtomicBoolean terminated = new AtomicBoolean();
+
+    /**
+     * The basis factorization.
+     */
+    private final SparseLU lu;
+
+    /**
+     * Number of rows and number of structural columns.
+     */
+    final int m;
+    final int n;
+
+    /**
+     * Work vector indexed by row.
+     */
+    private final double[] rho;
+
+    /**
+     * Work vector indexed by row.
+     */
+    private final double[] rowWork;
+
+    /**
+     * Status of each variable: one of BASIC, AT_LOWER, AT_UPPER, AT_ZERO.
+     */
+    final int[] status;
+
+    /**
+     * Upper bound of each variable (structural and logical).
+     */
+    final double[] upper;
+
+    /**
+     * Value of each variable (structural and logical).
+     */
+    final double[] x;
+
+    /**
+     * Dual values indexed by row.
+     */
+    private final double[] y;
+
+    /**
+     * Create a new simplex for the given constraint matrix. The bounds are set to zero and the basis is the slack
+     * basis.
+     *
+     * @param m
+     *            number of rows
+     * @param n
+     *            number of structural columns
+     * @param colStart
+     *            index of the first entry of each column, of size <code>n + 1</code>
+     * @param colIndex
+     *            row index of each entry, without duplicates within a column
+     * @param colValue
+     *            value of each entry
+     */
+    RevisedSimplex(int m, int n, int[] colStart, int[] colIndex, double[] colValue) {
+        this.m = m;
+        this.n = n;
+        this.colStart = colStart;
+        this.colIndex = colIndex;
+        this.colValue = colValue;
+        this.cost = new double[n + m];
+        this.lower = new double[n + m];
+        this.upper = new double[n + m];
+        this.x = new double[n + m];
+        this.status = new int[n + m];
+        this.head = new int[m];
+        for (int j = 0; j < n; j++) {
+            this.status[j] = AT_LOWER;
+        }
+        for (int i = 0; i < m; i++) {
+            this.head[i] = n + i;
+            this.status[n + i] = BASIC;
+        }
+        this.lu = new SparseLU(m);
+        this.alpha = new double[m];
+        this.cb = new double[m];
+        this.rho = new double[m];
+        this.rowWork = new double[m];
+        this.y = new double[m];
+        this.basisStart = new int[m + 1];
+        this.basisIndex = new int[Math.max(16, 2 * m)];
+        this.basisValue = new double[this.basisIndex.length];
+    }
+
+    /**
+     * Create a copy of the given simplex sharing the same constraint matrix. The bounds, costs and basis are copied.
+     *
+     * @param simplex
+     *            the simplex to copy
+     */
+    RevisedSimplex(RevisedSimplex simplex) {
+        this(simplex.m, simplex.n, simplex.colStart, simplex.colIndex, simplex.colValue);
+        System.arraycopy(simplex.cost, 0, this.cost, 0, this.cost.length);
+        System.arraycopy(simplex.lower, 0, this.lower, 0, this.lower.length);
+        System.arraycopy(simplex.upper, 0, this.upper, 0, this.upper.length);
+        System.arraycopy(simplex.x, 0, this.x, 0, this.x.length);
+        System.arraycopy(simplex.status, 0, this.status, 0, this.status.length);
+        System.arraycopy(simplex.head, 0, this.head, 0, this.head.length);
+        this.iterationLimit = simplex.iterationLimit;
+        this.terminated = simplex.terminated;
+    }
+
+    /**
+     * Compute the dual values <code>y = c<sub>B</sub> B<sup>-1</sup></code> using the phase 2 costs.
+     */
+    private void computeDuals() {
+        for (int i = 0; i < this.m; i++) {
+            this.cb[i] = this.cost[this.head[i]];
+        }
+        this.lu.btran(this.cb, this.y);
+    }
+
+    /**
+     * Compute the value of the basic variables from the value of the nonbasic variables.
+     */
+    private void computePrimal() {
+        double[] rhs = this.rowWork;
+        Arrays.fill(rhs, 0);
+        for (int j = 0; j < this.n; j++) {
+            double xj = this.x[j];
+            if (this.status[j] == BASIC || xj == 0) {
+                continue;
+            }
+            for (int p = this.colStart[j]; p < this.colStart[j + 1]; p++) {
+                rhs[this.colIndex[p]] -= this.colValue[p] * xj;
+            }
+        }
+        for (int i = 0; i < this.m; i++) {
+            if (this.status[this.n + i] != BASIC) {
+                rhs[i] += this.x[this.n + i];
+            }
+        }
+        this.lu.ftran(rhs, this.alpha);
+        for (int i = 0; i < this.m; i++) {
+            this.x[this.head[i]] = this.alpha[i];
+        }
+    }
+
+    /**
+     * Compute the dot product of the column <code>j</code> with the given vector indexed by row.
+     */
+    private double dot(int j, double[] v) {
+        if (j >= this.n) {
+            return -v[j - this.n];
+        }
+        double s = 0;
+        for (int p = this.colStart[j]; p < this.colStart[j + 1]; p++) {
+            s += this.colValue[p] * v[this.colIndex[p]];
+        }
+        return s;
+    }
+
+    /**
+     * The dual simplex. Require a dual feasible basis.
+     *
+     * @return the solve status
+     */
+    private int dual() {
+        int size = this.n + this.m;
+        int[] candidates = new int[size];
+        double[] candidateAlpha = new double[size];
+        double[] candidateCost = new double[size];
+        while (true) {
+            if (this.iterations >= this.iterationLimit || this.terminated.get()) {
+                return ABORTED;
+            }
+            if (this.lu.etaCount() >= REFACTORIZATION) {
+                refactor();
+                computePrimal();
+            }
+            // Select the leaving variable with the largest infeasibility.
+            int p = -1;
+            double max = PRIMAL_TOLERANCE;
+            for (int i = 0; i < this.m; i++) {
+                int j = this.head[i];
+                double infeasibility = Math.max(this.lower[j] - this.x[j], this.x[j] - this.upper[j]);
+                if (infeasibility > max) {
+                    max = infeasibility;
+                    p = i;
+                }
+            }
+            if (p < 0) {
+                return OPTIMAL;
+            }
+            int leaving = this.head[p];
+            boolean toLower = this.x[leaving] < this.lower[leaving];
+            double bound = toLower ? this.lower[leaving] : this.upper[leaving];
+            double sign = toLower ? -1 : 1;
+
+            // Compute the duals and the pivot row.
+            computeDuals();
+            Arrays.fill(this.cb, 0);
+            this.cb[p] = 1;
+            this.lu.btran(this.cb, this.rho);
+
+            // Ratio test, first pass.
+            int count = 0;
+            double max2 = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < size; j++) {
+                int st = this.status[j];
+                if (st == BASIC || this.lower[j] == this.upper[j]) {
+                    continue;
+                }
+                double a = sign * dot(j, this.rho);
+                double ratio;
+                double d;
+                if (st == AT_LOWER) {
+                    if (a <= PIVOT_TOLERANCE) continue;
+                    d = Math.max(0, this.cost[j] - dot(j, this.y));
+                    ratio = (d + DUAL_TOLERANCE) / a;
+                } else if (st == AT_UPPER) {
+                    if (a >= -PIVOT_TOLERANCE) continue;
+                    d = Math.min(0, this.cost[j] - dot(j, this.y));
+                    ratio = (d - DUAL_TOLERANCE) / a;
+                } else {
+                    if (Math.abs(a) <= PIVOT_TOLERANCE) continue;
+                    d = 0;
+                    ratio = DUAL_TOLERANCE / Math.abs(a);
+                }
+                candidates[count] = j;
+                candidateAlpha[count] = a;
+                candidateCost[count] = d;
+                count++;
+                max2 = Math.min(max2, ratio);
+            }
+            // Second pass, select the largest pivot.
+            int q = -1;
+            double pivot = 0;
+            for (int k = 0; k < count; k++) {
+                double ratio = candidateCost[k] / candidateAlpha[k];
+                if (ratio <= max2 && Math.abs(candidateAlpha[k]) > pivot) {
+                    pivot = Math.abs(candidateAlpha[k]);
+                    q = candidates[k];
+                }
+            }
+            if (q < 0) {
+                return INFEASIBLE;
+            }
+
+            // Compute the entering column.
+            loadColumn(q, this.rowWork);
+            this.lu.ftran(this.rowWork, this.alpha);
+            if (Math.abs(this.alpha[p]) < PIVOT_TOLERANCE) {
+                // The pivot row and pivot column disagree.
+                this.iterations++;
+                refactor();
+                computePrimal();
+                continue;
+            }
+
+            // Update the primal values.
+            double delta = (this.x[leaving] - bound) / this.alpha[p];
+            for (int i = 0; i < this.m; i++) {
+                this.x[this.head[i]] -= this.alpha[i] * delta;
+            }
+            this.x[q] += delta;
+            this.x[leaving] = bound;
+            this.status[leaving] = toLower ? AT_LOWER : AT_UPPER;
+            this.head[p] = q;
+            this.status[q] = BASIC;
+            this.lu.update(p, this.alpha);
+            this.iterations++;
+        }
+    }
+
+    /**
+     * Sets the value of the nonbasic variables according to their status and bounds.
+     */
+    private void initNonbasic() {
+        for (int j = 0; j < this.n + this.m; j++) {
+            if (this.status[j] == BASIC) {
+                continue;
+            }
+            boolean hasLower = this.lower[j] != Double.NEGATIVE_INFINITY;
+            boolean hasUpper = this.upper[j] != Double.POSITIVE_INFINITY;
+            if (hasLower && (!hasUpper || this.status[j] != AT_UPPER)) {
+                this.status[j] = AT_LOWER;
+                this.x[j] = this.lower[j];
+            } else if (hasUpper) {
+                this.status[j] = AT_UPPER;
+                this.x[j] = this.upper[j];
+            } else {
+                this.status[j] = AT_ZERO;
+                this.x[j] = 0;
+            }
+        }
+    }
+
+    /**
+     * Check if the basic variables are within their bounds.
+     */
+    private boolean isPrimalFeasible() {
+        for (int i = 0; i < this.m; i++) {
+            int j = this.head[i];
+            if (this.x[j] < this.lower[j] - PRIMAL_TOLERANCE || this.x[j] > this.upper[j] + PRIMAL_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Load the column <code>j</code> into the given vector indexed by row.
+     */
+    private void loadColumn(int j, double[] v) {
+        Arrays.fill(v, 0);
+        if (j >= this.n) {
+            v[j - this.n] = -1;
+            return;
+        }
+        for (int p = this.colStart[j]; p < this.colStart[j + 1]; p++) {
+            v[this.colIndex[p]] = this.colValue[p];
+        }
+    }
+
+    /**
+     * Try to make the current basis dual feasible by moving the boxed nonbasic variables to their other bound.
+     *
+     * @return True if the basis is dual feasible.
+     */
+    private boolean makeDualFeasible() {
+        computeDuals();
+        boolean flipped = false;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int j = 0; j < this.n + this.m; j++) {
+                int st = this.status[j];
+                if (st == BASIC || this.lower[j] == this.upper[j]) {
+                    continue;
+                }
+                double d = this.cost[j] - dot(j, this.y);
+                boolean boxed = this.lower[j] != Double.NEGATIVE_INFINITY && this.upper[j] != Double.POSITIVE_INFINITY;
+                boolean wrong = (st == AT_LOWER && d < -DUAL_TOLERANCE) || (st == AT_UPPER && d > DUAL_TOLERANCE)
+                        || (st == AT_ZERO && Math.abs(d) > DUAL_TOLERANCE);
+                if (!wrong) {
+                    continue;
+                }
+                if (!boxed) {
+                    return false;
+                }
+                if (pass == 1) {
+                    this.status[j] = st == AT_LOWER ? AT_UPPER : AT_LOWER;
+                    this.x[j] = st == AT_LOWER ? this.upper[j] : this.lower[j];
+                    flipped = true;
+                }
+            }
+        }
+        if (flipped) {
+            computePrimal();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the objective value of the current solution.
+     */
+    double objective() {
+        double value = 0;
+        for (int j = 0; j < this.n; j++) {
+            value += this.cost[j] * this.x[j];
+        }
+        return value;
+    }
+
+    /**
+     * The primal simplex with composite phase 1.
+     *
+     * @return the solve status
+     */
+    private int primal() {
+        int degenerate = 0;
+        while (true) {
+            if (this.iterations >= this.iterationLimit || this.terminated.get()) {
+                return ABORTED;
+            }
+            if (this.lu.etaCount() >= REFACTORIZATION) {
+                refactor();
+                computePrimal();
+            }
+
+            // Compute the phase 1 costs if the basis is not feasible.
+            boolean phase1 = false;
+            for (int i = 0; i < this.m; i++) {
+                int j = this.head[i];
+                if (this.x[j] < this.lower[j] - PRIMAL_TOLERANCE) {
+                    this.cb[i] = -1;
+                    phase1 = true;
+                } else if (this.x[j] > this.upper[j] + PRIMAL_TOLERANCE) {
+                    this.cb[i] = 1;
+                    phase1 = true;
+                } else {
+                    this.cb[i] = 0;
+                }
+            }
+            if (!phase1) {
+                for (int i = 0; i < this.m; i++) {
+                    this.cb[i] = this.cost[this.head[i]];
+                }
+            }
+            this.lu.btran(this.cb, this.y);
+
+            // Pricing
+            boolean bland = degenerate > DEGENERATE_LIMIT;
+            int q = -1;
+            int dir = 0;
+            double best = 0;
+            for (int j = 0; j < this.n + this.m; j++) {
+                int st = this.status[j];
+                if (st == BASIC || this.lower[j] == this.upper[j]) {
+                    continue;
+                }
+                double d = (phase1 ? 0 : this.cost[j]) - dot(j, this.y);
+                int dj = 0;
+                if (st == AT_LOWER) {
+                    if (d < -DUAL_TOLERANCE) dj = 1;
+                } else if (st == AT_UPPER) {
+                    if (d > DUAL_TOLERANCE) dj = -1;
+                } else if (d < -DUAL_TOLERANCE) {
+                    dj = 1;
+                } else if (d > DUAL_TOLERANCE) {
+                    dj = -1;
+                }
+                if (dj == 0) {
+                    continue;
+                }
+                if (bland) {
+                    q = j;
+                    dir = dj;
+                    break;
+                }
+                if (Math.abs(d) > best) {
+                    best = Math.abs(d);
+                    q = j;
+                    dir = dj;
+                }
+            }
+            if (q < 0) {
+                return phase1 ? INFEASIBLE : OPTIMAL;
+            }
+
+            // Compute the entering column.
+            loadColumn(q, this.rowWork);
+            this.lu.ftran(this.rowWork, this.alpha);
+
+            // Harris ratio test, first pass.
+            double flip = this.upper[q] - this.lower[q];
+            double max = flip;
+            for (int i = 0; i < this.m; i++) {
+                double a = this.alpha[i];
+                if (Math.abs(a) < PIVOT_TOLERANCE) {
+                    continue;
+                }
+                double delta = -dir * a;
+                int j = this.head[i];
+                double bound = leavingBound(j, delta, phase1);
+                if (Double.isInfinite(bound) || Double.isNaN(bound)) {
+                    continue;
+                }
+                double ratio = delta < 0 ? (this.x[j] - bound + PRIMAL_TOLERANCE) / -delta : (bound - this.x[j] + PRIMAL_TOLERANCE) / delta;
+                max = Math.min(max, ratio);
+            }
+            // Second pass, select the largest pivot.
+            int p = -1;
+            double pivot = 0;
+            double theta = 0;
+            double leaveBound = 0;
+            for (int i = 0; i < this.m; i++) {
+                double a = this.alpha[i];
+                if (Math.abs(a) < PIVOT_TOLERANCE) {
+                    continue;
+                }
+                double delta = -dir * a;
+                int j = this.head[i];
+                double bound = leavingBound(j, delta, phase1);
+                if (Double.isInfinite(bound) || Double.isNaN(bound)) {
+                    continue;
+                }
+                double ratio = delta < 0 ? (this.x[j] - bound) / -delta : (bound - this.x[j]) / delta;
+                if (ratio <= max && Math.abs(a) > pivot) {
+                    pivot = Math.abs(a);
+                    p = i;
+                    theta = Math.max(0, ratio);
+                    leaveBound = bound;
+                }
+            }
+            if (p < 0 && Double.isInfinite(flip)) {
+                return phase1 ? ABORTED : UNBOUNDED;
+            }
+
+            if (p < 0 || flip <= theta) {
+                // Bound flip of the entering variable.
+                theta = flip;
+                for (int i = 0; i < this.m; i++) {
+                    this.x[this.head[i]] -= dir * theta * this.alpha[i];
+                }
+                this.status[q] = dir > 0 ? AT_UPPER : AT_LOWER;
+                this.x[q] = dir > 0 ? this.upper[q] : this.lower[q];
+            } else {
+                for (int i = 0; i < this.m; i++) {
+                    this.x[this.head[i]] -= dir * theta * this.alpha[i];
+                }
+                this.x[q] += dir * theta;
+                int leaving = this.head[p];
+                this.x[leaving] = leaveBound;
+                this.status[leaving] = leaveBound == this.lower[leaving] ? AT_LOWER : AT_UPPER;
+                this.head[p] = q;
+                this.status[q] = BASIC;
+                this.lu.update(p, this.alpha);
+            }
+            degenerate = theta < 1e-12 ? degenerate + 1 : 0;
+            this.iterations++;
+        }
+    }
+
+    /**
+     * Returns the bound limiting the move of the basic variable <code>j</code>.
+     *
+     * @param j
+     *            the basic variable
+     * @param delta
+     *            the direction of the move
+     * @param phase1
+     *            True if the basis is not feasible
+     * @return the bound or NaN if the variable doesn't limit the move
+     */
+    private double leavingBound(int j, double delta, boolean phase1) {
+        double xj = this.x[j];
+        if (delta < 0) {
+            if (phase1 && xj > this.upper[j] + PRIMAL_TOLERANCE) {
+                return this.upper[j];
+            } else if (xj < this.lower[j] - PRIMAL_TOLERANCE) {
+                return Double.NaN;
+            }
+            return this.lower[j];
+        }
+        if (phase1 && xj < this.lower[j] - PRIMAL_TOLERANCE) {
+            return this.lower[j];
+        } else if (xj > this.upper[j] + PRIMAL_TOLERANCE) {
+            return Double.NaN;
+        }
+        return this.upper[j];
+    }
+
+    /**
+     * Compute a new factorization of the basis. Singular columns are replaced by logical variables.
+     */
+    private void refactor() {
+        while (true) {
+            int size = 0;
+            for (int i = 0; i < this.m; i++) {
+                this.basisStart[i] = size;
+                int j = this.head[i];
+                int count = j < this.n ? this.colStart[j + 1] - this.colStart[j] : 1;
+                if (size + count > this.basisIndex.length) {
+                    int capacity = Math.max(size + count, this.basisIndex.length * 2);
+                    this.basisIndex = Arrays.copyOf(this.basisIndex, capacity);
+                    this.basisValue = Arrays.copyOf(this.basisValue, capacity);
+                }
+                if (j < this.n) {
+                    System.arraycopy(this.colIndex, this.colStart[j], this.basisIndex, size, count);
+                    System.arraycopy(this.colValue, this.colStart[j], this.basisValue, size, count);
+                } else {
+                    this.basisIndex[size] = j - this.n;
+                    this.basisValue[size] = -1;
+                }
+                size += count;
+            }
+            this.basisStart[this.m] = size;
+            int singular = this.lu.factorize(this.basisStart, this.basisIndex, this.basisValue);
+            if (singular == 0) {
+                return;
+            }
+            // Replace the singular columns by logical variables.
+            for (int k = 0; k < singular; k++) {
+                int pos = this.lu.getSingularPosition(k);
+                int row = this.lu.getUnpivotedRow(k);
+                this.status[this.head[pos]] = AT_LOWER;
+                this.head[pos] = this.n + row;
+                this.status[this.n + row] = BASIC;
+            }
+            initNonbasic();
+        }
+    }
+
+    /**
+     * Sets the starting basis from the status of each variable. When the number of basic variables doesn't match the
+     * number of rows, the extra basic variables are made nonbasic and the missing ones are replaced by logical
+     * variables. A singular basis is repaired by {@link #refactor()}.
+     *
+     * @param status
+     *            the status of each variable, logical variables are indexed from <code>n</code>
+     */
+    void setBasis(int[] status) {
+        int count = 0;
+        for (int j = 0; j < this.n + this.m; j++) {
+            if (status[j] == BASIC && count < this.m) {
+                this.head[count++] = j;
+                this.status[j] = BASIC;
+            } else {
+                this.status[j] = status[j] == BASIC ? AT_LOWER : status[j];
+            }
+        }
+        for (int i = 0; i < this.m && count < this.m; i++) {
+            if (this.status[this.n + i] != BASIC) {
+                this.head[count++] = this.n + i;
+                this.status[this.n + i] = BASIC;
+            }
+        }
+    }
+
+    /**
+     * Sets the bounds of a variable. Use infinity for unbounded.
+     *
+     * @param j
+     *            the variable index, logical variables are indexed from <code>n</code>
+     * @param lb
+     *            the lower bound
+     * @param ub
+     *            the upper bound
+     */
+    void setBounds(int j, double lb, double ub) {
+        this.lower[j] = lb;
+        this.upper[j] = ub;
+    }
+
+    /**
+     * Solve the problem starting from the current basis.
+     *
+     * @return one of OPTIMAL, INFEASIBLE, UNBOUNDED or ABORTED
+     */
+    int solve() {
+        for (int j = 0; j < this.n + this.m; j++) {
+            if (this.lower[j] > this.upper[j]) {
+                return INFEASIBLE;
+            }
+        }
+        long limit = this.iterationLimit;
+        if (limit != Long.MAX_VALUE) {
+            this.iterationLimit = this.iterations + limit;
+        }
+        try {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                initNonbasic();
+                refactor();
+                computePrimal();
+                if (!isPrimalFeasible() && makeDualFeasible()) {
+                    int result = dual();
+                    if (result != OPTIMAL) {
+                        return result;
+                    }
+                }
+                int result = primal();
+                if (result == UNBOUNDED || result == ABORTED) {
+                    return result;
+                }
+                // Check the accuracy of the solution with a fresh factorization.
+                refactor();
+                computePrimal();
+                boolean feasible = isPrimalFeasible();
+                if (result == OPTIMAL && feasible) {
+                    return OPTIMAL;
+                } else if (result == INFEASIBLE && !feasible) {
+                    return INFEASIBLE;
+                }
+            }
+            return ABORTED;
+        } finally {
+            this.iterationLimit = limit;
+        }
+    }
+
+}
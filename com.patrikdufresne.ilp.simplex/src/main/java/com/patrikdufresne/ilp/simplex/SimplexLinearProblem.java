@@ -0,0 +1,183 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.patrikdufresne.ilp.MemoryLinearProblem;
+import com.patrikdufresne.ilp.SolveStatistics;
+import com.patrikdufresne.ilp.SparseMatrix;
+import com.patrikdufresne.ilp.Status;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Linear problem of the pure Java simplex solver. The whole model is kept in memory by this object and converted into
+ * a {@link RevisedSimplex} when solved.
+ *
+ * @author Patrik Dufresne
+ *
+ */
+public class SimplexLinearProblem extends MemoryLinearProblem {
+
+    /**
+     * Create a new linear problem. Use {@link SimplexSolver#createLinearProblem()}.
+     */
+    SimplexLinearProblem() {
+        // Nothing to do
+    }
+
+    /**
+     * Create the simplex for the current model. The objective is always minimized by the simplex.
+     *
+     * @return a new simplex
+     */
+    RevisedSimplex createSimplex() {
+        SparseMatrix matrix = getMatrix();
+        int n = matrix.getColumnCount();
+        int m = matrix.getRowCount();
+        int[] starts = matrix.getStarts();
+        int[] columns = matrix.getColumns();
+        double[] coefficients = matrix.getCoefficients();
+        // Count the number of entries per column.
+        int[] colStart = new int[n + 1];
+        for (int k = 0; k < starts[m]; k++) {
+            colStart[columns[k] + 1]++;
+        }
+        for (int j = 0; j < n; j++) {
+            colStart[j + 1] += colStart[j];
+        }
+        // Fill the columns.
+        int[] next = new int[n];
+        System.arraycopy(colStart, 0, next, 0, n);
+        int[] colIndex = new int[colStart[n]];
+        double[] colValue = new double[colStart[n]];
+        for (int i = 0; i < m; i++) {
+            for (int k = starts[i]; k < starts[i + 1]; k++) {
+                int p = next[columns[k]]++;
+                colIndex[p] = i;
+                colValue[p] = coefficients[k];
+            }
+        }
+        RevisedSimplex simplex = new RevisedSimplex(m, n, colStart, colIndex, colValue);
+        double sign = getObjectiveDirection() == MAXIMIZE ? -1 : 1;
+        for (int j = 0; j < n; j++) {
+            simplex.setBounds(j, getColumnLower(j), getColumnUpper(j));
+            simplex.cost[j] = sign * getColumnObjective(j);
+        }
+        for (int i = 0; i < m; i++) {
+            simplex.setBounds(n + i, getRowLower(i), getRowUpper(i));
+        }
+        return simplex;
+    }
+
+    /**
+     * Create the initial solution of the branch and bound.
+     *
+     * @param values
+     *            the value of each variable or null
+     * @param reuse
+     *            true to start from the integer values of the previous solution, if any
+     * @return the value of each column, NaN if not set, or null if no value is set
+     */
+    double[] createStart(Map<Variable, Number> values, boolean reuse) {
+        boolean[] integers = getIntegers();
+        double[] start = new double[integers.length];
+        Arrays.fill(start, Double.NaN);
+        boolean set = false;
+        if (reuse && isFeasible()) {
+            double[] previous = getValues(null);
+            for (int j = 0; j < start.length; j++) {
+                if (integers[j]) {
+                    start[j] = previous[j];
+                    set = true;
+                }
+            }
+        }
+        if (values != null && !values.isEmpty()) {
+            for (int j = 0; j < start.length; j++) {
+                Number value = values.get(getVariable(j));
+                if (value != null) {
+                    start[j] = value.doubleValue();
+                    set = true;
+                }
+            }
+        }
+        return set ? start : null;
+    }
+
+    /**
+     * This implementation makes the integer columns available to {@link SimplexSolver}.
+     */
+    @Override
+    protected boolean[] getIntegers() {
+        return super.getIntegers();
+    }
+
+    /**
+     * Sets the starting basis of the simplex from the status kept by the variables and the constraints. Variables
+     * and constraints without status are nonbasic and basic respectively.
+     *
+     * @param simplex
+     *            the simplex created by {@link #createSimplex()}
+     */
+    void loadBasis(RevisedSimplex simplex) {
+        int n = getVariables().size();
+        int[] status = new int[n + getConstraints().size()];
+        for (int j = 0; j < n; j++) {
+            int basis = getColumnBasis(j);
+            status[j] = basis >= 0 ? basis : RevisedSimplex.AT_LOWER;
+        }
+        for (int i = n; i < status.length; i++) {
+            int basis = getRowBasis(i - n);
+            status[i] = basis >= 0 ? basis : RevisedSimplex.BASIC;
+        }
+        simplex.setBasis(status);
+    }
+
+    /**
+     * Keep the status of each variable and constraint in the basis for the next resolution.
+     *
+     * @param status
+     *            the status of the simplex variables, see {@link RevisedSimplex#status}
+     */
+    void saveBasis(int[] status) {
+        int n = getVariables().size();
+        for (int j = 0; j < n; j++) {
+            setColumnBasis(j, status[j]);
+        }
+        for (int i = 0; i < getConstraints().size(); i++) {
+            setRowBasis(i, status[n + i]);
+        }
+    }
+
+    /**
+     * This implementation makes the solution available to {@link SimplexSolver}.
+     */
+    @Override
+    protected void setSolution(Status status, double[] values) {
+        super.setSolution(status, values);
+    }
+
+    /**
+     * This implementation makes the statistics available to {@link SimplexSolver}.
+     */
+    @Override
+    protected void setStatistics(SolveStatistics statistics) {
+        super.setStatistics(statistics);
+    }
+
+}
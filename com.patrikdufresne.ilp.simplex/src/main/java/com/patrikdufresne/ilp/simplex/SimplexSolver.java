@@ -0,0 +1,189 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import com.patrikdufresne.ilp.ILPException;
+import com.patrikdufresne.ilp.ILPLogger;
+import com.patrikdufresne.ilp.ILPPolicy;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.SolveStatistics;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.Status;
+
+/**
+ * Pure Java solver using a bounded revised simplex and a branch and bound for MIP problems. It doesn't require any
+ * native library.
+ * <p>
+ * Every call to {@link #solve(LinearProblem, SolverOption)} is independent so multiple threads may solve different
+ * problems at the same time.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class SimplexSolver implements Solver {
+
+    /**
+     * Convert the simplex result into {@link Status} object.
+     */
+    private static Status status(int result) {
+        switch (result) {
+        case RevisedSimplex.OPTIMAL:
+            return Status.OPTIMAL;
+        case RevisedSimplex.INFEASIBLE:
+            return Status.INFEASIBLE;
+        case RevisedSimplex.UNBOUNDED:
+            return Status.UNBOUNDED;
+        default:
+            return Status.UNKNOWN;
+        }
+    }
+
+    /**
+     * Default constructor.
+     */
+    public SimplexSolver() {
+        // Nothing to do
+    }
+
+    /**
+     * Create a new simplex linear problem.
+     */
+    @Override
+    public LinearProblem createLinearProblem() {
+        return new SimplexLinearProblem();
+    }
+
+    /**
+     * Create a new simplex solver option.
+     */
+    @Override
+    public SolverOption createSolverOption() {
+        return new SimplexSolverOption();
+    }
+
+    @Override
+    public void dispose() {
+        // Nothing to dispose.
+    }
+
+    /**
+     * Check if debug messages should be logged.
+     */
+    private static boolean isDebug() {
+        int level = ILPPolicy.getLog().getLevel();
+        return level == ILPLogger.DEBUG || level == ILPLogger.TRACE;
+    }
+
+    /**
+     * This implementation solve the linear problem using the simplex. If the problem is identified as MIP, using the
+     * function {@link LinearProblem#isMIP()}, a parallel branch and bound is used.
+     * <p>
+     * The statistics are available from {@link LinearProblem#getStatistics()}. The build time is used to create the
+     * simplex from the problem and the synchronization time to copy the solution back into the problem.
+     */
+    @Override
+    public boolean solve(LinearProblem lp, SolverOption option) {
+        if (!(lp instanceof SimplexLinearProblem)) {
+            throw new IllegalArgumentException("lp should be a SimplexLinearProblem"); //$NON-NLS-1$
+        }
+        if (!(option instanceof SimplexSolverOption)) {
+            throw new IllegalArgumentException("option should be a SimplexSolverOption"); //$NON-NLS-1$
+        }
+        SimplexLinearProblem simplexlp = (SimplexLinearProblem) lp;
+        SimplexSolverOption simplexopt = (SimplexSolverOption) option;
+
+        // Check the problem
+        if (lp.isDisposed()) {
+            throw new ILPException(ILPException.ERROR_RESOURCE_DISPOSED);
+        }
+
+        SolveStatistics stats = new SolveStatistics();
+        long begin = System.nanoTime();
+
+        // Create the initial solution before the previous one is cleared.
+        double[] start = null;
+        if (simplexlp.isMIP()) {
+            start = simplexlp.createStart(simplexopt.mipStart, simplexopt.reuseSolution);
+        }
+
+        // Make the problem as clear if a solution was found
+        simplexlp.setSolution(Status.UNKNOWN, null);
+
+        RevisedSimplex simplex = simplexlp.createSimplex();
+        simplex.terminated = simplexopt.terminated;
+        if (simplexopt.warmStart) {
+            simplexlp.loadBasis(simplex);
+        }
+        stats.setBuildTime(System.nanoTime() - begin);
+        Status status;
+        double[] values = null;
+        if (simplexlp.isMIP()) {
+            BranchAndBound bb = new BranchAndBound(simplex, simplexlp.getIntegers(), simplexopt.branching, simplexopt.getThreads());
+            bb.fpump = simplexopt.fpump;
+            bb.start = start;
+            bb.nodeLimit = simplexopt.nodeLimit;
+            bb.solutionLimit = simplexopt.solutionLimit;
+            bb.timeLimit = simplexopt.timeLimit;
+            status = bb.solve();
+            values = bb.getSolution();
+            stats.setIterations(bb.iterations.get());
+            stats.setNodes(bb.nodes.get());
+            stats.setIncumbents(bb.solutions);
+            if (bb.solutions > 0) {
+                stats.setTimeToFirstIncumbent(bb.firstSolution - begin);
+            }
+            double bound = bb.bound();
+            if (!Double.isInfinite(bound)) {
+                // The branch and bound is minimizing.
+                stats.setBestBound(simplexlp.getObjectiveDirection() == LinearProblem.MAXIMIZE ? -bound : bound);
+            }
+            if (simplexopt.warmStart && bb.rootBasis != null) {
+                simplexlp.saveBasis(bb.rootBasis);
+            }
+            if (isDebug()) {
+                ILPPolicy.log(ILPLogger.DEBUG, "branch and bound: " + status + ", " + bb.nodes + " nodes"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+        } else {
+            status = status(simplex.solve());
+            stats.setIterations(simplex.iterations);
+            if (status.equals(Status.OPTIMAL)) {
+                values = new double[simplex.n];
+                System.arraycopy(simplex.x, 0, values, 0, simplex.n);
+                if (simplexopt.warmStart) {
+                    simplexlp.saveBasis(simplex.status);
+                }
+            }
+            if (isDebug()) {
+                ILPPolicy.log(ILPLogger.DEBUG, "simplex: " + status + ", " + simplex.iterations + " iterations"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+        }
+        long sync = System.nanoTime();
+        simplexlp.setSolution(status, values);
+        stats.setSyncTime(System.nanoTime() - sync);
+        if (values != null) {
+            stats.setObjectiveValue(simplexlp.getObjectiveValue().doubleValue());
+            if (!simplexlp.isMIP()) {
+                stats.setBestBound(stats.getObjectiveValue());
+            }
+        }
+        stats.setSolveTime(System.nanoTime() - begin);
+        simplexlp.setStatistics(stats);
+
+        return status.equals(Status.FEASIBLE) || status.equals(Status.OPTIMAL);
+    }
+
+}
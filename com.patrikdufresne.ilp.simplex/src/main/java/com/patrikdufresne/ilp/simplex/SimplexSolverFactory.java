@@ -0,0 +1,55 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverFactory;
+
+/**
+ * This implementation create instance of the pure Java simplex solver.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class SimplexSolverFactory implements SolverFactory {
+
+    private static SimplexSolverFactory instance;
+
+    /**
+     * Private constructor for singleton.
+     */
+    private SimplexSolverFactory() {
+        // Nothing to do.
+    }
+
+    /**
+     * Return the unique instance of this class.
+     * 
+     * @return
+     */
+    public static synchronized SimplexSolverFactory instance() {
+        if (instance == null) {
+            instance = new SimplexSolverFactory();
+        }
+        return instance;
+    }
+
+    @Override
+    public Solver createSolver() {
+        return new SimplexSolver();
+    }
+
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.patrikdufresne.ilp.IBranchingTechniqueLast;
+import com.patrikdufresne.ilp.IBranchingTechniqueLastAlwaysDown;
+import com.patrikdufresne.ilp.IFeasibilityPumpHeuristic;
+import com.patrikdufresne.ilp.IMIPStart;
+import com.patrikdufresne.ilp.INodeLimit;
+import com.patrikdufresne.ilp.ISolutionLimit;
+import com.patrikdufresne.ilp.ITerminable;
+import com.patrikdufresne.ilp.IThreads;
+import com.patrikdufresne.ilp.ITimeLimit;
+import com.patrikdufresne.ilp.IWarmStart;
+import com.patrikdufresne.ilp.SolverOption;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * This implementation of {@link SolverOption} may be used with the simplex solver.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class SimplexSolverOption implements IFeasibilityPumpHeuristic, IBranchingTechniqueLast, IBranchingTechniqueLastAlwaysDown, ITerminable,
+        IThreads, ITimeLimit, INodeLimit, ISolutionLimit, IWarmStart, IMIPStart {
+
+    /**
+     * The branching technique, one of the BranchAndBound.BRANCH_* constant.
+     */
+    int branching = BranchAndBound.BRANCH_MOST_FRACTIONAL;
+
+    /**
+     * True to enabled Feasibility pump heuristic.
+     */
+    boolean fpump;
+
+    /**
+     * The initial solution or null if not set.
+     */
+    Map<Variable, Number> mipStart;
+
+    /**
+     * Maximum number of nodes, zero if unlimited.
+     */
+    long nodeLimit;
+
+    /**
+     * True to use the previous solution as initial solution.
+     */
+    boolean reuseSolution;
+
+    /**
+     * Maximum number of improving solutions, zero if unlimited.
+     */
+    long solutionLimit;
+
+    /**
+     * Flag shared with the simplex to abort the resolution.
+     */
+    final AtomicBoolean terminated = new AtomicBoolean();
+
+    /**
+     * Number of threads used by the branch and bound, zero to use the default, see {@link #getThreads()}.
+     */
+    int threads;
+
+    /**
+     * Time limit in milliseconds, zero if unlimited.
+     */
+    long timeLimit;
+
+    /**
+     * True to start from the basis of the previous resolution.
+     */
+    boolean warmStart;
+
+    /**
+     * Create a new option with default values. Use {@link SimplexSolver#createSolverOption()}.
+     */
+    SimplexSolverOption() {
+        // Nothing to do
+    }
+
+    @Override
+    public boolean getBranchingLast() {
+        return this.branching == BranchAndBound.BRANCH_LAST;
+    }
+
+    @Override
+    public boolean getBranchingLastAlwaysDown() {
+        return this.branching == BranchAndBound.BRANCH_LAST_DOWN;
+    }
+
+    @Override
+    public boolean getFeasibilityPumpHeuristic() {
+        return this.fpump;
+    }
+
+    @Override
+    public Map<Variable, Number> getMIPStart() {
+        return this.mipStart;
+    }
+
+    @Override
+    public long getNodeLimit() {
+        return this.nodeLimit;
+    }
+
+    @Override
+    public boolean getReuseSolution() {
+        return this.reuseSolution;
+    }
+
+    @Override
+    public long getSolutionLimit() {
+        return this.solutionLimit;
+    }
+
+    /**
+     * Returns the number of threads used by the branch and bound. Unless set, the number of available processors or one
+     * if the current thread is a thread of a pool, since a pool usually runs many resolutions concurrently.
+     * 
+     * @return the number of threads
+     */
+    @Override
+    public int getThreads() {
+        if (this.threads > 0) {
+            return this.threads;
+        }
+        return BranchAndBound.isPoolThread() ? 1 : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public long getTimeLimit() {
+        return this.timeLimit;
+    }
+
+    @Override
+    public boolean getWarmStart() {
+        return this.warmStart;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.terminated.get();
+    }
+
+    @Override
+    public void reset() {
+        this.terminated.set(false);
+    }
+
+    @Override
+    public void setBranchingLast(boolean enabled) {
+        this.branching = enabled ? BranchAndBound.BRANCH_LAST : BranchAndBound.BRANCH_MOST_FRACTIONAL;
+    }
+
+    @Override
+    public void setBranchingLastAlwaysDown(boolean enabled) {
+        this.branching = enabled ? BranchAndBound.BRANCH_LAST_DOWN : BranchAndBound.BRANCH_MOST_FRACTIONAL;
+    }
+
+    /**
+     * This implementation run the feasibility pump on the root node before the branch and bound.
+     */
+    @Override
+    public void setFeasibilityPumpHeuristic(boolean enabled) {
+        this.fpump = enabled;
+    }
+
+    /**
+     * This implementation offers the initial solution to the branch and bound once the root relaxation is solved.
+     */
+    @Override
+    public void setMIPStart(Map<? extends Variable, ? extends Number> values) {
+        this.mipStart = values != null ? Collections.unmodifiableMap(new HashMap<Variable, Number>(values)) : null;
+    }
+
+    @Override
+    public void setNodeLimit(long nodes) {
+        if (nodes < 0) {
+            throw new IllegalArgumentException("nodes < 0"); //$NON-NLS-1$
+        }
+        this.nodeLimit = nodes;
+    }
+
+    @Override
+    public void setReuseSolution(boolean enabled) {
+        this.reuseSolution = enabled;
+    }
+
+    @Override
+    public void setSolutionLimit(long solutions) {
+        if (solutions < 0) {
+            throw new IllegalArgumentException("solutions < 0"); //$NON-NLS-1$
+        }
+        this.solutionLimit = solutions;
+    }
+
+    /**
+     * Sets the number of threads used by the branch and bound. Default to the number of available processors, or one
+     * when solved by a thread of a pool.
+     * 
+     * @param threads
+     *            the number of threads, at least one
+     */
+    @Override
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads < 1"); //$NON-NLS-1$
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * This implementation checks the time limit between the nodes of the branch and bound. The resolution of a LP
+     * problem is not limited.
+     */
+    @Override
+    public void setTimeLimit(long milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("milliseconds < 0"); //$NON-NLS-1$
+        }
+        this.timeLimit = milliseconds;
+    }
+
+    /**
+     * This implementation keeps the status of each variable and constraint in the basis. Variables and constraints
+     * added since the previous resolution start as nonbasic and basic respectively.
+     */
+    @Override
+    public void setWarmStart(boolean enabled) {
+        this.warmStart = enabled;
+    }
+
+    /**
+     * This implementation stops the simplex iterations and the branch and bound workers.
+     */
+    @Override
+    public void terminate() {
+        this.terminated.set(true);
+    }
+
+}
@@ -0,0 +1,495 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import java.util.Arrays;
+
+/**
+ * Sparse LU factorization of the simplex basis matrix.
+ * <p>
+ * The factorization is computed column by column using a left-looking algorithm (Gilbert-Peierls) with partial
+ * pivoting. The columns are processed by increasing number of non-zeros to limit the fill-in. Between two
+ * factorizations, basis changes are handled with the product form of the inverse: one eta vector is appended to the
+ * eta file for every pivot.
+ * <p>
+ * Rows are always referenced using their original index while columns are referenced by their position in the basis.
+ *
+ * @author Patrik Dufresne
+ *
+ */
+final class SparseLU {
+
+    /**
+     * Relative tolerance used to reject a pivot.
+     */
+    private static final double PIVOT_TOLERANCE = 1e-10;
+
+    /**
+     * Number of eta vectors.
+     */
+    private int etaCount;
+
+    /**
+     * Pivot value of each eta vector.
+     */
+    private double[] etaPivot;
+
+    /**
+     * Basis position of each eta vector.
+     */
+    private int[] etaPos;
+
+    /**
+     * Eta vectors entries.
+     */
+    private int[] etaIndex;
+    private int[] etaStart;
+    private double[] etaValue;
+
+    /**
+     * L factor stored by column (one column per step). The unit diagonal is not stored. Row indexes are the original
+     * row indexes.
+     */
+    private int[] lIndex;
+    private int[] lStart;
+    private double[] lValue;
+
+    /**
+     * The dimension of the basis.
+     */
+    private final int m;
+
+    /**
+     * Mark used by the depth first search.
+     */
+    private final int[] mark;
+
+    /**
+     * Row to step permutation or -1 if the row is not pivoted.
+     */
+    private final int[] pinv;
+
+    /**
+     * Step to row permutation.
+     */
+    private final int[] prow;
+
+    /**
+     * Step to basis position.
+     */
+    private final int[] qpos;
+
+    /**
+     * Number of pivots found by the last factorization.
+     */
+    private int rank;
+
+    /**
+     * Work arrays used by the depth first search.
+     */
+    private final int[] reach;
+    private final int[] stack;
+    private final int[] pstack;
+
+    /**
+     * Basis positions found to be singular by the last factorization.
+     */
+    private final int[] singular;
+
+    /**
+     * Stamp value for {@link #mark}.
+     */
+    private int stamp;
+
+    /**
+     * U factor stored by column (one column per step). Row indexes are step indexes. The diagonal is stored separately.
+     */
+    private double[] uDiag;
+    private int[] uIndex;
+    private int[] uStart;
+    private double[] uValue;
+
+    /**
+     * Dense work vector.
+     */
+    private final double[] work;
+
+    /**
+     * Create a new factorization for a basis of dimension <code>m</code>.
+     *
+     * @param m
+     *            the number of rows
+     */
+    SparseLU(int m) {
+        this.m = m;
+        this.pinv = new int[m];
+        this.prow = new int[m];
+        this.qpos = new int[m];
+        this.mark = new int[m];
+        this.reach = new int[m];
+        this.stack = new int[m];
+        this.pstack = new int[m];
+        this.singular = new int[m];
+        this.work = new double[m];
+        this.lStart = new int[m + 1];
+        this.uStart = new int[m + 1];
+        this.uDiag = new double[m];
+        int capacity = Math.max(16, 4 * m);
+        this.lIndex = new int[capacity];
+        this.lValue = new double[capacity];
+        this.uIndex = new int[capacity];
+        this.uValue = new double[capacity];
+        this.etaStart = new int[17];
+        this.etaPos = new int[16];
+        this.etaPivot = new double[16];
+        this.etaIndex = new int[capacity];
+        this.etaValue = new double[capacity];
+    }
+
+    /**
+     * Solve <code>B<sup>T</sup> y = c</code>.
+     *
+     * @param rhs
+     *            the right hand side indexed by basis position, overwritten
+     * @param result
+     *            the solution indexed by row
+     */
+    void btran(double[] rhs, double[] result) {
+        // Apply the eta file in reverse order.
+        for (int e = this.etaCount - 1; e >= 0; e--) {
+            int p = this.etaPos[e];
+            double s = rhs[p];
+            for (int k = this.etaStart[e]; k < this.etaStart[e + 1]; k++) {
+                s -= this.etaValue[k] * rhs[this.etaIndex[k]];
+            }
+            rhs[p] = s / this.etaPivot[e];
+        }
+        // Solve U^T v = c
+        double[] w = this.work;
+        for (int k = 0; k < this.m; k++) {
+            double s = rhs[this.qpos[k]];
+            for (int p = this.uStart[k]; p < this.uStart[k + 1]; p++) {
+                s -= this.uValue[p] * w[this.uIndex[p]];
+            }
+            w[k] = s / this.uDiag[k];
+        }
+        // Solve L^T y = v
+        for (int k = 0; k < this.m; k++) {
+            result[this.prow[k]] = w[k];
+        }
+        for (int k = this.m - 1; k >= 0; k--) {
+            int r = this.prow[k];
+            double s = result[r];
+            for (int p = this.lStart[k]; p < this.lStart[k + 1]; p++) {
+                s -= this.lValue[p] * result[this.lIndex[p]];
+            }
+            result[r] = s;
+        }
+    }
+
+    /**
+     * Depth first search used to compute the non-zero pattern of the solution of a triangular system.
+     *
+     * @param j
+     *            the starting row
+     * @param top
+     *            the current top of the reach array
+     * @return the new top of the reach array
+     */
+    private int dfs(int j, int top) {
+        int head = 0;
+        this.stack[0] = j;
+        while (head >= 0) {
+            j = this.stack[head];
+            int jstep = this.pinv[j];
+            if (this.mark[j] != this.stamp) {
+                this.mark[j] = this.stamp;
+                this.pstack[head] = jstep < 0 ? 0 : this.lStart[jstep];
+            }
+            boolean done = true;
+            int end = jstep < 0 ? 0 : this.lStart[jstep + 1];
+            for (int p = this.pstack[head]; p < end; p++) {
+                int i = this.lIndex[p];
+                if (this.mark[i] == this.stamp) {
+                    continue;
+                }
+                this.pstack[head] = p + 1;
+                this.stack[++head] = i;
+                done = false;
+                break;
+            }
+            if (done) {
+                head--;
+                this.reach[--top] = j;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Returns the number of eta vectors appended since the last factorization.
+     */
+    int etaCount() {
+        return this.etaCount;
+    }
+
+    /**
+     * Compute the factorization of the basis matrix given in compressed column form where the columns are ordered by
+     * basis position. The eta file is cleared.
+     *
+     * @param start
+     *            the index of the first entry of each column, of size <code>m + 1</code>
+     * @param index
+     *            the row index of each entry
+     * @param value
+     *            the value of each entry
+     * @return the number of singular columns. When not zero, {@link #getSingularPosition(int)} and
+     *         {@link #getUnpivotedRow(int)} may be used to repair the basis.
+     */
+    int factorize(int[] start, int[] index, double[] value) {
+        this.etaCount = 0;
+        this.etaStart[0] = 0;
+        this.rank = 0;
+        Arrays.fill(this.pinv, -1);
+        this.lStart[0] = 0;
+        this.uStart[0] = 0;
+        int lSize = 0;
+        int uSize = 0;
+        int singularCount = 0;
+
+        // Order the columns by number of non-zeros using a bucket sort.
+        int[] order = orderByCount(start);
+
+        for (int c = 0; c < this.m; c++) {
+            int pos = order[c];
+            // Compute the non-zero pattern of the solution.
+            this.stamp++;
+            int top = this.m;
+            for (int p = start[pos]; p < start[pos + 1]; p++) {
+                if (this.mark[index[p]] != this.stamp) {
+                    top = dfs(index[p], top);
+                }
+            }
+            // Scatter the column.
+            double[] x = this.work;
+            for (int px = top; px < this.m; px++) {
+                x[this.reach[px]] = 0;
+            }
+            double colMax = 0;
+            for (int p = start[pos]; p < start[pos + 1]; p++) {
+                x[index[p]] = value[p];
+                colMax = Math.max(colMax, Math.abs(value[p]));
+            }
+            // Sparse triangular solve with L.
+            for (int px = top; px < this.m; px++) {
+                int j = this.reach[px];
+                int jstep = this.pinv[j];
+                double xj = x[j];
+                if (jstep < 0 || xj == 0) {
+                    continue;
+                }
+                for (int p = this.lStart[jstep]; p < this.lStart[jstep + 1]; p++) {
+                    x[this.lIndex[p]] -= this.lValue[p] * xj;
+                }
+            }
+            // Find the pivot among the rows not yet pivoted.
+            int ipiv = -1;
+            double amax = 0;
+            for (int px = top; px < this.m; px++) {
+                int i = this.reach[px];
+                if (this.pinv[i] < 0 && Math.abs(x[i]) > amax) {
+                    amax = Math.abs(x[i]);
+                    ipiv = i;
+                }
+            }
+            if (ipiv < 0 || amax <= PIVOT_TOLERANCE * Math.max(1, colMax)) {
+                this.singular[singularCount++] = pos;
+                continue;
+            }
+            int size = this.m - top;
+            // Store the U column.
+            if (uSize + size > this.uIndex.length) {
+                int capacity = Math.max(uSize + size, this.uIndex.length * 2);
+                this.uIndex = Arrays.copyOf(this.uIndex, capacity);
+                this.uValue = Arrays.copyOf(this.uValue, capacity);
+            }
+            for (int px = top; px < this.m; px++) {
+                int i = this.reach[px];
+                if (this.pinv[i] >= 0 && x[i] != 0) {
+                    this.uIndex[uSize] = this.pinv[i];
+                    this.uValue[uSize++] = x[i];
+                }
+            }
+            double pivot = x[ipiv];
+            this.uDiag[this.rank] = pivot;
+            // Store the L column.
+            if (lSize + size > this.lIndex.length) {
+                int capacity = Math.max(lSize + size, this.lIndex.length * 2);
+                this.lIndex = Arrays.copyOf(this.lIndex, capacity);
+                this.lValue = Arrays.copyOf(this.lValue, capacity);
+            }
+            for (int px = top; px < this.m; px++) {
+                int i = this.reach[px];
+                if (this.pinv[i] < 0 && i != ipiv && x[i] != 0) {
+                    this.lIndex[lSize] = i;
+                    this.lValue[lSize++] = x[i] / pivot;
+                }
+            }
+            this.pinv[ipiv] = this.rank;
+            this.prow[this.rank] = ipiv;
+            this.qpos[this.rank] = pos;
+            this.rank++;
+            this.lStart[this.rank] = lSize;
+            this.uStart[this.rank] = uSize;
+        }
+        if (singularCount > 0) {
+            // Keep the unpivoted rows after the pivoted one.
+            int k = this.rank;
+            for (int i = 0; i < this.m; i++) {
+                if (this.pinv[i] < 0) {
+                    this.prow[k++] = i;
+                }
+            }
+        }
+        return singularCount;
+    }
+
+    /**
+     * Solve <code>B y = a</code>.
+     *
+     * @param rhs
+     *            the right hand side indexed by row, overwritten
+     * @param result
+     *            the solution indexed by basis position
+     */
+    void ftran(double[] rhs, double[] result) {
+        // Solve L z = a
+        for (int k = 0; k < this.m; k++) {
+            double xr = rhs[this.prow[k]];
+            if (xr == 0) {
+                continue;
+            }
+            for (int p = this.lStart[k]; p < this.lStart[k + 1]; p++) {
+                rhs[this.lIndex[p]] -= this.lValue[p] * xr;
+            }
+        }
+        // Solve U w = z
+        double[] w = this.work;
+        for (int k = 0; k < this.m; k++) {
+            w[k] = rhs[this.prow[k]];
+        }
+        for (int k = this.m - 1; k >= 0; k--) {
+            double wk = w[k];
+            if (wk == 0) {
+                continue;
+            }
+            wk /= this.uDiag[k];
+            w[k] = wk;
+            for (int p = this.uStart[k]; p < this.uStart[k + 1]; p++) {
+                w[this.uIndex[p]] -= this.uValue[p] * wk;
+            }
+        }
+        for (int k = 0; k < this.m; k++) {
+            result[this.qpos[k]] = w[k];
+        }
+        // Apply the eta file.
+        for (int e = 0; e < this.etaCount; e++) {
+            int p = this.etaPos[e];
+            double yp = result[p];
+            if (yp == 0) {
+                continue;
+            }
+            yp /= this.etaPivot[e];
+            result[p] = yp;
+            for (int k = this.etaStart[e]; k < this.etaStart[e + 1]; k++) {
+                result[this.etaIndex[k]] -= this.etaValue[k] * yp;
+            }
+        }
+    }
+
+    /**
+     * Returns the basis position of a singular column found by the last factorization.
+     *
+     * @param k
+     *            the singular column index, less then the value returned by {@link #factorize(int[], int[], double[])}
+     */
+    int getSingularPosition(int k) {
+        return this.singular[k];
+    }
+
+    /**
+     * Returns a row not pivoted by the last factorization.
+     *
+     * @param k
+     *            the index, less then the value returned by {@link #factorize(int[], int[], double[])}
+     */
+    int getUnpivotedRow(int k) {
+        return this.prow[this.rank + k];
+    }
+
+    /**
+     * Order the columns by number of non-zeros.
+     */
+    private int[] orderByCount(int[] start) {
+        int[] count = new int[this.m + 2];
+        for (int pos = 0; pos < this.m; pos++) {
+            count[Math.min(start[pos + 1] - start[pos], this.m) + 1]++;
+        }
+        for (int i = 1; i < count.length; i++) {
+            count[i] += count[i - 1];
+        }
+        int[] order = new int[this.m];
+        for (int pos = 0; pos < this.m; pos++) {
+            order[count[Math.min(start[pos + 1] - start[pos], this.m)]++] = pos;
+        }
+        return order;
+    }
+
+    /**
+     * Update the factorization after a basis change. The column at position <code>p</code> is replaced by the column
+     * <code>a</code> where <code>alpha = B<sup>-1</sup> a</code>.
+     *
+     * @param p
+     *            the basis position
+     * @param alpha
+     *            the entering column as returned by {@link #ftran(double[], double[])}
+     */
+    void update(int p, double[] alpha) {
+        int e = this.etaCount;
+        if (e == this.etaPos.length) {
+            this.etaPos = Arrays.copyOf(this.etaPos, e * 2);
+            this.etaPivot = Arrays.copyOf(this.etaPivot, e * 2);
+            this.etaStart = Arrays.copyOf(this.etaStart, e * 2 + 1);
+        }
+        int size = this.etaStart[e];
+        if (size + this.m > this.etaIndex.length) {
+            int capacity = Math.max(size + this.m, this.etaIndex.length * 2);
+            this.etaIndex = Arrays.copyOf(this.etaIndex, capacity);
+            this.etaValue = Arrays.copyOf(this.etaValue, capacity);
+        }
+        for (int i = 0; i < this.m; i++) {
+            if (i != p && alpha[i] != 0) {
+                this.etaIndex[size] = i;
+                this.etaValue[size++] = alpha[i];
+            }
+        }
+        this.etaPos[e] = p;
+        this.etaPivot[e] = alpha[p];
+        this.etaStart[e + 1] = size;
+        this.etaCount++;
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.simplex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Solver;
+import com.patrikdufresne.ilp.SolverFactory;
+import com.patrikdufresne.ilp.SolverTest;
+import com.patrikdufresne.ilp.Status;
+import com.patrikdufresne.ilp.Variable;
+
+public class SimplexSolverTest extends SolverTest {
+
+    /**
+     * Solve a random multi-dimensional knapsack problem.
+     * 
+     * @return the optimal objective value
+     */
+    private static double solveKnapsack(Solver solver, long seed, int threads) {
+        Random random = new Random(seed);
+        LinearProblem lp = solver.createLinearProblem();
+        try {
+            Variable[] vars = new Variable[30];
+            int[] profits = new int[vars.length];
+            for (int j = 0; j < vars.length; j++) {
+                vars[j] = lp.addBinaryVariable("x" + j);
+                profits[j] = 10 + random.nextInt(90);
+            }
+            lp.setObjectiveLinear(lp.createLinear(profits, vars));
+            lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+            for (int i = 0; i < 3; i++) {
+                int[] weights = new int[vars.length];
+                int sum = 0;
+                for (int j = 0; j < vars.length; j++) {
+                    weights[j] = 1 + random.nextInt(100);
+                    sum += weights[j];
+                }
+                lp.addConstraint("c" + i, weights, vars, null, Integer.valueOf(sum / 2));
+            }
+            SimplexSolverOption option = (SimplexSolverOption) solver.createSolverOption();
+            option.setThreads(threads);
+            assertTrue(solver.solve(lp, option));
+            assertEquals(Status.OPTIMAL, lp.getStatus());
+            assertTrue(lp.getStatistics().getNodes() > 1);
+            return lp.getObjectiveValue().doubleValue();
+        } finally {
+            lp.dispose();
+        }
+    }
+
+    @Override
+    protected SolverFactory doGetSolverFactory() {
+        return SimplexSolverFactory.instance();
+    }
+
+    /**
+     * Check if the branch and bound find the same optimum whatever the number of threads exploring the nodes.
+     */
+    @Test
+    public void testSolve_WithThreads_ExpectSameOptimum() {
+        Solver solver = doGetSolverFactory().createSolver();
+        try {
+            for (long seed = 0; seed < 3; seed++) {
+                double expected = solveKnapsack(solver, seed, 1);
+                assertEquals(expected, solveKnapsack(solver, seed, 4), 0.0001);
+            }
+        } finally {
+            solver.dispose();
+        }
+    }
+
+}
@@ -16,8 +16,11 @@
 package com.patrikdufresne.ilp;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Partial implementation of the {@link LinearProblem} interface.
@@ -27,6 +30,74 @@ import java.util.List;
  */
 public abstract class AbstractLinearProblem implements LinearProblem {
 
+    /**
+     * Validate the arrays given to {@link #addConstraints(String[], int[], int[], double[], double[], double[])}.
+     * 
+     * @param names
+     *            the constraints names or null
+     * @param starts
+     *            the index of the first term of each row
+     * @param columns
+     *            the column index of each term
+     * @param coefficients
+     *            the coefficient of each term
+     * @param lowerBounds
+     *            the lower bounds or null
+     * @param upperBounds
+     *            the upper bounds or null
+     * @param columnCount
+     *            the number of columns in the problem
+     * @return the number of constraints
+     */
+    public static int checkConstraints(String[] names, int[] starts, int[] columns, double[] coefficients, double[] lowerBounds, double[] upperBounds,
+            int columnCount) {
+        if (starts == null || columns == null || coefficients == null) {
+            throw new NullPointerException();
+        }
+        if (starts.length == 0) {
+            throw new IllegalArgumentException("starts is empty"); //$NON-NLS-1$
+        }
+        int count = starts.length - 1;
+        if (columns.length != coefficients.length) {
+            throw new IllegalArgumentException("columns size != coefficients size"); //$NON-NLS-1$
+        }
+        if ((names != null && names.length != count) || (lowerBounds != null && lowerBounds.length != count)
+                || (upperBounds != null && upperBounds.length != count)) {
+            throw new IllegalArgumentException("names, lowerBounds or upperBounds size != starts size - 1"); //$NON-NLS-1$
+        }
+        if (starts[0] < 0 || starts[count] > columns.length) {
+            throw new IllegalArgumentException("starts out of range"); //$NON-NLS-1$
+        }
+        // Sort a copy of each row to detect duplicate columns, the work doesn't depend on the number of columns.
+        int[] sorted = new int[0];
+        for (int i = 0; i < count; i++) {
+            if (starts[i] > starts[i + 1]) {
+                throw new IllegalArgumentException("starts is not in ascending order"); //$NON-NLS-1$
+            }
+            int length = starts[i + 1] - starts[i];
+            for (int k = starts[i]; k < starts[i + 1]; k++) {
+                int col = columns[k];
+                if (col < 0 || col >= columnCount) {
+                    throw new IllegalArgumentException("column index out of range: " + col); //$NON-NLS-1$
+                }
+            }
+            if (length < 2) {
+                continue;
+            }
+            if (sorted.length < length) {
+                sorted = new int[Math.max(length, sorted.length * 2)];
+            }
+            System.arraycopy(columns, starts[i], sorted, 0, length);
+            Arrays.sort(sorted, 0, length);
+            for (int k = 1; k < length; k++) {
+                if (sorted[k] == sorted[k - 1]) {
+                    throw new IllegalArgumentException("duplicate column index in row " + i + ": " + sorted[k]); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * Check if the linear reference disposed variables.
      * 
@@ -37,11 +108,62 @@ public abstract class AbstractLinearProblem implements LinearProblem {
         if (linear == null || linear.isEmpty()) {
             return;
         }
+        if (linear instanceof ArrayLinear) {
+            ArrayLinear array = (ArrayLinear) linear;
+            for (int i = 0; i < array.size(); i++) {
+                checkVariable(array.getVariable(i));
+            }
+            return;
+        }
         for (Term term : linear) {
             checkVariable(term.getVariable());
         }
     }
 
+    /**
+     * Validate the arrays given to {@link #addVariables(String[], VarType[], double[], double[])}.
+     * 
+     * @param names
+     *            the variables names or null
+     * @param types
+     *            the variables types
+     * @param lowerBounds
+     *            the lower bounds or null
+     * @param upperBounds
+     *            the upper bounds or null
+     * @return the number of variables
+     */
+    public static int checkVariables(String[] names, VarType[] types, double[] lowerBounds, double[] upperBounds) {
+        if (types == null) {
+            throw new NullPointerException();
+        }
+        int count = types.length;
+        if ((names != null && names.length != count) || (lowerBounds != null && lowerBounds.length != count)
+                || (upperBounds != null && upperBounds.length != count)) {
+            throw new IllegalArgumentException("names, lowerBounds or upperBounds size != types size"); //$NON-NLS-1$
+        }
+        for (int i = 0; i < count; i++) {
+            if (types[i] == null) {
+                throw new NullPointerException();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Convert a bound value given as a primitive into the object representation.
+     * 
+     * @param value
+     *            the bound value, infinity for unbounded
+     * @return the bound or null if unbounded
+     */
+    public static Double toBound(double value) {
+        if (Double.isInfinite(value)) {
+            return null;
+        }
+        return Double.valueOf(value);
+    }
+
     /**
      * Throw an exception if the variable is disposed.
      * 
@@ -99,6 +221,27 @@ public abstract class AbstractLinearProblem implements LinearProblem {
         return constraint;
     }
 
+    /**
+     * This implementation create a {@link Linear} for each row and then calls
+     * {@link #addConstraint(String, Linear, Number, Number)}. Sub classes should provide a better implementation.
+     */
+    @Override
+    public int addConstraints(String[] names, int[] starts, int[] columns, double[] coefficients, double[] lowerBounds, double[] upperBounds) {
+        Collection<? extends Variable> list = getVariables();
+        Variable[] variables = list.toArray(new Variable[list.size()]);
+        int count = checkConstraints(names, starts, columns, coefficients, lowerBounds, upperBounds, variables.length);
+        int first = getConstraints().size();
+        for (int i = 0; i < count; i++) {
+            ArrayLinear linear = new ArrayLinear(starts[i + 1] - starts[i]);
+            for (int k = starts[i]; k < starts[i + 1]; k++) {
+                linear.add(coefficients[k], variables[columns[k]]);
+            }
+            addConstraint(names != null ? names[i] : null, linear, lowerBounds != null ? toBound(lowerBounds[i]) : null, upperBounds != null ? toBound(upperBounds[i])
+                    : null);
+        }
+        return first;
+    }
+
     @Override
     public Variable addIntegerVariable(String name, Number lowerBound, Number upperBound) {
         Variable var = addVariable(name, VarType.INTEGER);
@@ -108,83 +251,129 @@ public abstract class AbstractLinearProblem implements LinearProblem {
     }
 
     /**
-     * This implementation return a {@link ConcreteLinear} object since GLPK doesn't support dynamic array.
+     * This implementation calls {@link #addVariable(String, VarType)} for each variable and then sets the bounds using
+     * the variable setters. Sub classes should provide a better implementation.
+     */
+    @Override
+    public int addVariables(String[] names, VarType[] types, double[] lowerBounds, double[] upperBounds) {
+        int count = checkVariables(names, types, lowerBounds, upperBounds);
+        int first = getVariables().size();
+        for (int i = 0; i < count; i++) {
+            Variable var = addVariable(names != null ? names[i] : null, types[i]);
+            if (lowerBounds != null) {
+                var.setLowerBound(toBound(lowerBounds[i]));
+            }
+            if (upperBounds != null) {
+                var.setUpperBound(toBound(upperBounds[i]));
+            }
+        }
+        return first;
+    }
+
+    /**
+     * This implementation return a {@link ArrayLinear} object storing the coefficients into primitive arrays.
      */
     @Override
     public Linear createLinear() {
-        return new ConcreteLinear();
+        return new ArrayLinear();
     }
 
     /**
-     * This implementation is creating a new Linear object for the current problem using {@link #createLinear()} and
-     * then add the new coefficient and variable.
+     * This implementation is creating a new {@link ArrayLinear} and then add the new coefficient and variable.
      */
     @Override
     public Linear createLinear(double coefficient, Variable variable) {
-        return createLinear(Double.valueOf(coefficient), variable);
+        if (variable == null) {
+            throw new NullPointerException();
+        }
+        ArrayLinear linear = new ArrayLinear(1);
+        linear.add(coefficient, variable);
+        return linear;
     }
 
     /**
-     * This implementation is creating a new Linear object for the current problem using {@link #createLinear()} and
-     * then add the new coefficients and variables.
+     * This implementation is creating a new {@link ArrayLinear} and then add the new coefficients and variables without
+     * boxing them. If the coefficient is zero or the variable is null, the term is not added.
      */
     @Override
     public Linear createLinear(double[] coefficients, Variable[] variables) {
-        Double[] list = new Double[coefficients.length];
+        if (coefficients == null || variables == null) {
+            throw new NullPointerException();
+        }
+        if (coefficients.length != variables.length) {
+            throw new IllegalArgumentException("coefficients size != variables size"); //$NON-NLS-1$
+        }
+        ArrayLinear linear = new ArrayLinear(coefficients.length);
         for (int i = 0; i < coefficients.length; i++) {
-            list[i] = Double.valueOf(coefficients[i]);
+            if (coefficients[i] != 0 && variables[i] != null) {
+                linear.add(coefficients[i], variables[i]);
+            }
         }
-        return createLinear(list, variables);
+        return linear;
     }
 
     /**
-     * This implementation is creating a new Linear object for the current problem using {@link #createLinear()} and
-     * then add the new coefficient and variable.
+     * This implementation is calling {@link #createLinear(double, Variable)}.
      */
     @Override
     public Linear createLinear(float coefficient, Variable variable) {
-        return createLinear(Float.valueOf(coefficient), variable);
+        return createLinear((double) coefficient, variable);
     }
 
     /**
-     * This implementation is creating a new Linear object for the current problem using {@link #createLinear()} and
-     * then add the new coefficients and variables.
+     * This implementation is creating a new {@link ArrayLinear} and then add the new coefficients and variables without
+     * boxing them. If the coefficient is zero or the variable is null, the term is not added.
      */
     @Override
     public Linear createLinear(float[] coefficients, Variable[] variables) {
-        Float[] list = new Float[coefficients.length];
+        if (coefficients == null || variables == null) {
+            throw new NullPointerException();
+        }
+        if (coefficients.length != variables.length) {
+            throw new IllegalArgumentException("coefficients size != variables size"); //$NON-NLS-1$
+        }
+        ArrayLinear linear = new ArrayLinear(coefficients.length);
         for (int i = 0; i < coefficients.length; i++) {
-            list[i] = Float.valueOf(coefficients[i]);
+            if (coefficients[i] != 0 && variables[i] != null) {
+                linear.add(coefficients[i], variables[i]);
+            }
         }
-        return createLinear(list, variables);
+        return linear;
     }
 
     /**
-     * This implementation is creating a new Linear object for the current problem using {@link #createLinear()} and
-     * then add the new coefficient and variable.
+     * This implementation is calling {@link #createLinear(double, Variable)}.
      */
     @Override
     public Linear createLinear(int coefficient, Variable variable) {
-        return createLinear(Integer.valueOf(coefficient), variable);
+        return createLinear((double) coefficient, variable);
     }
 
     /**
-     * This implementation is creating a new Linear object for the current problem using {@link #createLinear()} and
-     * then add the new coefficients and variables.
+     * This implementation is creating a new {@link ArrayLinear} and then add the new coefficients and variables without
+     * boxing them. If the coefficient is zero or the variable is null, the term is not added.
      */
     @Override
     public Linear createLinear(int[] coefficients, Variable[] variables) {
-        Integer[] list = new Integer[coefficients.length];
+        if (coefficients == null || variables == null) {
+            throw new NullPointerException();
+        }
+        if (coefficients.length != variables.length) {
+            throw new IllegalArgumentException("coefficients size != variables size"); //$NON-NLS-1$
+        }
+        ArrayLinear linear = new ArrayLinear(coefficients.length);
         for (int i = 0; i < coefficients.length; i++) {
-            list[i] = Integer.valueOf(coefficients[i]);
+            if (coefficients[i] != 0 && variables[i] != null) {
+                linear.add(coefficients[i], variables[i]);
+            }
         }
-        return createLinear(list, variables);
+        return linear;
     }
 
     /**
-     * This implementation is creating a new {@link Linear} instance for the current problem. This function make
-     * repetitive call to {@link #createTerm(Number, Variable)}. If the coefficient list contains null value or zero,
-     * the term is not added. If the variable list contains null value, the term is not added.
+     * This implementation is creating a new {@link ArrayLinear} instance for the current problem. If the coefficient
+     * list contains null value or zero, the term is not added. If the variable list contains null value, the term is
+     * not added.
      */
     @Override
     public Linear createLinear(List<? extends Number> coefficients, List<Variable> variables) {
@@ -195,14 +384,14 @@ public abstract class AbstractLinearProblem implements LinearProblem {
             throw new IllegalArgumentException("coefficients size != variables size"); //$NON-NLS-1$
         }
 
-        Linear linear = createLinear();
+        ArrayLinear linear = new ArrayLinear(coefficients.size());
         Iterator<? extends Number> iter1 = coefficients.iterator();
         Iterator<Variable> iter2 = variables.iterator();
         while (iter1.hasNext() && iter2.hasNext()) {
             Number coef = iter1.next();
             Variable var = iter2.next();
             if (coef != null && coef.doubleValue() != 0 && var != null) {
-                linear.add(createTerm(coef, var));
+                linear.add(coef.doubleValue(), var);
             }
         }
 
@@ -210,17 +399,14 @@ public abstract class AbstractLinearProblem implements LinearProblem {
     }
 
     /**
-     * This implementation is creating a new Linear object for the current problem using {@link #createLinear()} and
-     * then add the new coefficient and variable.
+     * This implementation is calling {@link #createLinear(double, Variable)}.
      */
     @Override
     public Linear createLinear(Number coefficient, Variable variable) {
         if (coefficient == null || variable == null) {
             throw new NullPointerException();
         }
-        Linear linear = createLinear();
-        linear.add(createTerm(coefficient, variable));
-        return linear;
+        return createLinear(coefficient.doubleValue(), variable);
     }
 
     /**
@@ -261,6 +447,164 @@ public abstract class AbstractLinearProblem implements LinearProblem {
         return new ConcreteTerm(coefficient, variable);
     }
 
+    /**
+     * This implementation calls {@link Constraint#dispose()} for each constraint. Sub classes should provide a better
+     * implementation.
+     */
+    @Override
+    public void disposeConstraints(Collection<? extends Constraint> constraints) {
+        for (Constraint constraint : constraints.toArray(new Constraint[constraints.size()])) {
+            constraint.dispose();
+        }
+    }
+
+    /**
+     * This implementation calls {@link Variable#dispose()} for each variable. Sub classes should provide a better
+     * implementation.
+     */
+    @Override
+    public void disposeVariables(Collection<? extends Variable> variables) {
+        for (Variable var : variables.toArray(new Variable[variables.size()])) {
+            var.dispose();
+        }
+    }
+
+    /**
+     * Return the element at the given index of the collection.
+     */
+    private static <T> T get(Collection<? extends T> collection, int index) {
+        if (index < 0 || index >= collection.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + collection.size()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (collection instanceof List) {
+            return ((List<? extends T>) collection).get(index);
+        }
+        Iterator<? extends T> iter = collection.iterator();
+        for (int i = 0; i < index; i++) {
+            iter.next();
+        }
+        return iter.next();
+    }
+
+    /**
+     * This implementation returns the element of {@link #getConstraints()}.
+     */
+    @Override
+    public Constraint getConstraint(int index) {
+        return get(getConstraints(), index);
+    }
+
+    /**
+     * This implementation search the constraint in {@link #getConstraints()}. Sub classes should provide a better
+     * implementation.
+     */
+    @Override
+    public Constraint getConstraint(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (Constraint constraint : getConstraints()) {
+            if (name.equals(constraint.getName())) {
+                return constraint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This implementation calls {@link Constraint#getLinear()} for each constraint. Sub classes should provide a better
+     * implementation.
+     */
+    @Override
+    public SparseMatrix getMatrix() {
+        Collection<? extends Variable> variables = getVariables();
+        Map<Variable, Integer> index = new IdentityHashMap<Variable, Integer>(variables.size());
+        for (Variable var : variables) {
+            index.put(var, Integer.valueOf(index.size()));
+        }
+        Collection<? extends Constraint> constraints = getConstraints();
+        int[] starts = new int[constraints.size() + 1];
+        int[] columns = new int[16];
+        double[] coefficients = new double[16];
+        int count = 0;
+        int i = 0;
+        for (Constraint constraint : constraints) {
+            Linear linear = constraint.getLinear();
+            if (linear != null) {
+                for (Term term : linear) {
+                    if (count == columns.length) {
+                        columns = Arrays.copyOf(columns, count * 2);
+                        coefficients = Arrays.copyOf(coefficients, count * 2);
+                    }
+                    columns[count] = index.get(term.getVariable()).intValue();
+                    coefficients[count] = term.getCoefficient().doubleValue();
+                    count++;
+                }
+            }
+            starts[++i] = count;
+        }
+        return new SparseMatrix(variables.size(), starts, Arrays.copyOf(columns, count), Arrays.copyOf(coefficients, count));
+    }
+
+    /**
+     * This implementation calls {@link Constraint#getValue()} for each constraint. Sub classes should provide a better
+     * implementation.
+     */
+    @Override
+    public double[] getRowActivities(double[] activities) {
+        Collection<? extends Constraint> constraints = getConstraints();
+        if (activities == null || activities.length < constraints.size()) {
+            activities = new double[constraints.size()];
+        }
+        int i = 0;
+        for (Constraint constraint : constraints) {
+            activities[i++] = constraint.getValue().doubleValue();
+        }
+        return activities;
+    }
+
+    /**
+     * This implementation returns the element of {@link #getVariables()}.
+     */
+    @Override
+    public Variable getVariable(int index) {
+        return get(getVariables(), index);
+    }
+
+    /**
+     * This implementation search the variable in {@link #getVariables()}. Sub classes should provide a better
+     * implementation.
+     */
+    @Override
+    public Variable getVariable(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (Variable var : getVariables()) {
+            if (name.equals(var.getName())) {
+                return var;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This implementation calls {@link Variable#getValue()} for each variable. Sub classes should provide a better
+     * implementation.
+     */
+    @Override
+    public double[] getValues(double[] values) {
+        Collection<? extends Variable> variables = getVariables();
+        if (values == null || values.length < variables.size()) {
+            values = new double[variables.size()];
+        }
+        int i = 0;
+        for (Variable var : variables) {
+            values[i++] = var.getValue().doubleValue();
+        }
+        return values;
+    }
+
     /**
      * This implementation used the value return by {@link #getStatus()} to determine if a solution is available.
      */
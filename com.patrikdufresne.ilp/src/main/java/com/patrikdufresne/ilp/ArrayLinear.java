@@ -0,0 +1,372 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This implementation of {@link Linear} store the terms in growable primitive arrays: one array of coefficients and one
+ * array of variables. No {@link Term} object is kept in memory, they are only created when iterating over the linear
+ * expression.
+ * <p>
+ * Adding a term for a variable already part of the linear expression merge the coefficients. If the resulting
+ * coefficient is zero, the term is removed. Terms with a zero coefficient are never stored.
+ * <p>
+ * Solver implementations should use {@link #size()}, {@link #getVariable(int)} and {@link #getCoefficient(int)} to read
+ * the linear expression without creating any object.
+ *
+ * @author Patrik Dufresne
+ *
+ */
+public class ArrayLinear implements Linear {
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 4;
+
+    /**
+     * Number of terms from which the hash index is used to find a variable instead of a linear scan.
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
+    /**
+     * The coefficients values.
+     */
+    private double[] coefficients;
+
+    /**
+     * Open addressing hash table used to find the position of a variable. Each slot contains the position + 1 or zero
+     * if the slot is empty. Lazily created and discarded when a term is removed.
+     */
+    private int[] index;
+
+    /**
+     * The number of terms.
+     */
+    private int size;
+
+    /**
+     * The variables.
+     */
+    private Variable[] variables;
+
+    /**
+     * Create a new empty linear expression.
+     */
+    public ArrayLinear() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new empty linear expression with the given initial capacity.
+     *
+     * @param capacity
+     *            the expected number of terms
+     */
+    public ArrayLinear(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity < 0"); //$NON-NLS-1$
+        }
+        this.coefficients = new double[capacity];
+        this.variables = new Variable[capacity];
+    }
+
+    /**
+     * This implementation merge the term coefficient with the existing one if the variable is already part of the
+     * linear expression.
+     */
+    @Override
+    public void add(Term term) {
+        add(term.getCoefficient().doubleValue(), term.getVariable());
+    }
+
+    /**
+     * Add a new term to the linear expression without creating a {@link Term} object. If the variable is already part
+     * of this linear expression, the coefficient is added to the existing one.
+     *
+     * @param coefficient
+     *            the coefficient value
+     * @param variable
+     *            the variable, can't be null
+     */
+    public void add(double coefficient, Variable variable) {
+        if (variable == null) {
+            throw new NullPointerException();
+        }
+        int pos = indexOf(variable);
+        if (pos >= 0) {
+            double value = this.coefficients[pos] + coefficient;
+            if (value == 0) {
+                removeAt(pos);
+            } else {
+                this.coefficients[pos] = value;
+            }
+            return;
+        }
+        if (coefficient == 0) {
+            return;
+        }
+        if (this.size == this.variables.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, this.size + (this.size >> 1));
+            this.coefficients = Arrays.copyOf(this.coefficients, capacity);
+            this.variables = Arrays.copyOf(this.variables, capacity);
+        }
+        this.coefficients[this.size] = coefficient;
+        this.variables[this.size] = variable;
+        this.size++;
+        if (this.index != null) {
+            if (this.size * 2 > this.index.length) {
+                this.index = null;
+            } else {
+                insert(this.index, variable, this.size);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.variables, 0, this.size, null);
+        this.size = 0;
+        this.index = null;
+    }
+
+    /**
+     * This implementation doesn't depend on the terms order. Like {@link ConcreteLinear}, a linear expression is only
+     * equal to another {@link ArrayLinear} with the same terms.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        ArrayLinear other = (ArrayLinear) obj;
+        if (this.size != other.size) return false;
+        for (int i = 0; i < this.size; i++) {
+            int pos = other.indexOf(this.variables[i]);
+            if (pos < 0 || Double.compare(this.coefficients[i], other.coefficients[pos]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the coefficient of the term at the given position.
+     *
+     * @param index
+     *            the term position
+     * @return the coefficient value
+     */
+    public double getCoefficient(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return this.coefficients[index];
+    }
+
+    /**
+     * Returns the variable of the term at the given position.
+     *
+     * @param index
+     *            the term position
+     * @return the variable
+     */
+    public Variable getVariable(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return this.variables[index];
+    }
+
+    /**
+     * This implementation doesn't depend on the terms order.
+     */
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (int i = 0; i < this.size; i++) {
+            long bits = Double.doubleToLongBits(this.coefficients[i]);
+            result += this.variables[i].hashCode() ^ (int) (bits ^ (bits >>> 32));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position of the given variable in this linear expression.
+     *
+     * @param variable
+     *            the variable
+     * @return the position or -1 if the variable is not part of this linear expression
+     */
+    public int indexOf(Variable variable) {
+        if (this.size < INDEX_THRESHOLD) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.variables[i].equals(variable)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (this.index == null) {
+            int length = Integer.highestOneBit(this.size * 4 - 1);
+            this.index = new int[length];
+            for (int i = 0; i < this.size; i++) {
+                insert(this.index, this.variables[i], i + 1);
+            }
+        }
+        int mask = this.index.length - 1;
+        int slot = hash(variable) & mask;
+        int value;
+        while ((value = this.index[slot]) != 0) {
+            if (this.variables[value - 1].equals(variable)) {
+                return value - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * This implementation create the {@link Term} objects while iterating.
+     */
+    @Override
+    public Iterator<Term> iterator() {
+        return new Iterator<Term>() {
+
+            private int cursor;
+
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return this.cursor < ArrayLinear.this.size;
+            }
+
+            @Override
+            public Term next() {
+                if (this.cursor >= ArrayLinear.this.size) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.cursor++;
+                return new ConcreteTerm(Double.valueOf(ArrayLinear.this.coefficients[this.last]), ArrayLinear.this.variables[this.last]);
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0) {
+                    throw new IllegalStateException();
+                }
+                removeAt(this.last);
+                this.cursor = this.last;
+                this.last = -1;
+            }
+        };
+    }
+
+    /**
+     * This implementation remove the term only if the variable and the coefficient matches.
+     */
+    @Override
+    public void remove(Term term) {
+        int pos = indexOf(term.getVariable());
+        if (pos >= 0 && this.coefficients[pos] == term.getCoefficient().doubleValue()) {
+            removeAt(pos);
+        }
+    }
+
+    /**
+     * Remove the term of the given variable whatever the coefficient value.
+     *
+     * @param variable
+     *            the variable to remove
+     * @return True if the variable was part of this linear expression
+     */
+    public boolean remove(Variable variable) {
+        int pos = indexOf(variable);
+        if (pos < 0) {
+            return false;
+        }
+        removeAt(pos);
+        return true;
+    }
+
+    /**
+     * Remove the term at the given position.
+     *
+     * @param pos
+     *            the term position
+     */
+    private void removeAt(int pos) {
+        int moved = this.size - pos - 1;
+        if (moved > 0) {
+            System.arraycopy(this.coefficients, pos + 1, this.coefficients, pos, moved);
+            System.arraycopy(this.variables, pos + 1, this.variables, pos, moved);
+        }
+        this.size--;
+        this.variables[this.size] = null;
+        this.index = null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public String toString() {
+        if (this.size == 0) {
+            return "[]"; //$NON-NLS-1$
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) {
+                sb.append(" + "); //$NON-NLS-1$
+            }
+            sb.append(this.coefficients[i]);
+            sb.append(" * "); //$NON-NLS-1$
+            sb.append(this.variables[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Compute the hash value used by the index.
+     */
+    private static int hash(Variable variable) {
+        int h = variable.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Insert the position value into the hash index.
+     */
+    private static void insert(int[] index, Variable variable, int value) {
+        int mask = index.length - 1;
+        int slot = hash(variable) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = value;
+    }
+
+}
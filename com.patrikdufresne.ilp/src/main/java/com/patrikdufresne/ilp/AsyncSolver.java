@@ -0,0 +1,212 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * This class run the resolutions of a solver using an executor.
+ * <p>
+ * Cancelling the returned future stops the resolution in progress if the
+ * solver option implements {@link ITerminable}. Otherwise, the resolution
+ * still run to completion and the result is discarded. The option is reset
+ * when the resolution returns, so it may be used by another resolution.
+ * <p>
+ * Notice, the problem is solved by a thread of the executor. A problem
+ * confined to the thread who created it (e.g.: GLPK), see
+ * {@link IThreadConfinedLinearProblem}, must be created by the executor using
+ * {@link #solveAsync(Callable, SolverOption)}.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class AsyncSolver {
+
+    /**
+     * Future stopping the resolution when cancelled.
+     */
+    private static class SolveFuture extends FutureTask<SolveResult> {
+
+        private final SolverOption option;
+
+        /**
+         * True once the resolution returned, guarded by this object.
+         */
+        private boolean returned;
+
+        /**
+         * True once the resolution started, guarded by this object.
+         */
+        private boolean started;
+
+        SolveFuture(Callable<SolveResult> callable, SolverOption option) {
+            super(callable);
+            this.option = option;
+        }
+
+        /**
+         * This implementation request the termination of the resolution in
+         * progress whether <code>mayInterruptIfRunning</code> is set or not.
+         * The solvers are not interrupted using {@link Thread#interrupt()}.
+         * The option is not terminated if the resolution is not started or
+         * already returned.
+         */
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && this.started && !this.returned && this.option instanceof ITerminable) {
+                ((ITerminable) this.option).terminate();
+            }
+            return cancelled;
+        }
+
+        /**
+         * This implementation reset the option once the resolution returned.
+         */
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (isCancelled()) {
+                    return;
+                }
+                this.started = true;
+            }
+            try {
+                super.run();
+            } finally {
+                synchronized (this) {
+                    this.returned = true;
+                    if (this.option instanceof ITerminable) {
+                        ((ITerminable) this.option).reset();
+                    }
+                }
+            }
+        }
+
+    }
+
+    private final Executor executor;
+
+    private final Solver solver;
+
+    /**
+     * Create a new asynchronous solver.
+     * 
+     * @param solver
+     *            the solver used to solve the problems
+     * @param executor
+     *            the executor running the resolutions
+     */
+    public AsyncSolver(Solver solver, Executor executor) {
+        if (solver == null || executor == null) {
+            throw new NullPointerException();
+        }
+        this.solver = solver;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the solver.
+     */
+    public Solver getSolver() {
+        return this.solver;
+    }
+
+    /**
+     * Solve a linear problem created by the thread running the resolution. The
+     * problem is disposed once solved, the result holds the values of the
+     * variables.
+     * 
+     * @param factory
+     *            the callable creating the linear problem
+     * @param option
+     *            the solver option, should not be shared with another
+     *            resolution if the future may be cancelled
+     * @return the future result of the resolution
+     */
+    public Future<SolveResult> solveAsync(final Callable<? extends LinearProblem> factory, final SolverOption option) {
+        if (factory == null || option == null) {
+            throw new NullPointerException();
+        }
+        SolveFuture future = new SolveFuture(new Callable<SolveResult>() {
+            @Override
+            public SolveResult call() throws Exception {
+                LinearProblem lp = factory.call();
+                try {
+                    return solve(lp, option, null);
+                } finally {
+                    lp.dispose();
+                }
+            }
+        }, option);
+        this.executor.execute(future);
+        return future;
+    }
+
+    /**
+     * Solve the linear problem asynchronously. The problem should not be
+     * modified until the resolution is completed.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param option
+     *            the solver option, should not be shared with another
+     *            resolution if the future may be cancelled
+     * @return the future result of the resolution
+     * @throws ILPException
+     *             if the problem is confined to its thread, see
+     *             {@link #solveAsync(Callable, SolverOption)}
+     */
+    public Future<SolveResult> solveAsync(final LinearProblem lp, final SolverOption option) {
+        if (lp == null || option == null) {
+            throw new NullPointerException();
+        }
+        if (lp instanceof IThreadConfinedLinearProblem) {
+            throw new ILPException(ILPException.ERROR_THREAD_INVALID_ACCESS, "problem confined to its thread, use solveAsync(Callable, SolverOption)"); //$NON-NLS-1$
+        }
+        SolveFuture future = new SolveFuture(new Callable<SolveResult>() {
+            @Override
+            public SolveResult call() {
+                return solve(lp, option, lp);
+            }
+        }, option);
+        this.executor.execute(future);
+        return future;
+    }
+
+    /**
+     * Solve the problem and read the result.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param option
+     *            the solver option
+     * @param problem
+     *            the problem returned by the result
+     * @return the result
+     */
+    private SolveResult solve(LinearProblem lp, SolverOption option, LinearProblem problem) {
+        boolean feasible = this.solver.solve(lp, option);
+        if (!feasible) {
+            return new SolveResult(problem, false, lp.getStatus(), null, null);
+        }
+        return new SolveResult(problem, true, lp.getStatus(), lp.getObjectiveValue(), lp.getValues(null));
+    }
+
+}
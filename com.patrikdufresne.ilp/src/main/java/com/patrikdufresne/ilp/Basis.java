@@ -0,0 +1,236 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The status of the variables and constraints in a simplex basis, keyed by
+ * their names. Used by {@link IPersistentLinearProblem} to save the basis of a
+ * resolution and load it in another problem, possibly with a few variables or
+ * constraints added or removed.
+ * <p>
+ * The file format is the free MPS basis format also used by CPLEX and Clp:
+ * 
+ * <pre>
+ * NAME          problem
+ *  XU column row    column is basic, row is nonbasic at upper bound
+ *  XL column row    column is basic, row is nonbasic at lower bound
+ *  UL column        column is nonbasic at upper bound
+ *  LL column        column is nonbasic at lower bound
+ * ENDATA
+ * </pre>
+ * 
+ * Variables not listed are nonbasic at lower bound, constraints not listed are
+ * basic. Names containing white spaces can't be represented and are ignored.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class Basis {
+
+    /**
+     * Status of a basic variable or constraint.
+     */
+    public static final int BASIC = 0;
+
+    /**
+     * Status of a nonbasic variable or constraint at its lower bound.
+     */
+    public static final int LOWER = 1;
+
+    /**
+     * Status of a nonbasic variable or constraint at its upper bound.
+     */
+    public static final int UPPER = 2;
+
+    private static final String ENDATA = "ENDATA"; //$NON-NLS-1$
+    private static final String LL = "LL"; //$NON-NLS-1$
+    private static final String NAME = "NAME"; //$NON-NLS-1$
+    private static final String UL = "UL"; //$NON-NLS-1$
+    private static final String XL = "XL"; //$NON-NLS-1$
+    private static final String XU = "XU"; //$NON-NLS-1$
+
+    /**
+     * Check if the name may be written in the free MPS format.
+     */
+    private static boolean isValidName(String name) {
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.isWhitespace(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read a basis from a file.
+     * 
+     * @param file
+     *            the file in MPS basis format
+     * @return the basis
+     * @throws IOException
+     *             if the file can't be read or is not a valid basis file
+     */
+    public static Basis read(File file) throws IOException {
+        Basis basis = new Basis();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8")); //$NON-NLS-1$
+        try {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                String[] fields = line.trim().split("\\s+"); //$NON-NLS-1$
+                if (fields[0].isEmpty() || fields[0].startsWith("*") || NAME.equals(fields[0])) { //$NON-NLS-1$
+                    continue;
+                } else if (ENDATA.equals(fields[0])) {
+                    break;
+                } else if ((XU.equals(fields[0]) || XL.equals(fields[0])) && fields.length >= 3) {
+                    basis.columns.put(fields[1], Integer.valueOf(BASIC));
+                    basis.rows.put(fields[2], Integer.valueOf(XU.equals(fields[0]) ? UPPER : LOWER));
+                } else if ((UL.equals(fields[0]) || LL.equals(fields[0])) && fields.length >= 2) {
+                    basis.columns.put(fields[1], Integer.valueOf(UL.equals(fields[0]) ? UPPER : LOWER));
+                } else {
+                    throw new IOException("invalid basis record at line " + number + ": " + line); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return basis;
+    }
+
+    /**
+     * Status of the variables by names.
+     */
+    private final Map<String, Integer> columns = new LinkedHashMap<String, Integer>();
+
+    /**
+     * Status of the constraints by names.
+     */
+    private final Map<String, Integer> rows = new LinkedHashMap<String, Integer>();
+
+    /**
+     * Returns the status of a variable.
+     * 
+     * @param name
+     *            the variable name
+     * @return one of BASIC, LOWER or UPPER, or -1 if the variable is not part
+     *         of this basis
+     */
+    public int getColumnStatus(String name) {
+        Integer status = this.columns.get(name);
+        return status != null ? status.intValue() : -1;
+    }
+
+    /**
+     * Returns the status of a constraint.
+     * 
+     * @param name
+     *            the constraint name
+     * @return one of BASIC, LOWER or UPPER, or -1 if the constraint is not part
+     *         of this basis
+     */
+    public int getRowStatus(String name) {
+        Integer status = this.rows.get(name);
+        return status != null ? status.intValue() : -1;
+    }
+
+    /**
+     * Sets the status of a variable. Variables without valid name are ignored.
+     * 
+     * @param name
+     *            the variable name
+     * @param status
+     *            one of BASIC, LOWER or UPPER
+     */
+    public void setColumnStatus(String name, int status) {
+        if (isValidName(name)) {
+            this.columns.put(name, Integer.valueOf(status));
+        }
+    }
+
+    /**
+     * Sets the status of a constraint. Constraints without valid name are
+     * ignored.
+     * 
+     * @param name
+     *            the constraint name
+     * @param status
+     *            one of BASIC, LOWER or UPPER
+     */
+    public void setRowStatus(String name, int status) {
+        if (isValidName(name)) {
+            this.rows.put(name, Integer.valueOf(status));
+        }
+    }
+
+    /**
+     * Write this basis to a file. Each basic variable is paired with a
+     * nonbasic constraint, the extra basic variables and nonbasic constraints
+     * of an incomplete basis are not written.
+     * 
+     * @param file
+     *            the destination file
+     * @param problemName
+     *            the problem name or null
+     * @throws IOException
+     */
+    public void write(File file, String problemName) throws IOException {
+        List<String> basics = new ArrayList<String>();
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8")); //$NON-NLS-1$
+        try {
+            writer.println(NAME + "          " + (isValidName(problemName) ? problemName : "PROBLEM")); //$NON-NLS-1$ //$NON-NLS-2$
+            for (Entry<String, Integer> e : this.columns.entrySet()) {
+                if (e.getValue().intValue() == BASIC) {
+                    basics.add(e.getKey());
+                } else if (e.getValue().intValue() == UPPER) {
+                    writer.println(" " + UL + " " + e.getKey()); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+            Iterator<String> iter = basics.iterator();
+            for (Entry<String, Integer> e : this.rows.entrySet()) {
+                if (e.getValue().intValue() != BASIC && iter.hasNext()) {
+                    String type = e.getValue().intValue() == UPPER ? XU : XL;
+                    writer.println(" " + type + " " + iter.next() + " " + e.getKey()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                }
+            }
+            writer.println(ENDATA);
+        } finally {
+            writer.close();
+        }
+        if (writer.checkError()) {
+            throw new IOException("fail to write the basis file " + file); //$NON-NLS-1$
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * List of variable or constraint handles identified by their index in the native problem. The handles are lightweight
+ * flyweights created on first access by {@link #create(int)} and cached using weak references: a handle kept by the
+ * caller is always returned again, while a handle no longer referenced may be garbage collected and re-created later.
+ * This way, rows and columns created in bulk don't cost any Java object until they are accessed.
+ * <p>
+ * When elements are removed, the index of the cached handles following them is updated by calling
+ * {@link #setIndex(Object, int)}.
+ * <p>
+ * This class is not thread safe. The problem implementation is responsible for the synchronization.
+ * 
+ * @author Patrik Dufresne
+ * 
+ * @param <T>
+ *            the handle type
+ */
+public abstract class HandleList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * The weak reference to each handle or null if not created.
+     */
+    private Object[] handles = EMPTY;
+
+    private int size;
+
+    /**
+     * Append a new element to this list using the given handle.
+     * 
+     * @param handle
+     *            the handle of the new element
+     * @return true
+     */
+    @Override
+    public boolean add(T handle) {
+        ensureCapacity(this.size + 1);
+        this.handles[this.size++] = new WeakReference<T>(handle);
+        this.modCount++;
+        return true;
+    }
+
+    /**
+     * Append new elements to this list without creating their handles.
+     * 
+     * @param count
+     *            the number of elements to append
+     */
+    public void addEmpty(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+        ensureCapacity(this.size + count);
+        this.size += count;
+        this.modCount++;
+    }
+
+    /**
+     * Remove all the elements without notifying the handles.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(this.handles, 0, this.size, null);
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Create the handle of the given element.
+     * 
+     * @param index
+     *            the element index
+     * @return the new handle
+     */
+    protected abstract T create(int index);
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.handles.length) {
+            this.handles = Arrays.copyOf(this.handles, Math.max(capacity, this.handles.length + (this.handles.length >> 1) + 10));
+        }
+    }
+
+    /**
+     * Return the handle of the given element, creating it if required.
+     */
+    @Override
+    public T get(int index) {
+        T handle = peek(index);
+        if (handle == null) {
+            handle = create(index);
+            this.handles[index] = new WeakReference<T>(handle);
+        }
+        return handle;
+    }
+
+    /**
+     * This implementation only compares the cached handles since a handle not cached can't be referenced by the caller.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        for (int i = 0; i < this.size; i++) {
+            if (this.handles[i] != null && ((Reference<?>) this.handles[i]).get() == o) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        for (int i = this.size - 1; i >= 0; i--) {
+            if (this.handles[i] != null && ((Reference<?>) this.handles[i]).get() == o) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the handle of the given element if cached.
+     * 
+     * @param index
+     *            the element index
+     * @return the handle or null if not created or garbage collected
+     */
+    @SuppressWarnings("unchecked")
+    public T peek(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        Object ref = this.handles[index];
+        return ref != null ? ((Reference<T>) ref).get() : null;
+    }
+
+    /**
+     * Remove the given element and update the index of the following handles. The removed handle is not notified.
+     * 
+     * @return the handle of the removed element or null if not cached
+     */
+    @Override
+    public T remove(int index) {
+        T handle = peek(index);
+        System.arraycopy(this.handles, index + 1, this.handles, index, this.size - index - 1);
+        this.handles[--this.size] = null;
+        this.modCount++;
+        for (int i = index; i < this.size; i++) {
+            T sub = peek(i);
+            if (sub != null) {
+                setIndex(sub, i);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Remove multiple elements and update the index of the remaining handles in a single pass. The removed handles are
+     * not notified.
+     * 
+     * @param indices
+     *            the index of the elements to remove in ascending order
+     * @param count
+     *            the number of indices to read from <code>indices</code>
+     * @throws IllegalArgumentException
+     *             if the indices are not sorted, contain duplicates or are out of range
+     */
+    @SuppressWarnings("unchecked")
+    public void remove(int[] indices, int count) {
+        if (count == 0) {
+            return;
+        }
+        for (int k = 0; k < count; k++) {
+            if (indices[k] < (k > 0 ? indices[k - 1] + 1 : 0) || indices[k] >= this.size) {
+                throw new IllegalArgumentException("invalid index: " + indices[k]); //$NON-NLS-1$
+            }
+        }
+        int k = 0;
+        int dst = indices[0];
+        for (int src = indices[0]; src < this.size; src++) {
+            if (k < count && indices[k] == src) {
+                k++;
+                continue;
+            }
+            Object ref = this.handles[src];
+            this.handles[dst] = ref;
+            T sub = ref != null ? ((Reference<T>) ref).get() : null;
+            if (sub != null) {
+                setIndex(sub, dst);
+            }
+            dst++;
+        }
+        Arrays.fill(this.handles, dst, this.size, null);
+        this.size = dst;
+        this.modCount++;
+    }
+
+    /**
+     * Update the index of a cached handle after an element was removed.
+     * 
+     * @param handle
+     *            the handle
+     * @param index
+     *            the new element index
+     */
+    protected abstract void setIndex(T handle, int index);
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+}
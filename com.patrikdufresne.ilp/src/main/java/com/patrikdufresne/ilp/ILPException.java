@@ -50,6 +50,12 @@ public class ILPException extends RuntimeException {
      */
     public static final int ERROR_DUPLICATE_NAME = 4;
 
+    /**
+     * ILP error constant indicating that an attempt was made to access a resource from a thread other than the one
+     * owning it (value is 5).
+     */
+    public static final int ERROR_THREAD_INVALID_ACCESS = 5;
+
     public int code;
 
     /**
@@ -114,6 +120,8 @@ public class ILPException extends RuntimeException {
             return "Resource is disposed"; //$NON-NLS-1$
         case ERROR_DUPLICATE_NAME:
             return "Name already exist"; //$NON-NLS-1$
+        case ERROR_THREAD_INVALID_ACCESS:
+            return "Invalid thread access"; //$NON-NLS-1$
         default:
             return "Unknown error"; //$NON-NLS-1$
         }
@@ -0,0 +1,70 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import java.util.Map;
+
+/**
+ * This interface provides an initial integer solution (MIP start) to the
+ * solver. The solution is used as the first incumbent of the branch and bound
+ * to prune the nodes early.
+ * <p>
+ * The solution may be partial: the solver fixes the given values and completes
+ * the solution by solving the remaining problem. A solution that is not
+ * feasible is ignored.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public interface IMIPStart extends SolverOption {
+
+    /**
+     * Sets the initial solution. The values are copied.
+     * 
+     * @param values
+     *            the value of each variable (e.g.: a
+     *            {@link com.patrikdufresne.ilp.util.ValueSnapshot}) or null to
+     *            remove the initial solution
+     */
+    void setMIPStart(Map<? extends Variable, ? extends Number> values);
+
+    /**
+     * Returns the initial solution.
+     * 
+     * @return an unmodifiable map of the value of each variable or null if not
+     *         set
+     */
+    Map<Variable, Number> getMIPStart();
+
+    /**
+     * Enable or disable the reuse of the previous solution. When enabled, the
+     * values of the integer variables found by the previous resolution of the
+     * problem are used as initial solution. The values given by
+     * {@link #setMIPStart(Map)} take precedence.
+     * 
+     * @param enabled
+     *            True to reuse the previous solution
+     */
+    void setReuseSolution(boolean enabled);
+
+    /**
+     * Check if the reuse of the previous solution is enabled.
+     * 
+     * @return True if the previous solution is reused
+     */
+    boolean getReuseSolution();
+
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * INamelessLinearProblem is a linear problem that may ignore the names of its
+ * variables and constraints. Useful for machine-generated models where the
+ * names are only overhead: they are neither stored by the solver nor indexed
+ * for {@link #getVariable(String)} and {@link #getConstraint(String)}.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public interface INamelessLinearProblem extends LinearProblem {
+
+    /**
+     * Check if the names are ignored.
+     * 
+     * @return true if the names are ignored
+     */
+    boolean isNameless();
+
+    /**
+     * Sets if the names given when creating variables and constraints are
+     * ignored. When enabled, the names are not checked for uniqueness,
+     * <code>getName()</code> returns null and the lookup by name always
+     * returns null. Files saved by the problem use generated names.
+     * 
+     * @param nameless
+     *            true to ignore the names
+     * @throws IllegalStateException
+     *             if the problem already contains variables or constraints
+     */
+    void setNameless(boolean nameless);
+
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * This interface limits the number of nodes explored by the branch and bound.
+ * When the limit is reached, the solver returns the best solution found so
+ * far, if any.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public interface INodeLimit extends SolverOption {
+
+    /**
+     * Sets the node limit.
+     * 
+     * @param nodes
+     *            the maximum number of nodes or zero if unlimited
+     */
+    void setNodeLimit(long nodes);
+
+    /**
+     * Returns the node limit.
+     * 
+     * @return the maximum number of nodes or zero if unlimited
+     */
+    long getNodeLimit();
+
+}
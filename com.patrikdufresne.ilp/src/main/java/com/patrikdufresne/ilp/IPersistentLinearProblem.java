@@ -28,16 +28,35 @@ import java.io.IOException;
 public interface IPersistentLinearProblem extends LinearProblem {
 
     /**
-     * Load the linear problem from a file
+     * Load the linear problem from a file in free MPS or CPLEX LP format
+     * according to the file extension, see
+     * {@link com.patrikdufresne.ilp.io.ModelFiles}. The variables and
+     * constraints are added to the problem and the objective is replaced.
      * 
      * @param file
      *            the file to load data from
      * @throws IOException
+     *             if the file can't be read or is not valid, the message
+     *             contains the line number
      */
     public void load(File file) throws IOException;
 
     /**
-     * Save the linear problem to a file
+     * Load a basis saved by {@link #saveBasis(File)}, possibly by another
+     * solver. The variables and constraints are matched by names: the ones
+     * not found in the file are nonbasic and basic respectively. The basis is
+     * used as the starting basis of the next resolution using
+     * {@link IWarmStart}.
+     * 
+     * @param file
+     *            the basis file, see {@link Basis}
+     * @throws IOException
+     */
+    public void loadBasis(File file) throws IOException;
+
+    /**
+     * Save the linear problem to a file in free MPS or CPLEX LP format
+     * according to the file extension.
      * 
      * @param file
      *            the file
@@ -45,4 +64,15 @@ public interface IPersistentLinearProblem extends LinearProblem {
      */
     public void save(File file) throws IOException;
 
+    /**
+     * Save the basis of the last resolution to a file. The variables and
+     * constraints are identified by names, the ones without name are not
+     * saved.
+     * 
+     * @param file
+     *            the basis file, see {@link Basis}
+     * @throws IOException
+     */
+    public void saveBasis(File file) throws IOException;
+
 }
@@ -0,0 +1,43 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * This interface sets the relative MIP gap tolerance. The branch and bound
+ * stops when the relative gap between the best integer solution and the best
+ * bound is less than the tolerance.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public interface IRelativeMIPGap extends SolverOption {
+
+    /**
+     * Sets the relative MIP gap tolerance.
+     * 
+     * @param gap
+     *            the relative gap, e.g.: 0.01 for 1%
+     */
+    void setRelativeMIPGap(double gap);
+
+    /**
+     * Returns the relative MIP gap tolerance.
+     * 
+     * @return the relative gap
+     */
+    double getRelativeMIPGap();
+
+}
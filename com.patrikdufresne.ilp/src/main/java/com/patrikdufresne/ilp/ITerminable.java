@@ -0,0 +1,52 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * This interface allows another thread to stop a resolution in progress.
+ * <p>
+ * Once terminated, every resolution using this option stops as soon as
+ * possible and returns the best solution found so far, if any, with the
+ * status {@link Status#FEASIBLE} or {@link Status#UNKNOWN}, until
+ * {@link #reset()} is called. {@link AsyncSolver} resets the option when the
+ * resolution returns.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public interface ITerminable extends SolverOption {
+
+    /**
+     * Request the termination of the resolution using this option. May be
+     * called from any thread.
+     */
+    void terminate();
+
+    /**
+     * Check if the termination was requested.
+     * 
+     * @return True if {@link #terminate()} was called
+     */
+    boolean isTerminated();
+
+    /**
+     * Clear the termination request so the option may be used by another
+     * resolution. Should not be called while a resolution using this option
+     * is in progress.
+     */
+    void reset();
+
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * IThreadConfinedLinearProblem is a linear problem that may only be accessed
+ * by the thread who created it. Such a problem can't be solved by another
+ * thread, see {@link AsyncSolver#solveAsync(java.util.concurrent.Callable, SolverOption)}.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public interface IThreadConfinedLinearProblem extends LinearProblem {
+
+    /**
+     * Returns the thread owning this problem.
+     * 
+     * @return the thread who created the problem
+     */
+    Thread getThread();
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * This interface enables the warm start of the solver. When enabled, the
+ * optimal basis of the previous resolution is kept with the problem and used
+ * as the starting basis of the next resolution. It's mostly useful when the
+ * same problem is solved many times with small modifications (e.g.: bounds).
+ * <p>
+ * For a MIP problem, the basis is used to solve the root relaxation, so the
+ * LP presolver is disabled.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public interface IWarmStart extends SolverOption {
+
+    /**
+     * Enable or disable the warm start.
+     * 
+     * @param enabled
+     *            True to start from the basis of the previous resolution
+     */
+    void setWarmStart(boolean enabled);
+
+    /**
+     * Check if the warm start is enabled.
+     * 
+     * @return True if the warm start is enabled
+     */
+    boolean getWarmStart();
+
+}
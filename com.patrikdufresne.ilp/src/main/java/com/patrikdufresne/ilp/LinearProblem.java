@@ -131,6 +131,41 @@ public interface LinearProblem {
      */
     Constraint addConstraint(String name, Linear linear, Number lowerBound, Number upperBound);
 
+    /**
+     * Create multiple constraints in a single operation. The coefficients are
+     * given in compressed sparse row format: the terms of the constraint
+     * <code>i</code> are stored in <code>columns</code> and
+     * <code>coefficients</code> from index <code>starts[i]</code> (inclusive)
+     * to <code>starts[i + 1]</code> (exclusive). The columns are the index of
+     * the variables in the order returned by {@link #getVariables()}.
+     * <p>
+     * This function should be used to load large models since the
+     * implementation may reduce the number of calls to the native solver.
+     * 
+     * @param names
+     *            the constraints names or null to create unnamed constraints
+     * @param starts
+     *            the index of the first term of each row, of size
+     *            <code>n + 1</code> where <code>n</code> is the number of
+     *            constraints to be created
+     * @param columns
+     *            the column index of each term
+     * @param coefficients
+     *            the coefficient of each term
+     * @param lowerBounds
+     *            the lower bounds or null for unbounded. Use
+     *            {@link Double#NEGATIVE_INFINITY} for unbounded row.
+     * @param upperBounds
+     *            the upper bounds or null for unbounded. Use
+     *            {@link Double#POSITIVE_INFINITY} for unbounded row.
+     * @return the index of the first constraint created in the order returned
+     *         by {@link #getConstraints()}
+     * @throws IllegalArgumentException
+     *             if the arrays length are not consistent or if a column index
+     *             is out of range
+     */
+    int addConstraints(String[] names, int[] starts, int[] columns, double[] coefficients, double[] lowerBounds, double[] upperBounds);
+
     /**
      * Create a new unbounded variable for this problem with the given name and
      * type.
@@ -143,6 +178,32 @@ public interface LinearProblem {
      */
     Variable addVariable(String name, VarType type);
 
+    /**
+     * Create multiple variables in a single operation. The number of variables
+     * created is determine by the length of <code>types</code>.
+     * <p>
+     * This function should be used to load large models since the
+     * implementation may reduce the number of calls to the native solver.
+     * 
+     * @param names
+     *            the variables names or null to create unnamed variables
+     * @param types
+     *            the variables types
+     * @param lowerBounds
+     *            the lower bounds or null to use the default bounds of the
+     *            variable type. Use {@link Double#NEGATIVE_INFINITY} for
+     *            unbounded variable.
+     * @param upperBounds
+     *            the upper bounds or null to use the default bounds of the
+     *            variable type. Use {@link Double#POSITIVE_INFINITY} for
+     *            unbounded variable.
+     * @return the index of the first variable created in the order returned by
+     *         {@link #getVariables()}
+     * @throws IllegalArgumentException
+     *             if the arrays length are not consistent
+     */
+    int addVariables(String[] names, VarType[] types, double[] lowerBounds, double[] upperBounds);
+
     /**
      * Create a new bounded integer variable.
      * 
@@ -310,6 +371,60 @@ public interface LinearProblem {
      */
     void dispose();
 
+    /**
+     * Dispose multiple constraints of this problem in a single operation.
+     * Constraints already disposed are ignored.
+     * <p>
+     * This function should be used to remove a large number of constraints
+     * since the implementation may delete all the rows with a single call to
+     * the native solver.
+     * 
+     * @param constraints
+     *            the constraints to dispose
+     * @throws IllegalArgumentException
+     *             if a constraint is not part of this problem
+     */
+    void disposeConstraints(Collection<? extends Constraint> constraints);
+
+    /**
+     * Dispose multiple variables of this problem in a single operation.
+     * Variables already disposed are ignored.
+     * <p>
+     * This function should be used to remove a large number of variables
+     * since the implementation may delete all the columns with a single call
+     * to the native solver.
+     * 
+     * @param variables
+     *            the variables to dispose
+     * @throws IllegalArgumentException
+     *             if a variable is not part of this problem
+     */
+    void disposeVariables(Collection<? extends Variable> variables);
+
+    /**
+     * Returns the constraint at the given index in the order returned by
+     * {@link #getConstraints()}.
+     * <p>
+     * Implementations may create the constraint object on demand, this
+     * function should be used to access the constraints of large problems.
+     * 
+     * @param index
+     *            the constraint index
+     * @return the constraint
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of range
+     */
+    Constraint getConstraint(int index);
+
+    /**
+     * Returns the constraint with the given name.
+     * 
+     * @param name
+     *            the constraint name
+     * @return the constraint or null if not found
+     */
+    Constraint getConstraint(String name);
+
     /**
      * Returns the contraints.
      * 
@@ -324,6 +439,19 @@ public interface LinearProblem {
      */
     String getName();
 
+    /**
+     * Returns the constraint matrix in compressed sparse row format. The rows
+     * are in the order returned by {@link #getConstraints()} and the columns
+     * in the order returned by {@link #getVariables()}.
+     * <p>
+     * This function should be used to read the coefficients of large problems
+     * since the implementation may avoid creating the constraint and variable
+     * objects.
+     * 
+     * @return the constraint matrix
+     */
+    SparseMatrix getMatrix();
+
     /**
      * Returns the objective direction.
      * 
@@ -345,6 +473,24 @@ public interface LinearProblem {
      */
     Double getObjectiveValue();
 
+    /**
+     * Returns the value of every constraint's linear expression (row activity)
+     * in the order returned by {@link #getConstraints()}. Only valid after
+     * solving the problem.
+     * <p>
+     * This function should be used to read the solution of large problems
+     * since the implementation may avoid creating the constraint objects and
+     * boxing the values.
+     * 
+     * @param activities
+     *            the array to fill or null. A new array is allocated if null
+     *            or too small.
+     * @return the array of row activities
+     * @throws ILPException
+     *             if the solution is not available
+     */
+    double[] getRowActivities(double[] activities);
+
     /**
      * Returns the solution status of the linear problem. This value is only
      * relevant after solving the linear problem.
@@ -354,6 +500,54 @@ public interface LinearProblem {
      */
     Status getStatus();
 
+    /**
+     * Returns the statistics of the last resolution.
+     * 
+     * @return the statistics or null if the problem was never solved
+     */
+    SolveStatistics getStatistics();
+
+    /**
+     * Returns the variable at the given index in the order returned by
+     * {@link #getVariables()}.
+     * <p>
+     * Implementations may create the variable object on demand, this function
+     * should be used to access the variables of large problems.
+     * 
+     * @param index
+     *            the variable index
+     * @return the variable
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of range
+     */
+    Variable getVariable(int index);
+
+    /**
+     * Returns the variable with the given name.
+     * 
+     * @param name
+     *            the variable name
+     * @return the variable or null if not found
+     */
+    Variable getVariable(String name);
+
+    /**
+     * Returns the value of every variable in the order returned by
+     * {@link #getVariables()}. Only valid after solving the problem.
+     * <p>
+     * This function should be used to read the solution of large problems
+     * since the implementation may avoid creating the variable objects and
+     * boxing the values.
+     * 
+     * @param values
+     *            the array to fill or null. A new array is allocated if null
+     *            or too small.
+     * @return the array of values
+     * @throws ILPException
+     *             if the solution is not available
+     */
+    double[] getValues(double[] values);
+
     /**
      * Returns the variables.
      * 
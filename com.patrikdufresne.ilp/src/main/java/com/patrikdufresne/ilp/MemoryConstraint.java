@@ -0,0 +1,228 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of the {@link Constraint} interface used by {@link MemoryLinearProblem}. The linear expression is
+ * kept in memory as two arrays of variables and coefficients.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class MemoryConstraint implements Constraint {
+
+    /**
+     * The status of the row in the basis of the last resolution, -1 if unknown. Used for warm start.
+     */
+    int basis = -1;
+
+    /**
+     * The coefficients of the linear expression.
+     */
+    double[] coefs;
+
+    /**
+     * The lower bound, negative infinity if unbounded.
+     */
+    double lower;
+
+    /**
+     * The constraint name.
+     */
+    String name;
+
+    MemoryLinearProblem parent;
+
+    /**
+     * The row index.
+     */
+    int row;
+
+    /**
+     * The number of terms of the linear expression.
+     */
+    int size;
+
+    /**
+     * The upper bound, positive infinity if unbounded.
+     */
+    double upper;
+
+    /**
+     * The row activity of the last solution.
+     */
+    double value;
+
+    /**
+     * The variables of the linear expression.
+     */
+    MemoryVariable[] vars;
+
+    /**
+     * Create a new constraint.
+     * 
+     * @param parent
+     *            the parent problem
+     * @param row
+     *            the row index
+     * @param name
+     *            the constraint name or null
+     * @param capacity
+     *            the expected number of terms
+     * @param lower
+     *            the lower bound
+     * @param upper
+     *            the upper bound
+     */
+    MemoryConstraint(MemoryLinearProblem parent, int row, String name, int capacity, double lower, double upper) {
+        this.parent = parent;
+        this.row = row;
+        this.name = name;
+        this.coefs = new double[capacity];
+        this.vars = new MemoryVariable[capacity];
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Add a term to the linear expression. The variable must not be part of the linear expression.
+     */
+    void add(double coef, MemoryVariable var) {
+        if (this.size == this.vars.length) {
+            int capacity = Math.max(4, this.size + (this.size >> 1));
+            this.coefs = Arrays.copyOf(this.coefs, capacity);
+            this.vars = Arrays.copyOf(this.vars, capacity);
+        }
+        this.coefs[this.size] = coef;
+        this.vars[this.size] = var;
+        this.size++;
+    }
+
+    /**
+     * Check if the constraint is disposed.
+     */
+    void checkConstraint() {
+        if (isDisposed()) {
+            throw new ILPException(ILPException.ERROR_RESOURCE_DISPOSED);
+        }
+        this.parent.checkProblem();
+    }
+
+    @Override
+    public void dispose() {
+        if (isDisposed()) {
+            return;
+        }
+        this.parent.removeRow(this);
+    }
+
+    /**
+     * Returns a copy of the linear expression.
+     */
+    @Override
+    public Linear getLinear() {
+        checkConstraint();
+        ArrayLinear linear = new ArrayLinear(this.size);
+        for (int k = 0; k < this.size; k++) {
+            linear.add(this.coefs[k], this.vars[k]);
+        }
+        return linear;
+    }
+
+    @Override
+    public Double getLowerBound() {
+        checkConstraint();
+        return AbstractLinearProblem.toBound(this.lower);
+    }
+
+    @Override
+    public String getName() {
+        checkConstraint();
+        return this.name;
+    }
+
+    @Override
+    public Double getUpperBound() {
+        checkConstraint();
+        return AbstractLinearProblem.toBound(this.upper);
+    }
+
+    /**
+     * Returns the row activity of the last solution.
+     */
+    @Override
+    public Double getValue() {
+        checkConstraint();
+        this.parent.checkSolution();
+        return Double.valueOf(this.value);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return this.parent == null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        checkConstraint();
+        return this.size == 0;
+    }
+
+    /**
+     * Remove the variable from the linear expression.
+     */
+    void remove(MemoryVariable var) {
+        for (int k = 0; k < this.size; k++) {
+            if (this.vars[k] == var) {
+                System.arraycopy(this.coefs, k + 1, this.coefs, k, this.size - k - 1);
+                System.arraycopy(this.vars, k + 1, this.vars, k, this.size - k - 1);
+                this.size--;
+                this.vars[this.size] = null;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void setLinear(Linear linear) {
+        checkConstraint();
+        AbstractLinearProblem.checkLinear(linear);
+        this.parent.setTerms(this, linear);
+    }
+
+    @Override
+    public void setLowerBound(Number lb) {
+        checkConstraint();
+        this.lower = lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public void setUpperBound(Number ub) {
+        checkConstraint();
+        this.upper = ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        if (isDisposed()) {
+            return "MemoryConstraint [disposed]"; //$NON-NLS-1$
+        }
+        return "MemoryConstraint [name=" + this.name + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+}
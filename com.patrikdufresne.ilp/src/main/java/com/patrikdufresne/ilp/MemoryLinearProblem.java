@@ -0,0 +1,647 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Linear problem keeping the whole model in memory. This class is the base class of the solvers converting the model
+ * on every resolution. Sub classes read the model using the column and row accessors and store the result of the
+ * resolution using {@link #setSolution(Status, double[])}.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class MemoryLinearProblem extends AbstractLinearProblem {
+
+    private Map<String, MemoryConstraint> constraintNames = new HashMap<String, MemoryConstraint>();
+
+    private List<MemoryConstraint> constraints = new ArrayList<MemoryConstraint>();
+
+    private int direction = MINIMIZE;
+
+    private boolean disposed;
+
+    private String name;
+
+    /**
+     * The objective value of the last solution.
+     */
+    private double objectiveValue;
+
+    /**
+     * The statistics of the last resolution, null if never solved.
+     */
+    private SolveStatistics statistics;
+
+    private Status status;
+
+    private Map<String, MemoryVariable> variableNames = new HashMap<String, MemoryVariable>();
+
+    private List<MemoryVariable> variables = new ArrayList<MemoryVariable>();
+
+    /**
+     * Create a new linear problem.
+     */
+    protected MemoryLinearProblem() {
+        // Nothing to do
+    }
+
+    @Override
+    public Constraint addConstraint(String name) {
+        checkProblem();
+        checkConstraintName(name);
+        MemoryConstraint c = new MemoryConstraint(this, this.constraints.size(), name, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        this.constraints.add(c);
+        this.constraintNames.put(name, c);
+        return c;
+    }
+
+    /**
+     * This implementation create every constraint without intermediate {@link Linear} objects.
+     */
+    @Override
+    public int addConstraints(String[] names, int[] starts, int[] columns, double[] coefficients, double[] lowerBounds, double[] upperBounds) {
+        checkProblem();
+        int count = checkConstraints(names, starts, columns, coefficients, lowerBounds, upperBounds, this.variables.size());
+        checkNames(names, this.constraintNames, "Duplicate constraint name: "); //$NON-NLS-1$
+        int index = this.constraints.size();
+        for (int i = 0; i < count; i++) {
+            String n = names != null ? names[i] : null;
+            MemoryConstraint c = new MemoryConstraint(this, index + i, n, starts[i + 1] - starts[i], lowerBounds != null ? lowerBounds[i]
+                    : Double.NEGATIVE_INFINITY, upperBounds != null ? upperBounds[i] : Double.POSITIVE_INFINITY);
+            for (int k = starts[i]; k < starts[i + 1]; k++) {
+                if (coefficients[k] != 0) {
+                    c.add(coefficients[k], this.variables.get(columns[k]));
+                }
+            }
+            this.constraints.add(c);
+            if (n != null) {
+                this.constraintNames.put(n, c);
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public Variable addVariable(String name, VarType type) {
+        checkProblem();
+        checkVariableName(name);
+        if (type == null) {
+            throw new NullPointerException();
+        }
+        MemoryVariable v;
+        if (VarType.BOOL.equals(type)) {
+            v = new MemoryVariable(this, this.variables.size(), name, type, 0, 1);
+        } else {
+            v = new MemoryVariable(this, this.variables.size(), name, type, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+        this.variables.add(v);
+        this.variableNames.put(name, v);
+        return v;
+    }
+
+    /**
+     * This implementation create every variable without calling the variable setters.
+     */
+    @Override
+    public int addVariables(String[] names, VarType[] types, double[] lowerBounds, double[] upperBounds) {
+        checkProblem();
+        int count = checkVariables(names, types, lowerBounds, upperBounds);
+        checkNames(names, this.variableNames, "Duplicate variable name: "); //$NON-NLS-1$
+        int index = this.variables.size();
+        for (int i = 0; i < count; i++) {
+            boolean bool = VarType.BOOL.equals(types[i]);
+            double lb = lowerBounds != null ? lowerBounds[i] : (bool ? 0 : Double.NEGATIVE_INFINITY);
+            double ub = upperBounds != null ? upperBounds[i] : (bool ? 1 : Double.POSITIVE_INFINITY);
+            String n = names != null ? names[i] : null;
+            MemoryVariable v = new MemoryVariable(this, index + i, n, types[i], lb, ub);
+            this.variables.add(v);
+            if (n != null) {
+                this.variableNames.put(n, v);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Check if the constraint name is defined and unique.
+     */
+    private void checkConstraintName(String name) {
+        if (name == null) {
+            throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Undefined constraint name."); //$NON-NLS-1$
+        }
+        if (this.constraintNames.containsKey(name)) {
+            throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate constraint name: " + name); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Check if the names are unique. Null names are ignored.
+     */
+    private static void checkNames(String[] names, Map<String, ?> existing, String message) {
+        if (names == null) {
+            return;
+        }
+        Set<String> set = new HashSet<String>();
+        for (String name : names) {
+            if (name != null && (!set.add(name) || existing.containsKey(name))) {
+                throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, message + name);
+            }
+        }
+    }
+
+    void checkProblem() {
+        if (isDisposed()) {
+            throw new ILPException(ILPException.ERROR_RESOURCE_DISPOSED);
+        }
+    }
+
+    void checkSolution() {
+        Status status = getStatus();
+        if (!status.equals(Status.FEASIBLE) && !status.equals(Status.OPTIMAL)) {
+            throw new ILPException("solution not available"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Check if the variable name is defined and unique.
+     */
+    private void checkVariableName(String name) {
+        if (name == null) {
+            throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Undefined variable name."); //$NON-NLS-1$
+        }
+        if (this.variableNames.containsKey(name)) {
+            throw new ILPException(ILPException.ERROR_DUPLICATE_NAME, "Duplicate variable name: " + name); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public void dispose() {
+        this.disposed = true;
+        this.variables.clear();
+        this.constraints.clear();
+        this.variableNames.clear();
+        this.constraintNames.clear();
+    }
+
+    /**
+     * Returns the status in the basis of the column kept by {@link #setColumnBasis(int, int)}.
+     * 
+     * @param col
+     *            the column index
+     * @return the status or -1 if unknown
+     */
+    protected int getColumnBasis(int col) {
+        return this.variables.get(col).basis;
+    }
+
+    /**
+     * Returns the lower bound of the column.
+     * 
+     * @param col
+     *            the column index
+     * @return the lower bound, negative infinity if unbounded
+     */
+    protected double getColumnLower(int col) {
+        return this.variables.get(col).lower;
+    }
+
+    /**
+     * Returns the objective coefficient of the column.
+     * 
+     * @param col
+     *            the column index
+     * @return the coefficient
+     */
+    protected double getColumnObjective(int col) {
+        return this.variables.get(col).objective;
+    }
+
+    /**
+     * Returns the upper bound of the column.
+     * 
+     * @param col
+     *            the column index
+     * @return the upper bound, positive infinity if unbounded
+     */
+    protected double getColumnUpper(int col) {
+        return this.variables.get(col).upper;
+    }
+
+    @Override
+    public Constraint getConstraint(int index) {
+        return this.constraints.get(index);
+    }
+
+    @Override
+    public Constraint getConstraint(String name) {
+        checkProblem();
+        return this.constraintNames.get(name);
+    }
+
+    @Override
+    public Collection<? extends Constraint> getConstraints() {
+        return Collections.unmodifiableList(this.constraints);
+    }
+
+    /**
+     * Returns the integer columns.
+     * 
+     * @return true for each integer column
+     */
+    protected boolean[] getIntegers() {
+        boolean[] integers = new boolean[this.variables.size()];
+        for (int j = 0; j < integers.length; j++) {
+            integers[j] = !VarType.REAL.equals(this.variables.get(j).type);
+        }
+        return integers;
+    }
+
+    /**
+     * This implementation reads the linear expressions without creating any object.
+     */
+    @Override
+    public SparseMatrix getMatrix() {
+        checkProblem();
+        int m = this.constraints.size();
+        int[] starts = new int[m + 1];
+        for (int i = 0; i < m; i++) {
+            starts[i + 1] = starts[i] + this.constraints.get(i).size;
+        }
+        int[] columns = new int[starts[m]];
+        double[] coefficients = new double[starts[m]];
+        for (int i = 0; i < m; i++) {
+            MemoryConstraint c = this.constraints.get(i);
+            for (int k = 0; k < c.size; k++) {
+                columns[starts[i] + k] = c.vars[k].col;
+                coefficients[starts[i] + k] = c.coefs[k];
+            }
+        }
+        return new SparseMatrix(this.variables.size(), starts, columns, coefficients);
+    }
+
+    @Override
+    public String getName() {
+        checkProblem();
+        return this.name;
+    }
+
+    @Override
+    public int getObjectiveDirection() {
+        checkProblem();
+        return this.direction;
+    }
+
+    @Override
+    public Linear getObjectiveLinear() {
+        checkProblem();
+        ArrayLinear linear = new ArrayLinear();
+        for (MemoryVariable var : this.variables) {
+            if (var.objective != 0) {
+                linear.add(var.objective, var);
+            }
+        }
+        if (linear.size() == 0) {
+            return null;
+        }
+        return linear;
+    }
+
+    @Override
+    public Double getObjectiveValue() {
+        checkProblem();
+        checkSolution();
+        return Double.valueOf(this.objectiveValue);
+    }
+
+    @Override
+    public double[] getRowActivities(double[] activities) {
+        checkProblem();
+        checkSolution();
+        int count = this.constraints.size();
+        if (activities == null || activities.length < count) {
+            activities = new double[count];
+        }
+        for (int i = 0; i < count; i++) {
+            activities[i] = this.constraints.get(i).value;
+        }
+        return activities;
+    }
+
+    /**
+     * Returns the status in the basis of the row kept by {@link #setRowBasis(int, int)}.
+     * 
+     * @param row
+     *            the row index
+     * @return the status or -1 if unknown
+     */
+    protected int getRowBasis(int row) {
+        return this.constraints.get(row).basis;
+    }
+
+    /**
+     * Returns the lower bound of the row.
+     * 
+     * @param row
+     *            the row index
+     * @return the lower bound, negative infinity if unbounded
+     */
+    protected double getRowLower(int row) {
+        return this.constraints.get(row).lower;
+    }
+
+    /**
+     * Returns the upper bound of the row.
+     * 
+     * @param row
+     *            the row index
+     * @return the upper bound, positive infinity if unbounded
+     */
+    protected double getRowUpper(int row) {
+        return this.constraints.get(row).upper;
+    }
+
+    @Override
+    public Status getStatus() {
+        checkProblem();
+        if (this.status == null) {
+            return Status.UNKNOWN;
+        }
+        return this.status;
+    }
+
+    @Override
+    public SolveStatistics getStatistics() {
+        checkProblem();
+        return this.statistics;
+    }
+
+    @Override
+    public Variable getVariable(int index) {
+        return this.variables.get(index);
+    }
+
+    @Override
+    public Variable getVariable(String name) {
+        checkProblem();
+        return this.variableNames.get(name);
+    }
+
+    @Override
+    public double[] getValues(double[] values) {
+        checkProblem();
+        checkSolution();
+        int count = this.variables.size();
+        if (values == null || values.length < count) {
+            values = new double[count];
+        }
+        for (int j = 0; j < count; j++) {
+            values[j] = this.variables.get(j).value;
+        }
+        return values;
+    }
+
+    @Override
+    public Collection<? extends Variable> getVariables() {
+        return Collections.unmodifiableList(this.variables);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return this.disposed;
+    }
+
+    /**
+     * This implementation returns True if at least one variable is not continuous.
+     */
+    @Override
+    public boolean isMIP() {
+        for (MemoryVariable var : this.variables) {
+            if (!VarType.REAL.equals(var.type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Create a copy of the linear expression with the terms of the same variable merged. The variables are not checked,
+     * see {@link #variable(Variable)}.
+     * 
+     * @param linear
+     *            the linear expression or null
+     * @return a new linear expression
+     */
+    private static ArrayLinear merge(Linear linear) {
+        ArrayLinear copy = new ArrayLinear(linear != null ? linear.size() : 0);
+        if (linear == null) {
+            return copy;
+        }
+        if (linear instanceof ArrayLinear) {
+            ArrayLinear array = (ArrayLinear) linear;
+            for (int i = 0; i < array.size(); i++) {
+                copy.add(array.getCoefficient(i), array.getVariable(i));
+            }
+            return copy;
+        }
+        for (Term term : linear) {
+            copy.add(term.getCoefficient().doubleValue(), term.getVariable());
+        }
+        return copy;
+    }
+
+    /**
+     * Remove the variable from the problem and from every constraint.
+     */
+    void removeCol(MemoryVariable var) {
+        int index = var.col;
+        if (index >= this.variables.size() || this.variables.get(index) != var) {
+            throw new RuntimeException("MemoryVariable not in the variable list."); //$NON-NLS-1$
+        }
+        this.variables.remove(index);
+        this.variableNames.remove(var.name);
+        for (MemoryConstraint c : this.constraints) {
+            c.remove(var);
+        }
+        var.parent = null;
+        for (; index < this.variables.size(); index++) {
+            this.variables.get(index).col = index;
+        }
+    }
+
+    /**
+     * Remove the constraint from the problem.
+     */
+    void removeRow(MemoryConstraint constraint) {
+        int index = constraint.row;
+        if (index >= this.constraints.size() || this.constraints.get(index) != constraint) {
+            throw new RuntimeException("MemoryConstraint not in the constraint list."); //$NON-NLS-1$
+        }
+        this.constraints.remove(index);
+        this.constraintNames.remove(constraint.name);
+        constraint.parent = null;
+        for (; index < this.constraints.size(); index++) {
+            this.constraints.get(index).row = index;
+        }
+    }
+
+    /**
+     * Keep the status in the basis of the column for the next resolution.
+     * 
+     * @param col
+     *            the column index
+     * @param basis
+     *            the status or -1 if unknown
+     */
+    protected void setColumnBasis(int col, int basis) {
+        this.variables.get(col).basis = basis;
+    }
+
+    /**
+     * Sets the problem name.
+     * 
+     * @param name
+     *            the name or null
+     */
+    public void setName(String name) {
+        checkProblem();
+        this.name = name;
+    }
+
+    @Override
+    public void setObjectiveDirection(int direction) {
+        checkProblem();
+        if (direction != MAXIMIZE && direction != MINIMIZE) {
+            throw new IllegalArgumentException();
+        }
+        this.direction = direction;
+    }
+
+    @Override
+    public void setObjectiveLinear(Linear objective) {
+        checkProblem();
+        checkLinear(objective);
+        ArrayLinear linear = merge(objective);
+        MemoryVariable[] vars = new MemoryVariable[linear.size()];
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = variable(linear.getVariable(i));
+        }
+        for (MemoryVariable var : this.variables) {
+            var.objective = 0;
+        }
+        for (int i = 0; i < vars.length; i++) {
+            vars[i].objective = linear.getCoefficient(i);
+        }
+    }
+
+    /**
+     * Keep the status in the basis of the row for the next resolution.
+     * 
+     * @param row
+     *            the row index
+     * @param basis
+     *            the status or -1 if unknown
+     */
+    protected void setRowBasis(int row, int basis) {
+        this.constraints.get(row).basis = basis;
+    }
+
+    /**
+     * Sets the solution of this problem. The objective value and the row activities are computed from the column
+     * values.
+     * 
+     * @param status
+     *            the solution status
+     * @param values
+     *            the value of each column or null if no solution is available
+     */
+    protected void setSolution(Status status, double[] values) {
+        this.status = status;
+        if (values == null) {
+            return;
+        }
+        double objective = 0;
+        for (int j = 0; j < this.variables.size(); j++) {
+            MemoryVariable var = this.variables.get(j);
+            var.value = values[j];
+            objective += var.objective * values[j];
+        }
+        this.objectiveValue = objective;
+        for (MemoryConstraint c : this.constraints) {
+            double value = 0;
+            for (int k = 0; k < c.size; k++) {
+                value += c.coefs[k] * c.vars[k].value;
+            }
+            c.value = value;
+        }
+    }
+
+    /**
+     * Sets the statistics of the last resolution returned by {@link #getStatistics()}.
+     * 
+     * @param statistics
+     *            the statistics or null
+     */
+    protected void setStatistics(SolveStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Sets the linear expression of the constraint.
+     * 
+     * @param constraint
+     *            the constraint to update
+     * @param linear
+     *            the linear expression or null
+     * @throws IllegalArgumentException
+     *             if a variable is not part of this problem
+     */
+    void setTerms(MemoryConstraint constraint, Linear linear) {
+        ArrayLinear merged = merge(linear);
+        MemoryVariable[] vars = new MemoryVariable[merged.size()];
+        for (int k = 0; k < vars.length; k++) {
+            vars[k] = variable(merged.getVariable(k));
+        }
+        constraint.coefs = new double[vars.length];
+        for (int k = 0; k < vars.length; k++) {
+            constraint.coefs[k] = merged.getCoefficient(k);
+        }
+        constraint.vars = vars;
+        constraint.size = vars.length;
+    }
+
+    /**
+     * Check if the variable is part of this problem.
+     */
+    private MemoryVariable variable(Variable variable) {
+        if (variable instanceof MemoryVariable) {
+            MemoryVariable var = (MemoryVariable) variable;
+            if (var.parent == this) {
+                return var;
+            }
+        }
+        throw new IllegalArgumentException("variable is not part of this problem"); //$NON-NLS-1$
+    }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * Implementation of the {@link Variable} interface used by {@link MemoryLinearProblem}. The variable attributes are
+ * kept in memory.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class MemoryVariable implements Variable {
+
+    /**
+     * The status in the basis of the last resolution, -1 if unknown. Used for warm start.
+     */
+    int basis = -1;
+
+    /**
+     * The column index.
+     */
+    int col;
+
+    /**
+     * The lower bound, negative infinity if unbounded.
+     */
+    double lower;
+
+    /**
+     * The variable name.
+     */
+    String name;
+
+    /**
+     * The objective coefficient.
+     */
+    double objective;
+
+    MemoryLinearProblem parent;
+
+    /**
+     * The variable type.
+     */
+    VarType type;
+
+    /**
+     * The upper bound, positive infinity if unbounded.
+     */
+    double upper;
+
+    /**
+     * The primal value of the last solution.
+     */
+    double value;
+
+    /**
+     * Create a new variable.
+     * 
+     * @param parent
+     *            the parent problem.
+     * @param col
+     *            the column index.
+     * @param name
+     *            the variable name or null
+     * @param type
+     *            the variable type
+     * @param lower
+     *            the lower bound
+     * @param upper
+     *            the upper bound
+     */
+    MemoryVariable(MemoryLinearProblem parent, int col, String name, VarType type, double lower, double upper) {
+        this.parent = parent;
+        this.col = col;
+        this.name = name;
+        this.type = type;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Check if the variable is disposed.
+     */
+    void checkVariable() {
+        if (isDisposed()) {
+            throw new ILPException(ILPException.ERROR_RESOURCE_DISPOSED);
+        }
+        this.parent.checkProblem();
+    }
+
+    /**
+     * This implementation remove the column from the linear problem.
+     */
+    @Override
+    public void dispose() {
+        if (isDisposed()) {
+            return;
+        }
+        this.parent.removeCol(this);
+    }
+
+    @Override
+    public Double getLowerBound() {
+        checkVariable();
+        return AbstractLinearProblem.toBound(this.lower);
+    }
+
+    @Override
+    public String getName() {
+        checkVariable();
+        return this.name;
+    }
+
+    @Override
+    public VarType getType() {
+        checkVariable();
+        return this.type;
+    }
+
+    @Override
+    public Double getUpperBound() {
+        checkVariable();
+        return AbstractLinearProblem.toBound(this.upper);
+    }
+
+    /**
+     * Returns the primal value of the last solution.
+     */
+    @Override
+    public Double getValue() {
+        checkVariable();
+        this.parent.checkSolution();
+        return Double.valueOf(this.value);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return this.parent == null;
+    }
+
+    @Override
+    public void setLowerBound(Number lb) {
+        checkVariable();
+        this.lower = lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public void setUpperBound(Number ub) {
+        checkVariable();
+        this.upper = ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        if (isDisposed()) {
+            return "MemoryVariable [disposed]"; //$NON-NLS-1$
+        }
+        return this.name;
+    }
+
+}
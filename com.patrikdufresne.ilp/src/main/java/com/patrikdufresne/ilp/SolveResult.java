@@ -0,0 +1,113 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * Result of an asynchronous resolution returned by {@link AsyncSolver}. The
+ * values are read from the linear problem by the thread running the
+ * resolution.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class SolveResult {
+
+    private final boolean feasible;
+
+    private final Double objectiveValue;
+
+    private final LinearProblem problem;
+
+    private final Status status;
+
+    private final double[] values;
+
+    /**
+     * Create a new result.
+     * 
+     * @param problem
+     *            the solved problem or null if disposed
+     * @param feasible
+     *            the value returned by
+     *            {@link Solver#solve(LinearProblem, SolverOption)}
+     * @param status
+     *            the solution status
+     * @param objectiveValue
+     *            the objective value or null if not feasible
+     * @param values
+     *            the values of the variables ordered by index or null if not
+     *            feasible
+     */
+    public SolveResult(LinearProblem problem, boolean feasible, Status status, Double objectiveValue, double[] values) {
+        this.problem = problem;
+        this.feasible = feasible;
+        this.status = status;
+        this.objectiveValue = objectiveValue;
+        this.values = values;
+    }
+
+    /**
+     * Returns the objective value of the solution.
+     * 
+     * @return the objective value or null if not feasible
+     */
+    public Double getObjectiveValue() {
+        return this.objectiveValue;
+    }
+
+    /**
+     * Returns the solved problem.
+     * 
+     * @return the problem or null if it was created and disposed by the thread
+     *         running the resolution
+     */
+    public LinearProblem getProblem() {
+        return this.problem;
+    }
+
+    /**
+     * Returns the solution status.
+     */
+    public Status getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Returns the values of the variables ordered by index, as returned by
+     * {@link LinearProblem#getValues(double[])}.
+     * 
+     * @return the values or null if not feasible
+     */
+    public double[] getValues() {
+        return this.values;
+    }
+
+    /**
+     * Returns the value returned by
+     * {@link Solver#solve(LinearProblem, SolverOption)}.
+     * 
+     * @return True if a feasible solution was found
+     */
+    public boolean isFeasible() {
+        return this.feasible;
+    }
+
+    @Override
+    public String toString() {
+        return "SolveResult [status=" + this.status + ", objectiveValue=" + this.objectiveValue + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+}
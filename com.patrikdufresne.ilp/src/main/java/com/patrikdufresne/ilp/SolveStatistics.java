@@ -0,0 +1,229 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * Statistics of a resolution, returned by
+ * {@link LinearProblem#getStatistics()}. The times are measured in
+ * nanoseconds.
+ * <p>
+ * Not every solver provides every value: a value not provided by the solver is
+ * {@link #UNKNOWN} or {@link Double#NaN} for the objective values.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class SolveStatistics {
+
+    /**
+     * Value of a statistic not provided by the solver.
+     */
+    public static final long UNKNOWN = -1;
+
+    private double bestBound = Double.NaN;
+
+    private long buildTime = UNKNOWN;
+
+    private long cuts = UNKNOWN;
+
+    private long incumbents = UNKNOWN;
+
+    private long iterations = UNKNOWN;
+
+    private long nodes = UNKNOWN;
+
+    private double objectiveValue = Double.NaN;
+
+    private long peakMemory = UNKNOWN;
+
+    private long presolveTime = UNKNOWN;
+
+    private long solveTime = UNKNOWN;
+
+    private long syncTime = UNKNOWN;
+
+    private long timeToFirstIncumbent = UNKNOWN;
+
+    /**
+     * Create new statistics with every value unknown.
+     */
+    public SolveStatistics() {
+        // Nothing to do
+    }
+
+    /**
+     * Returns the best bound of the objective value: the objective value of
+     * the best relaxation still open when the search stopped.
+     * 
+     * @return the best bound or NaN if unknown
+     */
+    public double getBestBound() {
+        return this.bestBound;
+    }
+
+    /**
+     * Returns the time spent to convert the model into the solver
+     * representation.
+     */
+    public long getBuildTime() {
+        return this.buildTime;
+    }
+
+    /**
+     * Returns the number of cuts added by the branch and bound.
+     */
+    public long getCuts() {
+        return this.cuts;
+    }
+
+    /**
+     * Returns the relative gap between the objective value and the best bound:
+     * |objective - bound| / |objective|.
+     * 
+     * @return the relative gap or NaN if unknown
+     */
+    public double getGap() {
+        if (Double.isNaN(this.objectiveValue) || Double.isNaN(this.bestBound)) {
+            return Double.NaN;
+        }
+        return Math.abs(this.objectiveValue - this.bestBound) / (Math.abs(this.objectiveValue) + 1e-10);
+    }
+
+    /**
+     * Returns the number of improving integer solutions found.
+     */
+    public long getIncumbents() {
+        return this.incumbents;
+    }
+
+    /**
+     * Returns the number of simplex iterations.
+     */
+    public long getIterations() {
+        return this.iterations;
+    }
+
+    /**
+     * Returns the number of nodes solved by the branch and bound.
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Returns the objective value of the solution.
+     * 
+     * @return the objective value or NaN if no solution was found
+     */
+    public double getObjectiveValue() {
+        return this.objectiveValue;
+    }
+
+    /**
+     * Returns the peak memory allocated by the native library in bytes.
+     */
+    public long getPeakMemory() {
+        return this.peakMemory;
+    }
+
+    /**
+     * Returns the time spent in the presolver.
+     */
+    public long getPresolveTime() {
+        return this.presolveTime;
+    }
+
+    /**
+     * Returns the total time of the resolution, including the build and the
+     * synchronization.
+     */
+    public long getSolveTime() {
+        return this.solveTime;
+    }
+
+    /**
+     * Returns the time spent to exchange the solution between the solver and
+     * the linear problem.
+     */
+    public long getSyncTime() {
+        return this.syncTime;
+    }
+
+    /**
+     * Returns the time elapsed from the start of the resolution until the
+     * first integer solution was found.
+     */
+    public long getTimeToFirstIncumbent() {
+        return this.timeToFirstIncumbent;
+    }
+
+    public void setBestBound(double bound) {
+        this.bestBound = bound;
+    }
+
+    public void setBuildTime(long nanoseconds) {
+        this.buildTime = nanoseconds;
+    }
+
+    public void setCuts(long cuts) {
+        this.cuts = cuts;
+    }
+
+    public void setIncumbents(long incumbents) {
+        this.incumbents = incumbents;
+    }
+
+    public void setIterations(long iterations) {
+        this.iterations = iterations;
+    }
+
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    public void setObjectiveValue(double value) {
+        this.objectiveValue = value;
+    }
+
+    public void setPeakMemory(long bytes) {
+        this.peakMemory = bytes;
+    }
+
+    public void setPresolveTime(long nanoseconds) {
+        this.presolveTime = nanoseconds;
+    }
+
+    public void setSolveTime(long nanoseconds) {
+        this.solveTime = nanoseconds;
+    }
+
+    public void setSyncTime(long nanoseconds) {
+        this.syncTime = nanoseconds;
+    }
+
+    public void setTimeToFirstIncumbent(long nanoseconds) {
+        this.timeToFirstIncumbent = nanoseconds;
+    }
+
+    @Override
+    public String toString() {
+        return "SolveStatistics [solveTime=" + this.solveTime + ", buildTime=" + this.buildTime + ", syncTime=" + this.syncTime + ", presolveTime=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                + this.presolveTime + ", iterations=" + this.iterations + ", nodes=" + this.nodes + ", cuts=" + this.cuts + ", bestBound=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                + this.bestBound + ", gap=" + getGap() + ", incumbents=" + this.incumbents + ", timeToFirstIncumbent=" + this.timeToFirstIncumbent //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + ", peakMemory=" + this.peakMemory + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+/**
+ * Constraint matrix in compressed sparse row format, returned by
+ * {@link LinearProblem#getMatrix()}. The layout is the one expected by
+ * {@link LinearProblem#addConstraints(String[], int[], int[], double[], double[], double[])}
+ * : the terms of the row <code>i</code> are stored in {@link #getColumns()}
+ * and {@link #getCoefficients()} from index <code>starts[i]</code>
+ * (inclusive) to <code>starts[i + 1]</code> (exclusive).
+ * <p>
+ * The arrays are not copied, they must not be modified.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class SparseMatrix {
+
+    private final double[] coefficients;
+
+    private final int columnCount;
+
+    private final int[] columns;
+
+    private final int[] starts;
+
+    /**
+     * Create a new matrix.
+     * 
+     * @param columnCount
+     *            the number of columns
+     * @param starts
+     *            the index of the first term of each row, of size
+     *            <code>n + 1</code> where <code>n</code> is the number of rows
+     * @param columns
+     *            the column index of each term
+     * @param coefficients
+     *            the coefficient of each term
+     */
+    public SparseMatrix(int columnCount, int[] starts, int[] columns, double[] coefficients) {
+        if (starts == null || columns == null || coefficients == null) {
+            throw new NullPointerException();
+        }
+        if (starts.length == 0 || columns.length != coefficients.length || starts[starts.length - 1] > columns.length) {
+            throw new IllegalArgumentException("inconsistent arrays length"); //$NON-NLS-1$
+        }
+        this.columnCount = columnCount;
+        this.starts = starts;
+        this.columns = columns;
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * Returns the coefficient of each term.
+     * 
+     * @return the coefficients
+     */
+    public double[] getCoefficients() {
+        return this.coefficients;
+    }
+
+    /**
+     * Returns the number of columns.
+     * 
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return this.columnCount;
+    }
+
+    /**
+     * Returns the column index of each term.
+     * 
+     * @return the column indices
+     */
+    public int[] getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Returns the number of terms.
+     * 
+     * @return the number of non-zero coefficients
+     */
+    public int getNonZeroCount() {
+        return this.starts[this.starts.length - 1];
+    }
+
+    /**
+     * Returns the number of rows.
+     * 
+     * @return the number of rows
+     */
+    public int getRowCount() {
+        return this.starts.length - 1;
+    }
+
+    /**
+     * Returns the index of the first term of each row.
+     * 
+     * @return the row starts, of size <code>n + 1</code>
+     */
+    public int[] getStarts() {
+        return this.starts;
+    }
+
+}
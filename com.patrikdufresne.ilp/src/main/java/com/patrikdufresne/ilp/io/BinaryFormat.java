@@ -0,0 +1,438 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
+
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.Constraint;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Compact binary model format written using a {@link FileChannel} and loaded by memory-mapping the file. The arrays
+ * are stored one after the other, so they are read using bulk copies and loaded into the problem using the bulk
+ * functions without creating any {@link com.patrikdufresne.ilp.Term} object.
+ * <p>
+ * The file is encoded in little-endian as:
+ * 
+ * <pre>
+ * int     magic "ILPB"
+ * int     version
+ * int     flags, 1 if the names are stored
+ * int     objective direction
+ * long    n, the number of columns
+ * long    m, the number of rows
+ * long    nnz, the number of coefficients
+ * n x     double column lower bound
+ * n x     double column upper bound
+ * n x     double objective coefficient
+ * m x     double row lower bound
+ * m x     double row upper bound
+ * nnz x   double coefficient
+ * m+1 x   int row start
+ * nnz x   int column index
+ * n x     byte column type
+ * n+m x   int name length in bytes or -1 for null, followed by the UTF-8 names (if stored)
+ * </pre>
+ * 
+ * Unbounded values are stored as infinity. The sections of doubles are aligned on 8 bytes.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public final class BinaryFormat {
+
+    /**
+     * Size of the write buffer.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Flag set when the names are stored.
+     */
+    private static final int FLAG_NAMES = 1;
+
+    /**
+     * Size of the header in bytes.
+     */
+    private static final int HEADER_SIZE = 40;
+
+    /**
+     * Magic number identifying the format: "ILPB".
+     */
+    private static final int MAGIC = 0x494C5042;
+
+    /**
+     * Largest region mapped at once.
+     */
+    private static final int MAX_MAPPING = 1 << 30;
+
+    /**
+     * The variable types by code.
+     */
+    private static final VarType[] TYPES = new VarType[] { VarType.BOOL, VarType.INTEGER, VarType.REAL };
+
+    private static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    /**
+     * Format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Map a region of the file.
+     */
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Read a model file. The variables and constraints are added to the given problem using the bulk functions and the
+     * objective is replaced.
+     * 
+     * @param file
+     *            the file to read
+     * @param lp
+     *            the linear problem
+     * @throws IOException
+     *             if the file can't be read or is not a valid binary model
+     */
+    public static void read(File file, LinearProblem lp) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+        try {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("invalid binary model: " + file); //$NON-NLS-1$
+            }
+            MappedByteBuffer header = map(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("invalid binary model: " + file); //$NON-NLS-1$
+            }
+            int flags = header.getInt();
+            int direction = header.getInt();
+            long n = header.getLong();
+            long m = header.getLong();
+            long nnz = header.getLong();
+            if (n < 0 || m < 0 || nnz < 0 || n > Integer.MAX_VALUE || m >= Integer.MAX_VALUE || nnz > Integer.MAX_VALUE) {
+                throw new IOException("invalid binary model size: " + file); //$NON-NLS-1$
+            }
+            long size = HEADER_SIZE + 8 * (3 * n + 2 * m + nnz) + 4 * (m + 1 + nnz) + n;
+            if (channel.size() < size) {
+                throw new IOException("truncated binary model: " + file); //$NON-NLS-1$
+            }
+            Section in = new Section(channel, HEADER_SIZE);
+            double[] lower = in.readDoubles((int) n);
+            double[] upper = in.readDoubles((int) n);
+            double[] objective = in.readDoubles((int) n);
+            double[] rowLower = in.readDoubles((int) m);
+            double[] rowUpper = in.readDoubles((int) m);
+            double[] coefficients = in.readDoubles((int) nnz);
+            int[] starts = in.readInts((int) m + 1);
+            int[] columns = in.readInts((int) nnz);
+            byte[] codes = in.readBytes((int) n);
+            VarType[] types = new VarType[(int) n];
+            for (int j = 0; j < n; j++) {
+                if (codes[j] < 0 || codes[j] >= TYPES.length) {
+                    throw new IOException("invalid variable type: " + codes[j]); //$NON-NLS-1$
+                }
+                types[j] = TYPES[codes[j]];
+            }
+            codes = null;
+            String[] names = null;
+            String[] rowNames = null;
+            if ((flags & FLAG_NAMES) != 0) {
+                int[] lengths = in.readInts((int) (n + m));
+                long total = 0;
+                for (int length : lengths) {
+                    total += Math.max(0, length);
+                }
+                if (total > Integer.MAX_VALUE || channel.size() < size + 4 * (n + m) + total) {
+                    throw new IOException("truncated binary model: " + file); //$NON-NLS-1$
+                }
+                byte[] bytes = in.readBytes((int) total);
+                names = new String[(int) n];
+                rowNames = new String[(int) m];
+                int offset = 0;
+                for (int k = 0; k < lengths.length; k++) {
+                    String name = null;
+                    if (lengths[k] >= 0) {
+                        name = new String(bytes, offset, lengths[k], UTF8);
+                        offset += lengths[k];
+                    }
+                    if (k < n) {
+                        names[k] = name;
+                    } else {
+                        rowNames[(int) (k - n)] = name;
+                    }
+                }
+            }
+
+            // Create the problem.
+            lp.setObjectiveDirection(direction);
+            int first = lp.getVariables().size();
+            if (n > 0) {
+                first = lp.addVariables(names, types, lower, upper);
+            }
+            if (first > 0) {
+                for (int k = 0; k < columns.length; k++) {
+                    columns[k] += first;
+                }
+            }
+            Collection<? extends Variable> list = lp.getVariables();
+            Variable[] variables = list.toArray(new Variable[list.size()]);
+            Variable[] created = new Variable[(int) n];
+            System.arraycopy(variables, first, created, 0, created.length);
+            lp.setObjectiveLinear(lp.createLinear(objective, created));
+            if (m > 0) {
+                lp.addConstraints(rowNames, starts, columns, coefficients, rowLower, rowUpper);
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Write the linear problem to a file.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param file
+     *            the destination file
+     * @param names
+     *            true to store the variables and constraints names
+     * @throws IOException
+     */
+    public static void write(LinearProblem lp, File file, boolean names) throws IOException {
+        ProblemIndex index = new ProblemIndex(lp, new ProblemIndex.NameValidator() {
+            @Override
+            public boolean isValid(String name) {
+                return true;
+            }
+        });
+        int n = index.variables.size();
+        int m = index.constraints.size();
+
+        // Collect the rows using the CSR representation.
+        int[] starts = new int[m + 1];
+        int[] columns = new int[16];
+        double[] coefficients = new double[16];
+        int nnz = 0;
+        for (int i = 0; i < m; i++) {
+            starts[i] = nnz;
+            ArrayLinear linear = ProblemIndex.toArray(index.constraints.get(i).getLinear());
+            if (nnz + linear.size() > columns.length) {
+                int capacity = Math.max(nnz + linear.size(), columns.length * 2);
+                int[] c = new int[capacity];
+                double[] v = new double[capacity];
+                System.arraycopy(columns, 0, c, 0, nnz);
+                System.arraycopy(coefficients, 0, v, 0, nnz);
+                columns = c;
+                coefficients = v;
+            }
+            for (int k = 0; k < linear.size(); k++) {
+                columns[nnz] = index.column(linear.getVariable(k));
+                coefficients[nnz] = linear.getCoefficient(k);
+                nnz++;
+            }
+        }
+        starts[m] = nnz;
+        double[] objective = new double[n];
+        ArrayLinear linear = ProblemIndex.toArray(lp.getObjectiveLinear());
+        for (int k = 0; k < linear.size(); k++) {
+            objective[index.column(linear.getVariable(k))] += linear.getCoefficient(k);
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw"); //$NON-NLS-1$
+        try {
+            raf.setLength(0);
+            FileChannel channel = raf.getChannel();
+            ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putInt(names ? FLAG_NAMES : 0).putInt(lp.getObjectiveDirection());
+            out.putLong(n).putLong(m).putLong(nnz);
+            for (int j = 0; j < n; j++) {
+                out = ensure(channel, out, 8).putDouble(ProblemIndex.bound(index.variables.get(j).getLowerBound(), Double.NEGATIVE_INFINITY));
+            }
+            for (int j = 0; j < n; j++) {
+                out = ensure(channel, out, 8).putDouble(ProblemIndex.bound(index.variables.get(j).getUpperBound(), Double.POSITIVE_INFINITY));
+            }
+            writeDoubles(channel, out, objective, n);
+            for (Constraint c : index.constraints) {
+                out = ensure(channel, out, 8).putDouble(ProblemIndex.bound(c.getLowerBound(), Double.NEGATIVE_INFINITY));
+            }
+            for (Constraint c : index.constraints) {
+                out = ensure(channel, out, 8).putDouble(ProblemIndex.bound(c.getUpperBound(), Double.POSITIVE_INFINITY));
+            }
+            writeDoubles(channel, out, coefficients, nnz);
+            writeInts(channel, out, starts, m + 1);
+            writeInts(channel, out, columns, nnz);
+            for (int j = 0; j < n; j++) {
+                out = ensure(channel, out, 1).put((byte) type(index.variables.get(j).getType()));
+            }
+            if (names) {
+                byte[][] bytes = new byte[n + m][];
+                for (int k = 0; k < n + m; k++) {
+                    String name = k < n ? index.variables.get(k).getName() : index.constraints.get(k - n).getName();
+                    bytes[k] = name != null ? name.getBytes(UTF8) : null;
+                    out = ensure(channel, out, 4).putInt(name != null ? bytes[k].length : -1);
+                }
+                for (int k = 0; k < n + m; k++) {
+                    if (bytes[k] != null) {
+                        writeBytes(channel, out, bytes[k]);
+                    }
+                }
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Flush the buffer to the channel if it doesn't have the given number of bytes remaining.
+     */
+    private static ByteBuffer ensure(FileChannel channel, ByteBuffer out, int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+        return out;
+    }
+
+    /**
+     * Returns the code of the variable type.
+     */
+    private static int type(VarType type) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i].equals(type)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("unknown type: " + type); //$NON-NLS-1$
+    }
+
+    private static void writeBytes(FileChannel channel, ByteBuffer out, byte[] values) throws IOException {
+        int offset = 0;
+        while (offset < values.length) {
+            ensure(channel, out, 1);
+            int count = Math.min(out.remaining(), values.length - offset);
+            out.put(values, offset, count);
+            offset += count;
+        }
+    }
+
+    private static void writeDoubles(FileChannel channel, ByteBuffer out, double[] values, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            ensure(channel, out, 8);
+            int count = Math.min(out.remaining() / 8, length - offset);
+            out.asDoubleBuffer().put(values, offset, count);
+            out.position(out.position() + count * 8);
+            offset += count;
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer out, int[] values, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            ensure(channel, out, 4);
+            int count = Math.min(out.remaining() / 4, length - offset);
+            out.asIntBuffer().put(values, offset, count);
+            out.position(out.position() + count * 4);
+            offset += count;
+        }
+    }
+
+    /**
+     * Private constructor for utility class.
+     */
+    private BinaryFormat() {
+        // Nothing to do
+    }
+
+    /**
+     * Read the consecutive sections of the file by mapping them in regions of at most {@link #MAX_MAPPING} bytes.
+     */
+    private static class Section {
+
+        private final FileChannel channel;
+
+        /**
+         * The position of the next section.
+         */
+        private long position;
+
+        Section(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            byte[] values = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                int count = Math.min(MAX_MAPPING, length - offset);
+                map(this.channel, this.position, count).get(values, offset, count);
+                this.position += count;
+                offset += count;
+            }
+            return values;
+        }
+
+        double[] readDoubles(int length) throws IOException {
+            double[] values = new double[length];
+            int offset = 0;
+            while (offset < length) {
+                int count = Math.min(MAX_MAPPING / 8, length - offset);
+                map(this.channel, this.position, count * 8L).asDoubleBuffer().get(values, offset, count);
+                this.position += count * 8L;
+                offset += count;
+            }
+            return values;
+        }
+
+        int[] readInts(int length) throws IOException {
+            int[] values = new int[length];
+            int offset = 0;
+            while (offset < length) {
+                int count = Math.min(MAX_MAPPING / 4, length - offset);
+                map(this.channel, this.position, count * 4L).asIntBuffer().get(values, offset, count);
+                this.position += count * 4L;
+                offset += count;
+            }
+            return values;
+        }
+
+    }
+
+}
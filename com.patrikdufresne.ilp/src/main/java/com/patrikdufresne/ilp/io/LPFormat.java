@@ -0,0 +1,689 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.Constraint;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Read and write a linear problem in CPLEX LP format. The sections objective (Minimize or Maximize), Subject To,
+ * Bounds, General and Binary are supported. The constraints may be written <code>expression op value</code> or
+ * <code>value op expression op value</code> for ranged constraints. Section keywords must start a line.
+ * <p>
+ * A {@link LinearProblem} has no objective offset: the constant terms of the objective are ignored with a warning.
+ * Constraints without bounds are written <code>expression &gt;= -inf</code>.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public final class LPFormat {
+
+    /**
+     * The section identifiers.
+     */
+    private static final int OBJECTIVE = 1;
+    private static final int CONSTRAINTS = 2;
+    private static final int BOUNDS = 3;
+    private static final int GENERAL = 4;
+    private static final int BINARY = 5;
+    private static final int END = 6;
+
+    /**
+     * The keywords that can't be used as names.
+     */
+    private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList("max", "maximize", "maximum", "maximise", "min", "minimize", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+            "minimum", "minimise", "subject", "such", "st", "s.t.", "bound", "bounds", "gen", "general", "generals", "integer", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
+            "integers", "bin", "binary", "binaries", "end", "free", "inf", "infinity", "semi", "semis", "semi-continuous", "sos", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
+            "lazy", "user")); //$NON-NLS-1$ //$NON-NLS-2$
+
+    /**
+     * Length from which the expressions are wrapped.
+     */
+    private static final int LINE_LENGTH = 200;
+
+    /**
+     * The characters ending a name.
+     */
+    private static final String DELIMITERS = "+-<>=:"; //$NON-NLS-1$
+
+    /**
+     * Used to check if a name may be written.
+     */
+    private static final ProblemIndex.NameValidator VALIDATOR = new ProblemIndex.NameValidator() {
+        @Override
+        public boolean isValid(String name) {
+            if (name == null || name.isEmpty() || name.length() > 255 || KEYWORDS.contains(name.toLowerCase())) {
+                return false;
+            }
+            char first = name.charAt(0);
+            if (Character.isDigit(first) || first == '.' || ((first == 'e' || first == 'E') && name.length() > 1 && Character.isDigit(name.charAt(1)))) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (Character.isWhitespace(c) || DELIMITERS.indexOf(c) >= 0 || "*^/[]\\".indexOf(c) >= 0) { //$NON-NLS-1$
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Returns true if the token is the infinity keyword.
+     */
+    private static boolean isInfinity(String token) {
+        return "inf".equalsIgnoreCase(token) || "infinity".equalsIgnoreCase(token); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Returns true if the token is a number.
+     */
+    private static boolean isNumber(String token) {
+        char c = token.charAt(0);
+        return Character.isDigit(c) || c == '.';
+    }
+
+    /**
+     * Returns true if the token is a relational operator.
+     */
+    private static boolean isOperator(String token) {
+        char c = token.charAt(0);
+        return c == '<' || c == '>' || c == '=';
+    }
+
+    /**
+     * Returns the section identified by the current line or 0 if the line is not a section keyword.
+     */
+    private static int section(LineReader in) throws IOException {
+        String first = in.field(0).toLowerCase();
+        int section = 0;
+        int fields = 1;
+        if ("max".equals(first) || "maximize".equals(first) || "maximum".equals(first) || "maximise".equals(first) || "min".equals(first) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+                || "minimize".equals(first) || "minimum".equals(first) || "minimise".equals(first)) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            return OBJECTIVE;
+        } else if (("subject".equals(first) || "such".equals(first)) && in.count() == 2) { //$NON-NLS-1$ //$NON-NLS-2$
+            section = CONSTRAINTS;
+            fields = 2;
+        } else if ("st".equals(first) || "s.t.".equals(first)) { //$NON-NLS-1$ //$NON-NLS-2$
+            section = CONSTRAINTS;
+        } else if ("bound".equals(first) || "bounds".equals(first)) { //$NON-NLS-1$ //$NON-NLS-2$
+            section = BOUNDS;
+        } else if ("gen".equals(first) || "general".equals(first) || "generals".equals(first) || "integer".equals(first) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                || "integers".equals(first)) { //$NON-NLS-1$
+            section = GENERAL;
+        } else if ("bin".equals(first) || "binary".equals(first) || "binaries".equals(first)) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            section = BINARY;
+        } else if ("end".equals(first)) { //$NON-NLS-1$
+            section = END;
+        } else if ("semi".equals(first) || "semis".equals(first) || "semi-continuous".equals(first) || "sos".equals(first) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                || (("lazy".equals(first) || "user".equals(first)) && in.count() == 2)) { //$NON-NLS-1$ //$NON-NLS-2$
+            throw in.error("unsupported section: " + in.line().trim()); //$NON-NLS-1$
+        }
+        return in.count() == fields ? section : 0;
+    }
+
+    /**
+     * Split the fields of the current line into tokens: names, numbers, signs, relational operators and colons.
+     */
+    private static void tokenize(LineReader in, int first, List<String> tokens) {
+        tokens.clear();
+        for (int f = first; f < in.count(); f++) {
+            String field = in.field(f);
+            int length = field.length();
+            int i = 0;
+            while (i < length) {
+                char c = field.charAt(i);
+                int start = i;
+                if (c == '+' || c == '-' || c == ':') {
+                    i++;
+                } else if (c == '<' || c == '>' || c == '=') {
+                    i++;
+                    if (i < length && "<>=".indexOf(field.charAt(i)) >= 0) { //$NON-NLS-1$
+                        i++;
+                    }
+                } else if (Character.isDigit(c) || c == '.') {
+                    while (i < length && (Character.isDigit(field.charAt(i)) || field.charAt(i) == '.')) {
+                        i++;
+                    }
+                    if (i < length && (field.charAt(i) == 'e' || field.charAt(i) == 'E')) {
+                        int exp = i + 1;
+                        if (exp < length && (field.charAt(exp) == '+' || field.charAt(exp) == '-')) {
+                            exp++;
+                        }
+                        if (exp < length && Character.isDigit(field.charAt(exp))) {
+                            i = exp;
+                            while (i < length && Character.isDigit(field.charAt(i))) {
+                                i++;
+                            }
+                        }
+                    }
+                } else {
+                    while (i < length && DELIMITERS.indexOf(field.charAt(i)) < 0) {
+                        i++;
+                    }
+                }
+                tokens.add(field.substring(start, i));
+            }
+        }
+    }
+
+    /**
+     * Read a linear problem in CPLEX LP format. The variables and constraints are added to the given problem using the
+     * bulk functions and the objective is replaced. The variables are created in the order of appearance.
+     * 
+     * @param reader
+     *            the reader
+     * @param lp
+     *            the linear problem
+     * @throws IOException
+     *             if the reader fails or the content is not valid, the message contains the line number
+     */
+    public static void read(Reader reader, LinearProblem lp) throws IOException {
+        LineReader in = new LineReader(reader);
+        ModelBuilder model = new ModelBuilder();
+        ExpressionParser parser = new ExpressionParser(model);
+        List<String> tokens = new ArrayList<String>();
+        int section = 0;
+        while (section != END && in.next('\\')) {
+            if (in.count() == 0) {
+                continue;
+            }
+            int first = 0;
+            int next = section(in);
+            if (next == OBJECTIVE) {
+                String keyword = in.field(0).toLowerCase();
+                model.setDirection(keyword.startsWith("max") ? LinearProblem.MAXIMIZE : LinearProblem.MINIMIZE); //$NON-NLS-1$
+                first = 1;
+            }
+            if (next != 0) {
+                if (section == CONSTRAINTS || section == OBJECTIVE) {
+                    parser.end(in);
+                }
+                section = next;
+                parser.start(section == OBJECTIVE);
+                if (first == 0) {
+                    continue;
+                }
+            }
+            tokenize(in, first, tokens);
+            switch (section) {
+            case OBJECTIVE:
+            case CONSTRAINTS:
+                parser.parse(in, tokens);
+                break;
+            case BOUNDS:
+                readBound(in, model, tokens);
+                break;
+            case GENERAL:
+            case BINARY:
+                for (String name : tokens) {
+                    int j = model.columnOrAdd(name);
+                    if (section == GENERAL) {
+                        model.setColumnType(j, VarType.INTEGER);
+                    } else {
+                        model.setColumnType(j, VarType.BOOL);
+                        model.setColumnLower(j, 0);
+                        model.setColumnUpper(j, 1);
+                    }
+                }
+                break;
+            default:
+                throw in.error("data line outside a section"); //$NON-NLS-1$
+            }
+        }
+        if (section == CONSTRAINTS || section == OBJECTIVE) {
+            parser.end(in);
+        }
+        model.load(lp);
+    }
+
+    /**
+     * Read a bound: <code>name free</code>, <code>name op value</code>, <code>value op name</code> or
+     * <code>value op name op value</code>.
+     */
+    private static void readBound(LineReader in, ModelBuilder model, List<String> tokens) throws IOException {
+        // Merge the signs with the values.
+        List<String> fields = new ArrayList<String>(tokens.size());
+        for (int k = 0; k < tokens.size(); k++) {
+            String token = tokens.get(k);
+            if ((token.equals("+") || token.equals("-")) && k + 1 < tokens.size()) { //$NON-NLS-1$ //$NON-NLS-2$
+                fields.add(token + tokens.get(++k));
+            } else {
+                fields.add(token);
+            }
+        }
+        if (fields.size() == 2 && "free".equalsIgnoreCase(fields.get(1))) { //$NON-NLS-1$
+            int j = model.columnOrAdd(fields.get(0));
+            model.setColumnLower(j, Double.NEGATIVE_INFINITY);
+            model.setColumnUpper(j, Double.POSITIVE_INFINITY);
+        } else if (fields.size() == 3 && isOperator(fields.get(1)) && !isValue(fields.get(0))) {
+            setBound(in, model, model.columnOrAdd(fields.get(0)), fields.get(1), value(in, fields.get(2)));
+        } else if ((fields.size() == 3 || fields.size() == 5) && isOperator(fields.get(1)) && isValue(fields.get(0))) {
+            int j = model.columnOrAdd(fields.get(2));
+            setBound(in, model, j, reverse(fields.get(1)), value(in, fields.get(0)));
+            if (fields.size() == 5) {
+                if (!isOperator(fields.get(3))) {
+                    throw in.error("expected a relational operator: " + fields.get(3)); //$NON-NLS-1$
+                }
+                setBound(in, model, j, fields.get(3), value(in, fields.get(4)));
+            }
+        } else {
+            throw in.error("invalid bound: " + in.line().trim()); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns true if the field is a number or an infinite value.
+     */
+    private static boolean isValue(String field) {
+        String abs = field.startsWith("+") || field.startsWith("-") ? field.substring(1) : field; //$NON-NLS-1$ //$NON-NLS-2$
+        return !abs.isEmpty() && (isNumber(abs) || isInfinity(abs));
+    }
+
+    /**
+     * Reverse the relational operator.
+     */
+    private static String reverse(String op) {
+        if (op.charAt(0) == '<' || (op.length() > 1 && op.charAt(1) == '<')) {
+            return ">="; //$NON-NLS-1$
+        } else if (op.charAt(0) == '>' || (op.length() > 1 && op.charAt(1) == '>')) {
+            return "<="; //$NON-NLS-1$
+        }
+        return op;
+    }
+
+    /**
+     * Sets the bound of a column: <code>column op value</code>.
+     */
+    private static void setBound(LineReader in, ModelBuilder model, int j, String op, double value) throws IOException {
+        switch (operator(in, op)) {
+        case '<':
+            model.setColumnUpper(j, value);
+            break;
+        case '>':
+            model.setColumnLower(j, value);
+            break;
+        default:
+            model.setColumnLower(j, value);
+            model.setColumnUpper(j, value);
+        }
+    }
+
+    /**
+     * Returns the relational operator: '&lt;', '&gt;' or '='.
+     */
+    static char operator(LineReader in, String op) throws IOException {
+        if ("<".equals(op) || "<=".equals(op) || "=<".equals(op)) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            return '<';
+        } else if (">".equals(op) || ">=".equals(op) || "=>".equals(op)) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            return '>';
+        } else if ("=".equals(op)) { //$NON-NLS-1$
+            return '=';
+        }
+        throw in.error("invalid relational operator: " + op); //$NON-NLS-1$
+    }
+
+    /**
+     * Parse a value.
+     */
+    static double value(LineReader in, String value) throws IOException {
+        try {
+            return LineReader.parseNumber(value);
+        } catch (NumberFormatException e) {
+            throw in.error("expected a number: " + value); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Write the linear problem in CPLEX LP format. The problem is written constraint by constraint without copying the
+     * coefficients.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param writer
+     *            the writer, not closed by this function
+     * @throws IOException
+     */
+    public static void write(LinearProblem lp, Writer writer) throws IOException {
+        ProblemIndex index = new ProblemIndex(lp, VALIDATOR);
+        int n = index.variables.size();
+        int m = index.constraints.size();
+        LineWriter out = new LineWriter(writer);
+        if (lp.getName() != null) {
+            out.write("\\ Problem: ").write(lp.getName().replace('\n', ' ')).newLine(); //$NON-NLS-1$
+        }
+        out.write(lp.getObjectiveDirection() == LinearProblem.MAXIMIZE ? "Maximize" : "Minimize").newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+        out.write(" obj:"); //$NON-NLS-1$
+        writeLinear(out, index, ProblemIndex.toArray(lp.getObjectiveLinear()));
+        out.newLine();
+
+        out.write("Subject To").newLine(); //$NON-NLS-1$
+        for (int i = 0; i < m; i++) {
+            Constraint c = index.constraints.get(i);
+            ArrayLinear linear = ProblemIndex.toArray(c.getLinear());
+            if (linear.size() == 0 && n == 0) {
+                continue;
+            }
+            double lower = ProblemIndex.bound(c.getLowerBound(), Double.NEGATIVE_INFINITY);
+            double upper = ProblemIndex.bound(c.getUpperBound(), Double.POSITIVE_INFINITY);
+            out.write(" ").write(index.rowName(i)).write(":"); //$NON-NLS-1$ //$NON-NLS-2$
+            boolean ranged = lower != upper && lower != Double.NEGATIVE_INFINITY && upper != Double.POSITIVE_INFINITY;
+            if (ranged) {
+                out.write(" ").write(lower).write(" <="); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            writeLinear(out, index, linear);
+            if (ranged) {
+                out.write(" <= ").write(upper); //$NON-NLS-1$
+            } else if (lower == upper) {
+                out.write(" = ").write(lower); //$NON-NLS-1$
+            } else if (upper != Double.POSITIVE_INFINITY) {
+                out.write(" <= ").write(upper); //$NON-NLS-1$
+            } else if (lower != Double.NEGATIVE_INFINITY) {
+                out.write(" >= ").write(lower); //$NON-NLS-1$
+            } else {
+                out.write(" >= -inf"); //$NON-NLS-1$
+            }
+            out.newLine();
+        }
+
+        out.write("Bounds").newLine(); //$NON-NLS-1$
+        for (int j = 0; j < n; j++) {
+            Variable var = index.variables.get(j);
+            String col = index.columnName(j);
+            double lower = ProblemIndex.bound(var.getLowerBound(), Double.NEGATIVE_INFINITY);
+            double upper = ProblemIndex.bound(var.getUpperBound(), Double.POSITIVE_INFINITY);
+            if (VarType.BOOL.equals(var.getType()) && lower == 0 && upper == 1) {
+                continue;
+            } else if (lower == upper) {
+                out.write(" ").write(col).write(" = ").write(lower).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+            } else if (lower == Double.NEGATIVE_INFINITY && upper == Double.POSITIVE_INFINITY) {
+                out.write(" ").write(col).write(" free").newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+            } else if (lower == Double.NEGATIVE_INFINITY) {
+                out.write(" -inf <= ").write(col).write(" <= ").write(upper).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+            } else if (upper != Double.POSITIVE_INFINITY) {
+                out.write(" ").write(lower).write(" <= ").write(col).write(" <= ").write(upper).newLine(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            } else if (lower != 0) {
+                out.write(" ").write(col).write(" >= ").write(lower).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        writeNames(out, index, "General", VarType.INTEGER); //$NON-NLS-1$
+        writeNames(out, index, "Binary", VarType.BOOL); //$NON-NLS-1$
+        out.write("End").newLine(); //$NON-NLS-1$
+        out.flush();
+    }
+
+    /**
+     * Write a linear expression, wrapping the line when too long. An empty expression is written as a zero coefficient
+     * of the first column.
+     */
+    private static void writeLinear(LineWriter out, ProblemIndex index, ArrayLinear linear) throws IOException {
+        if (linear.size() == 0 && index.variables.size() > 0) {
+            out.write(" 0 ").write(index.columnName(0)); //$NON-NLS-1$
+        }
+        for (int k = 0; k < linear.size(); k++) {
+            if (out.length() > LINE_LENGTH) {
+                out.newLine().write(" "); //$NON-NLS-1$
+            }
+            double coefficient = linear.getCoefficient(k);
+            out.write(coefficient < 0 ? " - " : " + "); //$NON-NLS-1$ //$NON-NLS-2$
+            if (Math.abs(coefficient) != 1) {
+                out.write(Math.abs(coefficient)).write(" "); //$NON-NLS-1$
+            }
+            out.write(index.columnName(index.column(linear.getVariable(k))));
+        }
+    }
+
+    /**
+     * Write the names of the variables of the given type in a section.
+     */
+    private static void writeNames(LineWriter out, ProblemIndex index, String section, VarType type) throws IOException {
+        boolean header = false;
+        for (int j = 0; j < index.variables.size(); j++) {
+            if (!type.equals(index.variables.get(j).getType())) {
+                continue;
+            }
+            if (!header) {
+                out.write(section).newLine();
+                header = true;
+            } else if (out.length() > LINE_LENGTH) {
+                out.newLine();
+            }
+            out.write(" ").write(index.columnName(j)); //$NON-NLS-1$
+        }
+        if (header) {
+            out.newLine();
+        }
+    }
+
+    /**
+     * Private constructor for utility class.
+     */
+    private LPFormat() {
+        // Nothing to do
+    }
+
+    /**
+     * State machine parsing the objective and the constraints. The expressions may span multiple lines, a constraint
+     * ends with its right hand side.
+     */
+    private static class ExpressionParser {
+
+        /**
+         * Row index used while parsing the objective.
+         */
+        static final int OBJECTIVE_ROW = -2;
+
+        /**
+         * Row index used between two constraints.
+         */
+        static final int NO_ROW = -1;
+
+        /**
+         * The pending coefficient or NaN.
+         */
+        private double coefficient = Double.NaN;
+
+        /**
+         * The lower value of a ranged constraint <code>value op expression op value</code> or NaN.
+         */
+        private double first = Double.NaN;
+
+        /**
+         * The operator of the lower value of a ranged constraint.
+         */
+        private char firstOperator;
+
+        private final ModelBuilder model;
+
+        /**
+         * The operator of the right hand side, or 0 if not yet parsed.
+         */
+        private char operator;
+
+        /**
+         * The current row index, {@link #OBJECTIVE_ROW} or {@link #NO_ROW}.
+         */
+        private int row = NO_ROW;
+
+        /**
+         * The sign of the pending term.
+         */
+        private double sign = 1;
+
+        /**
+         * True if the current row has at least one term.
+         */
+        private boolean terms;
+
+        ExpressionParser(ModelBuilder model) {
+            this.model = model;
+        }
+
+        /**
+         * Add the pending term.
+         */
+        private void addTerm(String name) {
+            double value = this.sign * (Double.isNaN(this.coefficient) ? 1 : this.coefficient);
+            int j = this.model.columnOrAdd(name);
+            if (this.row == OBJECTIVE_ROW) {
+                this.model.addObjective(j, value);
+            } else {
+                this.model.addCoefficient(this.row, j, value);
+            }
+            this.sign = 1;
+            this.coefficient = Double.NaN;
+            this.terms = true;
+        }
+
+        /**
+         * Complete the current constraint with its right hand side.
+         */
+        private void complete(LineReader in, double rhs) throws IOException {
+            double lower = Double.NEGATIVE_INFINITY;
+            double upper = Double.POSITIVE_INFINITY;
+            if (this.operator == '<') {
+                upper = rhs;
+            } else if (this.operator == '>') {
+                lower = rhs;
+            } else {
+                lower = upper = rhs;
+            }
+            if (!Double.isNaN(this.first)) {
+                if (this.firstOperator == '<' && this.operator == '<') {
+                    lower = this.first;
+                } else if (this.firstOperator == '>' && this.operator == '>') {
+                    upper = this.first;
+                } else {
+                    throw in.error("invalid ranged constraint"); //$NON-NLS-1$
+                }
+            }
+            this.model.setRowBounds(this.row, lower, upper);
+            this.row = NO_ROW;
+            this.operator = 0;
+            this.first = Double.NaN;
+            this.sign = 1;
+            this.coefficient = Double.NaN;
+            this.terms = false;
+        }
+
+        /**
+         * Check the pending constant term, if any. The constant term of the objective is ignored while the constant
+         * terms of the constraints are not supported.
+         */
+        private void constant(LineReader in) throws IOException {
+            if (Double.isNaN(this.coefficient)) {
+                return;
+            } else if (this.row != OBJECTIVE_ROW) {
+                throw in.error("constant terms are not supported"); //$NON-NLS-1$
+            } else {
+                in.warning("objective constant term ignored: " + this.sign * this.coefficient); //$NON-NLS-1$
+                this.sign = 1;
+                this.coefficient = Double.NaN;
+            }
+        }
+
+        /**
+         * Check the end of the section.
+         */
+        void end(LineReader in) throws IOException {
+            if (this.row == OBJECTIVE_ROW) {
+                constant(in);
+            }
+            if (!Double.isNaN(this.coefficient) || this.operator != 0 || (this.row >= 0 && this.terms)) {
+                throw in.error("incomplete expression"); //$NON-NLS-1$
+            }
+        }
+
+        /**
+         * Start parsing a new section.
+         * 
+         * @param objective
+         *            true to parse the objective, false to parse the constraints
+         */
+        void start(boolean objective) {
+            this.row = objective ? OBJECTIVE_ROW : NO_ROW;
+            this.terms = false;
+        }
+
+        /**
+         * Parse the tokens of a line.
+         */
+        void parse(LineReader in, List<String> tokens) throws IOException {
+            for (int k = 0; k < tokens.size(); k++) {
+                String token = tokens.get(k);
+                // The label of the objective or of a new constraint.
+                if (k + 1 < tokens.size() && ":".equals(tokens.get(k + 1)) && !this.terms && this.operator == 0 && Double.isNaN(this.first)) { //$NON-NLS-1$
+                    if (this.row != OBJECTIVE_ROW) {
+                        this.row = this.model.addRow(token);
+                    }
+                    k++;
+                    continue;
+                }
+                if (this.row == NO_ROW) {
+                    this.row = this.model.addRow(null);
+                }
+                if ("+".equals(token)) { //$NON-NLS-1$
+                    constant(in);
+                } else if ("-".equals(token)) { //$NON-NLS-1$
+                    constant(in);
+                    this.sign = -this.sign;
+                } else if (this.operator != 0) {
+                    // Right hand side of the constraint.
+                    if (!isNumber(token) && !isInfinity(token)) {
+                        throw in.error("expected a number: " + token); //$NON-NLS-1$
+                    }
+                    complete(in, this.sign * value(in, token));
+                } else if (isNumber(token)) {
+                    if (!Double.isNaN(this.coefficient)) {
+                        throw in.error("expected a variable: " + token); //$NON-NLS-1$
+                    }
+                    this.coefficient = value(in, token);
+                } else if (isOperator(token)) {
+                    if (this.row == OBJECTIVE_ROW) {
+                        throw in.error("unexpected relational operator in objective"); //$NON-NLS-1$
+                    } else if (!this.terms && Double.isNaN(this.first) && !Double.isNaN(this.coefficient)) {
+                        this.first = this.sign * this.coefficient;
+                        this.firstOperator = operator(in, token);
+                        this.sign = 1;
+                        this.coefficient = Double.NaN;
+                    } else if (!this.terms || !Double.isNaN(this.coefficient)) {
+                        throw in.error("constant terms are not supported"); //$NON-NLS-1$
+                    } else {
+                        this.operator = operator(in, token);
+                    }
+                } else if (":".equals(token)) { //$NON-NLS-1$
+                    throw in.error("unexpected ':'"); //$NON-NLS-1$
+                } else {
+                    addTerm(token);
+                }
+            }
+        }
+    }
+
+}
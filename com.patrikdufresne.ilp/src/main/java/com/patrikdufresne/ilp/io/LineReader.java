@@ -0,0 +1,206 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import com.patrikdufresne.ilp.ILPLogger;
+import com.patrikdufresne.ilp.ILPPolicy;
+
+/**
+ * Read a model file line by line and split each line into fields separated by white spaces without using regular
+ * expressions. Used by the readers to report the line number of the errors.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class LineReader {
+
+    /**
+     * Bound value from which a number is considered infinite.
+     */
+    private static final double INFINITY = 1e30;
+
+    /**
+     * Parse a number. The values <code>inf</code> and <code>infinity</code> are accepted with an optional sign and the
+     * values greater than 1e30 are considered infinite.
+     * 
+     * @param value
+     *            the value to parse
+     * @return the number
+     * @throws NumberFormatException
+     *             if the value is not a number
+     */
+    static double parseNumber(String value) {
+        int start = value.startsWith("-") || value.startsWith("+") ? 1 : 0; //$NON-NLS-1$ //$NON-NLS-2$
+        String abs = value.substring(start);
+        double number;
+        if ("inf".equalsIgnoreCase(abs) || "infinity".equalsIgnoreCase(abs)) { //$NON-NLS-1$ //$NON-NLS-2$
+            number = Double.POSITIVE_INFINITY;
+        } else {
+            number = Double.parseDouble(abs);
+        }
+        if (number >= INFINITY) {
+            number = Double.POSITIVE_INFINITY;
+        }
+        return value.startsWith("-") ? -number : number; //$NON-NLS-1$
+    }
+
+    /**
+     * The number of fields of the current line.
+     */
+    private int count;
+
+    /**
+     * The fields of the current line.
+     */
+    private String[] fields = new String[8];
+
+    /**
+     * The current line.
+     */
+    private String line;
+
+    /**
+     * The current line number.
+     */
+    private int number;
+
+    /**
+     * The reader.
+     */
+    private final BufferedReader reader;
+
+    /**
+     * Create a new line reader.
+     * 
+     * @param reader
+     *            the reader
+     */
+    LineReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Returns the number of fields in the current line.
+     */
+    int count() {
+        return this.count;
+    }
+
+    /**
+     * Create an exception for the current line.
+     * 
+     * @param message
+     *            the error message
+     * @return the exception
+     */
+    IOException error(String message) {
+        return new IOException("line " + this.number + ": " + message); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Returns a field of the current line.
+     */
+    String field(int index) {
+        return this.fields[index];
+    }
+
+    /**
+     * Returns the current line.
+     */
+    String line() {
+        return this.line;
+    }
+
+    /**
+     * Read the next line and split it into fields. The text following the comment character is ignored.
+     * 
+     * @param comment
+     *            the comment character
+     * @return false at the end of the stream
+     * @throws IOException
+     */
+    boolean next(char comment) throws IOException {
+        this.line = this.reader.readLine();
+        if (this.line == null) {
+            return false;
+        }
+        this.number++;
+        int end = this.line.indexOf(comment);
+        if (end >= 0) {
+            this.line = this.line.substring(0, end);
+        }
+        this.count = 0;
+        int length = this.line.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(this.line.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(this.line.charAt(i))) {
+                i++;
+            }
+            if (start < i) {
+                if (this.count == this.fields.length) {
+                    String[] array = new String[this.count * 2];
+                    System.arraycopy(this.fields, 0, array, 0, this.count);
+                    this.fields = array;
+                }
+                this.fields[this.count++] = this.line.substring(start, i);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse a field of the current line as a number.
+     * 
+     * @param index
+     *            the field index
+     * @return the number
+     * @throws IOException
+     *             if the field is not a number
+     */
+    double number(int index) throws IOException {
+        try {
+            return parseNumber(this.fields[index]);
+        } catch (NumberFormatException e) {
+            throw error("invalid number: " + this.fields[index]); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns true if the current line starts with a white space.
+     */
+    boolean isIndented() {
+        return this.line.length() > 0 && Character.isWhitespace(this.line.charAt(0));
+    }
+
+    /**
+     * Log a warning for the current line.
+     * 
+     * @param message
+     *            the warning message
+     */
+    void warning(String message) {
+        ILPPolicy.log(ILPLogger.WARNING, "line " + this.number + ": " + message); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+}
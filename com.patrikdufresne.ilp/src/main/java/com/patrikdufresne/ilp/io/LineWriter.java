@@ -0,0 +1,109 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Write a model file and keep track of the current line length so long expressions may be wrapped.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class LineWriter {
+
+    /**
+     * Size of the output buffer.
+     */
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Largest integral value written without exponent.
+     */
+    private static final double MAX_INTEGRAL = 1e15;
+
+    /**
+     * Format a number using the shortest representation: integral values are written without decimals.
+     */
+    static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < MAX_INTEGRAL) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * The length of the current line.
+     */
+    private int length;
+
+    /**
+     * The writer.
+     */
+    private final Writer writer;
+
+    /**
+     * Create a new line writer.
+     * 
+     * @param writer
+     *            the writer
+     */
+    LineWriter(Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, BUFFER_SIZE);
+    }
+
+    /**
+     * Flush the writer.
+     */
+    void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    /**
+     * Returns the length of the current line.
+     */
+    int length() {
+        return this.length;
+    }
+
+    /**
+     * Terminate the current line.
+     */
+    LineWriter newLine() throws IOException {
+        this.writer.write('\n');
+        this.length = 0;
+        return this;
+    }
+
+    /**
+     * Write a number.
+     */
+    LineWriter write(double value) throws IOException {
+        return write(format(value));
+    }
+
+    /**
+     * Write a string.
+     */
+    LineWriter write(String value) throws IOException {
+        this.writer.write(value);
+        this.length += value.length();
+        return this;
+    }
+
+}
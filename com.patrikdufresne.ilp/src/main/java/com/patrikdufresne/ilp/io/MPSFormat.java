@@ -0,0 +1,443 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.BitSet;
+
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.Constraint;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Read and write a linear problem in free MPS format. The sections NAME, OBJSENSE, ROWS, COLUMNS with integer markers,
+ * RHS, RANGES and BOUNDS are supported. Section lines start in the first column, data lines are indented and the
+ * fields are separated by white spaces, so names can't contain white spaces.
+ * <p>
+ * The first N row is the objective, the other N rows are created as free constraints. The right hand side of the
+ * objective (constant term) is ignored.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public final class MPSFormat {
+
+    private static final String BOUNDS = "BOUNDS"; //$NON-NLS-1$
+    private static final String COLUMNS = "COLUMNS"; //$NON-NLS-1$
+    private static final String ENDATA = "ENDATA"; //$NON-NLS-1$
+    private static final String MARKER = "'MARKER'"; //$NON-NLS-1$
+    private static final String INTEND = "'INTEND'"; //$NON-NLS-1$
+    private static final String INTORG = "'INTORG'"; //$NON-NLS-1$
+    private static final String NAME = "NAME"; //$NON-NLS-1$
+    private static final String OBJSENSE = "OBJSENSE"; //$NON-NLS-1$
+    private static final String RANGES = "RANGES"; //$NON-NLS-1$
+    private static final String RHS = "RHS"; //$NON-NLS-1$
+    private static final String ROWS = "ROWS"; //$NON-NLS-1$
+
+    /**
+     * Name of the objective row written.
+     */
+    private static final String OBJ = "OBJ"; //$NON-NLS-1$
+
+    /**
+     * Used to check if a name may be written.
+     */
+    private static final ProblemIndex.NameValidator VALIDATOR = new ProblemIndex.NameValidator() {
+        @Override
+        public boolean isValid(String name) {
+            if (name == null || name.isEmpty() || name.charAt(0) == '*' || name.charAt(0) == '$' || OBJ.equals(name)) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (Character.isWhitespace(name.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Read a linear problem in free MPS format. The variables and constraints are added to the given problem using the
+     * bulk functions and the objective is replaced.
+     * 
+     * @param reader
+     *            the reader
+     * @param lp
+     *            the linear problem
+     * @throws IOException
+     *             if the reader fails or the content is not valid, the message contains the line number
+     */
+    public static void read(Reader reader, LinearProblem lp) throws IOException {
+        LineReader in = new LineReader(reader);
+        ModelBuilder model = new ModelBuilder();
+        // The lower bounds given explicitly in the BOUNDS section.
+        BitSet lowerSet = new BitSet();
+        String section = null;
+        String objective = null;
+        boolean integer = false;
+        while (in.next('*')) {
+            if (in.count() == 0) {
+                continue;
+            }
+            if (!in.isIndented()) {
+                section = in.field(0);
+                if (ENDATA.equals(section)) {
+                    break;
+                } else if (OBJSENSE.equals(section) && in.count() > 1) {
+                    model.setDirection(direction(in, 1));
+                } else if (!NAME.equals(section) && !OBJSENSE.equals(section) && !ROWS.equals(section) && !COLUMNS.equals(section)
+                        && !RHS.equals(section) && !RANGES.equals(section) && !BOUNDS.equals(section)) {
+                    throw in.error("unsupported section: " + section); //$NON-NLS-1$
+                }
+                continue;
+            }
+            if (section == null || NAME.equals(section)) {
+                throw in.error("data line outside a section"); //$NON-NLS-1$
+            } else if (OBJSENSE.equals(section)) {
+                model.setDirection(direction(in, 0));
+            } else if (ROWS.equals(section)) {
+                readRow(in, model, objective == null);
+                if (objective == null && "N".equals(in.field(0))) { //$NON-NLS-1$
+                    objective = in.field(1);
+                }
+            } else if (COLUMNS.equals(section)) {
+                if (in.count() >= 3 && MARKER.equals(in.field(1))) {
+                    if (INTORG.equals(in.field(2))) {
+                        integer = true;
+                    } else if (INTEND.equals(in.field(2))) {
+                        integer = false;
+                    } else {
+                        throw in.error("unsupported marker: " + in.field(2)); //$NON-NLS-1$
+                    }
+                    continue;
+                }
+                if (in.count() != 3 && in.count() != 5) {
+                    throw in.error("expected column, row, value [, row, value]"); //$NON-NLS-1$
+                }
+                int j = model.columnOrAdd(in.field(0));
+                if (integer) {
+                    model.setColumnType(j, VarType.INTEGER);
+                }
+                for (int f = 1; f < in.count(); f += 2) {
+                    double value = in.number(f + 1);
+                    if (in.field(f).equals(objective)) {
+                        model.addObjective(j, value);
+                    } else {
+                        model.addCoefficient(row(in, model, f), j, value);
+                    }
+                }
+            } else if (RHS.equals(section) || RANGES.equals(section)) {
+                // The set name is optional.
+                for (int f = in.count() % 2; f < in.count(); f += 2) {
+                    if (f + 1 >= in.count()) {
+                        throw in.error("expected row, value"); //$NON-NLS-1$
+                    }
+                    if (in.field(f).equals(objective)) {
+                        continue;
+                    }
+                    int i = row(in, model, f);
+                    if (RHS.equals(section)) {
+                        model.setRhs(i, in.number(f + 1));
+                    } else {
+                        model.setRange(i, in.number(f + 1));
+                    }
+                }
+            } else if (BOUNDS.equals(section)) {
+                readBound(in, model, lowerSet);
+            }
+        }
+        model.load(lp);
+    }
+
+    /**
+     * Parse the objective direction.
+     */
+    private static int direction(LineReader in, int f) throws IOException {
+        String value = in.field(f);
+        if ("MAX".equals(value) || "MAXIMIZE".equals(value)) { //$NON-NLS-1$ //$NON-NLS-2$
+            return LinearProblem.MAXIMIZE;
+        } else if ("MIN".equals(value) || "MINIMIZE".equals(value)) { //$NON-NLS-1$ //$NON-NLS-2$
+            return LinearProblem.MINIMIZE;
+        }
+        throw in.error("invalid objective sense: " + value); //$NON-NLS-1$
+    }
+
+    /**
+     * Read a line of the BOUNDS section: <code>type [set] column [value]</code>.
+     */
+    private static void readBound(LineReader in, ModelBuilder model, BitSet lowerSet) throws IOException {
+        String type = in.field(0);
+        boolean hasValue = !"FR".equals(type) && !"MI".equals(type) && !"PL".equals(type) && !"BV".equals(type); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        int f;
+        if (hasValue) {
+            if (in.count() < 3) {
+                throw in.error("expected type, column, value"); //$NON-NLS-1$
+            }
+            f = in.count() >= 4 ? 2 : 1;
+        } else {
+            if (in.count() < 2) {
+                throw in.error("expected type, column"); //$NON-NLS-1$
+            }
+            f = in.count() >= 3 ? 2 : 1;
+        }
+        int j = model.column(in.field(f));
+        if (j < 0) {
+            throw in.error("unknown column: " + in.field(f)); //$NON-NLS-1$
+        }
+        double value = hasValue ? in.number(f + 1) : 0;
+        if ("UP".equals(type) || "UI".equals(type)) { //$NON-NLS-1$ //$NON-NLS-2$
+            model.setColumnUpper(j, value);
+            // A negative upper bound without lower bound makes the lower bound infinite.
+            if (value < 0 && !lowerSet.get(j) && model.getColumnLower(j) == 0) {
+                model.setColumnLower(j, Double.NEGATIVE_INFINITY);
+            }
+        } else if ("LO".equals(type) || "LI".equals(type)) { //$NON-NLS-1$ //$NON-NLS-2$
+            model.setColumnLower(j, value);
+            lowerSet.set(j);
+        } else if ("FX".equals(type)) { //$NON-NLS-1$
+            model.setColumnLower(j, value);
+            model.setColumnUpper(j, value);
+            lowerSet.set(j);
+        } else if ("FR".equals(type)) { //$NON-NLS-1$
+            model.setColumnLower(j, Double.NEGATIVE_INFINITY);
+            model.setColumnUpper(j, Double.POSITIVE_INFINITY);
+            lowerSet.set(j);
+        } else if ("MI".equals(type)) { //$NON-NLS-1$
+            model.setColumnLower(j, Double.NEGATIVE_INFINITY);
+            lowerSet.set(j);
+        } else if ("PL".equals(type)) { //$NON-NLS-1$
+            model.setColumnUpper(j, Double.POSITIVE_INFINITY);
+        } else if ("BV".equals(type)) { //$NON-NLS-1$
+            model.setColumnType(j, VarType.BOOL);
+            model.setColumnLower(j, 0);
+            model.setColumnUpper(j, 1);
+            lowerSet.set(j);
+        } else {
+            throw in.error("unsupported bound type: " + type); //$NON-NLS-1$
+        }
+        if ("UI".equals(type) || "LI".equals(type)) { //$NON-NLS-1$ //$NON-NLS-2$
+            model.setColumnType(j, VarType.INTEGER);
+        }
+    }
+
+    /**
+     * Read a line of the ROWS section: <code>type name</code>.
+     * 
+     * @param objective
+     *            true if the objective row is not yet defined
+     */
+    private static void readRow(LineReader in, ModelBuilder model, boolean objective) throws IOException {
+        if (in.count() != 2) {
+            throw in.error("expected type, name"); //$NON-NLS-1$
+        }
+        String type = in.field(0);
+        if ("N".equals(type)) { //$NON-NLS-1$
+            if (!objective) {
+                model.addRow(in.field(1));
+            }
+        } else if ("E".equals(type)) { //$NON-NLS-1$
+            model.setRowBounds(model.addRow(in.field(1)), 0, 0);
+        } else if ("L".equals(type)) { //$NON-NLS-1$
+            model.setRowBounds(model.addRow(in.field(1)), Double.NEGATIVE_INFINITY, 0);
+        } else if ("G".equals(type)) { //$NON-NLS-1$
+            model.setRowBounds(model.addRow(in.field(1)), 0, Double.POSITIVE_INFINITY);
+        } else {
+            throw in.error("invalid row type: " + type); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the index of the row named by the given field.
+     */
+    private static int row(LineReader in, ModelBuilder model, int f) throws IOException {
+        int i = model.row(in.field(f));
+        if (i < 0) {
+            throw in.error("unknown row: " + in.field(f)); //$NON-NLS-1$
+        }
+        return i;
+    }
+
+    /**
+     * Write the linear problem in free MPS format. The rows are written column by column, so the coefficients are
+     * transposed in memory using primitive arrays. Integer and binary variables are written between integer markers
+     * with explicit bounds, the binary variables using the BV bound type.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param writer
+     *            the writer, not closed by this function
+     * @throws IOException
+     */
+    public static void write(LinearProblem lp, Writer writer) throws IOException {
+        ProblemIndex index = new ProblemIndex(lp, VALIDATOR);
+        int n = index.variables.size();
+        int m = index.constraints.size();
+        LineWriter out = new LineWriter(writer);
+        String name = lp.getName();
+        out.write(NAME).write("          ").write(VALIDATOR.isValid(name) ? name : "PROBLEM").newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+        if (lp.getObjectiveDirection() == LinearProblem.MAXIMIZE) {
+            out.write(OBJSENSE).newLine().write("    MAX").newLine(); //$NON-NLS-1$
+        }
+
+        // Write the rows and collect the coefficients column by column.
+        out.write(ROWS).newLine();
+        out.write(" N  ").write(OBJ).newLine(); //$NON-NLS-1$
+        int[] counts = new int[n + 1];
+        int[][] columns = new int[m][];
+        double[][] values = new double[m][];
+        for (int i = 0; i < m; i++) {
+            Constraint c = index.constraints.get(i);
+            double lower = ProblemIndex.bound(c.getLowerBound(), Double.NEGATIVE_INFINITY);
+            double upper = ProblemIndex.bound(c.getUpperBound(), Double.POSITIVE_INFINITY);
+            String type;
+            if (lower == upper) {
+                type = " E  "; //$NON-NLS-1$
+            } else if (lower != Double.NEGATIVE_INFINITY) {
+                type = " G  "; //$NON-NLS-1$
+            } else if (upper != Double.POSITIVE_INFINITY) {
+                type = " L  "; //$NON-NLS-1$
+            } else {
+                type = " N  "; //$NON-NLS-1$
+            }
+            out.write(type).write(index.rowName(i)).newLine();
+            ArrayLinear linear = ProblemIndex.toArray(c.getLinear());
+            columns[i] = new int[linear.size()];
+            values[i] = new double[linear.size()];
+            for (int k = 0; k < linear.size(); k++) {
+                int j = index.column(linear.getVariable(k));
+                columns[i][k] = j;
+                values[i][k] = linear.getCoefficient(k);
+                counts[j + 1]++;
+            }
+        }
+        // Transpose the matrix using a counting sort.
+        for (int j = 0; j < n; j++) {
+            counts[j + 1] += counts[j];
+        }
+        int[] entryRows = new int[counts[n]];
+        double[] entryValues = new double[counts[n]];
+        int[] next = new int[n];
+        System.arraycopy(counts, 0, next, 0, n);
+        for (int i = 0; i < m; i++) {
+            for (int k = 0; k < columns[i].length; k++) {
+                int pos = next[columns[i][k]]++;
+                entryRows[pos] = i;
+                entryValues[pos] = values[i][k];
+            }
+            columns[i] = null;
+            values[i] = null;
+        }
+        double[] objective = new double[n];
+        ArrayLinear linear = ProblemIndex.toArray(lp.getObjectiveLinear());
+        for (int k = 0; k < linear.size(); k++) {
+            objective[index.column(linear.getVariable(k))] += linear.getCoefficient(k);
+        }
+
+        // Write the columns.
+        out.write(COLUMNS).newLine();
+        boolean integer = false;
+        for (int j = 0; j < n; j++) {
+            boolean isInteger = !VarType.REAL.equals(index.variables.get(j).getType());
+            if (isInteger != integer) {
+                out.write("    MARKER                 ").write(MARKER).write("                 ").write(integer ? INTEND : INTORG).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+                integer = isInteger;
+            }
+            String col = index.columnName(j);
+            if (objective[j] != 0 || counts[j] == counts[j + 1]) {
+                out.write("    ").write(col).write("  ").write(OBJ).write("  ").write(objective[j]).newLine(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+            for (int k = counts[j]; k < counts[j + 1]; k++) {
+                out.write("    ").write(col).write("  ").write(index.rowName(entryRows[k])).write("  ").write(entryValues[k]).newLine(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+        }
+        if (integer) {
+            out.write("    MARKER                 ").write(MARKER).write("                 ").write(INTEND).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        // Write the right hand sides and ranges.
+        out.write(RHS).newLine();
+        for (int i = 0; i < m; i++) {
+            Constraint c = index.constraints.get(i);
+            double lower = ProblemIndex.bound(c.getLowerBound(), Double.NEGATIVE_INFINITY);
+            double upper = ProblemIndex.bound(c.getUpperBound(), Double.POSITIVE_INFINITY);
+            double rhs = lower != Double.NEGATIVE_INFINITY ? lower : upper != Double.POSITIVE_INFINITY ? upper : 0;
+            if (rhs != 0) {
+                out.write("    RHS  ").write(index.rowName(i)).write("  ").write(rhs).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        out.write(RANGES).newLine();
+        for (int i = 0; i < m; i++) {
+            Constraint c = index.constraints.get(i);
+            double lower = ProblemIndex.bound(c.getLowerBound(), Double.NEGATIVE_INFINITY);
+            double upper = ProblemIndex.bound(c.getUpperBound(), Double.POSITIVE_INFINITY);
+            if (lower != upper && lower != Double.NEGATIVE_INFINITY && upper != Double.POSITIVE_INFINITY) {
+                out.write("    RNG  ").write(index.rowName(i)).write("  ").write(upper - lower).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+
+        // Write the bounds.
+        out.write(BOUNDS).newLine();
+        for (int j = 0; j < n; j++) {
+            Variable var = index.variables.get(j);
+            String col = index.columnName(j);
+            double lower = ProblemIndex.bound(var.getLowerBound(), Double.NEGATIVE_INFINITY);
+            double upper = ProblemIndex.bound(var.getUpperBound(), Double.POSITIVE_INFINITY);
+            if (VarType.BOOL.equals(var.getType()) && lower == 0 && upper == 1) {
+                writeBound(out, "BV", col).newLine(); //$NON-NLS-1$
+                continue;
+            } else if (lower == upper) {
+                writeBound(out, "FX", col).write("  ").write(lower).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+                continue;
+            }
+            if (lower == Double.NEGATIVE_INFINITY && upper == Double.POSITIVE_INFINITY) {
+                writeBound(out, "FR", col).newLine(); //$NON-NLS-1$
+                continue;
+            }
+            if (lower == Double.NEGATIVE_INFINITY) {
+                writeBound(out, "MI", col).newLine(); //$NON-NLS-1$
+            } else if (lower != 0 || upper < 0) {
+                writeBound(out, "LO", col).write("  ").write(lower).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            if (upper != Double.POSITIVE_INFINITY) {
+                writeBound(out, "UP", col).write("  ").write(upper).newLine(); //$NON-NLS-1$ //$NON-NLS-2$
+            } else if (!VarType.REAL.equals(var.getType())) {
+                writeBound(out, "PL", col).newLine(); //$NON-NLS-1$
+            }
+        }
+        out.write(ENDATA).newLine();
+        out.flush();
+    }
+
+    /**
+     * Write the beginning of a bound line.
+     */
+    private static LineWriter writeBound(LineWriter out, String type, String col) throws IOException {
+        return out.write(" ").write(type).write(" BND  ").write(col); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Private constructor for utility class.
+     */
+    private MPSFormat() {
+        // Nothing to do
+    }
+
+}
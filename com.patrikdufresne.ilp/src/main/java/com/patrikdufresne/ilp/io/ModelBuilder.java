@@ -0,0 +1,384 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.io;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.VarType;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Accumulate the columns, rows and coefficients read from a model file in growable primitive arrays and create them
+ * into a linear problem using the bulk functions {@link LinearProblem#addVariables(String[], VarType[], double[], double[])}
+ * and {@link LinearProblem#addConstraints(String[], int[], int[], double[], double[], double[])}. No object is created
+ * per coefficient, the memory used is proportional to the number of non-zero coefficients.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class ModelBuilder {
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Default lower bound of the columns.
+     */
+    static final double DEFAULT_LOWER = 0;
+
+    /**
+     * Default upper bound of the columns.
+     */
+    static final double DEFAULT_UPPER = Double.POSITIVE_INFINITY;
+
+    /**
+     * Grow the array to hold at least <code>size + 1</code> elements.
+     */
+    private static double[] grow(double[] array, int size) {
+        return size < array.length ? array : Arrays.copyOf(array, size + (size >> 1) + 1);
+    }
+
+    private static int[] grow(int[] array, int size) {
+        return size < array.length ? array : Arrays.copyOf(array, size + (size >> 1) + 1);
+    }
+
+    private static <T> T[] grow(T[] array, int size) {
+        return size < array.length ? array : Arrays.copyOf(array, size + (size >> 1) + 1);
+    }
+
+    /**
+     * The column index by names.
+     */
+    private final Map<String, Integer> columnIndex = new HashMap<String, Integer>();
+
+    private double[] columnLower = new double[DEFAULT_CAPACITY];
+
+    private String[] columnNames = new String[DEFAULT_CAPACITY];
+
+    /**
+     * The number of columns.
+     */
+    private int columns;
+
+    private VarType[] columnTypes = new VarType[DEFAULT_CAPACITY];
+
+    private double[] columnUpper = new double[DEFAULT_CAPACITY];
+
+    /**
+     * The coefficients value.
+     */
+    private double[] coefficients = new double[DEFAULT_CAPACITY];
+
+    /**
+     * The column index of each coefficient.
+     */
+    private int[] entryColumns = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The number of coefficients.
+     */
+    private int entries;
+
+    /**
+     * The row index of each coefficient.
+     */
+    private int[] entryRows = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The position of the last coefficient of each column, used to merge the coefficients of a column repeated in the
+     * same row.
+     */
+    private int[] lastEntry = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The objective direction.
+     */
+    private int direction = LinearProblem.MINIMIZE;
+
+    /**
+     * The objective coefficient of each column.
+     */
+    private double[] objective = new double[DEFAULT_CAPACITY];
+
+    /**
+     * The row index by names.
+     */
+    private final Map<String, Integer> rowIndex = new HashMap<String, Integer>();
+
+    private double[] rowLower = new double[DEFAULT_CAPACITY];
+
+    private String[] rowNames = new String[DEFAULT_CAPACITY];
+
+    /**
+     * The number of rows.
+     */
+    private int rows;
+
+    private double[] rowUpper = new double[DEFAULT_CAPACITY];
+
+    /**
+     * True if the coefficients were added row by row.
+     */
+    private boolean rowOrdered = true;
+
+    /**
+     * Add a coefficient to the matrix. If the last coefficient of the column is in the same row, the values are
+     * added.
+     * 
+     * @param row
+     *            the row index
+     * @param column
+     *            the column index
+     * @param value
+     *            the coefficient value
+     */
+    void addCoefficient(int row, int column, double value) {
+        if (value == 0) {
+            return;
+        }
+        int last = this.lastEntry[column];
+        if (last >= 0 && this.entryRows[last] == row) {
+            this.coefficients[last] += value;
+            return;
+        }
+        this.lastEntry[column] = this.entries;
+        this.entryRows = grow(this.entryRows, this.entries);
+        this.entryColumns = grow(this.entryColumns, this.entries);
+        this.coefficients = grow(this.coefficients, this.entries);
+        if (this.entries > 0 && row < this.entryRows[this.entries - 1]) {
+            this.rowOrdered = false;
+        }
+        this.entryRows[this.entries] = row;
+        this.entryColumns[this.entries] = column;
+        this.coefficients[this.entries] = value;
+        this.entries++;
+    }
+
+    /**
+     * Add a new column with the default type and bounds.
+     * 
+     * @param name
+     *            the column name or null
+     * @return the column index
+     */
+    int addColumn(String name) {
+        this.columnNames = grow(this.columnNames, this.columns);
+        this.columnTypes = grow(this.columnTypes, this.columns);
+        this.columnLower = grow(this.columnLower, this.columns);
+        this.columnUpper = grow(this.columnUpper, this.columns);
+        this.objective = grow(this.objective, this.columns);
+        this.lastEntry = grow(this.lastEntry, this.columns);
+        this.columnNames[this.columns] = name;
+        this.columnTypes[this.columns] = VarType.REAL;
+        this.columnLower[this.columns] = DEFAULT_LOWER;
+        this.columnUpper[this.columns] = DEFAULT_UPPER;
+        this.objective[this.columns] = 0;
+        this.lastEntry[this.columns] = -1;
+        if (name != null) {
+            this.columnIndex.put(name, Integer.valueOf(this.columns));
+        }
+        return this.columns++;
+    }
+
+    /**
+     * Add a new free row.
+     * 
+     * @param name
+     *            the row name or null
+     * @return the row index
+     */
+    int addRow(String name) {
+        this.rowNames = grow(this.rowNames, this.rows);
+        this.rowLower = grow(this.rowLower, this.rows);
+        this.rowUpper = grow(this.rowUpper, this.rows);
+        this.rowNames[this.rows] = name;
+        this.rowLower[this.rows] = Double.NEGATIVE_INFINITY;
+        this.rowUpper[this.rows] = Double.POSITIVE_INFINITY;
+        if (name != null) {
+            this.rowIndex.put(name, Integer.valueOf(this.rows));
+        }
+        return this.rows++;
+    }
+
+    /**
+     * Returns the column index.
+     * 
+     * @param name
+     *            the column name
+     * @return the column index or -1 if not found
+     */
+    int column(String name) {
+        Integer index = this.columnIndex.get(name);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Returns the column index, create the column if not found.
+     */
+    int columnOrAdd(String name) {
+        int j = column(name);
+        return j >= 0 ? j : addColumn(name);
+    }
+
+    double getColumnLower(int j) {
+        return this.columnLower[j];
+    }
+
+    double getColumnUpper(int j) {
+        return this.columnUpper[j];
+    }
+
+    /**
+     * Create the columns and rows into the given linear problem. The columns are added after the existing variables of
+     * the problem and the objective is replaced.
+     * 
+     * @param lp
+     *            the linear problem
+     */
+    void load(LinearProblem lp) {
+        lp.setObjectiveDirection(this.direction);
+        int first = lp.getVariables().size();
+        if (this.columns > 0) {
+            first = lp.addVariables(Arrays.copyOf(this.columnNames, this.columns), Arrays.copyOf(this.columnTypes, this.columns),
+                    Arrays.copyOf(this.columnLower, this.columns), Arrays.copyOf(this.columnUpper, this.columns));
+        }
+        this.columnNames = null;
+        this.columnIndex.clear();
+        this.lastEntry = null;
+
+        // Sets the objective.
+        Collection<? extends Variable> list = lp.getVariables();
+        Variable[] variables = list.toArray(new Variable[list.size()]);
+        lp.setObjectiveLinear(lp.createLinear(Arrays.copyOf(this.objective, this.columns), Arrays.copyOfRange(variables, first, first
+                + this.columns)));
+        this.objective = null;
+        if (this.rows == 0) {
+            return;
+        }
+
+        // Sort the coefficients by rows using a counting sort unless they were added row by row.
+        int[] starts = new int[this.rows + 1];
+        for (int k = 0; k < this.entries; k++) {
+            starts[this.entryRows[k] + 1]++;
+        }
+        for (int i = 0; i < this.rows; i++) {
+            starts[i + 1] += starts[i];
+        }
+        int[] columns;
+        double[] values;
+        if (this.rowOrdered) {
+            columns = this.entryColumns;
+            values = this.coefficients;
+            for (int k = 0; k < this.entries; k++) {
+                columns[k] += first;
+            }
+        } else {
+            columns = new int[this.entries];
+            values = new double[this.entries];
+            int[] next = Arrays.copyOf(starts, this.rows);
+            for (int k = 0; k < this.entries; k++) {
+                int pos = next[this.entryRows[k]]++;
+                columns[pos] = this.entryColumns[k] + first;
+                values[pos] = this.coefficients[k];
+            }
+        }
+        this.entryRows = null;
+        this.entryColumns = null;
+        this.coefficients = null;
+        lp.addConstraints(Arrays.copyOf(this.rowNames, this.rows), starts, columns, values, Arrays.copyOf(this.rowLower, this.rows),
+                Arrays.copyOf(this.rowUpper, this.rows));
+    }
+
+    /**
+     * Returns the row index.
+     * 
+     * @param name
+     *            the row name
+     * @return the row index or -1 if not found
+     */
+    int row(String name) {
+        Integer index = this.rowIndex.get(name);
+        return index != null ? index.intValue() : -1;
+    }
+
+    void setColumnLower(int j, double value) {
+        this.columnLower[j] = value;
+    }
+
+    void setColumnType(int j, VarType type) {
+        this.columnTypes[j] = type;
+    }
+
+    void setColumnUpper(int j, double value) {
+        this.columnUpper[j] = value;
+    }
+
+    void setDirection(int direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Add the value to the objective coefficient of the column.
+     */
+    void addObjective(int j, double value) {
+        this.objective[j] += value;
+    }
+
+    /**
+     * Sets the range of the row from its right hand side. Used by the MPS format: the range <code>r</code> of a row
+     * <code>&lt;= rhs</code> gives <code>[rhs - |r|, rhs]</code>, of a row <code>&gt;= rhs</code> gives
+     * <code>[rhs, rhs + |r|]</code> and of a row <code>= rhs</code> gives <code>[rhs, rhs + r]</code> or
+     * <code>[rhs + r, rhs]</code> according to the sign of <code>r</code>.
+     */
+    void setRange(int i, double range) {
+        if (this.rowLower[i] == Double.NEGATIVE_INFINITY && this.rowUpper[i] != Double.POSITIVE_INFINITY) {
+            this.rowLower[i] = this.rowUpper[i] - Math.abs(range);
+        } else if (this.rowLower[i] != Double.NEGATIVE_INFINITY && this.rowUpper[i] == Double.POSITIVE_INFINITY) {
+            this.rowUpper[i] = this.rowLower[i] + Math.abs(range);
+        } else if (this.rowLower[i] == this.rowUpper[i] && range > 0) {
+            this.rowUpper[i] = this.rowLower[i] + range;
+        } else if (this.rowLower[i] == this.rowUpper[i]) {
+            this.rowLower[i] = this.rowUpper[i] + range;
+        }
+    }
+
+    /**
+     * Sets the right hand side of the row according to its type: both bounds of an equality row, the upper bound of a
+     * row <code>&lt;= rhs</code> or the lower bound of a row <code>&gt;= rhs</code>. Free rows are not changed.
+     */
+    void setRhs(int i, double value) {
+        if (this.rowLower[i] == this.rowUpper[i]) {
+            this.rowLower[i] = value;
+            this.rowUpper[i] = value;
+        } else if (this.rowLower[i] == Double.NEGATIVE_INFINITY && this.rowUpper[i] != Double.POSITIVE_INFINITY) {
+            this.rowUpper[i] = value;
+        } else if (this.rowLower[i] != Double.NEGATIVE_INFINITY && this.rowUpper[i] == Double.POSITIVE_INFINITY) {
+            this.rowLower[i] = value;
+        }
+    }
+
+    void setRowBounds(int i, double lower, double upper) {
+        this.rowLower[i] = lower;
+        this.rowUpper[i] = upper;
+    }
+
+}
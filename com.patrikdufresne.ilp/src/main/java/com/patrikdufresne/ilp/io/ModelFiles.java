@@ -0,0 +1,164 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.patrikdufresne.ilp.LinearProblem;
+
+/**
+ * Utility class to read and write a linear problem from a file, independently of the solver. The format is selected
+ * by the file extension: <code>.mps</code> for the free MPS format (see {@link MPSFormat}), <code>.ilpb</code> for the
+ * binary format (see {@link BinaryFormat}), any other extension for the CPLEX LP format (see {@link LPFormat}). Text
+ * files ending with <code>.gz</code> are compressed using gzip, e.g. <code>model.mps.gz</code>.
+ * <p>
+ * The files are read and written as a stream, the coefficients are loaded into the problem using the bulk functions.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class ModelFiles {
+
+    /**
+     * Size of the streams buffer.
+     */
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Extension of the binary files.
+     */
+    private static final String BINARY = ".ilpb"; //$NON-NLS-1$
+
+    /**
+     * Extension of the compressed files.
+     */
+    private static final String GZ = ".gz"; //$NON-NLS-1$
+
+    /**
+     * Extension of the MPS files.
+     */
+    private static final String MPS = ".mps"; //$NON-NLS-1$
+
+    /**
+     * Check if the file is in binary format according to its extension.
+     */
+    private static boolean isBinary(File file) {
+        return file.getName().toLowerCase().endsWith(BINARY);
+    }
+
+    /**
+     * Check if the file is in MPS format according to its extension.
+     */
+    private static boolean isMPS(File file) {
+        String name = file.getName().toLowerCase();
+        if (name.endsWith(GZ)) {
+            name = name.substring(0, name.length() - GZ.length());
+        }
+        return name.endsWith(MPS);
+    }
+
+    /**
+     * Read a linear problem from a file. The variables and constraints are added to the given problem and the
+     * objective is replaced.
+     * 
+     * @param file
+     *            the file to read
+     * @param lp
+     *            the linear problem, usually empty
+     * @throws IOException
+     *             if the file can't be read or is not valid, the message contains the line number
+     */
+    public static void read(File file, LinearProblem lp) throws IOException {
+        if (file == null || lp == null) {
+            throw new NullPointerException();
+        }
+        if (isBinary(file)) {
+            BinaryFormat.read(file, lp);
+            return;
+        }
+        InputStream stream = new FileInputStream(file);
+        try {
+            if (file.getName().toLowerCase().endsWith(GZ)) {
+                stream = new GZIPInputStream(stream, BUFFER_SIZE);
+            }
+            Reader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"), BUFFER_SIZE); //$NON-NLS-1$
+            if (isMPS(file)) {
+                MPSFormat.read(reader, lp);
+            } else {
+                LPFormat.read(reader, lp);
+            }
+        } catch (IOException e) {
+            throw new IOException(file + ": " + e.getMessage(), e); //$NON-NLS-1$
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Write a linear problem to a file.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param file
+     *            the destination file
+     * @throws IOException
+     */
+    public static void write(LinearProblem lp, File file) throws IOException {
+        if (file == null || lp == null) {
+            throw new NullPointerException();
+        }
+        if (isBinary(file)) {
+            BinaryFormat.write(lp, file, true);
+            return;
+        }
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            if (file.getName().toLowerCase().endsWith(GZ)) {
+                stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(stream, "UTF-8"), BUFFER_SIZE); //$NON-NLS-1$
+            if (isMPS(file)) {
+                MPSFormat.write(lp, writer);
+            } else {
+                LPFormat.write(lp, writer);
+            }
+            writer.flush();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Private constructor for utility class.
+     */
+    private ModelFiles() {
+        // Nothing to do
+    }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.io;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.patrikdufresne.ilp.ArrayLinear;
+import com.patrikdufresne.ilp.Constraint;
+import com.patrikdufresne.ilp.Linear;
+import com.patrikdufresne.ilp.LinearProblem;
+import com.patrikdufresne.ilp.Term;
+import com.patrikdufresne.ilp.Variable;
+
+/**
+ * Index of the variables and constraints of a linear problem being written. The variables and constraints without a
+ * valid name are identified by a generated name <code>C&lt;index&gt;</code> and <code>R&lt;index&gt;</code> starting at
+ * one.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+final class ProblemIndex {
+
+    /**
+     * Convert the bound into a primitive value.
+     */
+    static double bound(Double value, double unbounded) {
+        return value != null ? value.doubleValue() : unbounded;
+    }
+
+    /**
+     * Convert the linear expression into an {@link ArrayLinear} to merge the terms of the same variable.
+     */
+    static ArrayLinear toArray(Linear linear) {
+        if (linear instanceof ArrayLinear) {
+            return (ArrayLinear) linear;
+        }
+        ArrayLinear array = new ArrayLinear(linear != null ? linear.size() : 0);
+        if (linear != null) {
+            for (Term term : linear) {
+                array.add(term);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * The column names.
+     */
+    private final String[] columnNames;
+
+    /**
+     * The constraints.
+     */
+    final List<Constraint> constraints;
+
+    /**
+     * The column index of each variable.
+     */
+    private final Map<Variable, Integer> index;
+
+    /**
+     * The name validator.
+     */
+    private final NameValidator validator;
+
+    /**
+     * The variables.
+     */
+    final List<Variable> variables;
+
+    /**
+     * Create a new index.
+     * 
+     * @param lp
+     *            the linear problem
+     * @param validator
+     *            used to check if a name can be written in the file format
+     */
+    ProblemIndex(LinearProblem lp, NameValidator validator) {
+        this.validator = validator;
+        this.variables = new ArrayList<Variable>(lp.getVariables());
+        this.constraints = new ArrayList<Constraint>(lp.getConstraints());
+        int n = this.variables.size();
+        this.index = new IdentityHashMap<Variable, Integer>(n);
+        this.columnNames = new String[n];
+        for (int j = 0; j < n; j++) {
+            Variable var = this.variables.get(j);
+            this.index.put(var, Integer.valueOf(j));
+            String name = var.getName();
+            this.columnNames[j] = validator.isValid(name) ? name : "C" + (j + 1); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the column index of the variable.
+     * 
+     * @throws IllegalArgumentException
+     *             if the variable is not part of the problem
+     */
+    int column(Variable var) {
+        Integer col = this.index.get(var);
+        if (col == null) {
+            throw new IllegalArgumentException("variable is not part of this problem"); //$NON-NLS-1$
+        }
+        return col.intValue();
+    }
+
+    /**
+     * Returns the name of the column.
+     */
+    String columnName(int j) {
+        return this.columnNames[j];
+    }
+
+    /**
+     * Returns the name of the row.
+     */
+    String rowName(int i) {
+        String name = this.constraints.get(i).getName();
+        return this.validator.isValid(name) ? name : "R" + (i + 1); //$NON-NLS-1$
+    }
+
+    /**
+     * Check if a name may be written in a file format.
+     */
+    interface NameValidator {
+
+        boolean isValid(String name);
+
+    }
+
+}
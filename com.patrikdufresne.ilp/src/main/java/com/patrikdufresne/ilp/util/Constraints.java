@@ -15,8 +15,13 @@
  */
 package com.patrikdufresne.ilp.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import com.patrikdufresne.ilp.Constraint;
 import com.patrikdufresne.ilp.Linear;
+import com.patrikdufresne.ilp.LinearProblem;
 
 /**
  * Utility class to manipulates constraints and associated snapshot.
@@ -64,6 +69,28 @@ public class Constraints {
         return snapshot;
     }
 
+    /**
+     * Take a snapshot of the given constraints and then dispose them in a single operation using
+     * {@link LinearProblem#disposeConstraints(Collection)}.
+     * 
+     * @param problem
+     *            the linear problem owning the constraints
+     * @param constraints
+     *            the constraints to be release.
+     * @return the snapshots representing the constraints, in the same order
+     */
+    public static List<ConstraintSnapshot> release(LinearProblem problem, Collection<? extends Constraint> constraints) {
+        if (problem == null || constraints == null) {
+            throw new IllegalArgumentException();
+        }
+        List<ConstraintSnapshot> snapshots = new ArrayList<ConstraintSnapshot>(constraints.size());
+        for (Constraint constraint : constraints) {
+            snapshots.add(ConstraintSnapshot.create(constraint));
+        }
+        problem.disposeConstraints(constraints);
+        return snapshots;
+    }
+
     /**
      * Private constructor to avoid creating instances of utility class.
      */
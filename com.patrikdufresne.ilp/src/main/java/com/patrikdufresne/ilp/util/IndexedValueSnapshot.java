@@ -0,0 +1,100 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp.util;
+
+import java.util.Arrays;
+
+import com.patrikdufresne.ilp.LinearProblem;
+
+/**
+ * Class storing a snapshot of the variable's value addressed by column index. Unlike {@link ValueSnapshot}, the values
+ * are kept in a primitive array retrieved with {@link LinearProblem#getValues(double[])}, so creating a snapshot doesn't
+ * box each value nor hash each variable.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class IndexedValueSnapshot {
+
+    /**
+     * Create a new value snapshot of every variable of the problem.
+     * 
+     * @param problem
+     *            the linear problem
+     * @return the snapshot value
+     */
+    public static IndexedValueSnapshot create(LinearProblem problem) {
+        return new IndexedValueSnapshot(problem.getValues(null), problem.getVariables().size());
+    }
+
+    /**
+     * The number of values.
+     */
+    private final int size;
+
+    /**
+     * The value of each column.
+     */
+    private final double[] values;
+
+    /**
+     * Create a new snapshot with the given values.
+     * 
+     * @param values
+     *            the value of each column
+     * @param size
+     *            the number of values
+     */
+    protected IndexedValueSnapshot(double[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Returns the value of the given column.
+     * 
+     * @param index
+     *            the column index (0-based)
+     * @return the value
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of range
+     */
+    public double getValue(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return this.values[index];
+    }
+
+    /**
+     * Returns the number of values in this snapshot.
+     * 
+     * @return the number of columns
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a copy of the values.
+     * 
+     * @return the value of each column
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link ArrayLinear} implementation.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class ArrayLinearTest {
+
+    LinearProblem lp;
+
+    Variable[] vars;
+
+    @Before
+    public void createVariables() {
+        lp = new MemoryLinearProblem() {
+            // Nothing to override
+        };
+        vars = new Variable[20];
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = lp.addVariable("x" + i, VarType.REAL);
+        }
+    }
+
+    @After
+    public void disposeProblem() {
+        lp.dispose();
+    }
+
+    @Test
+    public void testAdd_WithSameVariable_ExpectMergedCoefficient() {
+        ArrayLinear linear = new ArrayLinear();
+        linear.add(2, vars[0]);
+        linear.add(3, vars[1]);
+        linear.add(lp.createTerm(5, vars[0]));
+
+        assertEquals(2, linear.size());
+        assertEquals(0, linear.indexOf(vars[0]));
+        assertEquals(7.0, linear.getCoefficient(0), 0);
+        assertEquals(3.0, linear.getCoefficient(1), 0);
+    }
+
+    @Test
+    public void testAdd_WithOppositeCoefficient_ExpectTermRemoved() {
+        ArrayLinear linear = new ArrayLinear();
+        linear.add(2, vars[0]);
+        linear.add(3, vars[1]);
+        linear.add(-2, vars[0]);
+
+        assertEquals(1, linear.size());
+        assertEquals(-1, linear.indexOf(vars[0]));
+        assertEquals(vars[1], linear.getVariable(0));
+    }
+
+    @Test
+    public void testAdd_WithZeroCoefficient_ExpectNotStored() {
+        ArrayLinear linear = new ArrayLinear();
+        linear.add(0, vars[0]);
+
+        assertTrue(linear.isEmpty());
+    }
+
+    /**
+     * Check if the hash index, used from eight terms, is rebuilt after a removal.
+     */
+    @Test
+    public void testRemove_WithManyTerms_ExpectIndexRebuilt() {
+        ArrayLinear linear = new ArrayLinear();
+        for (int i = 0; i < vars.length; i++) {
+            linear.add(i + 1, vars[i]);
+        }
+        assertEquals(5, linear.indexOf(vars[5]));
+
+        assertTrue(linear.remove(vars[5]));
+        assertFalse(linear.remove(vars[5]));
+        linear.remove(lp.createTerm(1, vars[0]));
+
+        assertEquals(18, linear.size());
+        assertEquals(-1, linear.indexOf(vars[0]));
+        assertEquals(-1, linear.indexOf(vars[5]));
+        for (int i = 1; i < vars.length; i++) {
+            if (i != 5) {
+                int pos = linear.indexOf(vars[i]);
+                assertEquals(vars[i], linear.getVariable(pos));
+                assertEquals(i + 1, linear.getCoefficient(pos), 0);
+            }
+        }
+
+        // Merge using the rebuilt index.
+        linear.add(1, vars[19]);
+        assertEquals(18, linear.size());
+        assertEquals(21.0, linear.getCoefficient(linear.indexOf(vars[19])), 0);
+    }
+
+    @Test
+    public void testRemove_WithDifferentCoefficient_ExpectNotRemoved() {
+        ArrayLinear linear = new ArrayLinear();
+        linear.add(2, vars[0]);
+        linear.remove(lp.createTerm(3, vars[0]));
+
+        assertEquals(1, linear.size());
+    }
+
+    @Test
+    public void testIteratorRemove_ExpectTermRemoved() {
+        ArrayLinear linear = new ArrayLinear();
+        for (int i = 0; i < vars.length; i++) {
+            linear.add(1, vars[i]);
+        }
+        Iterator<Term> it = linear.iterator();
+        while (it.hasNext()) {
+            if (it.next().getVariable() == vars[10]) {
+                it.remove();
+            }
+        }
+
+        assertEquals(19, linear.size());
+        assertEquals(-1, linear.indexOf(vars[10]));
+        assertEquals(10, linear.indexOf(vars[11]));
+    }
+
+    @Test
+    public void testEquals_WithDifferentOrder_ExpectEqual() {
+        ArrayLinear linear1 = new ArrayLinear();
+        linear1.add(1, vars[0]);
+        linear1.add(2, vars[1]);
+        ArrayLinear linear2 = new ArrayLinear();
+        linear2.add(2, vars[1]);
+        linear2.add(1, vars[0]);
+
+        assertEquals(linear1, linear2);
+        assertEquals(linear1.hashCode(), linear2.hashCode());
+
+        linear2.add(1, vars[0]);
+        assertFalse(linear1.equals(linear2));
+    }
+
+    /**
+     * Like {@link ConcreteLinear}, the equality is only defined between linear expressions of the same class.
+     */
+    @Test
+    public void testEquals_WithConcreteLinear_ExpectNotEqual() {
+        ArrayLinear linear1 = new ArrayLinear();
+        linear1.add(1, vars[0]);
+        Linear linear2 = new ConcreteLinear();
+        linear2.add(lp.createTerm(1, vars[0]));
+
+        assertFalse(linear1.equals(linear2));
+        assertFalse(linear2.equals(linear1));
+    }
+
+}
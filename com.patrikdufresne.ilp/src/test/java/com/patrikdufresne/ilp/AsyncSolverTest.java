@@ -0,0 +1,250 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public abstract class AsyncSolverTest {
+
+    private static final Integer ONE = Integer.valueOf(1);
+
+    private static final Integer ZERO = Integer.valueOf(0);
+
+    AsyncSolver async;
+    ExecutorService executor;
+    LinearProblem lp;
+    Solver solver;
+
+    @Before
+    public void createAsyncSolver() {
+        solver = doGetSolverFactory().createSolver();
+        lp = solver.createLinearProblem();
+        executor = Executors.newSingleThreadExecutor();
+        async = new AsyncSolver(solver, executor);
+    }
+
+    @After
+    public void disposeAsyncSolver() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        solver.dispose();
+    }
+
+    protected abstract SolverFactory doGetSolverFactory();
+
+    /**
+     * Create a problem without integer solution and requiring an exponential
+     * number of nodes to be proved.
+     * 
+     * <pre>
+     * Maximize x1 + x2 + ... + xn
+     *     subject to
+     *       2 x1 + 2 x2 + ... + 2 xn = n
+     *     where,
+     *       x binary, n odd
+     * </pre>
+     */
+    private static void createHardProblem(LinearProblem lp, int n) {
+        Variable[] vars = new Variable[n];
+        int[] coefs = new int[n];
+        Linear linear = lp.createLinear();
+        for (int i = 0; i < n; i++) {
+            vars[i] = lp.addIntegerVariable("x" + i, ZERO, ONE);
+            coefs[i] = 2;
+            linear.add(lp.createTerm(1, vars[i]));
+        }
+        lp.setObjectiveLinear(linear);
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        lp.addConstraint("sum", coefs, vars, n, n);
+    }
+
+    /**
+     * <pre>
+     * Maximize 17 * x + 12* y
+     *     subject to
+     *       10 x + 7 y <= 40
+     *          x +   y <=  5
+     *     where,
+     *       0.0 <= x  integer
+     *       0.0 <= y  integer
+     * Solution:
+     *     obj: 60.0
+     *     x:   0
+     *     y:   5
+     * </pre>
+     */
+    private static void createProblem(LinearProblem lp) {
+        Variable x = lp.addIntegerVariable("x", ZERO, null);
+        Variable y = lp.addIntegerVariable("y", ZERO, null);
+        Linear linear = lp.createLinear();
+        linear.add(lp.createTerm(17, x));
+        linear.add(lp.createTerm(12, y));
+        lp.setObjectiveLinear(linear);
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        lp.addConstraint("10 x + 7 y <= 40", new int[] { 10, 7 }, new Variable[] { x, y }, null, 40);
+        lp.addConstraint("   x +   y <=  5", new int[] { 11, 1 }, new Variable[] { x, y }, null, 5);
+    }
+
+    /**
+     * Returns a callable creating the problem of
+     * {@link #createProblem(LinearProblem)} in the thread running the
+     * resolution.
+     */
+    private Callable<LinearProblem> problem() {
+        return new Callable<LinearProblem>() {
+            @Override
+            public LinearProblem call() {
+                LinearProblem problem = AsyncSolverTest.this.solver.createLinearProblem();
+                createProblem(problem);
+                return problem;
+            }
+        };
+    }
+
+    /**
+     * Returns a callable creating the hard problem in the thread running the
+     * resolution.
+     */
+    private Callable<LinearProblem> hardProblem(final int n) {
+        return new Callable<LinearProblem>() {
+            @Override
+            public LinearProblem call() {
+                LinearProblem hard = AsyncSolverTest.this.solver.createLinearProblem();
+                createHardProblem(hard, n);
+                return hard;
+            }
+        };
+    }
+
+    /**
+     * Check if the future is cancelled before the resolution starts. The
+     * option is not terminated since the resolution never started.
+     */
+    @Test(expected = CancellationException.class)
+    public void testCancel_BeforeStart_ExpectCancellationException() throws Exception {
+        // Keep the executor busy.
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.submit(new Callable<Object>() {
+            @Override
+            public Object call() throws InterruptedException {
+                latch.await();
+                return null;
+            }
+        });
+
+        SolverOption option = solver.createSolverOption();
+        Future<SolveResult> future = async.solveAsync(hardProblem(41), option);
+        assertTrue(future.cancel(false));
+        assertTrue(future.isCancelled());
+        if (option instanceof ITerminable) {
+            assertFalse(((ITerminable) option).isTerminated());
+        }
+        latch.countDown();
+        future.get();
+    }
+
+    /**
+     * Check if cancelling the future stops the resolution and release the
+     * executor thread. The search would not complete in a reasonable time.
+     * The option is reset and may be used by another resolution.
+     */
+    @Test
+    public void testCancel_WhileRunning_ExpectSolveStopped() throws Exception {
+        SolverOption option = solver.createSolverOption();
+        if (!(option instanceof ITerminable)) {
+            return;
+        }
+        Future<SolveResult> future = async.solveAsync(hardProblem(41), option);
+        Thread.sleep(500);
+        assertTrue(future.cancel(true));
+
+        // The executor thread should be released.
+        Future<Boolean> next = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return Boolean.TRUE;
+            }
+        });
+        assertEquals(Boolean.TRUE, next.get(30, TimeUnit.SECONDS));
+        assertFalse(((ITerminable) option).isTerminated());
+
+        SolveResult result = async.solveAsync(problem(), option).get(30, TimeUnit.SECONDS);
+        assertEquals(Status.OPTIMAL, result.getStatus());
+    }
+
+    /**
+     * Check if the problem created by the executor is solved and disposed.
+     */
+    @Test
+    public void testSolveAsync_WithFactory_ExpectValues() throws InterruptedException, ExecutionException {
+        SolveResult result = async.solveAsync(problem(), solver.createSolverOption()).get();
+
+        assertTrue(result.isFeasible());
+        assertEquals(Status.OPTIMAL, result.getStatus());
+        assertEquals(60.0, result.getObjectiveValue().doubleValue(), 0.0001);
+        assertArrayEquals(new double[] { 0, 5 }, result.getValues(), 0.0001);
+        assertNull(result.getProblem());
+    }
+
+    /**
+     * Check if the problem is solved by the executor. A problem confined to its
+     * thread is rejected.
+     */
+    @Test
+    public void testSolveAsync_WithProblem_ExpectResult() throws InterruptedException, ExecutionException {
+        createProblem(lp);
+
+        if (lp instanceof IThreadConfinedLinearProblem) {
+            try {
+                async.solveAsync(lp, solver.createSolverOption());
+                fail("Should throw an exception");
+            } catch (ILPException e) {
+                assertEquals(ILPException.ERROR_THREAD_INVALID_ACCESS, e.code);
+            }
+            return;
+        }
+        SolveResult result = async.solveAsync(lp, solver.createSolverOption()).get();
+
+        assertTrue(result.isFeasible());
+        assertEquals(Status.OPTIMAL, result.getStatus());
+        assertEquals(60.0, result.getObjectiveValue().doubleValue(), 0.0001);
+        assertEquals(lp, result.getProblem());
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright(C) 2013 Patrik Dufresne Service Logiciel <info@patrikdufresne.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.patrikdufresne.ilp;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link Basis} file format.
+ * 
+ * @author Patrik Dufresne
+ * 
+ */
+public class BasisTest {
+
+    File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("basis", ".bas");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    private void writeFile(String content) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void testRead_WithClpFile_ExpectStatus() throws IOException {
+        writeFile("NAME          Unknown\n XU C0000001  R0000002\n XL C0000002  R0000003\n UL C0000003\n LL C0000004\nENDATA\n");
+        Basis basis = Basis.read(file);
+        assertEquals(Basis.BASIC, basis.getColumnStatus("C0000001"));
+        assertEquals(Basis.BASIC, basis.getColumnStatus("C0000002"));
+        assertEquals(Basis.UPPER, basis.getColumnStatus("C0000003"));
+        assertEquals(Basis.LOWER, basis.getColumnStatus("C0000004"));
+        assertEquals(-1, basis.getColumnStatus("C0000005"));
+        assertEquals(-1, basis.getRowStatus("R0000001"));
+        assertEquals(Basis.UPPER, basis.getRowStatus("R0000002"));
+        assertEquals(Basis.LOWER, basis.getRowStatus("R0000003"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRead_WithInvalidRecord_ExpectException() throws IOException {
+        writeFile("NAME          Unknown\n XX C0000001\nENDATA\n");
+        Basis.read(file);
+    }
+
+    @Test
+    public void testWrite_ExpectSameStatus() throws IOException {
+        Basis basis = new Basis();
+        basis.setColumnStatus("x", Basis.BASIC);
+        basis.setColumnStatus("y", Basis.UPPER);
+        basis.setColumnStatus("z", Basis.LOWER);
+        basis.setColumnStatus("w", Basis.BASIC);
+        basis.setRowStatus("c1", Basis.BASIC);
+        basis.setRowStatus("c2", Basis.UPPER);
+        basis.setRowStatus("c3", Basis.LOWER);
+        basis.write(file, "problem");
+
+        Basis copy = Basis.read(file);
+        assertEquals(Basis.BASIC, copy.getColumnStatus("x"));
+        assertEquals(Basis.UPPER, copy.getColumnStatus("y"));
+        assertEquals(-1, copy.getColumnStatus("z"));
+        assertEquals(Basis.BASIC, copy.getColumnStatus("w"));
+        assertEquals(-1, copy.getRowStatus("c1"));
+        assertEquals(Basis.UPPER, copy.getRowStatus("c2"));
+        assertEquals(Basis.LOWER, copy.getRowStatus("c3"));
+    }
+
+    @Test
+    public void testWrite_WithWhiteSpaceName_ExpectIgnored() throws IOException {
+        Basis basis = new Basis();
+        basis.setColumnStatus("x y", Basis.UPPER);
+        basis.setColumnStatus(null, Basis.UPPER);
+        basis.write(file, null);
+        assertEquals(-1, Basis.read(file).getColumnStatus("x y"));
+    }
+
+}
@@ -214,6 +214,31 @@ public abstract class ConstraintTest {
 
     }
 
+    /**
+     * Check if the linear is kept when updated repeatedly with rows of growing and shrinking length.
+     */
+    @Test
+    public void testSetLinear_Repeatedly() {
+        int count = 40;
+        Variable[] vars = new Variable[count];
+        for (int j = 0; j < count; j++) {
+            vars[j] = lp.addVariable("x" + j, VarType.REAL);
+        }
+        Constraint constraint = lp.addConstraint("c", lp.createLinear(), ONE, null);
+        for (int step = 1; step < 2 * count; step++) {
+            int size = step <= count ? step : 2 * count - step;
+            double[] coefs = new double[size];
+            Variable[] subset = new Variable[size];
+            for (int j = 0; j < size; j++) {
+                coefs[j] = step + j;
+                subset[j] = vars[j];
+            }
+            Linear linear = lp.createLinear(coefs, subset);
+            constraint.setLinear(linear);
+            assertEquals(linear, constraint.getLinear());
+        }
+    }
+
     /**
      * Check if it's possible to re-create a constraint with the same name if the original constraint as been disposed.
      */
@@ -21,14 +21,27 @@ package com.patrikdufresne.ilp;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.patrikdufresne.ilp.io.LPFormat;
+import com.patrikdufresne.ilp.io.ModelFiles;
+import com.patrikdufresne.ilp.util.ConstraintSnapshot;
+import com.patrikdufresne.ilp.util.Constraints;
+
 /**
  * @author Patrik Dufresne
  * 
@@ -62,6 +75,409 @@ public abstract class LinearProblemTest {
         assertEquals(78, c1.getUpperBound().doubleValue(), 0.0001);
     }
 
+    /**
+     * Check if the variables and constraints created in bulk are equivalent to the one created one by one.
+     */
+    @Test
+    public void testAddVariablesAndConstraints() {
+        Variable a = lp.addBinaryVariable("a");
+        int first = lp.addVariables(new String[] { "x", "y", "z" }, new VarType[] { VarType.INTEGER, VarType.REAL, VarType.BOOL }, new double[] { 0,
+                Double.NEGATIVE_INFINITY, 0 }, new double[] { 10, 5.5, 1 });
+        assertEquals(1, first);
+        assertEquals(4, lp.getVariables().size());
+        Variable[] vars = lp.getVariables().toArray(new Variable[4]);
+        assertEquals(a, vars[0]);
+        assertEquals("x", vars[1].getName());
+        assertEquals(VarType.INTEGER, vars[1].getType());
+        assertEquals(0, vars[1].getLowerBound().doubleValue(), 0);
+        assertEquals(10, vars[1].getUpperBound().doubleValue(), 0);
+        assertEquals(VarType.REAL, vars[2].getType());
+        assertNull(vars[2].getLowerBound());
+        assertEquals(5.5, vars[2].getUpperBound().doubleValue(), 0);
+        assertEquals(VarType.BOOL, vars[3].getType());
+
+        // Rows: c1 = x + 2y, c2 = empty, c3 = 3a - z
+        first = lp.addConstraints(new String[] { "c1", "c2", "c3" }, new int[] { 0, 2, 2, 4 }, new int[] { 1, 2, 0, 3 }, new double[] { 1, 2, 3, -1 },
+                new double[] { 1, Double.NEGATIVE_INFINITY, 0 }, new double[] { Double.POSITIVE_INFINITY, 4, 0 });
+        assertEquals(0, first);
+        Constraint[] constraints = lp.getConstraints().toArray(new Constraint[3]);
+        assertEquals("c1", constraints[0].getName());
+        assertEquals(lp.createLinear(new double[] { 1, 2 }, new Variable[] { vars[1], vars[2] }), constraints[0].getLinear());
+        assertEquals(1, constraints[0].getLowerBound().doubleValue(), 0);
+        assertNull(constraints[0].getUpperBound());
+        assertTrue(constraints[1].isEmpty());
+        assertNull(constraints[1].getLowerBound());
+        assertEquals(4, constraints[1].getUpperBound().doubleValue(), 0);
+        assertEquals(lp.createLinear(new double[] { 3, -1 }, new Variable[] { vars[0], vars[3] }), constraints[2].getLinear());
+        assertEquals(0, constraints[2].getLowerBound().doubleValue(), 0);
+        assertEquals(0, constraints[2].getUpperBound().doubleValue(), 0);
+    }
+
+    /**
+     * Check if a column repeated within a row is rejected, whatever the position of the duplicate.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddConstraints_WithDuplicateColumn_ExpectException() {
+        lp.addVariables(new String[] { "x", "y", "z" }, new VarType[] { VarType.REAL, VarType.REAL, VarType.REAL }, null, null);
+        lp.addConstraints(new String[] { "c1", "c2" }, new int[] { 0, 2, 5 }, new int[] { 0, 2, 2, 1, 2 }, new double[] { 1, 1, 1, 1, 1 }, null,
+                null);
+    }
+
+    /**
+     * Check if the index-based accessors return the same objects as the collections, including after a removal.
+     */
+    @Test
+    public void testGetVariableAndConstraint_ByIndex() {
+        lp.addVariables(new String[] { "x", "y", "z" }, new VarType[] { VarType.REAL, VarType.REAL, VarType.REAL }, null, null);
+        lp.addConstraints(new String[] { "c1", "c2" }, new int[] { 0, 2, 3 }, new int[] { 0, 2, 1 }, new double[] { 1, 1, 2 }, null, null);
+        Variable y = lp.getVariable(1);
+        Variable z = lp.getVariable(2);
+        assertEquals("y", y.getName());
+        assertSame(y, lp.getVariable(1));
+        assertSame(z, lp.getVariables().toArray()[2]);
+        Constraint c2 = lp.getConstraint(1);
+        assertEquals("c2", c2.getName());
+        assertSame(c2, lp.getConstraints().toArray()[1]);
+
+        // Removing an element must shift the following ones.
+        lp.getVariable(0).dispose();
+        assertSame(y, lp.getVariable(0));
+        assertSame(z, lp.getVariable(1));
+        assertEquals("z", lp.getVariable(1).getName());
+        assertEquals(lp.createLinear(2, y), c2.getLinear());
+        lp.getConstraint(0).dispose();
+        assertSame(c2, lp.getConstraint(0));
+        assertEquals(1, lp.getConstraints().size());
+        try {
+            lp.getVariable(2);
+            fail("IndexOutOfBoundsException expected");
+        } catch (IndexOutOfBoundsException e) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Check if the matrix follows the creation and the removal of variables and constraints.
+     */
+    @Test
+    public void testGetMatrix() {
+        lp.addVariables(new String[] { "x", "y", "z" }, new VarType[] { VarType.REAL, VarType.REAL, VarType.REAL }, null, null);
+        lp.addConstraints(new String[] { "c1", "c2" }, new int[] { 0, 2, 3 }, new int[] { 0, 2, 1 }, new double[] { 1, 3, 2 }, null, null);
+        Constraint c3 = lp.addConstraint("c3");
+        assertTrue(c3.isEmpty());
+        assertTrue(!lp.getConstraint(0).isEmpty());
+        SparseMatrix matrix = lp.getMatrix();
+        assertEquals(3, matrix.getRowCount());
+        assertEquals(3, matrix.getColumnCount());
+        assertEquals(3, matrix.getNonZeroCount());
+        assertTrue(Arrays.equals(new double[] { 1, 0, 3 }, toDense(matrix, 0)));
+        assertTrue(Arrays.equals(new double[] { 0, 2, 0 }, toDense(matrix, 1)));
+        assertTrue(Arrays.equals(new double[] { 0, 0, 0 }, toDense(matrix, 2)));
+
+        // Removing a column must renumber the following ones.
+        lp.getVariable(0).dispose();
+        c3.setLinear(lp.createLinear(4, lp.getVariable(0)));
+        assertTrue(!c3.isEmpty());
+        matrix = lp.getMatrix();
+        assertEquals(2, matrix.getColumnCount());
+        assertTrue(Arrays.equals(new double[] { 0, 3 }, toDense(matrix, 0)));
+        assertTrue(Arrays.equals(new double[] { 2, 0 }, toDense(matrix, 1)));
+        assertTrue(Arrays.equals(new double[] { 4, 0 }, toDense(matrix, 2)));
+        assertEquals(lp.createLinear(3, lp.getVariable(1)), lp.getConstraint(0).getLinear());
+    }
+
+    /**
+     * Returns the coefficients of a row of the matrix as a dense vector.
+     */
+    private static double[] toDense(SparseMatrix matrix, int row) {
+        double[] dense = new double[matrix.getColumnCount()];
+        for (int k = matrix.getStarts()[row]; k < matrix.getStarts()[row + 1]; k++) {
+            dense[matrix.getColumns()[k]] += matrix.getCoefficients()[k];
+        }
+        return dense;
+    }
+
+    /**
+     * Check if the lookup by name follows the creation and the removal of variables and constraints.
+     */
+    @Test
+    public void testGetVariableAndConstraint_ByName() {
+        Variable a = lp.addBinaryVariable("a");
+        lp.addVariables(new String[] { "x", null, "z" }, new VarType[] { VarType.REAL, VarType.REAL, VarType.REAL }, null, null);
+        Constraint c1 = lp.addConstraint("c1", lp.createLinear(1, a), 0, 1);
+        lp.addConstraints(new String[] { "c2", "c3" }, new int[] { 0, 1, 2 }, new int[] { 1, 3 }, new double[] { 1, 1 }, null, null);
+        assertSame(a, lp.getVariable("a"));
+        assertSame(lp.getVariable(3), lp.getVariable("z"));
+        assertNull(lp.getVariable("y"));
+        assertNull(lp.getVariable((String) null));
+        assertSame(c1, lp.getConstraint("c1"));
+        assertSame(lp.getConstraint(2), lp.getConstraint("c3"));
+
+        a.dispose();
+        assertNull(lp.getVariable("a"));
+        assertEquals("z", lp.getVariable("z").getName());
+        assertSame(lp.getVariable(2), lp.getVariable("z"));
+        lp.getConstraint("c2").dispose();
+        assertNull(lp.getConstraint("c2"));
+        assertSame(lp.getConstraint(1), lp.getConstraint("c3"));
+
+        // The name is available again.
+        assertEquals("a", lp.addBinaryVariable("a").getName());
+    }
+
+    /**
+     * Check if disposing multiple variables and constraints keeps the remaining ones in order.
+     */
+    @Test
+    public void testDisposeVariablesAndConstraints() {
+        lp.addVariables(new String[] { "a", "b", "c", "d", "e" }, new VarType[] { VarType.REAL, VarType.REAL, VarType.REAL, VarType.REAL, VarType.REAL },
+                null, null);
+        lp.addConstraints(new String[] { "c1", "c2", "c3", "c4" }, new int[] { 0, 1, 2, 3, 5 }, new int[] { 0, 1, 2, 3, 4 }, new double[] { 1, 1, 1, 1,
+                2 }, null, new double[] { 1, 2, 3, 4 });
+        Variable b = lp.getVariable(1);
+        Variable d = lp.getVariable(3);
+        Variable e = lp.getVariable(4);
+        Constraint c2 = lp.getConstraint(1);
+        Constraint c4 = lp.getConstraint(3);
+
+        lp.disposeVariables(Arrays.asList(lp.getVariable(0), lp.getVariable(2), d, d));
+        assertTrue(d.isDisposed());
+        assertEquals(2, lp.getVariables().size());
+        assertSame(b, lp.getVariable(0));
+        assertSame(e, lp.getVariable(1));
+        assertSame(e, lp.getVariable("e"));
+        assertNull(lp.getVariable("d"));
+        assertEquals(lp.createLinear(2, e), c4.getLinear());
+
+        // Disposed constraints are ignored.
+        Constraint c1 = lp.getConstraint(0);
+        c1.dispose();
+        lp.disposeConstraints(Arrays.asList(c1, lp.getConstraint(1)));
+        List<ConstraintSnapshot> snapshots = Constraints.release(lp, Arrays.asList(c4));
+        assertEquals(1, snapshots.size());
+        assertEquals("c4", snapshots.get(0).getName());
+        assertTrue(c4.isDisposed());
+        assertEquals(1, lp.getConstraints().size());
+        assertSame(c2, lp.getConstraint(0));
+        assertSame(c2, lp.getConstraint("c2"));
+        assertNull(lp.getConstraint("c3"));
+    }
+
+    /**
+     * Check if the names are ignored by a nameless problem.
+     */
+    @Test
+    public void testSetNameless() {
+        if (!(lp instanceof INamelessLinearProblem)) {
+            return;
+        }
+        ((INamelessLinearProblem) lp).setNameless(true);
+        assertTrue(((INamelessLinearProblem) lp).isNameless());
+        lp.addVariables(new String[] { "x", "x" }, new VarType[] { VarType.REAL, VarType.REAL }, null, null);
+        Variable y = lp.addVariable(null, VarType.INTEGER);
+        assertEquals(VarType.INTEGER, y.getType());
+        assertNull(lp.getVariable("x"));
+        assertEquals(3, lp.getVariables().size());
+        try {
+            ((INamelessLinearProblem) lp).setNameless(false);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Check if an invalid column index is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddConstraints_WithInvalidColumn() {
+        lp.addVariables(null, new VarType[] { VarType.REAL, VarType.REAL }, null, null);
+        lp.addConstraints(null, new int[] { 0, 2 }, new int[] { 0, 2 }, new double[] { 1, 1 }, null, null);
+    }
+
+    /**
+     * Check if duplicate names are rejected.
+     */
+    @Test(expected = ILPException.class)
+    public void testAddVariables_WithDuplicateName() {
+        lp.addVariables(new String[] { "x", "x" }, new VarType[] { VarType.REAL, VarType.REAL }, null, null);
+    }
+
+    /**
+     * Check if the terms referencing the same variable are merged together and if the merged linear is stored in the
+     * constraint.
+     */
+    @Test
+    public void testCreateLinear_WithRepeatedVariable() {
+        Variable x = lp.addIntegerVariable("x", ZERO, null);
+        Variable y = lp.addIntegerVariable("y", ZERO, null);
+        Variable z = lp.addIntegerVariable("z", ZERO, null);
+        Linear l = lp.createLinear(new double[] { 2, 3, 5, -2, 0 }, new Variable[] { x, y, x, y, z });
+        assertEquals(2, l.size());
+        assertEquals(lp.createLinear(new double[] { 7, 1 }, new Variable[] { x, y }), l);
+
+        // Merged coefficient equals to zero should remove the term.
+        l.add(lp.createTerm(-1, y));
+        assertEquals(lp.createLinear(7, x), l);
+
+        Constraint c1 = lp.addConstraint("c1", l, 0, 10);
+        assertEquals(l, c1.getLinear());
+    }
+
+    /**
+     * Find a variable by name.
+     */
+    private static Variable find(LinearProblem lp, String name) {
+        for (Variable var : lp.getVariables()) {
+            if (name.equals(var.getName())) {
+                return var;
+            }
+        }
+        throw new AssertionError("variable not found: " + name);
+    }
+
+    /**
+     * Write the problem to a file and read it back into a new problem.
+     */
+    private LinearProblem writeAndRead(String suffix) throws IOException {
+        File file = File.createTempFile("problem", suffix);
+        try {
+            ModelFiles.write(lp, file);
+            LinearProblem copy = solver.createLinearProblem();
+            ModelFiles.read(file, copy);
+            return copy;
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Create a problem using every kind of bounds, write it in the given format and check if the problem read is
+     * identical. The variables are compared by names since the LP format creates them in order of appearance.
+     */
+    private void checkWriteAndRead(String suffix) throws IOException {
+        Variable x = lp.addIntegerVariable("x", ZERO, Integer.valueOf(10));
+        Variable y = lp.addVariable("y", VarType.REAL);
+        y.setLowerBound(null);
+        y.setUpperBound(Double.valueOf(5.5));
+        Variable z = lp.addBinaryVariable("z");
+        Variable w = lp.addVariable("w", VarType.REAL);
+        w.setLowerBound(null);
+        w.setUpperBound(null);
+        lp.addConstraint("c1", lp.createLinear(new double[] { 1, 2.5 }, new Variable[] { x, y }), Double.valueOf(1), null);
+        lp.addConstraint("c2", lp.createLinear(new double[] { 3, -1 }, new Variable[] { z, w }), Double.valueOf(-2), Double.valueOf(4));
+        lp.addConstraint("c3", lp.createLinear(new double[] { 1, 1 }, new Variable[] { x, z }), Double.valueOf(2), Double.valueOf(2));
+        lp.addConstraint("c4", lp.createLinear(-1, y), null, Double.valueOf(0.25));
+        lp.setObjectiveLinear(lp.createLinear(new double[] { 4, -1, 2 }, new Variable[] { x, y, w }));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+
+        LinearProblem copy = writeAndRead(suffix);
+        try {
+            assertEquals(LinearProblem.MAXIMIZE, copy.getObjectiveDirection());
+            assertEquals(4, copy.getVariables().size());
+            for (Variable expected : lp.getVariables()) {
+                Variable var = find(copy, expected.getName());
+                assertEquals(expected.getType(), var.getType());
+                assertEquals(expected.getLowerBound(), var.getLowerBound());
+                assertEquals(expected.getUpperBound(), var.getUpperBound());
+            }
+            Variable[] vars = new Variable[] { find(copy, "x"), find(copy, "y"), find(copy, "z"), find(copy, "w") };
+            assertEquals(copy.createLinear(new double[] { 4, -1, 2 }, new Variable[] { vars[0], vars[1], vars[3] }), copy.getObjectiveLinear());
+            Constraint[] constraints = copy.getConstraints().toArray(new Constraint[0]);
+            assertEquals(4, constraints.length);
+            assertEquals("c2", constraints[1].getName());
+            assertEquals(copy.createLinear(new double[] { 3, -1 }, new Variable[] { vars[2], vars[3] }), constraints[1].getLinear());
+            assertEquals(-2, constraints[1].getLowerBound().doubleValue(), 0);
+            assertEquals(4, constraints[1].getUpperBound().doubleValue(), 0);
+            assertEquals(2, constraints[2].getLowerBound().doubleValue(), 0);
+            assertEquals(2, constraints[2].getUpperBound().doubleValue(), 0);
+            assertNull(constraints[3].getLowerBound());
+            assertEquals(0.25, constraints[3].getUpperBound().doubleValue(), 0);
+        } finally {
+            copy.dispose();
+        }
+    }
+
+    /**
+     * Check if a problem written in CPLEX LP format is read back identically.
+     */
+    @Test
+    public void testWriteRead_WithLP_ExpectSameProblem() throws IOException {
+        checkWriteAndRead(".lp");
+    }
+
+    /**
+     * Check if a problem written in free MPS format is read back identically.
+     */
+    @Test
+    public void testWriteRead_WithMPS_ExpectSameProblem() throws IOException {
+        checkWriteAndRead(".mps.gz");
+    }
+
+    /**
+     * Check if a problem written in binary format is read back identically.
+     */
+    @Test
+    public void testWriteRead_WithBinary_ExpectSameProblem() throws IOException {
+        checkWriteAndRead(".ilpb");
+    }
+
+    /**
+     * Check if the line number is reported for an invalid file.
+     */
+    @Test
+    public void testRead_WithInvalidLP_ExpectLineNumber() {
+        try {
+            LPFormat.read(new StringReader("Minimize\n obj: x\nSubject To\n c1: x <= y\nEnd\n"), lp);
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("line 4"));
+        }
+    }
+
+    /**
+     * Check if a constraint without bounds is written with an infinite bound and read back without bounds.
+     */
+    @Test
+    public void testWriteRead_WithLPFreeRow_ExpectFreeRow() throws IOException {
+        Variable x = lp.addVariable("x", VarType.REAL);
+        lp.addConstraint("r1", lp.createLinear(2, x), null, null);
+        StringWriter writer = new StringWriter();
+        LPFormat.write(lp, writer);
+        assertTrue(writer.toString(), writer.toString().contains("2 x >= -inf"));
+
+        LinearProblem copy = solver.createLinearProblem();
+        try {
+            LPFormat.read(new StringReader(writer.toString()), copy);
+            Constraint c = copy.getConstraint("r1");
+            assertNull(c.getLowerBound());
+            assertNull(c.getUpperBound());
+            assertEquals(copy.createLinear(2, find(copy, "x")), c.getLinear());
+        } finally {
+            copy.dispose();
+        }
+    }
+
+    /**
+     * Check if the constant terms of the objective are ignored.
+     */
+    @Test
+    public void testRead_WithLPObjectiveConstant_ExpectIgnored() throws IOException {
+        LPFormat.read(new StringReader("Maximize\n obj: 3 x1 - x3 + 4\nSubject To\n c1: - x1 + x3 <= 5\nEnd\n"), lp);
+        Variable x1 = find(lp, "x1");
+        Variable x3 = find(lp, "x3");
+        assertEquals(lp.createLinear(new double[] { 3, -1 }, new Variable[] { x1, x3 }), lp.getObjectiveLinear());
+        assertEquals(1, lp.getConstraints().size());
+
+        // Constant terms are still rejected in the constraints.
+        try {
+            LPFormat.read(new StringReader("Minimize\n obj: y\nSubject To\n c2: 2 - y <= 5\nEnd\n"), lp);
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("line 4"));
+        }
+    }
+
     /**
      * Test method for {@link com.patrikdufresne.ilp.LinearProblem#addBinaryVariable(java.lang.String)} .
      */
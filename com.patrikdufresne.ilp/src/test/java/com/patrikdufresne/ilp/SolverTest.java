@@ -17,14 +17,25 @@ package com.patrikdufresne.ilp;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.patrikdufresne.ilp.util.IndexedValueSnapshot;
+import com.patrikdufresne.ilp.util.Linears;
+import com.patrikdufresne.ilp.util.ValueSnapshot;
+
 /**
  * 
  * @author Patrik Dufresne
@@ -108,6 +119,87 @@ public abstract class SolverTest {
 
     }
 
+    /**
+     * Solve different problems in many threads at the same time. Each thread create its own solver and problem.
+     * 
+     * <pre>
+     * Maximize 17 * x + 12* y + z
+     *     subject to
+     *       10 x + 7 y <= 40
+     *          x +   y <=  5
+     *     where,
+     *       0.0 <= x  integer
+     *       0.0 <= y  integer
+     *       k <= z <= k integer, k being the thread index
+     * Solution:
+     *     obj: 60 + k
+     *     x:   0
+     *     y:   5
+     *     z:   k
+     * </pre>
+     * 
+     * @throws InterruptedException
+     */
+    @Test
+    public void testSolve_ConcurrentProblems_ExpectNoCrossTalk() throws InterruptedException {
+
+        final int threadCount = 16;
+        final int solveCount = 10;
+        final Throwable[] errors = new Throwable[threadCount];
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int k = i;
+            threads[i] = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < solveCount; j++) {
+                            Solver solver = doGetSolverFactory().createSolver();
+                            LinearProblem lp = solver.createLinearProblem();
+
+                            // Create a linear problem.
+                            Variable x = lp.addIntegerVariable("x", ZERO, null);
+                            Variable y = lp.addIntegerVariable("y", ZERO, null);
+                            Variable z = lp.addIntegerVariable("z", Integer.valueOf(k), Integer.valueOf(k));
+                            lp.setObjectiveLinear(lp.createLinear(new int[] { 17, 12, 1 }, new Variable[] { x, y, z }));
+                            lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+                            lp.addConstraint("10 x + 7 y <= 40", new int[] { 10, 7 }, new Variable[] { x, y }, null, 40);
+                            lp.addConstraint("   x +   y <=  5", new int[] { 11, 1 }, new Variable[] { x, y }, null, 5);
+
+                            // Solve the problem.
+                            assertTrue(solver.solve(lp, solver.createSolverOption()));
+                            assertEquals(Status.OPTIMAL, lp.getStatus());
+                            assertEquals(0, x.getValue().intValue());
+                            assertEquals(5, y.getValue().intValue());
+                            assertEquals(k, z.getValue().intValue());
+                            assertEquals(60.0 + k, lp.getObjectiveValue().doubleValue(), 0.0001);
+
+                            // Dispose problem and solver
+                            lp.dispose();
+                            solver.dispose();
+                        }
+                    } catch (Throwable e) {
+                        errors[k] = e;
+                    }
+                }
+
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (Throwable e : errors) {
+            if (e != null) {
+                throw new AssertionError(e);
+            }
+        }
+
+    }
+
     /**
      * <pre>
      * Maximize y
@@ -319,6 +411,52 @@ public abstract class SolverTest {
 
     }
 
+    /**
+     * Check repeated solve / modify / solve cycles on the same problem. On each cycle, a variable is added, sometime a
+     * variable is removed and the constraint is replaced.
+     * 
+     * <pre>
+     * Maximize x1 + x2 + ... + xi
+     *     subject to
+     *       x1 + x2 + ... + xi <= 2 i
+     *     where,
+     *       0 <= xk <= k integer
+     * </pre>
+     */
+    @Test
+    public void testSolve_withMIP_modifyAndSolveRepeatedly() {
+        List<Variable> vars = new ArrayList<Variable>();
+        Constraint constraint = null;
+        for (int i = 1; i <= 20; i++) {
+            vars.add(lp.addIntegerVariable("x" + i, ZERO, Integer.valueOf(i)));
+            if (i % 4 == 0) {
+                vars.remove(0).dispose();
+            }
+
+            // Replace the objective and the constraint.
+            Linear linear = lp.createLinear();
+            int[] coefs = new int[vars.size()];
+            double upper = 0;
+            for (int k = 0; k < vars.size(); k++) {
+                linear.add(lp.createTerm(1, vars.get(k)));
+                coefs[k] = 1;
+                upper += vars.get(k).getUpperBound().doubleValue();
+            }
+            lp.setObjectiveLinear(linear);
+            lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+            if (constraint != null) {
+                constraint.dispose();
+            }
+            Variable[] array = vars.toArray(new Variable[vars.size()]);
+            constraint = lp.addConstraint("sum" + i, coefs, array, null, Integer.valueOf(2 * i));
+
+            // Solve the problem and check the result.
+            assertTrue(solver.solve(lp, solver.createSolverOption()));
+            assertEquals(Status.OPTIMAL, lp.getStatus());
+            assertEquals(Math.min(upper, 2 * i), lp.getObjectiveValue().doubleValue(), 0.0001);
+        }
+    }
+
     @Test
     public void testSolve_withMIP_unfeasibleProblem() {
 
@@ -333,4 +471,350 @@ public abstract class SolverTest {
         assertFalse(lp.isFeasible());
 
     }
+
+    /**
+     * Create a problem without integer solution and requiring an exponential
+     * number of nodes to be proved.
+     * 
+     * <pre>
+     * Maximize x1 + x2 + ... + xn
+     *     subject to
+     *       2 x1 + 2 x2 + ... + 2 xn = n
+     *     where,
+     *       x binary, n odd
+     * </pre>
+     */
+    private void createHardProblem(int n) {
+        Variable[] vars = new Variable[n];
+        int[] coefs = new int[n];
+        Linear linear = lp.createLinear();
+        for (int i = 0; i < n; i++) {
+            vars[i] = lp.addIntegerVariable("x" + i, ZERO, ONE);
+            coefs[i] = 2;
+            linear.add(lp.createTerm(1, vars[i]));
+        }
+        lp.setObjectiveLinear(linear);
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        lp.addConstraint("sum", coefs, vars, n, n);
+    }
+
+    /**
+     * Create the problem 17 x + 12 y used by other tests. Optimal value is 60.
+     */
+    private void createSmallProblem() {
+        Variable x = lp.addIntegerVariable("x", ZERO, null);
+        Variable y = lp.addIntegerVariable("y", ZERO, null);
+        Linear linear = lp.createLinear();
+        linear.add(lp.createTerm(17, x));
+        linear.add(lp.createTerm(12, y));
+        lp.setObjectiveLinear(linear);
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        lp.addConstraint("10 x + 7 y <= 40", new int[] { 10, 7 }, new Variable[] { x, y }, null, 40);
+        lp.addConstraint("   x +   y <=  5", new int[] { 11, 1 }, new Variable[] { x, y }, null, 5);
+    }
+
+    /**
+     * Returns the variable with the given name.
+     */
+    private Variable getVariable(String name) {
+        for (Variable var : lp.getVariables()) {
+            if (name.equals(var.getName())) {
+                return var;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /**
+     * Check if the optimal solution is found from a complete, a partial and an
+     * infeasible initial solution.
+     */
+    @Test
+    public void testSolve_WithMIPStart_ExpectOptimal() {
+        createSmallProblem();
+        SolverOption option = solver.createSolverOption();
+        if (!(option instanceof IMIPStart)) {
+            return;
+        }
+        Variable x = getVariable("x");
+        Variable y = getVariable("y");
+
+        Map<Variable, Integer> start = new HashMap<Variable, Integer>();
+        start.put(x, ZERO);
+        start.put(y, Integer.valueOf(2));
+        ((IMIPStart) option).setMIPStart(start);
+        assertEquals(2, ((IMIPStart) option).getMIPStart().size());
+        assertTrue(solver.solve(lp, option));
+        assertEquals(60.0, lp.getObjectiveValue().doubleValue(), 0.0001);
+
+        start.remove(x);
+        ((IMIPStart) option).setMIPStart(start);
+        assertTrue(solver.solve(lp, option));
+        assertEquals(60.0, lp.getObjectiveValue().doubleValue(), 0.0001);
+
+        start.put(x, ONE);
+        start.put(y, Integer.valueOf(5));
+        ((IMIPStart) option).setMIPStart(start);
+        assertTrue(solver.solve(lp, option));
+        assertEquals(60.0, lp.getObjectiveValue().doubleValue(), 0.0001);
+    }
+
+    /**
+     * Check if the reuse of the previous solution gives the optimal solution
+     * of the modified problem.
+     */
+    @Test
+    public void testSolve_WithReuseSolution_ExpectOptimal() {
+        createSmallProblem();
+        SolverOption option = solver.createSolverOption();
+        if (!(option instanceof IMIPStart)) {
+            return;
+        }
+        ((IMIPStart) option).setReuseSolution(true);
+        assertTrue(((IMIPStart) option).getReuseSolution());
+        Variable y = getVariable("y");
+        for (int ub = 5; ub >= 1; ub--) {
+            y.setUpperBound(Integer.valueOf(ub));
+            assertTrue(solver.solve(lp, option));
+            assertEquals(12.0 * ub, lp.getObjectiveValue().doubleValue(), 0.0001);
+        }
+        // The previous solution is not feasible anymore.
+        lp.addConstraint("y >= 2", new int[] { 1 }, new Variable[] { y }, Integer.valueOf(2), null);
+        y.setUpperBound(null);
+        assertTrue(solver.solve(lp, option));
+        assertEquals(60.0, lp.getObjectiveValue().doubleValue(), 0.0001);
+    }
+
+    /**
+     * Check if the statistics of the resolution are available.
+     */
+    @Test
+    public void testSolve_WithMIP_ExpectStatistics() {
+        createSmallProblem();
+        assertNull(lp.getStatistics());
+        SolverOption option = solver.createSolverOption();
+        assertTrue(solver.solve(lp, option));
+        SolveStatistics stats = lp.getStatistics();
+        assertNotNull(stats);
+        assertTrue(stats.getSolveTime() >= 0);
+        assertTrue(stats.getBuildTime() <= stats.getSolveTime());
+        assertTrue(stats.getSyncTime() <= stats.getSolveTime());
+        assertEquals(60.0, stats.getObjectiveValue(), 0.0001);
+    }
+
+    /**
+     * Check if the bulk solution matches the value of each variable.
+     */
+    @Test
+    public void testSolve_WithMIP_ExpectBulkValues() {
+        createSmallProblem();
+        assertTrue(solver.solve(lp, solver.createSolverOption()));
+        List<Variable> vars = new ArrayList<Variable>(lp.getVariables());
+        double[] values = lp.getValues(null);
+        assertTrue(values.length >= vars.size());
+        for (int i = 0; i < vars.size(); i++) {
+            assertEquals(vars.get(i).getValue().doubleValue(), values[i], 0);
+        }
+        // The given array is reused when large enough.
+        double[] array = new double[vars.size() + 1];
+        assertSame(array, lp.getValues(array));
+
+        IndexedValueSnapshot snapshot = IndexedValueSnapshot.create(lp);
+        assertEquals(vars.size(), snapshot.size());
+        for (int i = 0; i < vars.size(); i++) {
+            assertEquals(values[i], snapshot.getValue(i), 0);
+        }
+    }
+
+    /**
+     * Check if the row activities match the constraint's linear evaluated with the solution.
+     */
+    @Test
+    public void testSolve_WithMIP_ExpectRowActivities() {
+        createSmallProblem();
+        // Change a linear to make sure the new coefficients are used.
+        List<Constraint> constraints = new ArrayList<Constraint>(lp.getConstraints());
+        Variable x = getVariable("x");
+        Variable y = getVariable("y");
+        Linear linear = lp.createLinear();
+        linear.add(lp.createTerm(1, x));
+        linear.add(lp.createTerm(1, y));
+        constraints.get(1).setLinear(linear);
+        assertTrue(solver.solve(lp, solver.createSolverOption()));
+
+        ValueSnapshot snapshot = ValueSnapshot.create(lp.getVariables());
+        double[] activities = lp.getRowActivities(null);
+        assertTrue(activities.length >= constraints.size());
+        for (int i = 0; i < constraints.size(); i++) {
+            Constraint c = constraints.get(i);
+            assertEquals(Linears.compute(c.getLinear(), snapshot).doubleValue(), activities[i], 0.0001);
+            assertEquals(activities[i], c.getValue().doubleValue(), 0);
+        }
+
+        // The remaining rows keep their activity.
+        constraints.get(0).dispose();
+        assertEquals(activities[1], constraints.get(1).getValue().doubleValue(), 0);
+        assertEquals(activities[1], lp.getRowActivities(null)[0], 0);
+    }
+
+    /**
+     * Check if the node limit stops the branch and bound. The problem is infeasible, but the search is stopped before
+     * proving it.
+     */
+    @Test
+    public void testSolve_WithNodeLimit_ExpectStopped() {
+        createHardProblem(41);
+        SolverOption option = solver.createSolverOption();
+        if (option instanceof INodeLimit) {
+            ((INodeLimit) option).setNodeLimit(100);
+            assertEquals(100, ((INodeLimit) option).getNodeLimit());
+            assertFalse(solver.solve(lp, option));
+            assertEquals(Status.UNKNOWN, lp.getStatus());
+        }
+    }
+
+    /**
+     * Check if a large relative gap still return a feasible solution.
+     */
+    @Test
+    public void testSolve_WithRelativeMIPGap_ExpectFeasible() {
+        createSmallProblem();
+        SolverOption option = solver.createSolverOption();
+        if (option instanceof IRelativeMIPGap) {
+            ((IRelativeMIPGap) option).setRelativeMIPGap(0.5);
+            assertEquals(0.5, ((IRelativeMIPGap) option).getRelativeMIPGap(), 0);
+            assertTrue(solver.solve(lp, option));
+            assertTrue(lp.isFeasible());
+            assertTrue(lp.getObjectiveValue().doubleValue() >= 30);
+        }
+    }
+
+    /**
+     * Check if the solution limit stops the branch and bound with a feasible
+     * solution.
+     */
+    @Test
+    public void testSolve_WithSolutionLimit_ExpectFeasible() {
+        createSmallProblem();
+        SolverOption option = solver.createSolverOption();
+        if (option instanceof ISolutionLimit) {
+            ((ISolutionLimit) option).setSolutionLimit(1);
+            assertEquals(1, ((ISolutionLimit) option).getSolutionLimit());
+            assertTrue(solver.solve(lp, option));
+            assertTrue(lp.isFeasible());
+        }
+    }
+
+    /**
+     * Check if the time limit stops the branch and bound. The problem is infeasible, but the search is stopped before
+     * proving it.
+     */
+    @Test
+    public void testSolve_WithTimeLimit_ExpectStopped() {
+        createHardProblem(41);
+        SolverOption option = solver.createSolverOption();
+        if (option instanceof ITimeLimit) {
+            ((ITimeLimit) option).setTimeLimit(500);
+            assertEquals(500, ((ITimeLimit) option).getTimeLimit());
+            long start = System.currentTimeMillis();
+            assertFalse(solver.solve(lp, option));
+            assertEquals(Status.UNKNOWN, lp.getStatus());
+            assertTrue(System.currentTimeMillis() - start < 30000);
+        }
+    }
+
+    /**
+     * Solve a problem modified between each resolution with and without warm start and check if the results are the
+     * same.
+     */
+    private void checkWarmStart(VarType type) {
+        SolverOption warm = solver.createSolverOption();
+        if (!(warm instanceof IWarmStart)) {
+            return;
+        }
+        ((IWarmStart) warm).setWarmStart(true);
+        assertTrue(((IWarmStart) warm).getWarmStart());
+        SolverOption cold = solver.createSolverOption();
+
+        int n = 12;
+        Variable[] vars = new Variable[n];
+        int[] profits = new int[n];
+        for (int j = 0; j < n; j++) {
+            vars[j] = lp.addVariable("x" + j, type);
+            vars[j].setLowerBound(ZERO);
+            vars[j].setUpperBound(Integer.valueOf(j % 4 + 1));
+            profits[j] = j % 5 + 1;
+        }
+        lp.setObjectiveLinear(lp.createLinear(profits, vars));
+        lp.setObjectiveDirection(LinearProblem.MAXIMIZE);
+        Constraint[] constraints = new Constraint[3];
+        for (int g = 0; g < constraints.length; g++) {
+            constraints[g] = lp.addConstraint("group" + g, new int[] { 2, 3, 4, 3 }, new Variable[] {
+                    vars[4 * g],
+                    vars[4 * g + 1],
+                    vars[4 * g + 2],
+                    vars[4 * g + 3] }, null, Integer.valueOf(7));
+        }
+
+        for (int k = 0; k < 10; k++) {
+            // Modify the problem.
+            vars[(5 * k) % n].setUpperBound(Integer.valueOf(k % 3));
+            constraints[k % 3].setUpperBound(Integer.valueOf(7 + k));
+            if (k == 5) {
+                constraints[1].dispose();
+                constraints[1] = lp.addConstraint("all", profits, vars, null, Integer.valueOf(30));
+            }
+
+            // Solve with and without warm start.
+            assertTrue(solver.solve(lp, warm));
+            double expected = lp.getObjectiveValue().doubleValue();
+            assertTrue(solver.solve(lp, cold));
+            assertEquals(expected, lp.getObjectiveValue().doubleValue(), 0.0001);
+        }
+    }
+
+    /**
+     * Check if the basis saved from a problem may be loaded in a new problem with an additional variable.
+     */
+    @Test
+    public void testSaveBasis_LoadInModifiedProblem_ExpectSameResult() throws IOException {
+        SolverOption option = solver.createSolverOption();
+        if (!(lp instanceof IPersistentLinearProblem) || !(option instanceof IWarmStart)) {
+            return;
+        }
+        ((IWarmStart) option).setWarmStart(true);
+        createSmallProblem();
+        assertTrue(solver.solve(lp, option));
+        File file = File.createTempFile("basis", ".bas");
+        try {
+            ((IPersistentLinearProblem) lp).saveBasis(file);
+            lp.dispose();
+
+            // Create the same problem in a new problem with another variable.
+            lp = solver.createLinearProblem();
+            createSmallProblem();
+            lp.addIntegerVariable("z", ZERO, ONE);
+            ((IPersistentLinearProblem) lp).loadBasis(file);
+            assertTrue(solver.solve(lp, option));
+            assertEquals(60.0, lp.getObjectiveValue().doubleValue(), 0.0001);
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Check if the warm start gives the same result as a cold start for a LP problem.
+     */
+    @Test
+    public void testSolve_WithWarmStartLP_ExpectSameResult() {
+        checkWarmStart(VarType.REAL);
+    }
+
+    /**
+     * Check if the warm start gives the same result as a cold start for a MIP problem.
+     */
+    @Test
+    public void testSolve_WithWarmStartMIP_ExpectSameResult() {
+        checkWarmStart(VarType.INTEGER);
+    }
 }